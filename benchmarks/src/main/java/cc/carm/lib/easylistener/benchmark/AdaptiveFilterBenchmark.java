@@ -0,0 +1,84 @@
+package cc.carm.lib.easylistener.benchmark;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.handler.SingleEventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 测试自动调整判断顺序的条件组的效果。
+ * <br> 条件按“开销高且几乎总是通过”“开销低且几乎总是拒绝”的顺序声明，
+ * 模拟将权限判断写在世界或方块类型判断之前的情况；事件按其值轮换，仅 1% 的事件能通过全部条件。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdaptiveFilterBenchmark {
+
+    public enum Chain {
+        /**
+         * 通过 {@code filter(...)} 按声明顺序判断。
+         */
+        DECLARED,
+        /**
+         * 通过 {@code filterAdaptive(...)} 自动调整判断顺序。
+         */
+        ADAPTIVE
+    }
+
+    @Param
+    public Chain chain;
+
+    /**
+     * 开销较高的条件的耗时，以 {@link Blackhole#consumeCPU(long)} 的单位表示。
+     */
+    @Param({"64"})
+    public long expensiveTokens;
+
+    protected final Plugin plugin = StandInPluginManager.plugin("AdaptiveFilterBenchmark");
+    protected final BenchEvent[] events = new BenchEvent[100];
+    protected int cursor = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        for (int i = 0; i < events.length; i++) events[i] = new BenchEvent(i);
+
+        final long tokens = this.expensiveTokens;
+        Predicate<BenchEvent> expensive = e -> {
+            Blackhole.consumeCPU(tokens);
+            return e.getValue() >= 0;
+        };
+        Predicate<BenchEvent> selective = e -> e.getValue() == 0;
+
+        SingleEventHandler<BenchEvent> handler = EasyListener.create(plugin).handleEvent(BenchEvent.class);
+        if (chain == Chain.ADAPTIVE) {
+            handler.filterAdaptive(expensive, selective);
+        } else {
+            handler.filter(expensive).filter(selective);
+        }
+        handler.handle(BenchEvent::hit);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Benchmark
+    public long dispatch() {
+        BenchEvent event = events[cursor];
+        cursor = (cursor + 1) % events.length;
+        event.reset();
+        StandInPluginManager.callEvent(event);
+        return event.getHits();
+    }
+
+}
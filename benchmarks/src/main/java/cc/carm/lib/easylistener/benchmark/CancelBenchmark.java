@@ -0,0 +1,86 @@
+package cc.carm.lib.easylistener.benchmark;
+
+import cc.carm.lib.easylistener.EasyListener;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测试取消事件的开销，以及事件被取消后后续处理器被跳过的开销。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CancelBenchmark {
+
+    public enum Registration {
+        CANCEL, SINGLE, MULTI, BUNDLE, RAW
+    }
+
+    @Param
+    public Registration registration;
+
+    /**
+     * 取消事件后，仍需分发的忽略已取消事件的处理器数量。
+     */
+    @Param({"0", "10"})
+    public int followers;
+
+    @Param({"false", "true"})
+    public boolean cancelled;
+
+    protected final Plugin plugin = StandInPluginManager.plugin("CancelBenchmark");
+    protected final BenchEvent event = new BenchEvent(1);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        EasyListener listener = EasyListener.create(plugin);
+        final boolean cancel = this.cancelled;
+        switch (registration) {
+            case CANCEL:
+                listener.cancel(BenchEvent.class, EventPriority.LOW, e -> cancel);
+                break;
+            case SINGLE:
+                listener.handleEvent(BenchEvent.class).priority(EventPriority.LOW).filter(e -> cancel).cancel();
+                break;
+            case MULTI:
+                listener.handleEvents(BenchEvent.class).from(BenchEvent.class)
+                        .priority(EventPriority.LOW).filter(e -> cancel).cancel();
+                break;
+            case BUNDLE:
+                listener.handleBundle(BenchEvent.class, BenchEvent.class)
+                        .from(BenchEvent.class, EventPriority.LOW, e -> e)
+                        .filter(e -> cancel).cancel();
+                break;
+            case RAW:
+                BenchEvent.getHandlerList().register(new RegisteredListener(listener, (l, e) -> {
+                    if (cancel) ((BenchEvent) e).setCancelled(true);
+                }, EventPriority.LOW, plugin, true));
+                break;
+        }
+
+        for (int i = 0; i < followers; i++) {
+            listener.handle(BenchEvent.class, EventPriority.HIGH, true, BenchEvent::hit);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Benchmark
+    public long dispatch() {
+        event.reset();
+        StandInPluginManager.callEvent(event);
+        return event.getHits();
+    }
+
+}
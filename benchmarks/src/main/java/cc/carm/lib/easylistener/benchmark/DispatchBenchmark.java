@@ -0,0 +1,134 @@
+package cc.carm.lib.easylistener.benchmark;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.annotation.EasyHandler;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比各注册方式在不同处理器数量下的事件分发开销。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    public enum Registration {
+        HANDLE, SINGLE, MULTI, BUNDLE, EVENT_HANDLER, EASY_HANDLER, RAW
+    }
+
+    @Param({"1", "10", "100"})
+    public int handlers;
+
+    @Param
+    public Registration registration;
+
+    protected final Plugin plugin = StandInPluginManager.plugin("DispatchBenchmark");
+    protected final BenchEvent event = new BenchEvent(1);
+    protected EasyListener listener;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.listener = EasyListener.create(plugin);
+        for (int i = 0; i < handlers; i++) {
+            register(registration);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Benchmark
+    public long dispatch() {
+        event.reset();
+        StandInPluginManager.callEvent(event);
+        return event.getHits();
+    }
+
+    protected void register(Registration registration) throws Exception {
+        switch (registration) {
+            case HANDLE:
+                listener.handle(BenchEvent.class, BenchEvent::hit);
+                break;
+            case SINGLE:
+                listener.handleEvent(BenchEvent.class).handle(BenchEvent::hit);
+                break;
+            case MULTI:
+                listener.handleEvents(BenchEvent.class).from(BenchEvent.class).handle(BenchEvent::hit);
+                break;
+            case BUNDLE:
+                listener.handleBundle(BenchEvent.class, BenchEvent.class)
+                        .from(BenchEvent.class, e -> e)
+                        .handle(BenchEvent::hit);
+                break;
+            case EVENT_HANDLER:
+                registerAnnotated(new AnnotatedListener());
+                break;
+            case EASY_HANDLER:
+                listener.handleAnnotated(new EasyAnnotatedListener());
+                break;
+            case RAW:
+                BenchEvent.getHandlerList().register(new RegisteredListener(
+                        listener, (l, e) -> ((BenchEvent) e).hit(), EventPriority.NORMAL, plugin, false
+                ));
+                break;
+        }
+    }
+
+    /**
+     * 按 JavaPluginLoader 的方式以反射调用注册 {@link EventHandler} 方法。
+     */
+    protected void registerAnnotated(Listener annotated) throws NoSuchMethodException {
+        Method method = annotated.getClass().getDeclaredMethod("onEvent", BenchEvent.class);
+        method.setAccessible(true);
+        EventHandler handler = method.getAnnotation(EventHandler.class);
+        EventExecutor executor = (l, e) -> {
+            try {
+                if (!BenchEvent.class.isAssignableFrom(e.getClass())) return;
+                method.invoke(l, e);
+            } catch (InvocationTargetException ex) {
+                throw new EventException(ex.getCause());
+            } catch (Throwable t) {
+                throw new EventException(t);
+            }
+        };
+        BenchEvent.getHandlerList().register(new RegisteredListener(
+                annotated, executor, handler.priority(), plugin, handler.ignoreCancelled()
+        ));
+    }
+
+    public static class AnnotatedListener implements Listener {
+
+        @EventHandler
+        public void onEvent(BenchEvent event) {
+            event.hit();
+        }
+
+    }
+
+    public static class EasyAnnotatedListener {
+
+        @EasyHandler
+        public void onEvent(BenchEvent event) {
+            event.hit();
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package cc.carm.lib.easylistener.benchmark;
+
+import cc.carm.lib.easylistener.defaults.EventFilters;
+import org.bukkit.World;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.world.WorldEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 对比 {@link EventFilters} 与此前基于 {@link Arrays#stream(Object[])} 和世界名比较的实现。
+ * <br> 用于对比的世界通过动态代理实现，其 getName 调用的开销高于服务端的实现，世界相关的结果应仅作相对参考。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventFiltersBenchmark {
+
+    protected final Predicate<PlayerInteractEvent> legacyAction = legacyInteractAction(
+            Action.LEFT_CLICK_BLOCK, Action.LEFT_CLICK_AIR, Action.PHYSICAL
+    );
+    protected final Predicate<PlayerInteractEvent> currentAction = EventFilters.interactAction(
+            Action.LEFT_CLICK_BLOCK, Action.LEFT_CLICK_AIR, Action.PHYSICAL
+    );
+
+    protected final Predicate<WorldEvent> legacyWorld = legacyWorldOf("world_nether");
+    protected final Predicate<WorldEvent> currentWorld = EventFilters.worldOf("world_nether");
+
+    protected final Predicate<PlayerInteractEvent> legacyChain = legacyAction.and(e -> e.getAction() != null).negate();
+    protected final Predicate<PlayerInteractEvent> currentChain = EventFilters.not(EventFilters.all(
+            currentAction, e -> e.getAction() != null
+    ));
+
+    protected final PlayerInteractEvent[] interacts = Arrays.stream(Action.values())
+            .map(action -> new PlayerInteractEvent(null, action, null, null, null))
+            .toArray(PlayerInteractEvent[]::new);
+
+    protected final WorldEvent[] worlds = new WorldEvent[]{
+            new WorldLoadEvent(world("world")),
+            new WorldLoadEvent(world("world_nether")),
+            new WorldLoadEvent(world("world_the_end"))
+    };
+
+    /**
+     * 依次轮换三个世界的事件，模拟玩家分布于多个世界时的情况，
+     * 此时仅记住最近一次匹配与未匹配世界的实现将在两个未匹配的世界间反复失效。
+     */
+    protected final WorldEvent[] alternating = alternate(worlds, 12);
+
+    @Benchmark
+    public void legacyInteractAction(Blackhole blackhole) {
+        for (PlayerInteractEvent event : interacts) blackhole.consume(legacyAction.test(event));
+    }
+
+    @Benchmark
+    public void interactAction(Blackhole blackhole) {
+        for (PlayerInteractEvent event : interacts) blackhole.consume(currentAction.test(event));
+    }
+
+    @Benchmark
+    public void legacyWorldOf(Blackhole blackhole) {
+        for (WorldEvent event : worlds) blackhole.consume(legacyWorld.test(event));
+    }
+
+    @Benchmark
+    public void worldOf(Blackhole blackhole) {
+        for (WorldEvent event : worlds) blackhole.consume(currentWorld.test(event));
+    }
+
+    @Benchmark
+    public void legacyWorldOfAlternating(Blackhole blackhole) {
+        for (WorldEvent event : alternating) blackhole.consume(legacyWorld.test(event));
+    }
+
+    @Benchmark
+    public void worldOfAlternating(Blackhole blackhole) {
+        for (WorldEvent event : alternating) blackhole.consume(currentWorld.test(event));
+    }
+
+    @Benchmark
+    public void legacyCombined(Blackhole blackhole) {
+        for (PlayerInteractEvent event : interacts) blackhole.consume(legacyChain.test(event));
+    }
+
+    @Benchmark
+    public void combined(Blackhole blackhole) {
+        for (PlayerInteractEvent event : interacts) blackhole.consume(currentChain.test(event));
+    }
+
+    /**
+     * 此前的 {@link EventFilters#interactAction(Action...)} 实现。
+     */
+    protected static Predicate<PlayerInteractEvent> legacyInteractAction(Action... actionType) {
+        return e -> Arrays.stream(actionType).anyMatch(a -> a == e.getAction());
+    }
+
+    /**
+     * 此前的 {@link EventFilters#worldOf(String)} 实现。
+     */
+    protected static Predicate<WorldEvent> legacyWorldOf(String worldName) {
+        return e -> e.getWorld().getName().equals(worldName);
+    }
+
+    protected static WorldEvent[] alternate(WorldEvent[] events, int length) {
+        WorldEvent[] alternating = new WorldEvent[length];
+        for (int i = 0; i < length; i++) alternating[i] = events[i % events.length];
+        return alternating;
+    }
+
+    protected static World world(String name) {
+        return StandInPluginManager.world(name);
+    }
+
+}
@@ -0,0 +1,88 @@
+package cc.carm.lib.easylistener.benchmark;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.export.EventExporter;
+import cc.carm.lib.easylistener.export.ExportPolicy;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 测试将事件记录导出至其他线程的开销，对比 {@link EventExporter} 与通过 {@link ConcurrentLinkedQueue} 手动转交的方式。
+ * <br> 两种方式均由一个后台线程持续消费记录，{@link ConcurrentLinkedQueue} 每条记录将额外创建一个节点。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExportBenchmark {
+
+    public enum Transport {
+        EXPORTER, QUEUE
+    }
+
+    @Param
+    public Transport transport;
+
+    @Param({"DROP_NEWEST", "DROP_OLDEST"})
+    public ExportPolicy policy;
+
+    protected final Plugin plugin = StandInPluginManager.plugin("ExportBenchmark");
+    protected final BenchEvent event = new BenchEvent(1);
+    protected final LongAdder consumed = new LongAdder();
+
+    protected EventExporter<Integer> exporter;
+    protected Thread drainer;
+    protected volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        EasyListener listener = EasyListener.create(plugin);
+        switch (transport) {
+            case EXPORTER: {
+                this.exporter = listener.handleEvent(BenchEvent.class)
+                        .export(BenchEvent::getValue)
+                        .capacity(4096).policy(policy, Duration.ZERO)
+                        .publish();
+                this.exporter.subscribe(value -> consumed.increment());
+                break;
+            }
+            case QUEUE: {
+                ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+                listener.handle(BenchEvent.class, e -> queue.offer(e.getValue()));
+                this.running = true;
+                this.drainer = new Thread(() -> {
+                    while (running) {
+                        if (queue.poll() != null) consumed.increment();
+                        else Thread.yield();
+                    }
+                }, "ExportBenchmark-Drainer");
+                this.drainer.setDaemon(true);
+                this.drainer.start();
+                break;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (this.exporter != null) this.exporter.close();
+        this.running = false;
+        if (this.drainer != null) this.drainer.join();
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Benchmark
+    public long dispatch() {
+        StandInPluginManager.callEvent(event);
+        return event.getHits();
+    }
+
+}
@@ -0,0 +1,56 @@
+package cc.carm.lib.easylistener.benchmark;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.handler.SingleEventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测试不同深度的条件链对事件分发的影响。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    @Param({"0", "1", "4", "16"})
+    public int depth;
+
+    /**
+     * 条件链的最后一个条件是否拒绝事件。
+     */
+    @Param({"false", "true"})
+    public boolean rejectLast;
+
+    protected final Plugin plugin = StandInPluginManager.plugin("FilterChainBenchmark");
+    protected final BenchEvent event = new BenchEvent(1);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SingleEventHandler<BenchEvent> handler = EasyListener.create(plugin).handleEvent(BenchEvent.class);
+        for (int i = 0; i < depth; i++) {
+            final int threshold = (rejectLast && i == depth - 1) ? Integer.MAX_VALUE : i - depth;
+            handler.filter(e -> e.getValue() > threshold);
+        }
+        handler.handle(BenchEvent::hit);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Benchmark
+    public long dispatch() {
+        event.reset();
+        StandInPluginManager.callEvent(event);
+        return event.getHits();
+    }
+
+}
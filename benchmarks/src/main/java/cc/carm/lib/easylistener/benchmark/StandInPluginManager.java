@@ -0,0 +1,95 @@
+package cc.carm.lib.easylistener.benchmark;
+
+import org.bukkit.World;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * 脱离服务端的事件分发器，按 SimplePluginManager#fireEvent 的方式依次调用 {@link RegisteredListener} 。
+ */
+public final class StandInPluginManager {
+
+    private StandInPluginManager() {
+    }
+
+    /**
+     * 创建一个仅提供名称、日志与启用状态的插件实例。
+     *
+     * @param name 插件名称
+     * @return 插件实例
+     */
+    public static @NotNull Plugin plugin(@NotNull String name) {
+        Logger logger = Logger.getLogger(name);
+        return (Plugin) Proxy.newProxyInstance(
+                Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                        case "toString":
+                            return name;
+                        case "getLogger":
+                            return logger;
+                        case "isEnabled":
+                            return true;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+    }
+
+    /**
+     * 创建一个仅提供名称与UID的世界实例。
+     *
+     * @param name 世界名
+     * @return 世界实例
+     */
+    public static @NotNull World world(@NotNull String name) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        return (World) Proxy.newProxyInstance(
+                World.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                        case "toString":
+                            return name;
+                        case "getUID":
+                            return uid;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+    }
+
+    /**
+     * 分发一个事件。
+     *
+     * @param event 事件
+     */
+    public static void callEvent(@NotNull Event event) {
+        for (RegisteredListener registration : event.getHandlers().getRegisteredListeners()) {
+            try {
+                registration.callEvent(event);
+            } catch (EventException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+}
@@ -1,9 +1,20 @@
 package cc.carm.lib.easylistener;
 
+import cc.carm.lib.easylistener.annotation.EasyHandler;
+import cc.carm.lib.easylistener.annotation.ListenerClass;
+import cc.carm.lib.easylistener.executor.EasyEventExecutor;
+import cc.carm.lib.easylistener.executor.FusedEventExecutor;
+import cc.carm.lib.easylistener.executor.GatedEventExecutor;
+import cc.carm.lib.easylistener.executor.MeasuredEventExecutor;
 import cc.carm.lib.easylistener.handler.BundleEventHandler;
+import cc.carm.lib.easylistener.handler.MoveEventHandler;
 import cc.carm.lib.easylistener.handler.MultiEventHandler;
 import cc.carm.lib.easylistener.handler.SingleEventHandler;
-import org.bukkit.Bukkit;
+import cc.carm.lib.easylistener.metrics.HandlerMetrics;
+import cc.carm.lib.easylistener.metrics.ListenerMetrics;
+import cc.carm.lib.easylistener.utils.BlockMove;
+import cc.carm.lib.easylistener.utils.DeferredEffects;
+import cc.carm.lib.easylistener.utils.PlayerEvictions;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.*;
@@ -14,19 +25,95 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * 轻松(做)监听，简单快捷的通用Bukkit插件监听器类库。
+ * <br> 注册与注销处理器的方法均可在任意线程中调用，已注册的处理器总是被安全地发布给事件线程。
+ * <br> 在区域多线程的服务端(如 Folia)上，同一事件可能同时在多个线程中分发，
+ * 此时应开启 {@link #concurrent(boolean)} ，使各处理器内部的状态(如采样计数、批量缓冲与区域索引)以线程安全的方式维护。
+ * 处理方法自身的状态可借助 {@link cc.carm.lib.easylistener.utils.KeyedCounter} 、
+ * {@link cc.carm.lib.easylistener.utils.StripedMap} 与 {@link cc.carm.lib.easylistener.utils.ThreadConfined} 维护。
  *
  * @author CarmJos
  */
 public class EasyListener implements Listener {
 
+    /**
+     * 各事件类对应的 {@link HandlerList} 缓存。
+     * <br> 每个事件类仅在首次注册时通过反射解析一次，之后均直接从缓存中读取。
+     */
+    protected static final ClassValue<HandlerList> HANDLER_LISTS = new ClassValue<HandlerList>() {
+        @Override
+        protected HandlerList computeValue(Class<?> type) {
+            return resolveEventListeners(type.asSubclass(Event.class));
+        }
+    };
+
+    /**
+     * 每个 {@link HandlerList} 中合并执行器的数量，即各优先级与 ignoreCancelled 的组合数量。
+     */
+    protected static final int DISPATCHER_SLOTS = EventPriority.values().length * 2;
+
+    /**
+     * 当前服务端是否为区域多线程的服务端(如 Folia)。
+     */
+    public static final boolean REGION_THREADED = isRegionThreaded();
+
     protected final Plugin plugin;
+    protected final ListenerMetrics metrics = new ListenerMetrics();
+
+    /**
+     * 同一事件是否可能同时在多个线程中分发，默认在区域多线程的服务端上开启。
+     */
+    protected volatile boolean concurrent = REGION_THREADED;
+
+    /**
+     * 批量注册期间暂存的监听器，按 {@link HandlerList} 分组。
+     * <br> 为 null 时表示当前不处于批量注册中。
+     */
+    protected @Nullable Map<HandlerList, List<RegisteredListener>> pendingListeners;
+
+    /**
+     * 各 {@link HandlerList} 中已注册的合并执行器，按 {@link #getDispatcherSlot(EventPriority, boolean)} 存放。
+     */
+    protected final Map<HandlerList, Dispatcher[]> dispatchers = new HashMap<>();
+
+    /**
+     * 正在通过 {@link #collect(Consumer)} 收集的处理器。
+     * <br> 为 null 时表示当前不处于收集中。
+     */
+    protected @Nullable List<Subscription> collecting;
+
+    /**
+     * 各优先级共用的 {@link MoveEventHandler} ，在首次使用时创建。
+     */
+    protected final Map<EventPriority, MoveEventHandler> moveHandlers = new EnumMap<>(EventPriority.class);
+
+    /**
+     * 已创建的 {@link HandlerGroup} ，按名称存放。
+     */
+    protected final Map<String, HandlerGroup> groups = new LinkedHashMap<>();
+
+    /**
+     * 正在通过 {@link HandlerGroup#register(Consumer)} 注册处理器的组，由外至内排列。
+     * <br> 此时注册的处理器将受其中每个组的暂停控制。
+     */
+    protected final List<HandlerGroup> grouping = new ArrayList<>();
+
+    /**
+     * 本监听器共用的 {@link DeferredEffects} ，在首次使用时创建。
+     */
+    protected @Nullable DeferredEffects deferred;
+
+    /**
+     * 本监听器共用的 {@link PlayerEvictions} ，在首次使用时创建。
+     */
+    protected @Nullable PlayerEvictions evictions;
 
     public EasyListener(Plugin plugin) {
         this.plugin = plugin;
@@ -42,12 +129,296 @@ public class EasyListener implements Listener {
         return new EasyListener(plugin);
     }
 
+    /**
+     * 设定同一事件是否可能同时在多个线程中分发。
+     * <br> 开启后，之后创建的处理器将以线程安全的方式维护其内部状态，如按线程计数的采样、加锁的批量缓冲与区域索引等；
+     * 关闭时则假定事件仅在单个线程中分发，以免除同步的开销。
+     * <br> 在区域多线程的服务端(如 Folia)上默认开启，应在注册处理器前设定。
+     *
+     * @param concurrent 是否可能同时在多个线程中分发
+     * @return 本实例
+     */
+    public EasyListener concurrent(boolean concurrent) {
+        this.concurrent = concurrent;
+        return this;
+    }
+
+    /**
+     * @return 同一事件是否可能同时在多个线程中分发
+     * @see #concurrent(boolean)
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
     /**
      * 注销本监听器内的全部监听器。
      * <br> 也可以通过 {@link HandlerList#unregister(Listener)} 方法注销本监听器。
      */
-    public void unregisterAll() {
+    public synchronized void unregisterAll() {
         HandlerList.unregisterAll(this);
+        for (Dispatcher[] slots : this.dispatchers.values()) {
+            for (Dispatcher dispatcher : slots) {
+                if (dispatcher != null) dispatcher.executor.clear();
+            }
+        }
+        this.dispatchers.clear();
+        this.moveHandlers.clear();
+        if (this.deferred != null) this.deferred.unsubscribe();
+        this.deferred = null;
+        if (this.evictions != null) this.evictions.clear();
+        this.evictions = null;
+        this.metrics.clear();
+    }
+
+    /**
+     * 批量注册监听器。
+     * <br> 在给定方法内注册的全部监听器将被暂存，并在方法执行完毕后按 {@link HandlerList} 一次性注册。
+     * <br> 若方法执行过程中抛出异常，则本次批量注册的全部监听器都将被丢弃。
+     * <br> 嵌套调用时，内部的注册将直接并入外层的批次。
+     *
+     * @param registrations 注册监听器的方法
+     * @return 本实例
+     */
+    public synchronized EasyListener batch(@NotNull Consumer<EasyListener> registrations) {
+        if (this.pendingListeners != null) {
+            registrations.accept(this);
+            return this;
+        }
+
+        Map<HandlerList, List<RegisteredListener>> pending = new LinkedHashMap<>();
+        this.pendingListeners = pending;
+        try {
+            collect(registrations);
+        } finally {
+            this.pendingListeners = null;
+        }
+
+        pending.forEach(HandlerList::registerAll);
+        return this;
+    }
+
+    /**
+     * 收集给定方法内注册的全部处理器，以便之后通过 {@link SubscriptionGroup#unsubscribe()} 一次性注销。
+     * <br> 嵌套调用时，内部收集到的处理器同样属于外层的收集结果。
+     * <br> 若方法执行过程中抛出异常，则已注册的处理器将被注销。
+     *
+     * @param registrations 注册处理器的方法
+     * @return 收集到的处理器
+     */
+    public synchronized @NotNull SubscriptionGroup collect(@NotNull Consumer<EasyListener> registrations) {
+        List<Subscription> outer = this.collecting;
+        List<Subscription> collected = new ArrayList<>();
+        this.collecting = collected;
+        try {
+            registrations.accept(this);
+        } catch (RuntimeException | Error ex) {
+            new SubscriptionGroup().addAll(collected).unsubscribe();
+            throw ex;
+        } finally {
+            this.collecting = outer;
+        }
+
+        if (outer != null) outer.addAll(collected);
+        return new SubscriptionGroup().addAll(collected);
+    }
+
+    /**
+     * 将处理器所附带的资源(如定时任务)加入当前正在通过 {@link #collect(Consumer)} 收集的处理器中，
+     * 以便其随收集结果一同注销；当前不处于收集中时不作任何处理。
+     *
+     * @param subscription 附带的资源
+     * @param <S>          资源的类型
+     * @return 给定的资源
+     */
+    public synchronized <S extends Subscription> @NotNull S track(@NotNull S subscription) {
+        if (this.collecting != null) this.collecting.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * 按当前正在注册的 {@link HandlerGroup} 包装处理方法，使其在任一所属的组暂停时不执行；
+     * 当前不处于任何组中时返回原处理方法。
+     * <br> 用于由共用的处理器(如 {@link MoveEventHandler})分发的单个处理方法，这些处理方法不会注册自己的执行器，
+     * 因此无法由 {@link GatedEventExecutor} 控制。
+     *
+     * @param consumer 处理方法
+     * @param <T>      处理的对象类型
+     * @return 包装后的处理方法
+     */
+    public synchronized <T> @NotNull Consumer<T> gate(@NotNull Consumer<T> consumer) {
+        if (this.grouping.isEmpty()) return consumer;
+        final HandlerGroup[] groups = this.grouping.toArray(new HandlerGroup[0]);
+        return t -> {
+            for (HandlerGroup group : groups) {
+                if (group.isPaused()) return;
+            }
+            consumer.accept(t);
+        };
+    }
+
+    /**
+     * 获取本监听器共用的 {@link DeferredEffects} ，用于将消息、音效等副作用延迟至刻末统一执行。
+     * <br> 同一玩家的相同副作用每刻仅执行一次，且每刻执行的数量有上限，详见 {@link DeferredEffects} 。
+     *
+     * @return {@link DeferredEffects} 实例
+     */
+    public synchronized @NotNull DeferredEffects defer() {
+        if (this.deferred == null || !this.deferred.isActive()) this.deferred = DeferredEffects.create(this);
+        return this.deferred;
+    }
+
+    /**
+     * 获取本监听器共用的 {@link PlayerEvictions} ，用于在玩家退出或切换世界时清除按玩家记录的数据。
+     * <br> 全部记录共用同一个退出监听与切换世界监听，详见 {@link PlayerEvictions} 。
+     *
+     * @return {@link PlayerEvictions} 实例
+     */
+    public synchronized @NotNull PlayerEvictions evictions() {
+        if (this.evictions == null) this.evictions = new PlayerEvictions(this);
+        return this.evictions;
+    }
+
+    /**
+     * 注册给定对象中全部带有 {@link EasyHandler} 注解的方法。
+     * <br> 方法将被绑定为直接调用，而非通过反射调用；每个类的元数据仅在首次注册时扫描一次，详见 {@link ListenerClass} 。
+     *
+     * @param listener 监听器对象
+     * @return 当前实例
+     * @throws IllegalArgumentException 对象中的 {@link EasyHandler} 方法或其条件不符合要求
+     */
+    public EasyListener handleAnnotated(@NotNull Object listener) {
+        subscribeAnnotated(listener);
+        return this;
+    }
+
+    /**
+     * 注册给定对象中全部带有 {@link EasyHandler} 注解的方法，并返回可一次性注销这些处理器的 {@link SubscriptionGroup} 。
+     *
+     * @param listener 监听器对象
+     * @return 注册的处理器
+     * @throws IllegalArgumentException 对象中的 {@link EasyHandler} 方法或其条件不符合要求
+     * @see #handleAnnotated(Object)
+     */
+    public @NotNull SubscriptionGroup subscribeAnnotated(@NotNull Object listener) {
+        ListenerClass type = ListenerClass.of(listener.getClass());
+        return collect(source -> source.batch(batch -> type.register(batch, listener)));
+    }
+
+    /**
+     * 获取给定名称的 {@link HandlerGroup} ，不存在时将创建新的组。
+     * <br> 组内的处理器可通过 {@link HandlerGroup#pause()} 与 {@link HandlerGroup#resume()} 整体暂停与恢复，
+     * 切换时不会注册或注销任何处理器。
+     *
+     * @param name 组的名称
+     * @return {@link HandlerGroup} 实例
+     */
+    public synchronized @NotNull HandlerGroup group(@NotNull String name) {
+        return this.groups.computeIfAbsent(name, n -> new HandlerGroup(this, n));
+    }
+
+    /**
+     * 获取全部已创建的 {@link HandlerGroup} 。
+     *
+     * @return 不可修改的组列表
+     */
+    public synchronized @NotNull Collection<HandlerGroup> getGroups() {
+        return Collections.unmodifiableList(new ArrayList<>(this.groups.values()));
+    }
+
+    /**
+     * 将给定方法内注册的全部处理器加入给定的组。
+     *
+     * @param group         {@link HandlerGroup} 组
+     * @param registrations 注册处理器的方法
+     */
+    protected synchronized void register(@NotNull HandlerGroup group, @NotNull Consumer<EasyListener> registrations) {
+        this.grouping.add(group);
+        try {
+            group.add(collect(registrations));
+        } finally {
+            this.grouping.remove(this.grouping.size() - 1);
+        }
+    }
+
+    /**
+     * 注册由多处共用的处理器，如 {@link MoveEventHandler} 。
+     * <br> 给定方法内注册的处理器不属于当前正在收集的处理器，也不受当前 {@link HandlerGroup} 的暂停控制，
+     * 以免共用的处理器随某一处的注销或暂停而失效。
+     *
+     * @param registration 注册处理器的方法
+     * @param <R>          返回值的类型
+     * @return 给定方法的返回值
+     */
+    public synchronized <R> R shared(@NotNull Supplier<R> registration) {
+        List<Subscription> outer = this.collecting;
+        List<HandlerGroup> groups = new ArrayList<>(this.grouping);
+        this.collecting = null;
+        this.grouping.clear();
+        try {
+            return registration.get();
+        } finally {
+            this.collecting = outer;
+            this.grouping.addAll(groups);
+        }
+    }
+
+    /**
+     * 创建一组可热重载的处理器，组内的处理器在处理事件时将使用当前的快照。
+     * <br> 重载时仅替换快照，不会重新注册处理器，详见 {@link ReloadableGroup} 。
+     *
+     * @param snapshot 初始的快照
+     * @param <S>      快照的类型
+     * @return {@link ReloadableGroup} 实例
+     */
+    public <S> @NotNull ReloadableGroup<S> reloadable(@NotNull S snapshot) {
+        return new ReloadableGroup<>(this, snapshot);
+    }
+
+    /**
+     * 获取以 {@link EventPriority#NORMAL} 处理移动的 {@link MoveEventHandler} 。
+     *
+     * @return {@link MoveEventHandler} 实例
+     * @see #moves(EventPriority)
+     */
+    public @NotNull MoveEventHandler moves() {
+        return moves(EventPriority.NORMAL);
+    }
+
+    /**
+     * 获取以给定优先级处理移动的 {@link MoveEventHandler} 。
+     * <br> 同一优先级的全部订阅者共用一个处理器，每个移动事件仅计算一次方块与区块坐标，
+     * 且仅在跨越方块或区块边界时交由订阅者处理。
+     *
+     * @param priority {@link EventPriority} 事件处理优先级
+     * @return {@link MoveEventHandler} 实例
+     */
+    public synchronized @NotNull MoveEventHandler moves(@NotNull EventPriority priority) {
+        return this.moveHandlers.computeIfAbsent(priority, p -> new MoveEventHandler(this, p));
+    }
+
+    /**
+     * 处理跨越方块边界的移动。
+     *
+     * @param consumer 处理方法
+     * @return 当前实例
+     * @see MoveEventHandler#onBlock(Consumer)
+     */
+    public EasyListener handleBlockMoves(@NotNull Consumer<? super BlockMove> consumer) {
+        moves().onBlock(consumer);
+        return this;
+    }
+
+    /**
+     * 处理跨越区块边界(或切换世界)的移动。
+     *
+     * @param consumer 处理方法
+     * @return 当前实例
+     * @see MoveEventHandler#onChunk(Consumer)
+     */
+    public EasyListener handleChunkMoves(@NotNull Consumer<? super BlockMove> consumer) {
+        moves().onChunk(consumer);
+        return this;
     }
 
     /**
@@ -115,10 +486,87 @@ public class EasyListener implements Listener {
     public <T extends Event> EasyListener handle(@NotNull Class<T> eventClass,
                                                  @Nullable EventPriority priority, boolean ignoreCancelled,
                                                  @NotNull Consumer<T> eventConsumer) {
-        register(eventClass, eventConsumer, Optional.ofNullable(priority).orElse(EventPriority.NORMAL), ignoreCancelled);
+        return handle(eventClass, priority, ignoreCancelled, null, eventConsumer);
+    }
+
+    /**
+     * 有条件地处理一个事件。
+     * <br> 条件与处理方法将在注册时固定为一个执行器，处理事件时不再产生额外的对象。
+     *
+     * @param eventClass      {@link Event} 事件类
+     * @param priority        {@link EventPriority} 事件处理优先级
+     * @param ignoreCancelled 是否忽略掉已经被取消的事件
+     * @param eventPredicate  判断事件是否需要处理的条件，为 null 则处理全部事件
+     * @param eventConsumer   处理方法
+     * @param <T>             {@link Event} 事件的类型
+     * @return 本实例
+     */
+    public <T extends Event> EasyListener handle(@NotNull Class<T> eventClass,
+                                                 @Nullable EventPriority priority, boolean ignoreCancelled,
+                                                 @Nullable Predicate<? super T> eventPredicate,
+                                                 @NotNull Consumer<? super T> eventConsumer) {
+        return handle(eventClass, priority, ignoreCancelled, null, eventPredicate, eventConsumer);
+    }
+
+    /**
+     * 有条件地处理一个事件，并为该处理器命名。
+     * <br> 处理器名称将用于 {@link #metrics()} 中的统计数据，未指定时使用注册位置。
+     *
+     * @param eventClass      {@link Event} 事件类
+     * @param priority        {@link EventPriority} 事件处理优先级
+     * @param ignoreCancelled 是否忽略掉已经被取消的事件
+     * @param name            处理器名称，可以为 null
+     * @param eventPredicate  判断事件是否需要处理的条件，为 null 则处理全部事件
+     * @param eventConsumer   处理方法
+     * @param <T>             {@link Event} 事件的类型
+     * @return 本实例
+     */
+    public <T extends Event> EasyListener handle(@NotNull Class<T> eventClass,
+                                                 @Nullable EventPriority priority, boolean ignoreCancelled,
+                                                 @Nullable String name,
+                                                 @Nullable Predicate<? super T> eventPredicate,
+                                                 @NotNull Consumer<? super T> eventConsumer) {
+        subscribe(eventClass, priority, ignoreCancelled, name, eventPredicate, eventConsumer);
         return this;
     }
 
+    /**
+     * 处理一个事件，并返回可单独注销的 {@link Subscription} 。
+     *
+     * @param eventClass    {@link Event} 事件类
+     * @param eventConsumer 处理方法
+     * @param <T>           {@link Event} 事件的类型
+     * @return {@link Subscription} 实例
+     */
+    public <T extends Event> @NotNull Subscription subscribe(@NotNull Class<T> eventClass,
+                                                             @NotNull Consumer<? super T> eventConsumer) {
+        return subscribe(eventClass, null, false, null, null, eventConsumer);
+    }
+
+    /**
+     * 有条件地处理一个事件，并返回可单独注销的 {@link Subscription} 。
+     * <br> 如需同时注销多个处理器，请使用 {@link #collect(Consumer)} 。
+     *
+     * @param eventClass      {@link Event} 事件类
+     * @param priority        {@link EventPriority} 事件处理优先级
+     * @param ignoreCancelled 是否忽略掉已经被取消的事件
+     * @param name            处理器名称，可以为 null
+     * @param eventPredicate  判断事件是否需要处理的条件，为 null 则处理全部事件
+     * @param eventConsumer   处理方法
+     * @param <T>             {@link Event} 事件的类型
+     * @return {@link Subscription} 实例
+     */
+    public <T extends Event> @NotNull Subscription subscribe(@NotNull Class<T> eventClass,
+                                                             @Nullable EventPriority priority, boolean ignoreCancelled,
+                                                             @Nullable String name,
+                                                             @Nullable Predicate<? super T> eventPredicate,
+                                                             @NotNull Consumer<? super T> eventConsumer) {
+        return register(
+                eventClass, name, eventPredicate, eventConsumer,
+                Optional.ofNullable(priority).orElse(EventPriority.NORMAL), ignoreCancelled
+        );
+    }
+
     /**
      * 有条件地取消一个事件。
      * <br> 本方法在条件满足时对事件进行取消，不会改变事件取消的状态。
@@ -136,16 +584,41 @@ public class EasyListener implements Listener {
                                                  @Nullable EventPriority priority,
                                                  @Nullable Predicate<? super T> eventPredicate,
                                                  @Nullable Consumer<? super T> afterCancelled) {
+        return cancel(eventClass, priority, null, eventPredicate, afterCancelled);
+    }
+
+    /**
+     * 有条件地取消一个事件，并为该处理器命名。
+     * <br> 处理器名称将用于 {@link #metrics()} 中的统计数据，未指定时使用注册位置。
+     *
+     * @param eventClass     {@link Event} 事件类
+     * @param priority       {@link EventPriority} 事件处理优先级
+     * @param name           处理器名称，可以为 null
+     * @param eventPredicate 判断事件是否可以取消的条件
+     * @param afterCancelled 当事件被取消后执行的方法
+     * @param <T>            {@link Event} 事件的类型，必须实现 {@link Cancellable} 。
+     * @return 本实例
+     * @throws IllegalArgumentException 如果事件没有实现 {@link Cancellable} 则抛出此异常
+     */
+    public <T extends Event> EasyListener cancel(@NotNull Class<T> eventClass,
+                                                 @Nullable EventPriority priority,
+                                                 @Nullable String name,
+                                                 @Nullable Predicate<? super T> eventPredicate,
+                                                 @Nullable Consumer<? super T> afterCancelled) {
         if (!Cancellable.class.isAssignableFrom(eventClass)) {
             throw new IllegalArgumentException("Event class " + eventClass.getName() + " is not cancellable");
         }
 
-        final Predicate<? super T> predicate = Optional.ofNullable(eventPredicate).orElse(t -> true);
-        return handle(eventClass, priority, true, (event) -> {
-            if (predicate.test(event)) {
-                ((Cancellable) event).setCancelled(true);
-                if (afterCancelled != null) afterCancelled.accept(event);
-            }
+        if (afterCancelled == null) {
+            return handle(
+                    eventClass, priority, true, name, eventPredicate,
+                    (event) -> ((Cancellable) event).setCancelled(true)
+            );
+        }
+
+        return handle(eventClass, priority, true, name, eventPredicate, (event) -> {
+            ((Cancellable) event).setCancelled(true);
+            afterCancelled.accept(event);
         });
     }
 
@@ -241,19 +714,50 @@ public class EasyListener implements Listener {
     }
 
     /**
-     * 通过 {@link SimplePluginManager} 获取到一个事件类的 {@link HandlerList} 。
+     * 获取本监听器内各处理器的统计数据。
+     * <br> 统计默认关闭，需在注册处理器前通过 {@link ListenerMetrics#enable()} 开启。
+     *
+     * @return {@link ListenerMetrics} 统计数据
+     */
+    public @NotNull ListenerMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * 获取到一个事件类的 {@link HandlerList} 。
+     * <br> 解析结果将按事件类缓存，后续获取不再进行反射调用。
      *
      * @param eventClass 事件类
      * @return 事件类的 {@link HandlerList}
+     * @throws IllegalPluginAccessException 如果事件类及其父类均未声明静态的 getHandlerList 方法
      */
-    private @NotNull HandlerList getEventListeners(@NotNull Class<? extends Event> eventClass) {
-        try {
-            Method method = SimplePluginManager.class.getDeclaredMethod("getEventListeners", Class.class);
-            method.setAccessible(true);
-            return (HandlerList) method.invoke(Bukkit.getPluginManager(), eventClass);
-        } catch (Exception e) {
-            throw new IllegalPluginAccessException(e.toString());
+    protected static @NotNull HandlerList getEventListeners(@NotNull Class<? extends Event> eventClass) {
+        return HANDLER_LISTS.get(eventClass);
+    }
+
+    /**
+     * 按照 {@link SimplePluginManager} 的规则解析一个事件类的 {@link HandlerList} 。
+     * <br> 即向上查找首个声明了静态 getHandlerList 方法的事件类，并调用该方法。
+     *
+     * @param eventClass 事件类
+     * @return 事件类的 {@link HandlerList}
+     */
+    private static @NotNull HandlerList resolveEventListeners(@NotNull Class<? extends Event> eventClass) {
+        Class<?> clazz = eventClass;
+        while (clazz != null && Event.class.isAssignableFrom(clazz) && clazz != Event.class) {
+            try {
+                Method method = clazz.getDeclaredMethod("getHandlerList");
+                method.setAccessible(true);
+                return (HandlerList) method.invoke(null);
+            } catch (NoSuchMethodException ignored) {
+                clazz = clazz.getSuperclass();
+            } catch (Exception e) {
+                throw new IllegalPluginAccessException(e.toString());
+            }
         }
+        throw new IllegalPluginAccessException(
+                "Unable to find handler list for event " + eventClass.getName() + ". Static getHandlerList method required!"
+        );
     }
 
     /**
@@ -265,29 +769,254 @@ public class EasyListener implements Listener {
      * @return 事件的执行器实例
      */
     protected <T extends Event> EventExecutor createExecutor(@NotNull Class<T> eventClass,
-                                                             @NotNull Consumer<T> eventConsumer) {
-        return (listener, event) -> {
-            try {
-                if (!eventClass.isAssignableFrom(event.getClass())) return;
-                eventConsumer.accept(eventClass.cast(event));
-            } catch (Throwable t) {
-                throw new EventException(t);
-            }
-        };
+                                                             @NotNull Consumer<? super T> eventConsumer) {
+        return createExecutor(eventClass, null, eventConsumer);
+    }
+
+    /**
+     * 创建一个有条件的事件执行器实例。
+     *
+     * @param eventClass     事件类
+     * @param eventPredicate 判断事件是否需要处理的条件，为 null 则处理全部事件
+     * @param eventConsumer  事件执行内容
+     * @param <T>            事件类型
+     * @return 事件的执行器实例
+     */
+    protected <T extends Event> EventExecutor createExecutor(@NotNull Class<T> eventClass,
+                                                             @Nullable Predicate<? super T> eventPredicate,
+                                                             @NotNull Consumer<? super T> eventConsumer) {
+        return createExecutor(eventClass, null, eventPredicate, eventConsumer);
+    }
+
+    /**
+     * 创建一个有条件的事件执行器实例。
+     * <br> 若已开启统计，将创建记录统计数据的执行器。
+     *
+     * @param eventClass     事件类
+     * @param name           处理器名称，可以为 null
+     * @param eventPredicate 判断事件是否需要处理的条件，为 null 则处理全部事件
+     * @param eventConsumer  事件执行内容
+     * @param <T>            事件类型
+     * @return 事件的执行器实例
+     */
+    protected <T extends Event> EventExecutor createExecutor(@NotNull Class<T> eventClass, @Nullable String name,
+                                                             @Nullable Predicate<? super T> eventPredicate,
+                                                             @NotNull Consumer<? super T> eventConsumer) {
+        HandlerMetrics handlerMetrics = metrics().create(name, eventClass);
+        if (handlerMetrics == null) return EasyEventExecutor.create(eventClass, eventPredicate, eventConsumer);
+        else return new MeasuredEventExecutor<>(eventClass, handlerMetrics, eventPredicate, eventConsumer);
     }
 
     protected void register(@NotNull Class<? extends Event> eventClass, @NotNull RegisteredListener listener) {
-        getEventListeners(eventClass).register(listener);
+        HandlerList handlers = getEventListeners(eventClass);
+        if (this.pendingListeners != null) {
+            this.pendingListeners.computeIfAbsent(handlers, k -> new ArrayList<>()).add(listener);
+        } else {
+            handlers.register(listener);
+        }
+    }
+
+    /**
+     * 注册一个事件执行器。
+     * <br> 执行器将并入该事件 {@link HandlerList} 中相同优先级与 ignoreCancelled 的 {@link FusedEventExecutor} ，
+     * 仅当不存在对应的合并执行器时才会向 {@link HandlerList} 注册新的 {@link RegisteredListener} 。
+     * <br> 若正在为 {@link HandlerGroup} 注册处理器，执行器将由 {@link GatedEventExecutor} 包装。
+     *
+     * @param eventClass      事件类
+     * @param executor        事件执行器
+     * @param priority        事件处理优先级
+     * @param ignoreCancelled 是否忽略掉已经被取消的事件
+     */
+    protected synchronized Registration register(@NotNull Class<? extends Event> eventClass,
+                                                 @NotNull EventExecutor executor,
+                                                 @NotNull EventPriority priority, boolean ignoreCancelled) {
+        for (int i = this.grouping.size() - 1; i >= 0; i--) {
+            executor = new GatedEventExecutor(this.grouping.get(i), executor);
+        }
+
+        Dispatcher dispatcher = getDispatcher(eventClass, priority, ignoreCancelled);
+        dispatcher.executor.add(executor);
+
+        Registration registration = new Registration(this, dispatcher, executor);
+        if (this.collecting != null) this.collecting.add(registration);
+        return registration;
+    }
+
+    /**
+     * 批量注销处理器。
+     * <br> 每个合并执行器仅更新一次，不再包含任何处理器的合并执行器将从 {@link HandlerList} 中注销。
+     * <br> 处理器的统计数据将从 {@link #metrics()} 中移除。
+     *
+     * @param registrations 需要注销的处理器
+     */
+    protected synchronized void unsubscribe(@NotNull Collection<Registration> registrations) {
+        Map<Dispatcher, List<EventExecutor>> removed = new LinkedHashMap<>();
+        for (Registration registration : registrations) {
+            removed.computeIfAbsent(registration.dispatcher, k -> new ArrayList<>()).add(registration.executor);
+
+            HandlerMetrics handlerMetrics = getMetrics(registration.executor);
+            if (handlerMetrics != null) this.metrics.remove(handlerMetrics);
+        }
+
+        removed.forEach((dispatcher, executors) -> {
+            if (dispatcher.executor.removeAll(executors) > 0) return;
+
+            Dispatcher[] slots = this.dispatchers.get(dispatcher.handlers);
+            if (slots != null && slots[dispatcher.slot] == dispatcher) slots[dispatcher.slot] = null;
+
+            dispatcher.handlers.unregister(dispatcher.registration);
+            if (this.pendingListeners != null) {
+                List<RegisteredListener> pending = this.pendingListeners.get(dispatcher.handlers);
+                if (pending != null) pending.remove(dispatcher.registration);
+            }
+        });
+    }
+
+    /**
+     * @param executor 已注册的执行器
+     * @return 执行器记录的统计数据，未记录统计数据时返回 null
+     */
+    protected static @Nullable HandlerMetrics getMetrics(@NotNull EventExecutor executor) {
+        while (executor instanceof GatedEventExecutor) {
+            executor = ((GatedEventExecutor) executor).getDelegate();
+        }
+        return executor instanceof MeasuredEventExecutor ? ((MeasuredEventExecutor<?>) executor).getMetrics() : null;
+    }
+
+    /**
+     * 获取一个事件类对应的合并执行器，不存在时将创建并注册。
+     * <br> 若合并执行器已被外部通过 {@link HandlerList#unregister(Listener)} 等方法注销，也将重新创建。
+     *
+     * @param eventClass      事件类
+     * @param priority        事件处理优先级
+     * @param ignoreCancelled 是否忽略掉已经被取消的事件
+     * @return 合并执行器
+     */
+    protected synchronized @NotNull Dispatcher getDispatcher(@NotNull Class<? extends Event> eventClass,
+                                                             @NotNull EventPriority priority, boolean ignoreCancelled) {
+        HandlerList handlers = getEventListeners(eventClass);
+        Dispatcher[] slots = this.dispatchers.computeIfAbsent(handlers, k -> new Dispatcher[DISPATCHER_SLOTS]);
+        int slot = getDispatcherSlot(priority, ignoreCancelled);
+
+        Dispatcher dispatcher = slots[slot];
+        if (dispatcher != null && isRegistered(handlers, dispatcher.registration)) return dispatcher;
+
+        FusedEventExecutor executor = new FusedEventExecutor(getPlugin(), ignoreCancelled);
+        RegisteredListener registration = new RegisteredListener(this, executor, priority, getPlugin(), ignoreCancelled);
+        dispatcher = new Dispatcher(handlers, slot, registration, executor);
+        slots[slot] = dispatcher;
+        register(eventClass, dispatcher.registration);
+        return dispatcher;
+    }
+
+    /**
+     * 判断一个 {@link RegisteredListener} 是否已注册(或正在批量注册中)。
+     *
+     * @param handlers {@link HandlerList}
+     * @param listener {@link RegisteredListener}
+     * @return 是否已注册
+     */
+    protected boolean isRegistered(@NotNull HandlerList handlers, @NotNull RegisteredListener listener) {
+        if (this.pendingListeners != null) {
+            List<RegisteredListener> pending = this.pendingListeners.get(handlers);
+            if (pending != null && pending.contains(listener)) return true;
+        }
+        for (RegisteredListener registered : handlers.getRegisteredListeners()) {
+            if (registered == listener) return true;
+        }
+        return false;
+    }
+
+    private static boolean isRegionThreaded() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException ex) {
+            return false;
+        }
+    }
+
+    protected static int getDispatcherSlot(@NotNull EventPriority priority, boolean ignoreCancelled) {
+        return priority.ordinal() * 2 + (ignoreCancelled ? 1 : 0);
+    }
+
+    /**
+     * 已注册的合并执行器及其 {@link RegisteredListener} 。
+     */
+    protected static class Dispatcher {
+
+        protected final @NotNull HandlerList handlers;
+        protected final int slot;
+        protected final @NotNull RegisteredListener registration;
+        protected final @NotNull FusedEventExecutor executor;
+
+        protected Dispatcher(@NotNull HandlerList handlers, int slot,
+                             @NotNull RegisteredListener registration, @NotNull FusedEventExecutor executor) {
+            this.handlers = handlers;
+            this.slot = slot;
+            this.registration = registration;
+            this.executor = executor;
+        }
+
+    }
+
+    /**
+     * 已注册的单个处理器。
+     */
+    public static class Registration implements Subscription {
+
+        protected final @NotNull EasyListener listener;
+        protected final @NotNull Dispatcher dispatcher;
+        protected final @NotNull EventExecutor executor;
+
+        protected Registration(@NotNull EasyListener listener,
+                               @NotNull Dispatcher dispatcher, @NotNull EventExecutor executor) {
+            this.listener = listener;
+            this.dispatcher = dispatcher;
+            this.executor = executor;
+        }
+
+        public @NotNull EasyListener getListener() {
+            return listener;
+        }
+
+        public @NotNull EventExecutor getExecutor() {
+            return executor;
+        }
+
+        @Override
+        public void unsubscribe() {
+            this.listener.unsubscribe(Collections.singletonList(this));
+        }
+
+        @Override
+        public boolean isActive() {
+            return this.dispatcher.executor.contains(this.executor);
+        }
+
+    }
+
+    protected <T extends Event> Registration register(@NotNull Class<T> eventClass,
+                                                      @NotNull Consumer<? super T> eventConsumer,
+                                                      @NotNull EventPriority priority, boolean ignoreCancelled) {
+        return register(eventClass, null, eventConsumer, priority, ignoreCancelled);
     }
 
-    protected void register(@NotNull Class<? extends Event> eventClass, @NotNull EventExecutor executor,
-                            @NotNull EventPriority priority, boolean ignoreCancelled) {
-        register(eventClass, new RegisteredListener(this, executor, priority, getPlugin(), ignoreCancelled));
+    protected <T extends Event> Registration register(@NotNull Class<T> eventClass,
+                                                      @Nullable Predicate<? super T> eventPredicate,
+                                                      @NotNull Consumer<? super T> eventConsumer,
+                                                      @NotNull EventPriority priority, boolean ignoreCancelled) {
+        return register(eventClass, null, eventPredicate, eventConsumer, priority, ignoreCancelled);
     }
 
-    protected <T extends Event> void register(@NotNull Class<T> eventClass, @NotNull Consumer<T> eventConsumer,
-                                              @NotNull EventPriority priority, boolean ignoreCancelled) {
-        register(eventClass, createExecutor(eventClass, eventConsumer), priority, ignoreCancelled);
+    protected <T extends Event> Registration register(@NotNull Class<T> eventClass, @Nullable String name,
+                                                      @Nullable Predicate<? super T> eventPredicate,
+                                                      @NotNull Consumer<? super T> eventConsumer,
+                                                      @NotNull EventPriority priority, boolean ignoreCancelled) {
+        return register(
+                eventClass, createExecutor(eventClass, name, eventPredicate, eventConsumer),
+                priority, ignoreCancelled
+        );
     }
 
 }
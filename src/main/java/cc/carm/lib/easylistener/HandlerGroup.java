@@ -0,0 +1,101 @@
+package cc.carm.lib.easylistener;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * 可整体暂停与恢复的一组命名的处理器，通过 {@link EasyListener#group(String)} 获取。
+ * <br> 通过 {@link #register(Consumer)} 注册的处理器在执行前将检查本组是否已暂停，
+ * 暂停期间处理器仍保持注册，仅跳过执行，因此暂停与恢复不会注销或注册任何处理器，
+ * 也不会重建任何 {@link org.bukkit.event.HandlerList} ，处理事件时也仅多一次 volatile 读取，可在每刻切换。
+ * <br> 嵌套注册时，处理器将同时受内外各组的控制，任一组暂停时均不会执行。
+ * <br> 由多处共用的处理器(如 {@link EasyListener#moves()} )不受组的控制。
+ * <br> 需要彻底移除组内的处理器时，仍可通过 {@link #unsubscribe()} 一次性注销。
+ *
+ * <pre>{@code
+ * HandlerGroup round = listener.group("round");
+ * round.register(l -> l
+ *         .handle(PlayerDeathEvent.class, e -> game.eliminate(e.getEntity()))
+ *         .cancel(PlayerDropItemEvent.class)
+ * );
+ * round.pause(); // 回到大厅阶段
+ * round.resume(); // 新的回合开始
+ * }</pre>
+ *
+ * @author CarmJos
+ */
+public class HandlerGroup extends SubscriptionGroup {
+
+    protected final @NotNull EasyListener source;
+    protected final @NotNull String name;
+
+    protected volatile boolean paused = false;
+
+    public HandlerGroup(@NotNull EasyListener source, @NotNull String name) {
+        this.source = source;
+        this.name = name;
+    }
+
+    /**
+     * 注册属于本组的处理器，给定方法内注册的全部处理器均受本组的暂停控制。
+     *
+     * @param registrations 注册处理器的方法
+     * @return 本实例
+     */
+    public HandlerGroup register(@NotNull Consumer<EasyListener> registrations) {
+        this.source.register(this, registrations);
+        return this;
+    }
+
+    /**
+     * 暂停组内的全部处理器。
+     *
+     * @return 本实例
+     */
+    public HandlerGroup pause() {
+        this.paused = true;
+        return this;
+    }
+
+    /**
+     * 恢复组内的全部处理器。
+     *
+     * @return 本实例
+     */
+    public HandlerGroup resume() {
+        this.paused = false;
+        return this;
+    }
+
+    /**
+     * @param paused 是否暂停组内的全部处理器
+     * @return 本实例
+     */
+    public HandlerGroup setPaused(boolean paused) {
+        this.paused = paused;
+        return this;
+    }
+
+    /**
+     * @return 本组是否已暂停
+     */
+    public final boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * @return 本组的名称
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * @return 源 {@link EasyListener} 实例
+     */
+    public @NotNull EasyListener getSource() {
+        return source;
+    }
+
+}
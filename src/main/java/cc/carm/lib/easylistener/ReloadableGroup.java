@@ -0,0 +1,182 @@
+package cc.carm.lib.easylistener;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * 可热重载的一组处理器。
+ * <br> 组内的处理器在注册后保持不变，每次处理事件时读取当前的快照(如配置、规则或条件)并交由处理方法使用。
+ * <br> 重载时仅替换快照的引用，不会注销或注册任何处理器，也不会重建任何 {@link org.bukkit.event.HandlerList} ，
+ * 因此重载过程中不存在处理器缺失的间隙；处理事件时也仅多一次 volatile 读取。
+ * <br> 快照应当是不可变的，以便在任意线程中构建后直接替换。
+ *
+ * <pre>{@code
+ * ReloadableGroup<Set<String>> blocked = listener.reloadable(loadBlockedWorlds());
+ * blocked.cancel(PlayerTeleportEvent.class, (worlds, e) -> worlds.contains(e.getTo().getWorld().getName()));
+ *
+ * // 配置重载时，在其他线程中构建新的快照后替换
+ * blocked.reloadAsync(() -> loadBlockedWorlds());
+ * }</pre>
+ *
+ * @param <S> 快照的类型
+ * @author CarmJos
+ */
+public class ReloadableGroup<S> extends SubscriptionGroup {
+
+    protected final @NotNull EasyListener source;
+
+    protected volatile @NotNull S snapshot;
+    protected long requested = 0L; // 最近一次发起的重载的序号
+    protected long applied = 0L; // 最近一次生效的重载的序号
+
+    public ReloadableGroup(@NotNull EasyListener source, @NotNull S snapshot) {
+        this.source = source;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return 当前的快照
+     */
+    public @NotNull S get() {
+        return snapshot;
+    }
+
+    /**
+     * 处理一个事件，处理时将传入当前的快照。
+     *
+     * @param eventClass    {@link Event} 事件类
+     * @param eventConsumer 处理方法
+     * @param <T>           {@link Event} 事件的类型
+     * @return 本实例
+     */
+    public <T extends Event> ReloadableGroup<S> handle(@NotNull Class<T> eventClass,
+                                                       @NotNull BiConsumer<? super S, ? super T> eventConsumer) {
+        return handle(eventClass, null, false, null, eventConsumer);
+    }
+
+    /**
+     * 处理一个事件，处理时将传入当前的快照。
+     *
+     * @param eventClass      {@link Event} 事件类
+     * @param priority        {@link EventPriority} 事件处理优先级
+     * @param ignoreCancelled 是否忽略掉已经被取消的事件
+     * @param name            处理器名称，可以为 null
+     * @param eventConsumer   处理方法
+     * @param <T>             {@link Event} 事件的类型
+     * @return 本实例
+     */
+    public <T extends Event> ReloadableGroup<S> handle(@NotNull Class<T> eventClass,
+                                                       @Nullable EventPriority priority, boolean ignoreCancelled,
+                                                       @Nullable String name,
+                                                       @NotNull BiConsumer<? super S, ? super T> eventConsumer) {
+        add(source.subscribe(
+                eventClass, priority, ignoreCancelled, name, null,
+                event -> eventConsumer.accept(this.snapshot, event)
+        ));
+        return this;
+    }
+
+    /**
+     * 按当前快照的条件取消一个事件，已经被取消的事件将不再进行判断。
+     *
+     * @param eventClass     {@link Event} 事件类
+     * @param eventPredicate 判断事件是否需要取消的条件
+     * @param <T>            {@link Event} 事件的类型，必须实现 {@link Cancellable} 。
+     * @return 本实例
+     * @throws IllegalArgumentException 如果事件没有实现 {@link Cancellable} 则抛出此异常
+     */
+    public <T extends Event> ReloadableGroup<S> cancel(@NotNull Class<T> eventClass,
+                                                       @NotNull BiPredicate<? super S, ? super T> eventPredicate) {
+        return cancel(eventClass, null, null, eventPredicate);
+    }
+
+    /**
+     * 按当前快照的条件取消一个事件，已经被取消的事件将不再进行判断。
+     *
+     * @param eventClass     {@link Event} 事件类
+     * @param priority       {@link EventPriority} 事件处理优先级
+     * @param name           处理器名称，可以为 null
+     * @param eventPredicate 判断事件是否需要取消的条件
+     * @param <T>            {@link Event} 事件的类型，必须实现 {@link Cancellable} 。
+     * @return 本实例
+     * @throws IllegalArgumentException 如果事件没有实现 {@link Cancellable} 则抛出此异常
+     */
+    public <T extends Event> ReloadableGroup<S> cancel(@NotNull Class<T> eventClass,
+                                                       @Nullable EventPriority priority, @Nullable String name,
+                                                       @NotNull BiPredicate<? super S, ? super T> eventPredicate) {
+        if (!Cancellable.class.isAssignableFrom(eventClass)) {
+            throw new IllegalArgumentException("Event class " + eventClass.getName() + " is not cancellable");
+        }
+        return handle(eventClass, priority, true, name, (snapshot, event) -> {
+            if (eventPredicate.test(snapshot, event)) ((Cancellable) event).setCancelled(true);
+        });
+    }
+
+    /**
+     * 立即替换快照，之后处理的事件都将使用新的快照。
+     *
+     * @param snapshot 新的快照
+     * @return 被替换的快照
+     */
+    public synchronized @NotNull S reload(@NotNull S snapshot) {
+        this.requested++;
+        this.applied = this.requested;
+        S previous = this.snapshot;
+        this.snapshot = snapshot;
+        return previous;
+    }
+
+    /**
+     * 在 {@link ForkJoinPool#commonPool()} 中构建新的快照，完成后替换。
+     *
+     * @param builder 构建快照的方法
+     * @return 重载完成后的当前快照
+     * @see #reloadAsync(Supplier, Executor)
+     */
+    public @NotNull CompletableFuture<S> reloadAsync(@NotNull Supplier<? extends S> builder) {
+        return reloadAsync(builder, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在给定的线程池中构建新的快照，完成后替换。
+     * <br> 若多次重载同时进行，仅最后发起的重载生效，较早发起但较晚完成的重载将被丢弃。
+     * <br> 构建失败时快照保持不变，返回的 {@link CompletableFuture} 将以对应的异常完成。
+     *
+     * @param builder  构建快照的方法
+     * @param executor 构建快照的线程池
+     * @return 重载完成后的当前快照
+     */
+    public @NotNull CompletableFuture<S> reloadAsync(@NotNull Supplier<? extends S> builder,
+                                                     @NotNull Executor executor) {
+        long sequence;
+        synchronized (this) {
+            sequence = ++this.requested;
+        }
+        return CompletableFuture.supplyAsync(builder, executor).thenApply(built -> {
+            Objects.requireNonNull(built, "snapshot");
+            synchronized (this) {
+                if (sequence > this.applied) {
+                    this.applied = sequence;
+                    this.snapshot = built;
+                }
+                return this.snapshot;
+            }
+        });
+    }
+
+    public @NotNull EasyListener getSource() {
+        return source;
+    }
+
+}
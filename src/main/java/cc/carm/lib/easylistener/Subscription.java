@@ -0,0 +1,21 @@
+package cc.carm.lib.easylistener;
+
+/**
+ * 已注册的一个或一组处理器，可通过 {@link #unsubscribe()} 单独注销。
+ *
+ * @author CarmJos
+ */
+public interface Subscription {
+
+    /**
+     * 注销处理器。
+     * <br> 重复注销不会产生任何效果。
+     */
+    void unsubscribe();
+
+    /**
+     * @return 处理器是否仍处于注册状态
+     */
+    boolean isActive();
+
+}
@@ -0,0 +1,103 @@
+package cc.carm.lib.easylistener;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+
+/**
+ * 一组 {@link Subscription} ，可一次性注销组内的全部处理器。
+ * <br> 注销时，同一 {@link EasyListener} 中的处理器将批量移除，每个合并执行器仅更新一次，
+ * 每个 {@link org.bukkit.event.HandlerList} 至多重建一次。
+ * <br> 可通过 {@link EasyListener#collect(java.util.function.Consumer)} 收集一段注册过程中的全部处理器，
+ * 也可通过 {@link #add(Subscription)} 手动加入。
+ *
+ * @author CarmJos
+ */
+public class SubscriptionGroup implements Subscription {
+
+    protected final List<Subscription> subscriptions = new ArrayList<>();
+
+    /**
+     * 加入一个 {@link Subscription} 。
+     *
+     * @param subscription {@link Subscription}
+     * @return 本实例
+     */
+    public synchronized SubscriptionGroup add(@NotNull Subscription subscription) {
+        if (subscription == this) throw new IllegalArgumentException("Cannot add a group to itself");
+        this.subscriptions.add(subscription);
+        return this;
+    }
+
+    /**
+     * 加入多个 {@link Subscription} 。
+     *
+     * @param subscriptions {@link Subscription}
+     * @return 本实例
+     */
+    public synchronized SubscriptionGroup addAll(@NotNull Collection<? extends Subscription> subscriptions) {
+        for (Subscription subscription : subscriptions) add(subscription);
+        return this;
+    }
+
+    /**
+     * @return 组内的全部 {@link Subscription}
+     */
+    public synchronized @Unmodifiable @NotNull List<Subscription> getSubscriptions() {
+        return Collections.unmodifiableList(new ArrayList<>(this.subscriptions));
+    }
+
+    /**
+     * 注销组内的全部处理器，并清空本组。
+     */
+    @Override
+    public void unsubscribe() {
+        List<Subscription> subscriptions;
+        synchronized (this) {
+            subscriptions = new ArrayList<>(this.subscriptions);
+            this.subscriptions.clear();
+        }
+
+        Map<EasyListener, List<EasyListener.Registration>> registrations = new LinkedHashMap<>();
+        List<Subscription> others = new ArrayList<>();
+        flatten(subscriptions, registrations, others, Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        registrations.forEach(EasyListener::unsubscribe);
+        others.forEach(Subscription::unsubscribe);
+    }
+
+    /**
+     * @return 组内是否仍有处于注册状态的处理器
+     */
+    @Override
+    public boolean isActive() {
+        for (Subscription subscription : getSubscriptions()) {
+            if (subscription.isActive()) return true;
+        }
+        return false;
+    }
+
+    private static void flatten(@NotNull Collection<Subscription> subscriptions,
+                                @NotNull Map<EasyListener, List<EasyListener.Registration>> registrations,
+                                @NotNull List<Subscription> others, @NotNull Set<SubscriptionGroup> visited) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription instanceof EasyListener.Registration) {
+                EasyListener.Registration registration = (EasyListener.Registration) subscription;
+                registrations.computeIfAbsent(registration.getListener(), k -> new ArrayList<>()).add(registration);
+            } else if (subscription instanceof SubscriptionGroup) {
+                SubscriptionGroup group = (SubscriptionGroup) subscription;
+                if (!visited.add(group)) continue;
+                List<Subscription> children;
+                synchronized (group) {
+                    children = new ArrayList<>(group.subscriptions);
+                    group.subscriptions.clear();
+                }
+                flatten(children, registrations, others, visited);
+            } else {
+                others.add(subscription);
+            }
+        }
+    }
+
+}
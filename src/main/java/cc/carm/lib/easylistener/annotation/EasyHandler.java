@@ -0,0 +1,74 @@
+package cc.carm.lib.easylistener.annotation;
+
+import org.bukkit.event.EventPriority;
+
+import java.lang.annotation.*;
+
+/**
+ * 标记一个处理事件的方法，可通过 {@link cc.carm.lib.easylistener.EasyListener#handleAnnotated(Object)} 注册。
+ * <br> 方法须仅有一个参数，其类型为需要处理的事件类，返回值将被忽略，可以是静态方法。
+ * <br> 与 Bukkit 的 {@link org.bukkit.event.EventHandler} 不同，方法将被绑定为直接调用，而非通过反射调用。
+ *
+ * <pre>{@code
+ * public class ArenaListener {
+ *
+ *     @EasyHandler(filter = "inArena", throttle = 500)
+ *     public void onInteract(PlayerInteractEvent event) {
+ *         // ...
+ *     }
+ *
+ *     public boolean inArena(PlayerInteractEvent event) {
+ *         return event.getPlayer().getWorld().getName().equals("arena");
+ *     }
+ *
+ * }
+ * }</pre>
+ *
+ * @author CarmJos
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EasyHandler {
+
+    /**
+     * @return 事件处理优先级
+     */
+    EventPriority priority() default EventPriority.NORMAL;
+
+    /**
+     * @return 是否忽略掉已经被取消的事件
+     */
+    boolean ignoreCancelled() default false;
+
+    /**
+     * @return 处理器名称，用于 {@link cc.carm.lib.easylistener.EasyListener#metrics()} 中的统计数据，
+     * 为空时使用 “类名#方法名” 。
+     */
+    String name() default "";
+
+    /**
+     * 处理事件前需要满足的条件，按声明顺序依次判断。
+     * <br> 每个条件均为同一类中的方法名，方法须返回 boolean ，且无参数或仅有一个事件参数。
+     *
+     * @return 条件方法的名称
+     */
+    String[] filter() default {};
+
+    /**
+     * 节流间隔，即对于同一个键，在给定间隔内仅处理第一个事件，在全部条件之后判断。
+     *
+     * @return 以毫秒表示的节流间隔，为 0 时不节流
+     * @see cc.carm.lib.easylistener.handler.BaseEventHandler#throttle(java.util.function.Function, java.time.Duration)
+     */
+    long throttle() default 0;
+
+    /**
+     * 节流所使用的键，为同一类中的方法名，方法须有返回值，且无参数或仅有一个事件参数。
+     * <br> 为空时，对于 {@link org.bukkit.event.player.PlayerEvent} 以玩家的UUID为键，其他事件则必须指定。
+     *
+     * @return 键方法的名称
+     */
+    String throttleKey() default "";
+
+}
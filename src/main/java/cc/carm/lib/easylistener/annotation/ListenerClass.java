@@ -0,0 +1,244 @@
+package cc.carm.lib.easylistener.annotation;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.utils.KeyedTimestamps;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 监听器类中全部 {@link EasyHandler} 方法的元数据。
+ * <br> 每个类仅在首次注册时扫描一次，方法与条件均在此时绑定为直接调用的函数，并通过 {@link ClassValue} 缓存，
+ * 之后注册同一类的实例时仅需为每个方法创建处理器，且缓存不会阻止插件卸载时其类被回收。
+ *
+ * @author CarmJos
+ */
+public final class ListenerClass {
+
+    private static final ClassValue<ListenerClass> CACHE = new ClassValue<ListenerClass>() {
+        @Override
+        protected ListenerClass computeValue(Class<?> type) {
+            return new ListenerClass(type);
+        }
+    };
+
+    /**
+     * 获取给定类的元数据。
+     *
+     * @param type 监听器类
+     * @return {@link ListenerClass} 实例
+     * @throws IllegalArgumentException 类中的 {@link EasyHandler} 方法或其条件不符合要求
+     */
+    public static @NotNull ListenerClass of(@NotNull Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    private final @NotNull Class<?> type;
+    private final HandlerMethod[] methods;
+
+    private ListenerClass(@NotNull Class<?> type) {
+        this.type = type;
+
+        List<HandlerMethod> methods = new ArrayList<>();
+        for (Method method : scan(type)) {
+            EasyHandler handler = method.getAnnotation(EasyHandler.class);
+            if (handler != null) methods.add(new HandlerMethod(type, method, handler));
+        }
+        this.methods = methods.toArray(new HandlerMethod[0]);
+    }
+
+    /**
+     * @return 监听器类
+     */
+    public @NotNull Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return 类中 {@link EasyHandler} 方法的数量
+     */
+    public int size() {
+        return methods.length;
+    }
+
+    /**
+     * 为给定实例注册类中的全部 {@link EasyHandler} 方法。
+     * <br> 每个实例拥有各自的节流记录。
+     *
+     * @param source   {@link EasyListener} 实例
+     * @param listener 监听器类的实例
+     */
+    public void register(@NotNull EasyListener source, @NotNull Object listener) {
+        if (!this.type.isInstance(listener)) {
+            throw new IllegalArgumentException(listener.getClass().getName() + " is not a " + this.type.getName());
+        }
+        for (HandlerMethod method : this.methods) {
+            method.register(source, listener);
+        }
+    }
+
+    /**
+     * 获取类及其父类中声明的全部方法，被子类覆盖的方法仅保留子类中的声明。
+     */
+    private static @NotNull List<Method> scan(@NotNull Class<?> type) {
+        List<Method> methods = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.isBridge() || method.isSynthetic()) continue;
+                if (!Modifier.isStatic(method.getModifiers()) && !Modifier.isPrivate(method.getModifiers())
+                        && !signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()))) continue;
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * 查找给定名称的方法，优先选择以事件为参数的方法，其次为无参数的方法。
+     */
+    private static @NotNull Method find(@NotNull Class<?> type, @NotNull String name,
+                                       @NotNull Class<? extends Event> eventClass, @NotNull Method handler) {
+        Method candidate = null;
+        for (Method method : scan(type)) {
+            if (!method.getName().equals(name) || method.getReturnType() == void.class) continue;
+            Class<?>[] params = method.getParameterTypes();
+            if (params.length == 1 && params[0].isAssignableFrom(eventClass)) return method;
+            if (params.length == 0 && candidate == null) candidate = method;
+        }
+        if (candidate != null) return candidate;
+        throw new IllegalArgumentException(
+                "No method named '" + name + "' for " + MethodBinder.describe(handler)
+                        + ", it must take no arguments or a " + eventClass.getSimpleName()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    static <X extends Throwable> RuntimeException rethrow(@NotNull Throwable ex) throws X {
+        throw (X) ex;
+    }
+
+    /**
+     * 单个 {@link EasyHandler} 方法的元数据。
+     */
+    private static final class HandlerMethod {
+
+        private final @NotNull Class<? extends Event> eventClass;
+        private final @NotNull String name;
+        private final @NotNull EventPriority priority;
+        private final boolean ignoreCancelled;
+
+        private final @NotNull MethodBinder.Invoker invoker;
+        private final MethodBinder.Condition[] conditions;
+        private final @Nullable Duration throttle;
+        private final @Nullable MethodBinder.KeyFunction throttleKey;
+
+        @SuppressWarnings("unchecked")
+        HandlerMethod(@NotNull Class<?> type, @NotNull Method method, @NotNull EasyHandler handler) {
+            Class<?>[] params = method.getParameterTypes();
+            if (params.length != 1 || !Event.class.isAssignableFrom(params[0])) {
+                throw new IllegalArgumentException(
+                        MethodBinder.describe(method) + " must take exactly one Event argument"
+                );
+            }
+            this.eventClass = (Class<? extends Event>) params[0];
+            this.name = handler.name().isEmpty() ? type.getName() + "#" + method.getName() : handler.name();
+            this.priority = handler.priority();
+            this.ignoreCancelled = handler.ignoreCancelled();
+            this.invoker = MethodBinder.invoker(method);
+
+            String[] filters = handler.filter();
+            this.conditions = new MethodBinder.Condition[filters.length];
+            for (int i = 0; i < filters.length; i++) {
+                Method filter = find(type, filters[i], this.eventClass, method);
+                if (filter.getReturnType() != boolean.class) {
+                    throw new IllegalArgumentException(
+                            "Filter " + MethodBinder.describe(filter) + " must return boolean"
+                    );
+                }
+                this.conditions[i] = MethodBinder.condition(filter);
+            }
+
+            if (handler.throttle() < 0) {
+                throw new IllegalArgumentException("Throttle of " + MethodBinder.describe(method) + " must not be negative");
+            } else if (handler.throttle() == 0) {
+                this.throttle = null;
+                this.throttleKey = null;
+            } else {
+                this.throttle = Duration.ofMillis(handler.throttle());
+                if (!handler.throttleKey().isEmpty()) {
+                    this.throttleKey = MethodBinder.key(find(type, handler.throttleKey(), this.eventClass, method));
+                } else if (PlayerEvent.class.isAssignableFrom(this.eventClass)) {
+                    this.throttleKey = (listener, event) -> ((PlayerEvent) event).getPlayer().getUniqueId();
+                } else {
+                    throw new IllegalArgumentException(
+                            "Throttle of " + MethodBinder.describe(method) + " requires a throttleKey"
+                    );
+                }
+            }
+        }
+
+        void register(@NotNull EasyListener source, @NotNull Object listener) {
+            register(source, listener, this.eventClass);
+        }
+
+        private <T extends Event> void register(@NotNull EasyListener source, @NotNull Object listener,
+                                                @NotNull Class<T> eventClass) {
+            final MethodBinder.Invoker invoker = this.invoker;
+            source.handle(
+                    eventClass, this.priority, this.ignoreCancelled, this.name, predicate(source, listener),
+                    (T event) -> {
+                        try {
+                            invoker.invoke(listener, event);
+                        } catch (Throwable ex) {
+                            throw rethrow(ex);
+                        }
+                    }
+            );
+        }
+
+        private @Nullable Predicate<Event> predicate(@NotNull EasyListener source, @NotNull Object listener) {
+            Predicate<Event> predicate = null;
+
+            final MethodBinder.Condition[] conditions = this.conditions;
+            if (conditions.length > 0) {
+                predicate = event -> {
+                    try {
+                        for (MethodBinder.Condition condition : conditions) {
+                            if (!condition.test(listener, event)) return false;
+                        }
+                        return true;
+                    } catch (Throwable ex) {
+                        throw rethrow(ex);
+                    }
+                };
+            }
+
+            final MethodBinder.KeyFunction keyFunction = this.throttleKey;
+            if (this.throttle != null && keyFunction != null) {
+                final KeyedTimestamps timestamps = KeyedTimestamps.create(source, this.throttle);
+                Predicate<Event> throttle = event -> {
+                    try {
+                        Object key = keyFunction.apply(listener, event);
+                        return key == null || timestamps.throttle(key);
+                    } catch (Throwable ex) {
+                        throw rethrow(ex);
+                    }
+                };
+                predicate = predicate == null ? throttle : predicate.and(throttle);
+            }
+
+            return predicate;
+        }
+
+    }
+
+}
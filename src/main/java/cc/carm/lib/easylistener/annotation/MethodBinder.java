@@ -0,0 +1,126 @@
+package cc.carm.lib.easylistener.annotation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 将监听器类中的方法绑定为可直接调用的函数。
+ * <br> 对于公开类中仅有一个参数的公开实例方法，且其类型对本类可见时，通过 {@link LambdaMetafactory} 生成直接调用的实现；
+ * 其余方法则通过 {@link MethodHandle} 调用，二者均不会像 {@link Method#invoke(Object, Object...)} 一样在每次调用时检查访问权限与装箱参数。
+ *
+ * @author CarmJos
+ */
+final class MethodBinder {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private MethodBinder() {
+    }
+
+    @FunctionalInterface
+    interface Invoker {
+        void invoke(Object listener, Object event) throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface Condition {
+        boolean test(Object listener, Object event) throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface KeyFunction {
+        Object apply(Object listener, Object event) throws Throwable;
+    }
+
+    static @NotNull Invoker invoker(@NotNull Method method) {
+        Invoker direct = metafactory(method, Invoker.class, "invoke", void.class);
+        if (direct != null) return direct;
+        MethodHandle handle = adapt(method, void.class);
+        return (listener, event) -> {
+            handle.invokeExact(listener, event);
+        };
+    }
+
+    static @NotNull Condition condition(@NotNull Method method) {
+        Condition direct = metafactory(method, Condition.class, "test", boolean.class);
+        if (direct != null) return direct;
+        MethodHandle handle = adapt(method, boolean.class);
+        return (listener, event) -> (boolean) handle.invokeExact(listener, event);
+    }
+
+    static @NotNull KeyFunction key(@NotNull Method method) {
+        KeyFunction direct = method.getReturnType().isPrimitive() ? null
+                : metafactory(method, KeyFunction.class, "apply", Object.class);
+        if (direct != null) return direct;
+        MethodHandle handle = adapt(method, Object.class);
+        return (listener, event) -> (Object) handle.invokeExact(listener, event);
+    }
+
+    /**
+     * 将方法适配为 (Object listener, Object event) 的 {@link MethodHandle} ，静态方法将忽略 listener ，无参数的方法将忽略 event 。
+     */
+    private static @NotNull MethodHandle adapt(@NotNull Method method, @NotNull Class<?> returnType) {
+        MethodHandle handle;
+        try {
+            if (!isAccessible(method)) method.setAccessible(true);
+            handle = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            throw new IllegalArgumentException("Cannot access " + describe(method), ex);
+        }
+        if (Modifier.isStatic(method.getModifiers())) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        if (method.getParameterCount() == 0) handle = MethodHandles.dropArguments(handle, 1, Object.class);
+        return handle.asType(MethodType.methodType(returnType, Object.class, Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <I> I metafactory(@NotNull Method method, @NotNull Class<I> type,
+                                     @NotNull String name, @NotNull Class<?> returnType) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1) return null;
+        if (!isAccessible(method) || !isVisible(method)) return null;
+        try {
+            MethodHandle impl = LOOKUP.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(
+                    LOOKUP, name, MethodType.methodType(type),
+                    MethodType.methodType(returnType, Object.class, Object.class), impl,
+                    MethodType.methodType(method.getReturnType(), method.getDeclaringClass(), method.getParameterTypes()[0])
+            );
+            return (I) site.getTarget().invoke();
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
+
+    private static boolean isAccessible(@NotNull Method method) {
+        if (!Modifier.isPublic(method.getModifiers())) return false;
+        for (Class<?> c = method.getDeclaringClass(); c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 生成的实现类由本类的类加载器加载，因此方法所涉及的类须对其可见，否则将在首次调用时才抛出异常。
+     */
+    private static boolean isVisible(@NotNull Method method) {
+        return isVisible(method.getDeclaringClass()) && isVisible(method.getReturnType())
+                && isVisible(method.getParameterTypes()[0]);
+    }
+
+    private static boolean isVisible(@NotNull Class<?> type) {
+        while (type.isArray()) type = type.getComponentType();
+        if (type.isPrimitive()) return true;
+        try {
+            return Class.forName(type.getName(), false, MethodBinder.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    static @NotNull String describe(@NotNull Method method) {
+        return method.getDeclaringClass().getName() + "#" + method.getName();
+    }
+
+}
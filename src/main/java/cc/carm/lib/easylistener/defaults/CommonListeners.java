@@ -1,6 +1,7 @@
 package cc.carm.lib.easylistener.defaults;
 
 import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.utils.DeferredEffects;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
@@ -59,6 +60,23 @@ public class CommonListeners {
                 .filter(playerPredicate).cancel();
     }
 
+    /**
+     * 有条件的取消玩家破坏方块，并提示被阻止的玩家。
+     * <br> 提示将通过 {@link EasyListener#defer()} 在刻末发送，同一玩家每刻至多收到一次提示。
+     *
+     * @param source          用于注册的源 {@link  EasyListener} 对象。
+     * @param playerPredicate 判断器，返回true则取消事件。
+     * @param message         提示消息
+     */
+    public static void cancelBreak(@NotNull EasyListener source, @Nullable Predicate<Player> playerPredicate,
+                                   @NotNull String message) {
+        final DeferredEffects effects = source.defer();
+        source.handleBundle(Player.class)
+                .from(BlockBreakEvent.class, BlockBreakEvent::getPlayer)
+                .from(PlayerBucketFillEvent.class, PlayerBucketFillEvent::getPlayer)
+                .filter(playerPredicate).cancel(player -> effects.message(player, message));
+    }
+
     public static void cancelPlace(@NotNull EasyListener source, @Nullable Predicate<Player> playerPredicate) {
         source.handleBundle(Player.class)
                 .from(BlockPlaceEvent.class, BlockPlaceEvent::getPlayer)
@@ -66,6 +84,23 @@ public class CommonListeners {
                 .filter(playerPredicate).cancel();
     }
 
+    /**
+     * 有条件的取消玩家放置方块，并提示被阻止的玩家。
+     * <br> 提示将通过 {@link EasyListener#defer()} 在刻末发送，同一玩家每刻至多收到一次提示。
+     *
+     * @param source          用于注册的源 {@link  EasyListener} 对象。
+     * @param playerPredicate 判断器，返回true则取消事件。
+     * @param message         提示消息
+     */
+    public static void cancelPlace(@NotNull EasyListener source, @Nullable Predicate<Player> playerPredicate,
+                                   @NotNull String message) {
+        final DeferredEffects effects = source.defer();
+        source.handleBundle(Player.class)
+                .from(BlockPlaceEvent.class, BlockPlaceEvent::getPlayer)
+                .from(PlayerBucketEmptyEvent.class, PlayerBucketEmptyEvent::getPlayer)
+                .filter(playerPredicate).cancel(player -> effects.message(player, message));
+    }
+
     /**
      * 有条件的取消玩家PVP。
      *
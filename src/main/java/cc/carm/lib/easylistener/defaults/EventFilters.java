@@ -1,8 +1,13 @@
 package cc.carm.lib.easylistener.defaults;
 
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.utils.AdaptiveFilter;
+import cc.carm.lib.easylistener.utils.CachedPlayerPredicate;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockEvent;
@@ -14,22 +19,43 @@ import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.world.WorldEvent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.Objects;
+import java.time.Duration;
+import java.util.*;
 import java.util.function.Predicate;
 
+/**
+ * 常用的事件条件。
+ * <br> 条件的参数均在创建时预先处理，如枚举参数将被转换为位掩码或 {@link EnumSet} ，
+ * 世界参数将在每个世界首次匹配后按其UID查表，因此判断事件时不会产生任何对象。
+ * <br> 条件可通过 {@link #all(Predicate[])} 、 {@link #any(Predicate[])} 与 {@link #not(Predicate)} 组合，
+ * 相互独立的条件亦可通过 {@link #adaptive(Predicate[])} 组合以自动调整判断顺序。
+ *
+ * @author CarmJos
+ */
 public class EventFilters {
 
-    public <T extends Cancellable> Predicate<T> isCancelled() {
+    public static <T extends Cancellable> Predicate<T> isCancelled() {
         return Cancellable::isCancelled;
     }
 
-    public <T extends Cancellable> Predicate<T> notCancelled() {
+    public static <T extends Cancellable> Predicate<T> notCancelled() {
         return e -> !e.isCancelled();
     }
 
-    public <T extends PlayerMoveEvent> Predicate<T> moveInSameBlock() {
+    /**
+     * 移动在同一世界中跨越了方块边界。
+     * <br> 本条件的名称与其行为相反：其在移动<b>离开</b>原方块时满足，而非仍在同一方块内时满足；
+     * 切换世界的移动则不满足本条件。为保持兼容，其行为不作修改。
+     *
+     * @param <T> 事件的类型
+     * @return 条件
+     * @deprecated 名称与行为不符，判断移动是否跨越方块边界请使用 {@link #moveAcrossBlock()} (同时包含切换世界的移动)，
+     * 判断移动是否仍在同一方块内请使用 {@link #moveWithinBlock()} 。
+     */
+    @Deprecated
+    public static <T extends PlayerMoveEvent> Predicate<T> moveInSameBlock() {
         return e -> {
             if (e.getTo() == null) return false;
 
@@ -43,12 +69,54 @@ public class EventFilters {
         };
     }
 
+    /**
+     * 移动仍在同一世界的同一方块内。
+     *
+     * @param <T> 事件的类型
+     * @return 条件
+     */
+    public static <T extends PlayerMoveEvent> Predicate<T> moveWithinBlock() {
+        return e -> e.getTo() != null && !crossesBlock(e.getFrom(), e.getTo());
+    }
+
+    /**
+     * 移动跨越了方块边界或切换了世界。
+     * <br> 如有多个处理器仅处理跨越边界的移动，
+     * 可使用 {@link EasyListener#handleBlockMoves(java.util.function.Consumer)} 使其共用一次计算。
+     *
+     * @param <T> 事件的类型
+     * @return 条件
+     */
+    public static <T extends PlayerMoveEvent> Predicate<T> moveAcrossBlock() {
+        return e -> e.getTo() != null && crossesBlock(e.getFrom(), e.getTo());
+    }
+
+    /**
+     * 移动跨越了区块边界或切换了世界。
+     * <br> 如有多个处理器仅处理跨越边界的移动，
+     * 可使用 {@link EasyListener#handleChunkMoves(java.util.function.Consumer)} 使其共用一次计算。
+     *
+     * @param <T> 事件的类型
+     * @return 条件
+     */
+    public static <T extends PlayerMoveEvent> Predicate<T> moveAcrossChunk() {
+        return e -> {
+            Location from = e.getFrom(), to = e.getTo();
+            if (to == null) return false;
+            return (from.getBlockX() >> 4) != (to.getBlockX() >> 4)
+                    || (from.getBlockZ() >> 4) != (to.getBlockZ() >> 4)
+                    || !Objects.equals(from.getWorld(), to.getWorld());
+        };
+    }
+
     public static <T extends PlayerInteractEvent> Predicate<T> interactAction(Action... actionType) {
-        return e -> Arrays.stream(actionType).anyMatch(a -> a == e.getAction());
+        final EnumMatcher<Action> matcher = new EnumMatcher<>(Action.class, actionType);
+        return e -> matcher.test(e.getAction());
     }
 
     public static <T extends InventoryClickEvent> Predicate<T> invClickType(ClickType... clickTypes) {
-        return e -> Arrays.stream(clickTypes).anyMatch(a -> a == e.getClick());
+        final EnumMatcher<ClickType> matcher = new EnumMatcher<>(ClickType.class, clickTypes);
+        return e -> matcher.test(e.getClick());
     }
 
     public static <T extends PlayerEvent> Predicate<T> playerIsOp() {
@@ -60,23 +128,224 @@ public class EventFilters {
     }
 
     public static <T extends PlayerEvent> Predicate<T> playerInWorld(@NotNull String worldName) {
-        return e -> e.getPlayer().getWorld().getName().equals(worldName);
+        final WorldMatcher matcher = new WorldMatcher(worldName);
+        return e -> matcher.test(e.getPlayer().getWorld());
     }
 
-    public <T extends EntityEvent> Predicate<T> entityOf(@NotNull EntityType type) {
+    public static <T extends EntityEvent> Predicate<T> entityOf(@NotNull EntityType type) {
         return e -> e.getEntityType() == type;
     }
 
-    public <T extends WorldEvent> Predicate<T> worldOf(@NotNull String worldName) {
-        return e -> e.getWorld().getName().equals(worldName);
+    public static <T extends EntityEvent> Predicate<T> entityOf(@NotNull EntityType... types) {
+        final EnumMatcher<EntityType> matcher = new EnumMatcher<>(EntityType.class, types);
+        return e -> matcher.test(e.getEntityType());
+    }
+
+    public static <T extends WorldEvent> Predicate<T> worldOf(@NotNull String worldName) {
+        final WorldMatcher matcher = new WorldMatcher(worldName);
+        return e -> matcher.test(e.getWorld());
     }
 
-    public <T extends BlockEvent> Predicate<T> blockOf(@NotNull Material material) {
+    public static <T extends BlockEvent> Predicate<T> blockOf(@NotNull Material material) {
         return e -> e.getBlock().getType() == material;
     }
 
-    public <T extends BlockEvent> Predicate<T> blockInWorld(@NotNull String worldName) {
-        return e -> e.getBlock().getWorld().getName().equals(worldName);
+    public static <T extends BlockEvent> Predicate<T> blockOf(@NotNull Material... materials) {
+        final EnumMatcher<Material> matcher = new EnumMatcher<>(Material.class, materials);
+        return e -> matcher.test(e.getBlock().getType());
+    }
+
+    public static <T extends BlockEvent> Predicate<T> blockInWorld(@NotNull String worldName) {
+        final WorldMatcher matcher = new WorldMatcher(worldName);
+        return e -> matcher.test(e.getBlock().getWorld());
+    }
+
+    /**
+     * 按事件玩家缓存条件的结果，玩家退出或切换世界时其缓存将被清除。
+     * <br> 适用于仅与玩家相关且开销较高的条件，如 {@link #playerHasPerm(String)} 。
+     *
+     * @param source    用于登记失效的 {@link EasyListener}
+     * @param predicate 原条件
+     * @param ttl       结果的有效期
+     * @param <T>       事件的类型
+     * @return 缓存条件，可通过 {@link CachedPlayerPredicate#invalidate(Player)} 手动清除缓存
+     */
+    public static <T extends PlayerEvent> CachedPlayerPredicate<T> cached(@NotNull EasyListener source,
+                                                                         @NotNull Predicate<? super T> predicate,
+                                                                         @NotNull Duration ttl) {
+        return CachedPlayerPredicate.ofEvent(source, predicate, ttl);
+    }
+
+    /**
+     * 按玩家缓存玩家条件的结果，玩家退出或切换世界时其缓存将被清除。
+     * <br> 适用于 {@link CommonListeners} 中的玩家条件。
+     *
+     * @param source    用于登记失效的 {@link EasyListener}
+     * @param predicate 原条件
+     * @param ttl       结果的有效期
+     * @return 缓存条件，可通过 {@link CachedPlayerPredicate#invalidate(Player)} 手动清除缓存
+     */
+    public static CachedPlayerPredicate<Player> cachedPlayer(@NotNull EasyListener source,
+                                                             @NotNull Predicate<? super Player> predicate,
+                                                             @NotNull Duration ttl) {
+        return CachedPlayerPredicate.ofPlayer(source, predicate, ttl);
+    }
+
+    /**
+     * 组合多个条件，仅当全部条件均满足时满足。
+     * <br> 条件按给定顺序判断，任一条件不满足时即停止判断。
+     *
+     * @param predicates 条件
+     * @param <T>        事件的类型
+     * @return 组合后的条件
+     */
+    @SafeVarargs
+    @SuppressWarnings({"unchecked", "varargs"})
+    public static <T> Predicate<T> all(@NotNull Predicate<? super T>... predicates) {
+        final Predicate<? super T>[] copy = predicates.clone();
+        switch (copy.length) {
+            case 0:
+                return e -> true;
+            case 1:
+                return (Predicate<T>) copy[0];
+            case 2:
+                final Predicate<? super T> first = copy[0], second = copy[1];
+                return e -> first.test(e) && second.test(e);
+            default:
+                return e -> {
+                    for (Predicate<? super T> predicate : copy) {
+                        if (!predicate.test(e)) return false;
+                    }
+                    return true;
+                };
+        }
+    }
+
+    /**
+     * 组合多个条件，当任一条件满足时满足。
+     * <br> 条件按给定顺序判断，任一条件满足时即停止判断。
+     *
+     * @param predicates 条件
+     * @param <T>        事件的类型
+     * @return 组合后的条件
+     */
+    @SafeVarargs
+    @SuppressWarnings({"unchecked", "varargs"})
+    public static <T> Predicate<T> any(@NotNull Predicate<? super T>... predicates) {
+        final Predicate<? super T>[] copy = predicates.clone();
+        switch (copy.length) {
+            case 0:
+                return e -> false;
+            case 1:
+                return (Predicate<T>) copy[0];
+            case 2:
+                final Predicate<? super T> first = copy[0], second = copy[1];
+                return e -> first.test(e) || second.test(e);
+            default:
+                return e -> {
+                    for (Predicate<? super T> predicate : copy) {
+                        if (predicate.test(e)) return true;
+                    }
+                    return false;
+                };
+        }
+    }
+
+    /**
+     * 组合多个相互独立且没有副作用的条件，仅当全部条件均满足时满足。
+     * <br> 判断顺序将按实测的拒绝率与耗时自动调整，使开销低且拒绝率高的条件先判断，详见 {@link AdaptiveFilter} 。
+     *
+     * @param predicates 条件
+     * @param <T>        事件的类型
+     * @return 组合后的条件
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> AdaptiveFilter<T> adaptive(@NotNull Predicate<? super T>... predicates) {
+        return AdaptiveFilter.of(predicates);
+    }
+
+    /**
+     * 取反一个条件。
+     *
+     * @param predicate 条件
+     * @param <T>       事件的类型
+     * @return 取反后的条件
+     */
+    public static <T> Predicate<T> not(@NotNull Predicate<? super T> predicate) {
+        return e -> !predicate.test(e);
+    }
+
+    protected static boolean crossesBlock(@NotNull Location from, @NotNull Location to) {
+        return from.getBlockX() != to.getBlockX()
+                || from.getBlockY() != to.getBlockY()
+                || from.getBlockZ() != to.getBlockZ()
+                || !Objects.equals(from.getWorld(), to.getWorld());
+    }
+
+    /**
+     * 预先处理的枚举匹配。
+     * <br> 枚举常量不超过 64 个时以 long 位掩码判断，否则以 {@link EnumSet} 判断。
+     *
+     * @param <E> 枚举的类型
+     */
+    protected static final class EnumMatcher<E extends Enum<E>> {
+
+        private final long mask;
+        private final @Nullable EnumSet<E> set;
+
+        @SafeVarargs
+        EnumMatcher(@NotNull Class<E> type, @NotNull E... values) {
+            EnumSet<E> set = EnumSet.noneOf(type);
+            for (E value : values) set.add(Objects.requireNonNull(value));
+
+            if (type.getEnumConstants().length <= Long.SIZE) {
+                long mask = 0L;
+                for (E value : set) mask |= 1L << value.ordinal();
+                this.mask = mask;
+                this.set = null;
+            } else {
+                this.mask = 0L;
+                this.set = set;
+            }
+        }
+
+        boolean test(@Nullable E value) {
+            if (value == null) return false;
+            return this.set == null ? (this.mask & (1L << value.ordinal())) != 0 : this.set.contains(value);
+        }
+
+    }
+
+    /**
+     * 按名称匹配世界，并按世界的UID记住每个世界是否匹配。
+     * <br> 同一世界的名称不会改变，因此每个世界仅在首次遇到时比较一次名称，之后均直接查表；
+     * 记录在遇到新的世界时以写时复制的方式更新，读取时无需加锁，且仅记录UID，不会阻止已卸载的世界被回收。
+     */
+    protected static final class WorldMatcher {
+
+        private final @NotNull String name;
+        private volatile @NotNull Map<UUID, Boolean> worlds = Collections.emptyMap();
+
+        WorldMatcher(@NotNull String name) {
+            this.name = name;
+        }
+
+        boolean test(@Nullable World world) {
+            if (world == null) return false;
+            UUID uid = world.getUID();
+            Boolean matched = this.worlds.get(uid);
+            if (matched != null) return matched;
+            return record(uid, this.name.equals(world.getName()));
+        }
+
+        private synchronized boolean record(@NotNull UUID uid, boolean matched) {
+            Map<UUID, Boolean> worlds = new HashMap<>(this.worlds);
+            worlds.put(uid, matched);
+            this.worlds = worlds;
+            return matched;
+        }
+
     }
 
 }
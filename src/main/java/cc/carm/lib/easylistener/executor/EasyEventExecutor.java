@@ -0,0 +1,118 @@
+package cc.carm.lib.easylistener.executor;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * EasyListener 所使用的事件执行器。
+ * <br> 执行器在注册时即固定了事件类、条件与处理方法，处理事件时不会产生任何额外的对象。
+ * <br> 当事件类型与注册的事件类完全一致时，将跳过 {@link Class#isInstance(Object)} 判断。
+ *
+ * @param <T> {@link Event} 事件的类型
+ * @author CarmJos
+ */
+public abstract class EasyEventExecutor<T extends Event> implements EventExecutor {
+
+    /**
+     * 创建一个事件执行器。
+     *
+     * @param eventClass 事件类
+     * @param predicate  判断事件是否需要处理的条件，为 null 则处理全部事件
+     * @param consumer   处理方法
+     * @param <T>        {@link Event} 事件的类型
+     * @return 事件执行器
+     */
+    public static <T extends Event> @NotNull EasyEventExecutor<T> create(@NotNull Class<T> eventClass,
+                                                                          @Nullable Predicate<? super T> predicate,
+                                                                          @NotNull Consumer<? super T> consumer) {
+        if (predicate == null) return new Direct<>(eventClass, consumer);
+        else return new Filtered<>(eventClass, predicate, consumer);
+    }
+
+    protected final @NotNull Class<T> eventClass;
+
+    protected EasyEventExecutor(@NotNull Class<T> eventClass) {
+        this.eventClass = eventClass;
+    }
+
+    public @NotNull Class<T> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * 判断给定事件是否为本执行器所处理的事件类型。
+     *
+     * @param event 事件
+     * @return 是否为本执行器所处理的事件类型
+     */
+    public final boolean accepts(@NotNull Event event) {
+        return event.getClass() == this.eventClass || this.eventClass.isInstance(event);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final void execute(@NotNull Listener listener, @NotNull Event event) throws EventException {
+        if (!accepts(event)) return;
+        try {
+            dispatch((T) event);
+        } catch (Throwable t) {
+            throw new EventException(t);
+        }
+    }
+
+    /**
+     * 处理一个已确认类型的事件。
+     *
+     * @param event 事件
+     */
+    protected abstract void dispatch(@NotNull T event);
+
+    /**
+     * 无条件处理事件的执行器。
+     */
+    protected static final class Direct<T extends Event> extends EasyEventExecutor<T> {
+
+        private final @NotNull Consumer<? super T> consumer;
+
+        Direct(@NotNull Class<T> eventClass, @NotNull Consumer<? super T> consumer) {
+            super(eventClass);
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void dispatch(@NotNull T event) {
+            this.consumer.accept(event);
+        }
+
+    }
+
+    /**
+     * 满足条件时才处理事件的执行器。
+     */
+    protected static final class Filtered<T extends Event> extends EasyEventExecutor<T> {
+
+        private final @NotNull Predicate<? super T> predicate;
+        private final @NotNull Consumer<? super T> consumer;
+
+        Filtered(@NotNull Class<T> eventClass,
+                 @NotNull Predicate<? super T> predicate, @NotNull Consumer<? super T> consumer) {
+            super(eventClass);
+            this.predicate = predicate;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void dispatch(@NotNull T event) {
+            if (this.predicate.test(event)) this.consumer.accept(event);
+        }
+
+    }
+
+}
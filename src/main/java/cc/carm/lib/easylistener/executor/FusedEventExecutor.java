@@ -0,0 +1,128 @@
+package cc.carm.lib.easylistener.executor;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.logging.Level;
+
+/**
+ * 合并执行多个处理器的事件执行器。
+ * <br> 同一 {@link org.bukkit.event.HandlerList} 中优先级与 ignoreCancelled 均相同的处理器将合并为一个执行器，
+ * 因此仅需向服务端注册一个 {@link org.bukkit.plugin.RegisteredListener} 。
+ * <br> 新增处理器时仅替换内部的执行器数组，不会改变服务端的 {@link org.bukkit.event.HandlerList} 。
+ * <br> 各处理器的异常将被单独记录，不会影响其余处理器的执行。
+ *
+ * @author CarmJos
+ */
+public class FusedEventExecutor implements EventExecutor {
+
+    protected static final EventExecutor[] EMPTY = new EventExecutor[0];
+
+    protected final @NotNull Plugin plugin;
+    protected final boolean ignoreCancelled;
+
+    protected volatile @NotNull EventExecutor[] executors = EMPTY;
+
+    public FusedEventExecutor(@NotNull Plugin plugin, boolean ignoreCancelled) {
+        this.plugin = plugin;
+        this.ignoreCancelled = ignoreCancelled;
+    }
+
+    public boolean isIgnoreCancelled() {
+        return ignoreCancelled;
+    }
+
+    /**
+     * @return 当前合并的全部执行器
+     */
+    public @NotNull EventExecutor[] getExecutors() {
+        return this.executors.clone();
+    }
+
+    /**
+     * @return 是否未合并任何执行器
+     */
+    public boolean isEmpty() {
+        return this.executors.length == 0;
+    }
+
+    /**
+     * 新增一个执行器。
+     *
+     * @param executor 执行器
+     */
+    public synchronized void add(@NotNull EventExecutor executor) {
+        EventExecutor[] current = this.executors;
+        EventExecutor[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = executor;
+        this.executors = updated;
+    }
+
+    /**
+     * 判断是否包含给定执行器。
+     *
+     * @param executor 执行器
+     * @return 是否包含
+     */
+    public boolean contains(@NotNull EventExecutor executor) {
+        for (EventExecutor exists : this.executors) {
+            if (exists == executor) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 一次性移除多个执行器。
+     *
+     * @param removed 需要移除的执行器
+     * @return 移除后剩余的执行器数量
+     */
+    public synchronized int removeAll(@NotNull Collection<? extends EventExecutor> removed) {
+        EventExecutor[] current = this.executors;
+        EventExecutor[] updated = new EventExecutor[current.length];
+        int size = 0;
+        for (EventExecutor executor : current) {
+            if (!containsIdentity(removed, executor)) updated[size++] = executor;
+        }
+        if (size != current.length) this.executors = size == 0 ? EMPTY : Arrays.copyOf(updated, size);
+        return size;
+    }
+
+    /**
+     * 移除全部执行器。
+     */
+    public synchronized void clear() {
+        this.executors = EMPTY;
+    }
+
+    private static boolean containsIdentity(@NotNull Collection<? extends EventExecutor> collection,
+                                            @NotNull EventExecutor executor) {
+        for (EventExecutor element : collection) {
+            if (element == executor) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void execute(@NotNull Listener listener, @NotNull Event event) {
+        for (EventExecutor executor : this.executors) {
+            if (this.ignoreCancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled()) return;
+            try {
+                executor.execute(listener, event);
+            } catch (Throwable ex) {
+                Throwable cause = ex instanceof EventException && ex.getCause() != null ? ex.getCause() : ex;
+                this.plugin.getLogger().log(
+                        Level.SEVERE, "Could not pass event " + event.getEventName() + " to " + this.plugin.getName(), cause
+                );
+            }
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package cc.carm.lib.easylistener.executor;
+
+import cc.carm.lib.easylistener.HandlerGroup;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 仅在所属的 {@link HandlerGroup} 未暂停时执行的事件执行器。
+ * <br> 每次执行前仅需一次 volatile 读取，暂停与恢复均不会修改任何执行器或 {@link org.bukkit.event.HandlerList} 。
+ *
+ * @author CarmJos
+ */
+public class GatedEventExecutor implements EventExecutor {
+
+    protected final @NotNull HandlerGroup group;
+    protected final @NotNull EventExecutor delegate;
+
+    public GatedEventExecutor(@NotNull HandlerGroup group, @NotNull EventExecutor delegate) {
+        this.group = group;
+        this.delegate = delegate;
+    }
+
+    public @NotNull HandlerGroup getGroup() {
+        return group;
+    }
+
+    public @NotNull EventExecutor getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void execute(@NotNull Listener listener, @NotNull Event event) throws EventException {
+        if (this.group.isPaused()) return;
+        this.delegate.execute(listener, event);
+    }
+
+}
@@ -0,0 +1,61 @@
+package cc.carm.lib.easylistener.executor;
+
+import cc.carm.lib.easylistener.metrics.HandlerMetrics;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 记录统计数据的事件执行器。
+ * <br> 在 {@link EasyEventExecutor} 的基础上记录调用次数、过滤次数、取消次数与耗时。
+ *
+ * @param <T> {@link Event} 事件的类型
+ * @author CarmJos
+ */
+public class MeasuredEventExecutor<T extends Event> extends EasyEventExecutor<T> {
+
+    protected final @NotNull HandlerMetrics metrics;
+    protected final @Nullable Predicate<? super T> predicate;
+    protected final @NotNull Consumer<? super T> consumer;
+
+    public MeasuredEventExecutor(@NotNull Class<T> eventClass, @NotNull HandlerMetrics metrics,
+                                 @Nullable Predicate<? super T> predicate, @NotNull Consumer<? super T> consumer) {
+        super(eventClass);
+        this.metrics = metrics;
+        this.predicate = predicate;
+        this.consumer = consumer;
+    }
+
+    public @NotNull HandlerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    protected void dispatch(@NotNull T event) {
+        long start = System.nanoTime();
+        try {
+            if (this.predicate != null && !this.predicate.test(event)) {
+                this.metrics.recordRejection();
+                return;
+            }
+
+            if (event instanceof Cancellable) {
+                boolean cancelled = ((Cancellable) event).isCancelled();
+                this.consumer.accept(event);
+                if (!cancelled && ((Cancellable) event).isCancelled()) this.metrics.recordCancellation();
+            } else {
+                this.consumer.accept(event);
+            }
+        } catch (RuntimeException | Error ex) {
+            this.metrics.recordFailure();
+            throw ex;
+        } finally {
+            this.metrics.recordInvocation(System.nanoTime() - start);
+        }
+    }
+
+}
@@ -0,0 +1,469 @@
+package cc.carm.lib.easylistener.export;
+
+import cc.carm.lib.easylistener.Subscription;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 将事件中提取的记录导出至其他线程的发布者。
+ * <br> 每个订阅者拥有独立的 {@link RingBuffer} 与消费线程，记录写入时仅需一次 CAS 且不会创建任何对象，
+ * 订阅者通过 {@link ExportSubscription#request(long)} 控制接收的速度，缓冲区写满后按 {@link ExportPolicy} 处理。
+ * <br> 可在多个线程中同时写入，每个订阅者均会收到全部记录，不同订阅者之间互不影响。
+ * <br> 通常通过 {@link cc.carm.lib.easylistener.handler.BaseEventHandler#export(java.util.function.Function)} 创建。
+ *
+ * <pre>{@code
+ * EventExporter<String> chat = source.handleEvent(AsyncPlayerChatEvent.class)
+ *         .export(e -> e.getPlayer().getName() + ": " + e.getMessage())
+ *         .capacity(4096).policy(ExportPolicy.DROP_OLDEST)
+ *         .publish();
+ * chat.subscribe(line -> chatLog.write(line)); // 在专属的消费线程中执行
+ * }</pre>
+ *
+ * @param <R> 记录的类型
+ * @author CarmJos
+ */
+public class EventExporter<R> {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final Duration DEFAULT_BLOCK_TIMEOUT = Duration.ofMillis(5);
+
+    /**
+     * {@link ExportPolicy#BLOCK} 等待期间每次检查缓冲区的间隔，单位为纳秒。
+     */
+    protected static final long BLOCK_PARK_NANOS = 20_000L;
+
+    /**
+     * 消费线程无记录可处理时，挂起前让出执行权的次数。
+     * <br> 持续写入时消费线程通常在让出期间即可取得新的记录，从而避免写入线程频繁唤醒消费线程。
+     */
+    protected static final int IDLE_SPINS = 64;
+
+    protected static final AtomicInteger THREAD_ID = new AtomicInteger();
+    protected static final ThreadFactory DEFAULT_THREAD_FACTORY = runnable -> {
+        Thread thread = new Thread(runnable, "EasyListener-Export-" + THREAD_ID.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    protected final int capacity;
+    protected final @NotNull ExportPolicy policy;
+    protected final long blockTimeout;
+
+    protected final @NotNull LongAdder published = new LongAdder();
+    protected final @NotNull List<Subscription> registrations = new CopyOnWriteArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    protected volatile @NotNull Channel<R>[] channels = (Channel<R>[]) new Channel<?>[0];
+    protected volatile boolean closed = false;
+
+    public EventExporter() {
+        this(DEFAULT_CAPACITY, ExportPolicy.DROP_NEWEST, DEFAULT_BLOCK_TIMEOUT);
+    }
+
+    /**
+     * @param capacity     每个订阅者的缓冲区容量，将向上取整为 2 的幂，且至少为 2
+     * @param policy       缓冲区已满时的处理策略
+     * @param blockTimeout {@link ExportPolicy#BLOCK} 的最长等待时间
+     */
+    public EventExporter(int capacity, @NotNull ExportPolicy policy, @NotNull Duration blockTimeout) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        if (blockTimeout.isNegative()) throw new IllegalArgumentException("Block timeout must not be negative");
+        this.capacity = capacity;
+        this.policy = policy;
+        this.blockTimeout = blockTimeout.toNanos();
+    }
+
+    /**
+     * @return 是否存在订阅者，无订阅者时可跳过记录的提取
+     */
+    public boolean hasSubscribers() {
+        return this.channels.length > 0;
+    }
+
+    /**
+     * 将记录写入全部订阅者的缓冲区。
+     * <br> 无订阅者或已关闭时将直接忽略。
+     *
+     * @param record 记录
+     */
+    public void publish(@NotNull R record) {
+        Channel<R>[] channels = this.channels;
+        if (channels.length == 0) return;
+        this.published.increment();
+        for (Channel<R> channel : channels) channel.offer(record);
+    }
+
+    /**
+     * 以不限数量的方式订阅记录，处理方法在专属的消费线程中执行。
+     * <br> 处理方法抛出的异常将终止本次订阅，并交由消费线程的 {@link Thread.UncaughtExceptionHandler} 处理。
+     *
+     * @param consumer 处理方法
+     * @return {@link ExportSubscription} 实例
+     */
+    public @NotNull ExportSubscription subscribe(@NotNull Consumer<? super R> consumer) {
+        return subscribe(new ExportSubscriber<R>() {
+            @Override
+            public void onSubscribe(@NotNull ExportSubscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(@NotNull R record) {
+                consumer.accept(record);
+            }
+
+            @Override
+            public void onError(@NotNull Throwable throwable) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    /**
+     * 订阅记录，订阅者将在新建的守护线程中执行。
+     *
+     * @param subscriber 订阅者
+     * @return {@link ExportSubscription} 实例
+     */
+    public @NotNull ExportSubscription subscribe(@NotNull ExportSubscriber<? super R> subscriber) {
+        return subscribe(subscriber, DEFAULT_THREAD_FACTORY);
+    }
+
+    /**
+     * 订阅记录，订阅者将在由给定的 {@link ThreadFactory} 创建的线程中执行。
+     * <br> 导出已关闭时，订阅者将在 {@link ExportSubscriber#onSubscribe(ExportSubscription)} 后立即收到
+     * {@link ExportSubscriber#onComplete()} 。
+     *
+     * @param subscriber    订阅者
+     * @param threadFactory 消费线程的创建方法
+     * @return {@link ExportSubscription} 实例
+     */
+    public synchronized @NotNull ExportSubscription subscribe(@NotNull ExportSubscriber<? super R> subscriber,
+                                                              @NotNull ThreadFactory threadFactory) {
+        Channel<R> channel = new Channel<>(this, subscriber);
+        if (this.closed) {
+            channel.completed = true;
+        } else {
+            Channel<R>[] channels = Arrays.copyOf(this.channels, this.channels.length + 1);
+            channels[channels.length - 1] = channel;
+            this.channels = channels;
+        }
+        threadFactory.newThread(channel).start();
+        return channel;
+    }
+
+    protected synchronized void remove(@NotNull Channel<R> channel) {
+        Channel<R>[] channels = this.channels;
+        for (int i = 0; i < channels.length; i++) {
+            if (channels[i] != channel) continue;
+            Channel<R>[] removed = Arrays.copyOf(channels, channels.length - 1);
+            System.arraycopy(channels, i + 1, removed, i, channels.length - i - 1);
+            this.channels = removed;
+            return;
+        }
+    }
+
+    /**
+     * 绑定写入本导出的事件处理器，关闭导出时将一并注销。
+     *
+     * @param registration 事件处理器的 {@link Subscription}
+     * @return 本实例
+     */
+    public @NotNull EventExporter<R> bind(@NotNull Subscription registration) {
+        this.registrations.add(registration);
+        if (this.closed) registration.unsubscribe();
+        return this;
+    }
+
+    /**
+     * 关闭导出，注销已绑定的事件处理器，并在各订阅者处理完缓冲区中的记录后通知其完成。
+     */
+    @SuppressWarnings("unchecked")
+    public void close() {
+        Channel<R>[] channels;
+        synchronized (this) {
+            if (this.closed) return;
+            this.closed = true;
+            channels = this.channels;
+            this.channels = (Channel<R>[]) new Channel<?>[0];
+        }
+        this.registrations.forEach(Subscription::unsubscribe);
+        for (Channel<R> channel : channels) channel.complete();
+    }
+
+    /**
+     * @return 是否已关闭
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return 每个订阅者的缓冲区容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return 缓冲区已满时的处理策略
+     */
+    public @NotNull ExportPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return 已写入的记录数量，不包括无订阅者时被忽略的记录
+     */
+    public long getPublished() {
+        return this.published.sum();
+    }
+
+    /**
+     * @return 当前全部订阅者被丢弃的记录数量之和
+     */
+    public long getDropped() {
+        long dropped = 0L;
+        for (Channel<R> channel : this.channels) dropped += channel.getDroppedOldest() + channel.getDroppedNewest();
+        return dropped;
+    }
+
+    /**
+     * @return 当前全部订阅
+     */
+    public @Unmodifiable @NotNull List<ExportSubscription> getSubscriptions() {
+        return Collections.unmodifiableList(Arrays.<ExportSubscription>asList(this.channels));
+    }
+
+    /**
+     * 单个订阅者的缓冲区与消费线程。
+     * <br> 消费线程无记录可处理时将挂起，写入线程仅在其挂起时唤醒，因此持续写入时不会产生额外的开销。
+     */
+    protected static class Channel<R> implements ExportSubscription, Runnable {
+
+        protected final @NotNull EventExporter<R> exporter;
+        protected final @NotNull ExportSubscriber<? super R> subscriber;
+        protected final @NotNull RingBuffer<R> ring;
+
+        protected final @NotNull AtomicLong requested = new AtomicLong();
+        protected final @NotNull LongAdder droppedOldest = new LongAdder();
+        protected final @NotNull LongAdder droppedNewest = new LongAdder();
+        protected final @NotNull LongAdder blocked = new LongAdder();
+        protected final @NotNull LongAdder blockedNanos = new LongAdder();
+
+        protected volatile long delivered = 0L; // 仅由消费线程修改
+        protected volatile boolean cancelled = false;
+        protected volatile boolean completed = false;
+        protected volatile boolean waiting = false;
+        protected volatile Throwable error;
+        protected Thread thread;
+
+        protected Channel(@NotNull EventExporter<R> exporter, @NotNull ExportSubscriber<? super R> subscriber) {
+            this.exporter = exporter;
+            this.subscriber = subscriber;
+            this.ring = new RingBuffer<>(exporter.capacity);
+        }
+
+        protected void offer(@NotNull R record) {
+            if (this.cancelled) return;
+            if (!this.ring.offer(record)) overflow(record);
+            signal();
+        }
+
+        protected void overflow(@NotNull R record) {
+            switch (this.exporter.policy) {
+                case DROP_NEWEST: {
+                    this.droppedNewest.increment();
+                    return;
+                }
+                case DROP_OLDEST: {
+                    do {
+                        if (this.ring.poll() != null) this.droppedOldest.increment();
+                    } while (!this.ring.offer(record));
+                    return;
+                }
+                case BLOCK: {
+                    long start = System.nanoTime();
+                    this.blocked.increment();
+                    signal();
+                    try {
+                        while (!this.ring.offer(record)) {
+                            if (this.cancelled) return;
+                            if (System.nanoTime() - start >= this.exporter.blockTimeout) {
+                                this.droppedNewest.increment();
+                                return;
+                            }
+                            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                        }
+                    } finally {
+                        this.blockedNanos.add(System.nanoTime() - start);
+                    }
+                }
+            }
+        }
+
+        protected void signal() {
+            if (this.waiting) LockSupport.unpark(this.thread);
+        }
+
+        protected void complete() {
+            this.completed = true;
+            signal();
+        }
+
+        @Override
+        public void run() {
+            this.thread = Thread.currentThread();
+            try {
+                this.subscriber.onSubscribe(this);
+            } catch (Throwable ex) {
+                fail(ex);
+                return;
+            }
+
+            int spins = 0;
+            while (!this.cancelled) {
+                Throwable error = this.error;
+                if (error != null) {
+                    fail(error);
+                    return;
+                }
+
+                long demand = this.requested.get();
+                if (demand > 0) {
+                    R record = this.ring.poll();
+                    if (record != null) {
+                        if (demand != Long.MAX_VALUE) this.requested.decrementAndGet();
+                        this.delivered++;
+                        spins = 0;
+                        try {
+                            this.subscriber.onNext(record);
+                        } catch (Throwable ex) {
+                            fail(ex);
+                            return;
+                        }
+                        continue;
+                    }
+                }
+
+                if (this.completed && this.ring.isEmpty()) {
+                    this.cancelled = true;
+                    this.subscriber.onComplete();
+                    return;
+                }
+
+                if (spins < IDLE_SPINS) {
+                    spins++;
+                    Thread.yield();
+                } else {
+                    spins = 0;
+                    await();
+                }
+            }
+            this.ring.clear();
+        }
+
+        /**
+         * 挂起消费线程，直到有记录可处理、订阅被取消或导出被关闭。
+         * <br> 先声明等待再检查条件，与写入线程先写入再检查等待的顺序相对，因此不会错过唤醒。
+         */
+        protected void await() {
+            this.waiting = true;
+            boolean idle = !this.cancelled && this.error == null
+                    && (this.requested.get() == 0 || this.ring.isEmpty())
+                    && !(this.completed && this.ring.isEmpty());
+            if (idle) LockSupport.park(this);
+            this.waiting = false;
+        }
+
+        protected void fail(@NotNull Throwable throwable) {
+            this.cancelled = true;
+            this.exporter.remove(this);
+            this.ring.clear();
+            this.subscriber.onError(throwable);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.error = new IllegalArgumentException("Requested " + n + " records, must be positive");
+            } else {
+                long current, next;
+                do {
+                    current = this.requested.get();
+                    if (current == Long.MAX_VALUE) return;
+                    next = current + n;
+                    if (next < 0) next = Long.MAX_VALUE;
+                } while (!this.requested.compareAndSet(current, next));
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            if (this.cancelled) return;
+            this.cancelled = true;
+            this.exporter.remove(this);
+            signal();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public long getDelivered() {
+            return delivered;
+        }
+
+        @Override
+        public int getPending() {
+            return this.ring.size();
+        }
+
+        @Override
+        public int getCapacity() {
+            return this.ring.capacity();
+        }
+
+        @Override
+        public long getDroppedOldest() {
+            return this.droppedOldest.sum();
+        }
+
+        @Override
+        public long getDroppedNewest() {
+            return this.droppedNewest.sum();
+        }
+
+        @Override
+        public long getBlocked() {
+            return this.blocked.sum();
+        }
+
+        @Override
+        public long getBlockedNanos() {
+            return this.blockedNanos.sum();
+        }
+
+    }
+
+}
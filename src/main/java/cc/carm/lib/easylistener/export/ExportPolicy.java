@@ -0,0 +1,28 @@
+package cc.carm.lib.easylistener.export;
+
+/**
+ * 订阅者的缓冲区已满时，写入新记录的处理策略。
+ *
+ * @author CarmJos
+ */
+public enum ExportPolicy {
+
+    /**
+     * 丢弃缓冲区中最早的记录，以写入新的记录。
+     * <br> 适用于仅关心最近数据的消费者，如实时监控面板。
+     */
+    DROP_OLDEST,
+
+    /**
+     * 直接丢弃新的记录。
+     * <br> 写入线程不会与消费者争用缓冲区，开销最低。
+     */
+    DROP_NEWEST,
+
+    /**
+     * 等待消费者处理记录以腾出空间，超出等待时限后丢弃新的记录。
+     * <br> 等待期间将阻塞触发事件的线程(通常为主线程)，应仅在消费者足够快且不允许丢失记录时使用。
+     */
+    BLOCK
+
+}
@@ -0,0 +1,41 @@
+package cc.carm.lib.easylistener.export;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 导出记录的订阅者，各方法的语义与 {@code java.util.concurrent.Flow.Subscriber} 一致。
+ * <br> 全部方法均在该订阅者专属的消费线程中依次调用，因此实现无需线程安全。
+ *
+ * @param <R> 记录的类型
+ * @author CarmJos
+ */
+public interface ExportSubscriber<R> {
+
+    /**
+     * 订阅开始时调用，需通过 {@link ExportSubscription#request(long)} 请求记录后才会收到记录。
+     *
+     * @param subscription 本次订阅
+     */
+    void onSubscribe(@NotNull ExportSubscription subscription);
+
+    /**
+     * 收到一条记录。
+     * <br> 抛出的异常将取消本次订阅，并交由 {@link #onError(Throwable)} 处理。
+     *
+     * @param record 记录
+     */
+    void onNext(@NotNull R record);
+
+    /**
+     * 订阅因异常而终止，之后不会再收到任何记录。
+     *
+     * @param throwable 异常
+     */
+    void onError(@NotNull Throwable throwable);
+
+    /**
+     * 导出已关闭，且缓冲区中的全部记录均已处理。
+     */
+    void onComplete();
+
+}
@@ -0,0 +1,66 @@
+package cc.carm.lib.easylistener.export;
+
+/**
+ * 订阅者与 {@link EventExporter} 之间的一次订阅，
+ * {@link #request(long)} 与 {@link #cancel()} 的语义与 {@code java.util.concurrent.Flow.Subscription} 一致。
+ * <br> 每个订阅拥有独立的缓冲区与背压计数，可在任意线程中读取。
+ *
+ * @author CarmJos
+ */
+public interface ExportSubscription {
+
+    /**
+     * 请求更多记录，订阅者仅会收到已请求数量的记录。
+     * <br> 请求 {@link Long#MAX_VALUE} 条记录视为不限数量。
+     * <br> 未请求的记录将暂存于缓冲区中，缓冲区写满后按 {@link ExportPolicy} 处理。
+     *
+     * @param n 请求的数量，须为正数，否则订阅将以 {@link IllegalArgumentException} 终止
+     */
+    void request(long n);
+
+    /**
+     * 取消订阅，之后订阅者不会再收到任何记录。
+     */
+    void cancel();
+
+    /**
+     * @return 订阅是否已取消或终止
+     */
+    boolean isCancelled();
+
+    /**
+     * @return 已交由订阅者处理的记录数量
+     */
+    long getDelivered();
+
+    /**
+     * @return 缓冲区中尚未处理的记录数量
+     */
+    int getPending();
+
+    /**
+     * @return 缓冲区容量
+     */
+    int getCapacity();
+
+    /**
+     * @return 因 {@link ExportPolicy#DROP_OLDEST} 而被丢弃的记录数量
+     */
+    long getDroppedOldest();
+
+    /**
+     * @return 因缓冲区已满而被丢弃的新记录数量，包括 {@link ExportPolicy#BLOCK} 等待超时的记录
+     */
+    long getDroppedNewest();
+
+    /**
+     * @return 因 {@link ExportPolicy#BLOCK} 而等待的次数
+     */
+    long getBlocked();
+
+    /**
+     * @return 因 {@link ExportPolicy#BLOCK} 而等待的总时长，单位为纳秒
+     */
+    long getBlockedNanos();
+
+}
@@ -0,0 +1,126 @@
+package cc.carm.lib.easylistener.export;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 预先分配的定长无锁环形缓冲区，可在多个线程中同时写入与读取。
+ * <br> 每个槽位附带一个序号，写入与读取均仅需一次 CAS 抢占位置，之后通过序号发布槽位，
+ * 写入与读取均不会创建任何对象，缓冲区写满时写入将直接失败而不会等待。
+ * <br> 容量将向上取整为 2 的幂，且至少为 2 (容量为 1 时已写入的序号将与下一次写入的位置相同)。
+ *
+ * @param <E> 元素的类型
+ * @author CarmJos
+ */
+public class RingBuffer<E> {
+
+    protected final @NotNull Object[] elements;
+    protected final @NotNull AtomicLongArray sequences;
+    protected final int mask;
+
+    protected final @NotNull AtomicLong head = new AtomicLong();
+    protected final @NotNull AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity 容量，将向上取整为 2 的幂，且至少为 2
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        if (capacity > (1 << 30)) throw new IllegalArgumentException("Capacity too large");
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit((capacity - 1) << 1);
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) this.sequences.set(i, i);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 写入一个元素。
+     *
+     * @param element 元素
+     * @return 是否写入成功，缓冲区已满时返回 false
+     */
+    public boolean offer(@NotNull E element) {
+        long position = this.head.get();
+        while (true) {
+            int index = (int) position & this.mask;
+            long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.head.compareAndSet(position, position + 1)) {
+                    this.elements[index] = element;
+                    // 此处须为 volatile 写入，以保证读取线程在进入等待前后总能看到新的元素
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+                position = this.head.get();
+            } else if (difference < 0) {
+                return false; // 该槽位尚未被上一轮读取，即缓冲区已满
+            } else {
+                position = this.head.get();
+            }
+        }
+    }
+
+    /**
+     * 读取并移除最早写入的元素。
+     *
+     * @return 最早写入的元素，缓冲区为空时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable E poll() {
+        long position = this.tail.get();
+        while (true) {
+            int index = (int) position & this.mask;
+            long difference = this.sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    E element = (E) this.elements[index];
+                    this.elements[index] = null;
+                    this.sequences.lazySet(index, position + this.mask + 1);
+                    return element;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return null; // 该槽位尚未被写入，即缓冲区为空
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return 缓冲区是否为空
+     */
+    public boolean isEmpty() {
+        long position = this.tail.get();
+        return this.sequences.get((int) position & this.mask) - (position + 1) < 0;
+    }
+
+    /**
+     * 读取时其他线程可能正在写入或读取，因此结果仅为近似值。
+     *
+     * @return 缓冲区中的元素数量
+     */
+    public int size() {
+        long size = this.head.get() - this.tail.get();
+        return (int) Math.max(0, Math.min(size, this.elements.length));
+    }
+
+    /**
+     * @return 缓冲区容量
+     */
+    public int capacity() {
+        return this.elements.length;
+    }
+
+    /**
+     * 移除缓冲区中的全部元素。
+     */
+    public void clear() {
+        while (poll() != null) ;
+    }
+
+}
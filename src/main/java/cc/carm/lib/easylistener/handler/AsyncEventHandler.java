@@ -0,0 +1,163 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.utils.TickScheduler;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * 异步处理事件的构造器。
+ * <br> 事件在主线程中被提取为快照数据，随后快照数据将在异步线程中被处理，
+ * 处理结果可再通过 {@link #handle(Function, Consumer)} 回到主线程中继续处理。
+ * <br> 同一时间内尚未处理完成的任务数量受 {@link #limit(int, OverflowPolicy)} 限制，超出部分将按策略丢弃或拒绝。
+ *
+ * <pre>{@code
+ * source.handleEvent(PlayerJoinEvent.class)
+ *         .snapshot(e -> e.getPlayer().getUniqueId())
+ *         .async(executor)
+ *         .handle(uuid -> database.load(uuid), data -> ...);
+ * }</pre>
+ *
+ * @param <T> 事件的类型
+ * @param <D> 快照数据的类型
+ * @author CarmJos
+ */
+public class AsyncEventHandler<T, D> {
+
+    public static final int DEFAULT_LIMIT = 1024;
+
+    /**
+     * 未处理完成的任务数量超出限制时的处理策略。
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * 直接丢弃新的任务。
+         */
+        DISCARD,
+
+        /**
+         * 抛出 {@link RejectedExecutionException} ，该异常将由服务端作为事件处理异常记录。
+         */
+        REJECT
+
+    }
+
+    protected final @NotNull BaseEventHandler<T, ?> handler;
+    protected final @NotNull Function<? super T, ? extends D> snapshot;
+
+    protected @Nullable Executor executor;
+    protected int limit = DEFAULT_LIMIT;
+    protected @NotNull OverflowPolicy policy = OverflowPolicy.DISCARD;
+
+    public AsyncEventHandler(@NotNull BaseEventHandler<T, ?> handler,
+                             @NotNull Function<? super T, ? extends D> snapshot) {
+        this.handler = handler;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * 设定执行异步任务的 {@link Executor} 。
+     * <br> 未设定时将使用 {@link org.bukkit.scheduler.BukkitScheduler#runTaskAsynchronously(Plugin, Runnable)} 。
+     *
+     * @param executor 执行异步任务的 {@link Executor}
+     * @return 本实例
+     */
+    public AsyncEventHandler<T, D> async(@Nullable Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * 限制同一时间内尚未处理完成的任务数量，超出部分将被丢弃。
+     *
+     * @param limit 最大任务数量
+     * @return 本实例
+     */
+    public AsyncEventHandler<T, D> limit(int limit) {
+        return limit(limit, OverflowPolicy.DISCARD);
+    }
+
+    /**
+     * 限制同一时间内尚未处理完成的任务数量。
+     *
+     * @param limit  最大任务数量
+     * @param policy 超出限制时的处理策略
+     * @return 本实例
+     */
+    public AsyncEventHandler<T, D> limit(int limit, @NotNull OverflowPolicy policy) {
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive");
+        this.limit = limit;
+        this.policy = policy;
+        return this;
+    }
+
+    /**
+     * 在异步线程中处理快照数据。
+     *
+     * @param task 异步处理方法
+     * @return 源 {@link EasyListener} 实例
+     */
+    public EasyListener handle(@NotNull Consumer<? super D> task) {
+        return handle(data -> {
+            task.accept(data);
+            return null;
+        }, null);
+    }
+
+    /**
+     * 在异步线程中处理快照数据，并在处理完成后回到主线程中处理结果。
+     *
+     * @param task 异步处理方法
+     * @param then 处理结果的方法，在主线程(区域多线程的服务端上为全局区域线程)中执行，可以为 null
+     * @param <R>  处理结果的类型
+     * @return 源 {@link EasyListener} 实例
+     */
+    public <R> EasyListener handle(@NotNull Function<? super D, ? extends R> task,
+                                   @Nullable Consumer<? super R> then) {
+        final EasyListener source = this.handler.source;
+        final Plugin plugin = source.getPlugin();
+        final Executor executor = this.executor != null ? this.executor
+                : runnable -> TickScheduler.runAsync(plugin, runnable);
+        final int limit = this.limit;
+        final OverflowPolicy policy = this.policy;
+        final AtomicInteger pending = new AtomicInteger();
+
+        return this.handler.handle(event -> {
+            D data = this.snapshot.apply(event);
+
+            if (pending.incrementAndGet() > limit) {
+                pending.decrementAndGet();
+                if (policy == OverflowPolicy.REJECT) {
+                    throw new RejectedExecutionException("Too many pending async tasks (limit " + limit + ")");
+                }
+                return;
+            }
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        R result = task.apply(data);
+                        if (then != null) TickScheduler.runSync(plugin, () -> then.accept(result));
+                    } catch (Throwable t) {
+                        plugin.getLogger().log(Level.SEVERE, "Could not handle async event task", t);
+                    } finally {
+                        pending.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException ex) {
+                pending.decrementAndGet();
+                throw ex;
+            }
+        });
+    }
+
+}
@@ -1,21 +1,33 @@
 package cc.carm.lib.easylistener.handler;
 
 import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.utils.AdaptiveFilter;
+import cc.carm.lib.easylistener.utils.BudgetGuard;
+import cc.carm.lib.easylistener.utils.HandlerBudget;
+import cc.carm.lib.easylistener.utils.RateFilters;
+import org.bukkit.Location;
 import org.bukkit.event.EventPriority;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 public abstract class BaseEventHandler<T, S extends BaseEventHandler<T, S>> {
 
     protected final @NotNull EasyListener source;
 
+    protected @Nullable String name = null;
     protected EventPriority priority = null;
     protected boolean ignoreCancelled = false;
 
     protected Predicate<T> predicate;
+    protected @Nullable HandlerBudget budget;
 
     public BaseEventHandler(@NotNull EasyListener source) {
         this.source = source;
@@ -23,6 +35,17 @@ public abstract class BaseEventHandler<T, S extends BaseEventHandler<T, S>> {
 
     protected abstract S getThis();
 
+    /**
+     * 为处理器命名，名称将用于 {@link EasyListener#metrics()} 中的统计数据。
+     *
+     * @param name 处理器名称
+     * @return 本实例
+     */
+    public S name(@Nullable String name) {
+        this.name = name;
+        return getThis();
+    }
+
     public S priority(@Nullable EventPriority priority) {
         this.priority = priority;
         return getThis();
@@ -47,4 +70,177 @@ public abstract class BaseEventHandler<T, S extends BaseEventHandler<T, S>> {
         return getThis();
     }
 
+    /**
+     * 添加一组按实测的拒绝率与耗时自动调整判断顺序的条件，详见 {@link AdaptiveFilter} 。
+     * <br> 组内的条件必须相互独立且没有副作用；条件组与其他条件之间仍按声明顺序判断。
+     *
+     * @param predicates 条件
+     * @return 本实例
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final S filterAdaptive(@NotNull Predicate<? super T>... predicates) {
+        return filter(AdaptiveFilter.of(predicates));
+    }
+
+    /**
+     * 为处理器设定耗时预算，超出预算时将记录警告，多次超出后处理器将被熔断。
+     * <br> 预算仅统计处理方法本身的耗时，不包括条件的判断。
+     * <br> 对于 {@code cancel(afterCancelled)} ，预算仅作用于取消后的处理方法，熔断期间事件仍将被取消。
+     *
+     * @param budget {@link HandlerBudget} 耗时预算，为 null 则不限制
+     * @return 本实例
+     */
+    public S budget(@Nullable HandlerBudget budget) {
+        this.budget = budget;
+        return getThis();
+    }
+
+    /**
+     * 节流，即对于同一个键，在给定间隔内仅处理第一个事件，其余事件将被过滤。
+     * <br> 与其他条件按声明顺序依次判断，因此通常应在其他条件之后声明。
+     * <br> 键为 null 的事件不受限制。玩家退出时，以该玩家实例、UUID或名称为键的记录将被清除。
+     *
+     * @param keyFunction 获取事件对应键的方法，如 {@code e -> e.getPlayer().getUniqueId()}
+     * @param interval    间隔时长
+     * @return 本实例
+     */
+    public S throttle(@NotNull Function<? super T, ?> keyFunction, @NotNull Duration interval) {
+        return filter(RateFilters.<T>throttle(source, keyFunction, interval));
+    }
+
+    /**
+     * 防抖，即对于同一个键，仅当距离上一个事件已超过给定间隔时才处理事件，其余事件将被过滤。
+     * <br> 被过滤的事件同样会重新计时，因此持续触发的键将一直被过滤，直至停止触发超过给定间隔。
+     * <br> 键为 null 的事件不受限制。玩家退出时，以该玩家实例、UUID或名称为键的记录将被清除。
+     *
+     * @param keyFunction 获取事件对应键的方法，如 {@code e -> e.getPlayer().getUniqueId()}
+     * @param interval    间隔时长
+     * @return 本实例
+     */
+    public S debounce(@NotNull Function<? super T, ?> keyFunction, @NotNull Duration interval) {
+        return filter(RateFilters.<T>debounce(source, keyFunction, interval));
+    }
+
+    /**
+     * 采样，即每 n 个事件仅处理第一个，其余事件将被过滤。
+     * <br> 若 {@link EasyListener#isConcurrent()} ，则各线程分别计数，无需争用同一计数器。
+     *
+     * @param n 采样间隔，为 1 时处理全部事件
+     * @return 本实例
+     */
+    public S sample(int n) {
+        return filter(RateFilters.<T>sample(source, n));
+    }
+
+    /**
+     * 在主线程中从事件提取不可变的快照数据，随后可通过 {@link AsyncEventHandler} 在异步线程中处理。
+     * <br> 快照中不应包含任何需要在主线程中访问的对象(如 {@link org.bukkit.entity.Player} 等)。
+     *
+     * @param snapshot 快照提取方法，在主线程中执行
+     * @param <D>      快照数据的类型
+     * @return {@link AsyncEventHandler} 构造器实例
+     */
+    public <D> @NotNull AsyncEventHandler<T, D> snapshot(@NotNull Function<? super T, ? extends D> snapshot) {
+        return new AsyncEventHandler<>(this, snapshot);
+    }
+
+    /**
+     * 并行处理异步事件，全部处理的结果将在事件线程中按顺序应用后，服务端才会继续处理该事件。
+     *
+     * @return {@link ParallelEventHandler} 构造器实例
+     */
+    public @NotNull ParallelEventHandler<T> parallel() {
+        return new ParallelEventHandler<>(this);
+    }
+
+    /**
+     * 将事件提取为记录，并按服务器刻批量处理。
+     * <br> 适用于高频触发且仅需汇总处理的事件，如 {@link org.bukkit.event.player.PlayerMoveEvent} 等。
+     *
+     * @param extractor 记录提取方法
+     * @param <R>       记录的类型
+     * @return {@link BatchEventHandler} 构造器实例
+     */
+    public <R> @NotNull BatchEventHandler<T, R> batch(@NotNull Function<? super T, ? extends R> extractor) {
+        return new BatchEventHandler<>(this, extractor);
+    }
+
+    /**
+     * 将事件提取为 long 记录，并按服务器刻批量处理。
+     * <br> 记录直接写入 long 数组，适用于仅需提取数值的高频事件。
+     *
+     * @param extractor 记录提取方法
+     * @return {@link LongBatchEventHandler} 构造器实例
+     */
+    public @NotNull LongBatchEventHandler<T> batchLongs(@NotNull ToLongFunction<? super T> extractor) {
+        return new LongBatchEventHandler<>(this, extractor);
+    }
+
+    /**
+     * 将事件提取为记录，并导出至其他线程处理。
+     * <br> 记录写入预先分配的无锁缓冲区，不会为每个事件创建额外的对象，适用于日志、分析与指标导出等场景。
+     *
+     * @param extractor 记录提取方法，在触发事件的线程中执行
+     * @param <R>       记录的类型
+     * @return {@link ExportEventHandler} 构造器实例
+     */
+    public <R> @NotNull ExportEventHandler<T, R> export(@NotNull Function<? super T, ? extends R> extractor) {
+        return new ExportEventHandler<>(this, extractor);
+    }
+
+    /**
+     * 按键分发满足条件的事件，每个事件仅需一次索引查找即可找到对应的处理方法。
+     * <br> 适用于大量仅键不同的处理器，如按方块类型、实体类型或玩家区分的处理器。
+     *
+     * @param keyFunction 键提取方法，返回 null 的事件将被忽略
+     * @param <K>         键的类型
+     * @return {@link KeyedEventHandler} 实例
+     */
+    public <K> @NotNull KeyedEventHandler<T, K> keyedBy(@NotNull Function<? super T, ? extends K> keyFunction) {
+        return new KeyedEventHandler<>(this, keyFunction);
+    }
+
+    /**
+     * 按区域分发满足条件的事件，每个事件仅会判断与其所在区块相交的区域。
+     * <br> 适用于大量按区域区分的处理器，如领地保护规则。
+     *
+     * @param locator 事件位置的提取方法，返回 null 的事件将被忽略
+     * @return {@link RegionEventHandler} 实例
+     */
+    public @NotNull RegionEventHandler<T> inRegion(@NotNull Function<? super T, ? extends Location> locator) {
+        return new RegionEventHandler<>(this, locator);
+    }
+
+    /**
+     * 处理满足条件的事件。
+     *
+     * @param eventConsumer 处理方法
+     * @return 源 {@link EasyListener} 实例
+     */
+    public abstract EasyListener handle(@NotNull Consumer<T> eventConsumer);
+
+    /**
+     * 按设定的耗时预算包装处理方法。
+     * <br> 包装后的处理方法将加入 {@link EasyListener#collect(Consumer)} 的收集结果，随处理器一同注销时停止采样。
+     *
+     * @param eventConsumer 处理方法
+     * @return 包装后的处理方法，未设定预算时返回原处理方法
+     */
+    protected @NotNull Consumer<T> guard(@NotNull Consumer<T> eventConsumer) {
+        if (this.budget == null) return eventConsumer;
+        String handlerName = Optional.ofNullable(this.name).orElseGet(() -> eventConsumer.getClass().getName());
+        return this.source.track(new BudgetGuard<>(this.source.getPlugin(), handlerName, this.budget, eventConsumer));
+    }
+
+    /**
+     * 处理满足条件的事件，并返回可单独注销的 {@link Subscription} 。
+     *
+     * @param eventConsumer 处理方法
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribe(@NotNull Consumer<T> eventConsumer) {
+        return this.source.collect(listener -> handle(eventConsumer));
+    }
+
 }
@@ -0,0 +1,296 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.SubscriptionGroup;
+import cc.carm.lib.easylistener.utils.TickScheduler;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 按服务器刻批量处理事件的构造器。
+ * <br> 每个事件仅由提取方法转换为一条记录并写入预先分配的缓冲区，缓冲区中的记录将每刻统一交由处理方法处理一次。
+ * <br> 缓冲区写满时容量将成倍增长，直至 {@link #maxCapacity(int)} ；
+ * 达到最大容量后，主线程中已写满的记录将被提前处理，以保证内存占用不随事件数量增长。
+ * <br> 缓冲区默认不保证线程安全，仅适用于在主线程中触发的事件；
+ * 若 {@link EasyListener#isConcurrent()} ，则将使用加锁的缓冲区，
+ * 达到最大容量时写满的记录将交由定时任务处理，处理方法始终不会在触发事件的线程中执行。
+ * <br> 定时处理记录的任务将随处理器一同注销，注销时缓冲区中剩余的记录将被立即处理；
+ * 处理器通过 {@link EasyListener#unregisterAll()} 等方式注销时，任务将在下一次执行时处理剩余的记录并自行取消。
+ *
+ * <pre>{@code
+ * source.handleEvent(PlayerMoveEvent.class)
+ *         .batch(e -> e.getPlayer().getUniqueId())
+ *         .handle(list -> statistics.addMoves(list));
+ * }</pre>
+ *
+ * @param <T> 事件的类型
+ * @param <R> 记录的类型
+ * @author CarmJos
+ */
+public class BatchEventHandler<T, R> {
+
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final int DEFAULT_MAX_CAPACITY = 65536;
+
+    protected final @NotNull BaseEventHandler<T, ?> handler;
+    protected final @NotNull Function<? super T, ? extends R> extractor;
+
+    protected int capacity = DEFAULT_CAPACITY;
+    protected int maxCapacity = DEFAULT_MAX_CAPACITY;
+    protected long interval = 1L;
+
+    public BatchEventHandler(@NotNull BaseEventHandler<T, ?> handler,
+                             @NotNull Function<? super T, ? extends R> extractor) {
+        this.handler = handler;
+        this.extractor = extractor;
+    }
+
+    /**
+     * 设定缓冲区的初始容量。
+     *
+     * @param capacity 缓冲区初始容量
+     * @return 本实例
+     */
+    public BatchEventHandler<T, R> capacity(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * 设定缓冲区的最大容量，即每次处理的最大记录数量，默认为 {@link #DEFAULT_MAX_CAPACITY} 。
+     * <br> 若小于初始容量，则以初始容量为准。
+     *
+     * @param maxCapacity 缓冲区最大容量
+     * @return 本实例
+     */
+    public BatchEventHandler<T, R> maxCapacity(int maxCapacity) {
+        if (maxCapacity <= 0) throw new IllegalArgumentException("Max capacity must be positive");
+        this.maxCapacity = maxCapacity;
+        return this;
+    }
+
+    /**
+     * 设定处理记录的间隔，默认为每刻处理一次。
+     *
+     * @param ticks 间隔刻数
+     * @return 本实例
+     */
+    public BatchEventHandler<T, R> interval(long ticks) {
+        if (ticks <= 0) throw new IllegalArgumentException("Interval must be positive");
+        this.interval = ticks;
+        return this;
+    }
+
+    /**
+     * 批量处理记录。
+     * <br> 传入处理方法的列表将被重复使用，仅在处理方法执行期间有效，如需保留请自行复制。
+     *
+     * @param consumer 处理方法，在主线程(区域多线程的服务端上为全局区域线程)中执行，传入的列表不会为空
+     * @return 源 {@link EasyListener} 实例
+     */
+    public EasyListener handle(@NotNull Consumer<? super List<R>> consumer) {
+        final int maxCapacity = Math.max(this.capacity, this.maxCapacity);
+        final RecordBuffer<R> buffer = this.handler.source.isConcurrent()
+                ? new SynchronizedRecordBuffer<>(this.capacity, maxCapacity, consumer)
+                : new RecordBuffer<>(this.capacity, maxCapacity, consumer);
+        final Function<? super T, ? extends R> extractor = this.extractor;
+        EasyListener source = this.handler.source;
+        SubscriptionGroup registrations = source.collect(listener -> this.handler.handle(event -> buffer.record(extractor.apply(event))));
+        source.track(new FlushTask(source.getPlugin(), registrations, buffer::flush, this.interval));
+        return source;
+    }
+
+    /**
+     * 批量处理记录，并返回可单独注销的 {@link Subscription} 。
+     * <br> 注销时将取消定时任务，并立即在当前线程中处理缓冲区中剩余的记录。
+     *
+     * @param consumer 处理方法
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribe(@NotNull Consumer<? super List<R>> consumer) {
+        return this.handler.source.collect(listener -> handle(consumer));
+    }
+
+    /**
+     * 定时处理缓冲区中记录的任务。
+     * <br> 注销时将取消任务，并处理缓冲区中剩余的记录；处理器已被注销时，任务将在下一次执行时自行注销。
+     */
+    protected static class FlushTask implements Subscription {
+
+        protected final @NotNull Subscription registrations;
+        protected final @NotNull Runnable flush;
+        protected final @NotNull Subscription task;
+        protected final AtomicBoolean stopped = new AtomicBoolean();
+
+        protected FlushTask(@NotNull Plugin plugin, @NotNull Subscription registrations,
+                            @NotNull Runnable flush, long interval) {
+            this.registrations = registrations;
+            this.flush = flush;
+            this.task = TickScheduler.runTimer(plugin, this::run, interval, interval);
+        }
+
+        protected void run() {
+            if (this.registrations.isActive()) {
+                this.flush.run();
+            } else {
+                unsubscribe();
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (!this.stopped.compareAndSet(false, true)) return;
+            this.task.unsubscribe();
+            this.flush.run();
+        }
+
+        @Override
+        public boolean isActive() {
+            return !this.stopped.get();
+        }
+
+    }
+
+    /**
+     * 以数组存放的一批记录。
+     */
+    protected static class Records<R> extends AbstractList<R> implements RandomAccess {
+
+        protected @NotNull Object[] records;
+        protected int size = 0;
+
+        protected Records(@NotNull Object[] records) {
+            this.records = records;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R get(int index) {
+            if (index < 0 || index >= this.size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+            }
+            return (R) this.records[index];
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+    }
+
+    /**
+     * 可重复使用的记录缓冲区，写满时容量成倍增长，达到最大容量后将提前处理已写满的记录。
+     */
+    protected static class RecordBuffer<R> extends Records<R> {
+
+        protected final int maxCapacity;
+        protected final @NotNull Consumer<? super List<R>> consumer;
+
+        protected RecordBuffer(int capacity, int maxCapacity, @NotNull Consumer<? super List<R>> consumer) {
+            super(new Object[capacity]);
+            this.maxCapacity = maxCapacity;
+            this.consumer = consumer;
+        }
+
+        public void record(R record) {
+            if (this.size == this.records.length && !grow()) flush();
+            this.records[this.size++] = record;
+        }
+
+        protected boolean grow() {
+            if (this.records.length >= this.maxCapacity) return false;
+            this.records = Arrays.copyOf(this.records, (int) Math.min((long) this.records.length << 1, this.maxCapacity));
+            return true;
+        }
+
+        public void flush() {
+            if (this.size == 0) return;
+            try {
+                this.consumer.accept(this);
+            } finally {
+                Arrays.fill(this.records, 0, this.size, null);
+                this.size = 0;
+            }
+        }
+
+    }
+
+    /**
+     * 可在多个线程中同时记录的缓冲区。
+     * <br> 记录在缓冲区的锁内写入；达到最大容量时，写满的数组将被移交至队列中，
+     * 与剩余的记录一同在 {@link #flush()} 的线程中于锁外处理，处理方法不会在记录的线程中执行。
+     */
+    protected static class SynchronizedRecordBuffer<R> extends RecordBuffer<R> {
+
+        protected static final Object[] EMPTY = new Object[0];
+
+        protected final @NotNull ArrayDeque<Object[]> filled = new ArrayDeque<>();
+        protected final @NotNull Records<R> batch = new Records<>(EMPTY);
+        protected @NotNull Object[] spare = EMPTY;
+
+        protected SynchronizedRecordBuffer(int capacity, int maxCapacity, @NotNull Consumer<? super List<R>> consumer) {
+            super(capacity, maxCapacity, consumer);
+        }
+
+        @Override
+        public synchronized void record(R record) {
+            if (this.size == this.records.length && !grow()) {
+                this.filled.add(this.records);
+                this.records = new Object[this.records.length];
+                this.size = 0;
+            }
+            this.records[this.size++] = record;
+        }
+
+        @Override
+        public void flush() {
+            synchronized (this.batch) {
+                Object[][] filled;
+                Object[] current;
+                int size;
+                synchronized (this) {
+                    if (this.size == 0 && this.filled.isEmpty()) return;
+                    filled = this.filled.toArray(new Object[0][]);
+                    this.filled.clear();
+                    current = this.records;
+                    size = this.size;
+                    this.records = this.spare.length == current.length ? this.spare : new Object[current.length];
+                    this.size = 0;
+                }
+                try {
+                    for (Object[] records : filled) accept(records, records.length);
+                    accept(current, size);
+                } finally {
+                    Arrays.fill(current, 0, size, null);
+                    this.spare = current;
+                }
+            }
+        }
+
+        protected void accept(@NotNull Object[] records, int size) {
+            if (size == 0) return;
+            this.batch.records = records;
+            this.batch.size = size;
+            try {
+                this.consumer.accept(this.batch);
+            } finally {
+                this.batch.records = EMPTY;
+                this.batch.size = 0;
+            }
+        }
+
+    }
+
+}
@@ -1,12 +1,18 @@
 package cc.carm.lib.easylistener.handler;
 
 import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.utils.AdaptiveFilter;
+import cc.carm.lib.easylistener.utils.BudgetGuard;
+import cc.carm.lib.easylistener.utils.HandlerBudget;
+import cc.carm.lib.easylistener.utils.RateFilters;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.*;
@@ -17,9 +23,11 @@ public class BundleEventHandler<T, E extends Event> {
 
     protected final Class<E> eventType;
     protected final Class<T> handleClass;
-    protected final Map<Class<? extends E>, EventWrapper<? extends E, T>> wrappers = new HashMap<>();
+    protected final Map<Class<? extends E>, EventWrapper<? extends E, T>> wrappers = new LinkedHashMap<>();
 
+    protected @Nullable String name;
     protected BiPredicate<T, E> predicate;
+    protected @Nullable HandlerBudget budget;
 
     public BundleEventHandler(EasyListener source, Class<T> handleClass, Class<E> eventType) {
         this.source = source;
@@ -39,6 +47,30 @@ public class BundleEventHandler<T, E extends Event> {
         return this;
     }
 
+    /**
+     * 为处理器命名，名称将用于 {@link EasyListener#metrics()} 中的统计数据。
+     *
+     * @param name 处理器名称
+     * @return 本实例
+     */
+    public BundleEventHandler<T, E> name(@Nullable String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * 为处理器设定耗时预算，超出预算时将记录警告，多次超出后处理器将被熔断，详见 {@link BudgetGuard} 。
+     * <br> 预算仅统计处理方法本身的耗时，不包括事件的转换与条件的判断；全部来源事件共用同一预算。
+     * <br> 对于 {@link #cancel(BiConsumer)} ，预算仅作用于取消后的处理方法，熔断期间事件仍将被取消。
+     *
+     * @param budget {@link HandlerBudget} 耗时预算，为 null 则不限制
+     * @return 本实例
+     */
+    public BundleEventHandler<T, E> budget(@Nullable HandlerBudget budget) {
+        this.budget = budget;
+        return this;
+    }
+
     public BundleEventHandler<T, E> filter(@Nullable BiPredicate<T, E> predicate) {
         if (predicate == null) return this;
 
@@ -53,9 +85,59 @@ public class BundleEventHandler<T, E extends Event> {
         return this;
     }
 
+    /**
+     * 添加一组按实测的拒绝率与耗时自动调整判断顺序的条件，详见 {@link AdaptiveFilter} 。
+     * <br> 组内的条件必须相互独立且没有副作用；条件组与其他条件之间仍按声明顺序判断。
+     *
+     * @param predicates 条件
+     * @return 本实例
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final BundleEventHandler<T, E> filterAdaptive(@NotNull Predicate<? super T>... predicates) {
+        return filter(AdaptiveFilter.of(predicates));
+    }
+
+    /**
+     * 节流，即对于同一个键，在给定间隔内仅处理第一个目标，其余事件将被过滤。
+     * <br> 与其他条件按声明顺序依次判断，因此通常应在其他条件之后声明。
+     * <br> 键为 null 的事件不受限制。玩家退出时，以该玩家实例、UUID或名称为键的记录将被清除。
+     *
+     * @param keyFunction 获取目标对应键的方法，如 {@code player -> player.getUniqueId()}
+     * @param interval    间隔时长
+     * @return 本实例
+     */
+    public BundleEventHandler<T, E> throttle(@NotNull Function<? super T, ?> keyFunction, @NotNull Duration interval) {
+        return filter(RateFilters.<T>throttle(source, keyFunction, interval));
+    }
+
+    /**
+     * 防抖，即对于同一个键，仅当距离上一个事件已超过给定间隔时才处理事件，其余事件将被过滤。
+     * <br> 被过滤的事件同样会重新计时，因此持续触发的键将一直被过滤，直至停止触发超过给定间隔。
+     * <br> 键为 null 的事件不受限制。玩家退出时，以该玩家实例、UUID或名称为键的记录将被清除。
+     *
+     * @param keyFunction 获取目标对应键的方法，如 {@code player -> player.getUniqueId()}
+     * @param interval    间隔时长
+     * @return 本实例
+     */
+    public BundleEventHandler<T, E> debounce(@NotNull Function<? super T, ?> keyFunction, @NotNull Duration interval) {
+        return filter(RateFilters.<T>debounce(source, keyFunction, interval));
+    }
+
+    /**
+     * 采样，即每 n 个事件仅处理第一个，其余事件将被过滤。
+     * <br> 若 {@link EasyListener#isConcurrent()} ，则各线程分别计数，无需争用同一计数器。
+     *
+     * @param n 采样间隔，为 1 时处理全部事件
+     * @return 本实例
+     */
+    public BundleEventHandler<T, E> sample(int n) {
+        return filter(RateFilters.<T>sample(source, n));
+    }
+
     public EasyListener handle(@NotNull BiConsumer<T, E> consumer) {
-        BiPredicate<T, E> predicate = Optional.ofNullable(this.predicate).orElse((t, e) -> true);
-        this.wrappers.values().forEach(wrapper -> wrapper.handle(source, predicate, consumer));
+        BiConsumer<T, E> guarded = guard(consumer);
+        this.wrappers.values().forEach(wrapper -> wrapper.handle(source, name, predicate, guarded));
         return source;
     }
 
@@ -63,20 +145,43 @@ public class BundleEventHandler<T, E extends Event> {
         return handle((t, e) -> consumer.accept(t));
     }
 
+    /**
+     * 处理全部事件，并返回可一次性注销全部处理器的 {@link Subscription} 。
+     *
+     * @param consumer 处理方法
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribe(@NotNull BiConsumer<T, E> consumer) {
+        return this.source.collect(listener -> handle(consumer));
+    }
+
     public EasyListener cancel() {
         return cancel((BiConsumer<T, E>) null);
     }
 
     public EasyListener cancel(@Nullable BiConsumer<T, E> afterCancelled) {
-        BiConsumer<T, E> consumer = Optional.ofNullable(afterCancelled).orElse((t, e) -> {
-            //Do nothing
-        });
-        this.wrappers.values().forEach(wrapper -> wrapper.cancel(source, predicate, consumer));
+        BiConsumer<T, E> consumer = Optional.ofNullable(afterCancelled).map(this::guard).orElse(null);
+        this.wrappers.values().forEach(wrapper -> wrapper.cancel(source, name, predicate, consumer));
         return source;
     }
 
     public EasyListener cancel(@Nullable Consumer<T> afterCancelled) {
-        return cancel((t, e) -> Optional.ofNullable(afterCancelled).ifPresent(c -> c.accept(t)));
+        if (afterCancelled == null) return cancel((BiConsumer<T, E>) null);
+        return cancel((t, e) -> afterCancelled.accept(t));
+    }
+
+    /**
+     * 按设定的耗时预算包装处理方法。
+     * <br> 包装后的处理方法将加入 {@link EasyListener#collect(Consumer)} 的收集结果，随处理器一同注销时停止采样。
+     *
+     * @param consumer 处理方法
+     * @return 包装后的处理方法，未设定预算时返回原处理方法
+     */
+    protected @NotNull BiConsumer<T, E> guard(@NotNull BiConsumer<T, E> consumer) {
+        if (this.budget == null) return consumer;
+        String handlerName = Optional.ofNullable(this.name).orElseGet(() -> consumer.getClass().getName());
+        BudgetGuard<?> guard = this.source.track(new BudgetGuard<>(this.source.getPlugin(), handlerName, this.budget));
+        return (t, e) -> guard.accept(t, e, consumer);
     }
 
     protected static class EventWrapper<E extends Event, T> {
@@ -93,22 +198,74 @@ public class BundleEventHandler<T, E extends Event> {
             this.priority = priority;
         }
 
-        public void handle(@NotNull EasyListener source,
-                           @NotNull BiPredicate<T, ? super E> predicate, @NotNull BiConsumer<T, ? super E> consumer) {
-            source.handle(this.eventClass, this.priority, event -> {
-                T wrapper = this.wrapper.apply(event);
-                if (predicate.test(wrapper, event)) consumer.accept(wrapper, event);
-            });
+        public void handle(@NotNull EasyListener source, @Nullable String name,
+                           @Nullable BiPredicate<T, ? super E> predicate, @NotNull BiConsumer<T, ? super E> consumer) {
+            if (predicate == null) {
+                source.handle(this.eventClass, this.priority, false, name, null,
+                        event -> consumer.accept(this.wrapper.apply(event), event));
+                return;
+            }
+            Wrapped<E, T> wrapped = new Wrapped<>(this.wrapper, !source.isConcurrent());
+            source.handle(this.eventClass, this.priority, false, name,
+                    event -> wrapped.test(event, predicate),
+                    event -> consumer.accept(wrapped.take(event), event)
+            );
         }
 
-        public void cancel(@NotNull EasyListener source,
-                           @NotNull BiPredicate<T, ? super E> predicate,
-                           @NotNull BiConsumer<T, ? super E> afterCancelled) {
-            source.cancel(
-                    this.eventClass, this.priority,
-                    event -> predicate.test(this.wrapper.apply(event), event),
-                    event -> afterCancelled.accept(this.wrapper.apply(event), event)
-            );
+        public void cancel(@NotNull EasyListener source, @Nullable String name,
+                           @Nullable BiPredicate<T, ? super E> predicate,
+                           @Nullable BiConsumer<T, ? super E> afterCancelled) {
+            if (afterCancelled == null) {
+                source.cancel(this.eventClass, this.priority, name,
+                        predicate == null ? null : event -> predicate.test(this.wrapper.apply(event), event), null);
+            } else if (predicate == null) {
+                source.cancel(this.eventClass, this.priority, name, null,
+                        event -> afterCancelled.accept(this.wrapper.apply(event), event));
+            } else {
+                Wrapped<E, T> wrapped = new Wrapped<>(this.wrapper, !source.isConcurrent());
+                source.cancel(this.eventClass, this.priority, name,
+                        event -> wrapped.test(event, predicate),
+                        event -> afterCancelled.accept(wrapped.take(event), event)
+                );
+            }
+        }
+
+    }
+
+    /**
+     * 在条件与处理方法之间传递转换结果，使每个事件仅转换一次。
+     * <br> 转换结果仅在条件满足后暂存，并在处理方法取出时清除，不会在事件处理结束后继续持有事件。
+     * <br> 若事件可能同时在多个线程中分发，则不暂存转换结果，处理方法将重新转换事件。
+     */
+    protected static final class Wrapped<E, T> {
+
+        protected final @NotNull Function<E, T> wrapper;
+        protected final boolean memoize;
+
+        protected @Nullable E event;
+        protected @Nullable T value;
+
+        protected Wrapped(@NotNull Function<E, T> wrapper, boolean memoize) {
+            this.wrapper = wrapper;
+            this.memoize = memoize;
+        }
+
+        protected boolean test(@NotNull E event, @NotNull BiPredicate<T, ? super E> predicate) {
+            T value = this.wrapper.apply(event);
+            if (!predicate.test(value, event)) return false;
+            if (this.memoize) {
+                this.event = event;
+                this.value = value;
+            }
+            return true;
+        }
+
+        protected T take(@NotNull E event) {
+            if (this.event != event) return this.wrapper.apply(event);
+            T value = this.value;
+            this.event = null;
+            this.value = null;
+            return value;
         }
 
     }
@@ -0,0 +1,120 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.export.EventExporter;
+import cc.carm.lib.easylistener.export.ExportPolicy;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 将事件提取为记录并导出至其他线程的构造器。
+ * <br> 记录写入每个订阅者预先分配的无锁缓冲区，由订阅者在各自的线程中处理，适用于日志、反作弊分析与指标导出等场景。
+ * <br> 无订阅者时将跳过记录的提取。
+ *
+ * <pre>{@code
+ * EventExporter<BlockRecord> exporter = source.handleEvent(BlockBreakEvent.class)
+ *         .export(e -> new BlockRecord(e.getPlayer().getUniqueId(), e.getBlock().getType()))
+ *         .capacity(8192).policy(ExportPolicy.BLOCK, Duration.ofMillis(2))
+ *         .publish();
+ * exporter.subscribe(new ExportSubscriber<BlockRecord>() { ... });
+ * }</pre>
+ *
+ * @param <T> 事件的类型
+ * @param <R> 记录的类型
+ * @author CarmJos
+ */
+public class ExportEventHandler<T, R> {
+
+    protected final @NotNull BaseEventHandler<T, ?> handler;
+    protected final @NotNull Function<? super T, ? extends R> extractor;
+
+    protected int capacity = EventExporter.DEFAULT_CAPACITY;
+    protected @NotNull ExportPolicy policy = ExportPolicy.DROP_NEWEST;
+    protected @NotNull Duration blockTimeout = EventExporter.DEFAULT_BLOCK_TIMEOUT;
+
+    public ExportEventHandler(@NotNull BaseEventHandler<T, ?> handler,
+                              @NotNull Function<? super T, ? extends R> extractor) {
+        this.handler = handler;
+        this.extractor = extractor;
+    }
+
+    /**
+     * 设定每个订阅者的缓冲区容量，将向上取整为 2 的幂。
+     *
+     * @param capacity 缓冲区容量
+     * @return 本实例
+     */
+    public ExportEventHandler<T, R> capacity(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * 设定缓冲区已满时的处理策略，默认为 {@link ExportPolicy#DROP_NEWEST} 。
+     *
+     * @param policy 处理策略
+     * @return 本实例
+     */
+    public ExportEventHandler<T, R> policy(@NotNull ExportPolicy policy) {
+        this.policy = policy;
+        return this;
+    }
+
+    /**
+     * 设定缓冲区已满时的处理策略，以及 {@link ExportPolicy#BLOCK} 的最长等待时间。
+     *
+     * @param policy       处理策略
+     * @param blockTimeout 最长等待时间
+     * @return 本实例
+     */
+    public ExportEventHandler<T, R> policy(@NotNull ExportPolicy policy, @NotNull Duration blockTimeout) {
+        if (blockTimeout.isNegative()) throw new IllegalArgumentException("Block timeout must not be negative");
+        this.policy = policy;
+        this.blockTimeout = blockTimeout;
+        return this;
+    }
+
+    /**
+     * 创建新的 {@link EventExporter} 并写入记录，关闭导出时将一并注销本处理器。
+     *
+     * @return {@link EventExporter} 实例
+     */
+    public @NotNull EventExporter<R> publish() {
+        EventExporter<R> exporter = new EventExporter<>(this.capacity, this.policy, this.blockTimeout);
+        return exporter.bind(subscribe(exporter));
+    }
+
+    /**
+     * 将记录写入已有的 {@link EventExporter} ，可用于将多种事件导出至同一发布者。
+     * <br> 此时将使用该发布者的缓冲区设定，本构造器的设定不会生效。
+     *
+     * @param exporter 发布者
+     * @return 源 {@link EasyListener} 实例
+     */
+    public EasyListener handle(@NotNull EventExporter<? super R> exporter) {
+        return this.handler.handle(writer(exporter));
+    }
+
+    /**
+     * 将记录写入已有的 {@link EventExporter} ，并返回可单独注销的 {@link Subscription} 。
+     *
+     * @param exporter 发布者
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribe(@NotNull EventExporter<? super R> exporter) {
+        return this.handler.subscribe(writer(exporter));
+    }
+
+    protected @NotNull Consumer<T> writer(@NotNull EventExporter<? super R> exporter) {
+        final Function<? super T, ? extends R> extractor = this.extractor;
+        return event -> {
+            if (exporter.hasSubscribers()) exporter.publish(extractor.apply(event));
+        };
+    }
+
+}
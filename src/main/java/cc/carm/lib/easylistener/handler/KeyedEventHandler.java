@@ -0,0 +1,337 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 按键分发事件的处理器。
+ * <br> 事件仅会被提取一次键，随后通过一次索引查找交由该键对应的处理方法处理，
+ * 因此无论注册了多少个键，分发的开销都是固定的。
+ * <br> 键为枚举（如 {@link org.bukkit.Material} 、 {@link org.bukkit.entity.EntityType} ）时使用 {@link EnumMap} 索引，否则使用 {@link HashMap} 索引。
+ * <br> 以玩家实例或玩家UUID为键时，玩家退出后与之相关的处理方法将通过 {@link EasyListener#evictions()} 自动移除。
+ * <br> 全部键共用一个处理器，其仅在存在处理方法时注册，且不属于任何 {@link EasyListener#collect(Consumer)} 或 {@link cc.carm.lib.easylistener.HandlerGroup} ；
+ * 各处理方法则属于其注册时所在的收集结果，并受其所在组的暂停控制。
+ * <br> 修改时以源 {@link EasyListener} 为锁，与注册及注销处理器的顺序一致，分发时则无需加锁。
+ * 同时新增多个键时应使用 {@link #on(Map)} 或 {@link #on(Collection, Consumer)} ，索引仅需复制一次。
+ *
+ * <pre>{@code
+ * source.handleEvent(BlockBreakEvent.class)
+ *         .keyedBy(e -> e.getBlock().getType())
+ *         .on(Material.STONE, e -> ...)
+ *         .on(Material.DIAMOND_ORE, e -> ...);
+ * }</pre>
+ *
+ * @param <T> 事件的类型
+ * @param <K> 键的类型
+ * @author CarmJos
+ */
+public class KeyedEventHandler<T, K> implements Subscription {
+
+    protected static final Consumer<?>[] EMPTY = new Consumer<?>[0];
+
+    protected final @NotNull BaseEventHandler<T, ?> handler;
+    protected final @NotNull Function<? super T, ? extends K> keyFunction;
+
+    protected volatile @NotNull Map<K, Consumer<? super T>[]> index = Collections.emptyMap();
+
+    protected @Nullable Subscription registration;
+    protected @Nullable Subscription eviction;
+
+    public KeyedEventHandler(@NotNull BaseEventHandler<T, ?> handler,
+                             @NotNull Function<? super T, ? extends K> keyFunction) {
+        this.handler = handler;
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * 为给定键新增一个处理方法。
+     *
+     * @param key      键
+     * @param consumer 处理方法
+     * @return 本实例
+     */
+    public KeyedEventHandler<T, K> on(@NotNull K key, @NotNull Consumer<? super T> consumer) {
+        subscribe(key, consumer);
+        return this;
+    }
+
+    /**
+     * 为多个键新增同一个处理方法。
+     *
+     * @param keys     键
+     * @param consumer 处理方法
+     * @return 本实例
+     */
+    public KeyedEventHandler<T, K> on(@NotNull Collection<? extends K> keys, @NotNull Consumer<? super T> consumer) {
+        Map<K, Consumer<? super T>> consumers = new LinkedHashMap<>();
+        for (K key : keys) consumers.put(key, consumer);
+        subscribeAll(consumers);
+        return this;
+    }
+
+    /**
+     * 一次性为多个键分别新增处理方法。
+     *
+     * @param consumers 键与其对应的处理方法
+     * @return 本实例
+     */
+    public KeyedEventHandler<T, K> on(@NotNull Map<? extends K, ? extends Consumer<? super T>> consumers) {
+        subscribeAll(consumers);
+        return this;
+    }
+
+    /**
+     * 为给定键新增一个处理方法，并返回可单独移除该处理方法的 {@link Subscription} 。
+     *
+     * @param key      键
+     * @param consumer 处理方法
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribe(@NotNull K key, @NotNull Consumer<? super T> consumer) {
+        return subscribeAll(Collections.singletonMap(key, consumer));
+    }
+
+    /**
+     * 一次性为多个键分别新增处理方法，并返回可一次性移除这些处理方法的 {@link Subscription} 。
+     * <br> 索引仅会被复制一次。
+     *
+     * @param consumers 键与其对应的处理方法
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribeAll(@NotNull Map<? extends K, ? extends Consumer<? super T>> consumers) {
+        EasyListener source = this.handler.source;
+        synchronized (source) {
+            Map<K, Consumer<? super T>> added = new LinkedHashMap<>();
+            Map<K, Consumer<? super T>[]> copy = null;
+            boolean players = false;
+            for (Map.Entry<? extends K, ? extends Consumer<? super T>> entry : consumers.entrySet()) {
+                K key = entry.getKey();
+                Consumer<? super T> consumer = source.gate(entry.getValue());
+                if (copy == null) copy = copyIndex(key);
+
+                Consumer<? super T>[] current = copy.get(key);
+                copy.put(key, append(current == null ? empty() : current, consumer));
+                added.put(key, consumer);
+                players |= key instanceof Player || key instanceof UUID;
+            }
+
+            if (copy != null) {
+                this.index = copy;
+                register(players);
+            }
+            return source.track(new KeyedSubscription(added));
+        }
+    }
+
+    /**
+     * 移除给定键的全部处理方法。
+     *
+     * @param key 键
+     * @return 本实例
+     */
+    public KeyedEventHandler<T, K> remove(@NotNull K key) {
+        synchronized (this.handler.source) {
+            if (!this.index.containsKey(key)) return this;
+            Map<K, Consumer<? super T>[]> copy = copyIndex(key);
+            copy.remove(key);
+            update(copy);
+        }
+        return this;
+    }
+
+    /**
+     * 移除给定键的一个处理方法。
+     * <br> 在 {@link cc.carm.lib.easylistener.HandlerGroup} 中新增的处理方法已被包装，需通过新增时返回的 {@link Subscription} 移除。
+     *
+     * @param key      键
+     * @param consumer 处理方法
+     * @return 本实例
+     */
+    public KeyedEventHandler<T, K> remove(@NotNull K key, @NotNull Consumer<? super T> consumer) {
+        removeAll(Collections.singletonMap(key, consumer));
+        return this;
+    }
+
+    /**
+     * 移除与给定玩家相关的处理方法，即以玩家实例或玩家UUID为键的处理方法。
+     *
+     * @param player 玩家
+     */
+    public void evict(@NotNull Player player) {
+        if (!this.index.containsKey(player) && !this.index.containsKey(player.getUniqueId())) return;
+        synchronized (this.handler.source) {
+            Map<K, Consumer<? super T>[]> copy = new HashMap<>(this.index);
+            copy.remove(player);
+            copy.remove(player.getUniqueId());
+            update(copy);
+        }
+    }
+
+    /**
+     * @return 当前已注册的全部键
+     */
+    public @Unmodifiable @NotNull Set<K> keys() {
+        return Collections.unmodifiableSet(this.index.keySet());
+    }
+
+    /**
+     * @return 当前已注册的键的数量
+     */
+    public int size() {
+        return this.index.size();
+    }
+
+    /**
+     * @return 源 {@link EasyListener} 实例
+     */
+    public @NotNull EasyListener getSource() {
+        return this.handler.source;
+    }
+
+    /**
+     * 注销本处理器，并移除全部键的处理方法。
+     */
+    @Override
+    public void unsubscribe() {
+        synchronized (this.handler.source) {
+            update(Collections.emptyMap());
+        }
+    }
+
+    @Override
+    public boolean isActive() {
+        Subscription registration = this.registration;
+        return registration != null && registration.isActive();
+    }
+
+    /**
+     * 注册共用的处理器与玩家退出时的清除方法，若其已被注销(如通过 {@link EasyListener#unregisterAll()})则重新注册。
+     *
+     * @param players 是否存在以玩家实例或玩家UUID为键的处理方法
+     */
+    protected void register(boolean players) {
+        EasyListener source = this.handler.source;
+        if (this.registration == null || !this.registration.isActive()) {
+            this.registration = source.shared(() -> this.handler.subscribe(this::dispatch));
+        }
+        if (players && (this.eviction == null || !this.eviction.isActive())) {
+            this.eviction = source.evictions().onQuit(this, KeyedEventHandler::evict);
+        }
+    }
+
+    /**
+     * 替换索引，若已没有任何处理方法，则注销共用的处理器。
+     *
+     * @param index 新的索引
+     */
+    protected void update(@NotNull Map<K, Consumer<? super T>[]> index) {
+        this.index = index.isEmpty() ? Collections.emptyMap() : index;
+        if (!index.isEmpty()) return;
+
+        if (this.registration != null) this.registration.unsubscribe();
+        if (this.eviction != null) this.eviction.unsubscribe();
+        this.registration = null;
+        this.eviction = null;
+    }
+
+    protected void removeAll(@NotNull Map<K, Consumer<? super T>> removed) {
+        synchronized (this.handler.source) {
+            Map<K, Consumer<? super T>[]> copy = null;
+            for (Map.Entry<K, Consumer<? super T>> entry : removed.entrySet()) {
+                K key = entry.getKey();
+                Consumer<? super T>[] current = (copy == null ? this.index : copy).get(key);
+                if (current == null) continue;
+
+                int position = indexOf(current, entry.getValue());
+                if (position < 0) continue;
+                if (copy == null) copy = copyIndex(key);
+                if (current.length == 1) {
+                    copy.remove(key);
+                } else {
+                    Consumer<? super T>[] updated = Arrays.copyOf(current, current.length - 1);
+                    System.arraycopy(current, position + 1, updated, position, current.length - position - 1);
+                    copy.put(key, updated);
+                }
+            }
+            if (copy != null) update(copy);
+        }
+    }
+
+    protected void dispatch(@NotNull T event) {
+        K key = this.keyFunction.apply(event);
+        if (key == null) return;
+
+        Consumer<? super T>[] consumers = this.index.get(key);
+        if (consumers == null) return;
+
+        for (Consumer<? super T> consumer : consumers) {
+            consumer.accept(event);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected @NotNull Map<K, Consumer<? super T>[]> copyIndex(@NotNull K key) {
+        Map<K, Consumer<? super T>[]> current = this.index;
+        if (current instanceof EnumMap) return new EnumMap((EnumMap) current);
+        if (current.isEmpty() && key instanceof Enum) {
+            return new EnumMap(((Enum<?>) key).getDeclaringClass());
+        }
+        return new HashMap<>(current);
+    }
+
+    protected static <T> Consumer<? super T>[] append(@NotNull Consumer<? super T>[] current,
+                                                      @NotNull Consumer<? super T> consumer) {
+        Consumer<? super T>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = consumer;
+        return updated;
+    }
+
+    protected static int indexOf(@NotNull Consumer<?>[] consumers, @NotNull Consumer<?> consumer) {
+        for (int i = 0; i < consumers.length; i++) {
+            if (consumers[i] == consumer) return i;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <T> Consumer<? super T>[] empty() {
+        return (Consumer<? super T>[]) EMPTY;
+    }
+
+    /**
+     * 一次新增的全部处理方法。
+     */
+    protected class KeyedSubscription implements Subscription {
+
+        protected final @NotNull Map<K, Consumer<? super T>> consumers;
+
+        protected KeyedSubscription(@NotNull Map<K, Consumer<? super T>> consumers) {
+            this.consumers = consumers;
+        }
+
+        @Override
+        public void unsubscribe() {
+            removeAll(this.consumers);
+        }
+
+        @Override
+        public boolean isActive() {
+            Map<K, Consumer<? super T>[]> index = KeyedEventHandler.this.index;
+            for (Map.Entry<K, Consumer<? super T>> entry : this.consumers.entrySet()) {
+                Consumer<? super T>[] current = index.get(entry.getKey());
+                if (current != null && indexOf(current, entry.getValue()) >= 0) return true;
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,210 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.SubscriptionGroup;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按服务器刻批量处理事件的构造器，以 long 数组存放记录。
+ * <br> 与 {@link BatchEventHandler} 相同，但记录直接写入 long 数组，写入时不会产生任何对象。
+ * <br> 缓冲区容量的增长方式与线程安全性均与 {@link BatchEventHandler} 相同。
+ * <br> 定时任务的注销方式与 {@link BatchEventHandler} 相同。
+ *
+ * @param <T> 事件的类型
+ * @author CarmJos
+ */
+public class LongBatchEventHandler<T> {
+
+    /**
+     * 批量处理 long 记录的方法。
+     */
+    @FunctionalInterface
+    public interface LongBatchConsumer {
+
+        /**
+         * 处理一批记录。
+         * <br> 传入的数组将被重复使用，仅在方法执行期间有效，如需保留请自行复制。
+         *
+         * @param values 记录数组
+         * @param size   有效记录数量，即 values[0] ~ values[size - 1]
+         */
+        void accept(long[] values, int size);
+
+    }
+
+    protected final @NotNull BaseEventHandler<T, ?> handler;
+    protected final @NotNull ToLongFunction<? super T> extractor;
+
+    protected int capacity = BatchEventHandler.DEFAULT_CAPACITY;
+    protected int maxCapacity = BatchEventHandler.DEFAULT_MAX_CAPACITY;
+    protected long interval = 1L;
+
+    public LongBatchEventHandler(@NotNull BaseEventHandler<T, ?> handler,
+                                 @NotNull ToLongFunction<? super T> extractor) {
+        this.handler = handler;
+        this.extractor = extractor;
+    }
+
+    /**
+     * 设定缓冲区的初始容量。
+     *
+     * @param capacity 缓冲区初始容量
+     * @return 本实例
+     */
+    public LongBatchEventHandler<T> capacity(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * 设定缓冲区的最大容量，即每次处理的最大记录数量，默认为 {@link BatchEventHandler#DEFAULT_MAX_CAPACITY} 。
+     * <br> 若小于初始容量，则以初始容量为准。
+     *
+     * @param maxCapacity 缓冲区最大容量
+     * @return 本实例
+     */
+    public LongBatchEventHandler<T> maxCapacity(int maxCapacity) {
+        if (maxCapacity <= 0) throw new IllegalArgumentException("Max capacity must be positive");
+        this.maxCapacity = maxCapacity;
+        return this;
+    }
+
+    /**
+     * 设定处理记录的间隔，默认为每刻处理一次。
+     *
+     * @param ticks 间隔刻数
+     * @return 本实例
+     */
+    public LongBatchEventHandler<T> interval(long ticks) {
+        if (ticks <= 0) throw new IllegalArgumentException("Interval must be positive");
+        this.interval = ticks;
+        return this;
+    }
+
+    /**
+     * 批量处理记录。
+     *
+     * @param consumer 处理方法，在主线程(区域多线程的服务端上为全局区域线程)中执行，传入的记录数量不会为 0
+     * @return 源 {@link EasyListener} 实例
+     */
+    public EasyListener handle(@NotNull LongBatchConsumer consumer) {
+        final int maxCapacity = Math.max(this.capacity, this.maxCapacity);
+        final LongBuffer buffer = this.handler.source.isConcurrent()
+                ? new SynchronizedLongBuffer(this.capacity, maxCapacity, consumer)
+                : new LongBuffer(this.capacity, maxCapacity, consumer);
+        final ToLongFunction<? super T> extractor = this.extractor;
+        EasyListener source = this.handler.source;
+        SubscriptionGroup registrations = source.collect(listener -> this.handler.handle(event -> buffer.record(extractor.applyAsLong(event))));
+        source.track(new BatchEventHandler.FlushTask(source.getPlugin(), registrations, buffer::flush, this.interval));
+        return source;
+    }
+
+    /**
+     * 批量处理记录，并返回可单独注销的 {@link Subscription} 。
+     * <br> 注销时将取消定时任务，并立即在当前线程中处理缓冲区中剩余的记录。
+     *
+     * @param consumer 处理方法
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribe(@NotNull LongBatchConsumer consumer) {
+        return this.handler.source.collect(listener -> handle(consumer));
+    }
+
+    /**
+     * 可重复使用的记录缓冲区，写满时容量成倍增长，达到最大容量后将提前处理已写满的记录。
+     */
+    protected static class LongBuffer {
+
+        protected final int maxCapacity;
+        protected final @NotNull LongBatchConsumer consumer;
+        protected long[] values;
+        protected int size = 0;
+
+        protected LongBuffer(int capacity, int maxCapacity, @NotNull LongBatchConsumer consumer) {
+            this.values = new long[capacity];
+            this.maxCapacity = maxCapacity;
+            this.consumer = consumer;
+        }
+
+        public void record(long value) {
+            if (this.size == this.values.length && !grow()) flush();
+            this.values[this.size++] = value;
+        }
+
+        protected boolean grow() {
+            if (this.values.length >= this.maxCapacity) return false;
+            this.values = Arrays.copyOf(this.values, (int) Math.min((long) this.values.length << 1, this.maxCapacity));
+            return true;
+        }
+
+        public void flush() {
+            if (this.size == 0) return;
+            try {
+                this.consumer.accept(this.values, this.size);
+            } finally {
+                this.size = 0;
+            }
+        }
+
+    }
+
+    /**
+     * 可在多个线程中同时记录的缓冲区。
+     * <br> 记录在缓冲区的锁内写入；达到最大容量时，写满的数组将被移交至队列中，
+     * 与剩余的记录一同在 {@link #flush()} 的线程中于锁外处理，处理方法不会在记录的线程中执行。
+     */
+    protected static class SynchronizedLongBuffer extends LongBuffer {
+
+        protected static final long[] EMPTY = new long[0];
+
+        protected final @NotNull ArrayDeque<long[]> filled = new ArrayDeque<>();
+        protected final @NotNull Object flushLock = new Object();
+        protected long[] spare = EMPTY;
+
+        protected SynchronizedLongBuffer(int capacity, int maxCapacity, @NotNull LongBatchConsumer consumer) {
+            super(capacity, maxCapacity, consumer);
+        }
+
+        @Override
+        public synchronized void record(long value) {
+            if (this.size == this.values.length && !grow()) {
+                this.filled.add(this.values);
+                this.values = new long[this.values.length];
+                this.size = 0;
+            }
+            this.values[this.size++] = value;
+        }
+
+        @Override
+        public void flush() {
+            synchronized (this.flushLock) {
+                long[][] filled;
+                long[] current;
+                int size;
+                synchronized (this) {
+                    if (this.size == 0 && this.filled.isEmpty()) return;
+                    filled = this.filled.toArray(new long[0][]);
+                    this.filled.clear();
+                    current = this.values;
+                    size = this.size;
+                    this.values = this.spare.length == current.length ? this.spare : new long[current.length];
+                    this.size = 0;
+                }
+                try {
+                    for (long[] values : filled) this.consumer.accept(values, values.length);
+                    if (size > 0) this.consumer.accept(current, size);
+                } finally {
+                    this.spare = current;
+                }
+            }
+        }
+
+    }
+
+}
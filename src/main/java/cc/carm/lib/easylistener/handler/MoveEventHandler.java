@@ -0,0 +1,224 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.utils.BlockMove;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * 仅分发跨越方块或区块边界的 {@link PlayerMoveEvent} 的处理器。
+ * <br> 同一 {@link EasyListener} 中同一优先级的全部订阅者共用一个处理器，每个事件仅计算一次方块与区块坐标，
+ * 仍在同一方块内的移动(即绝大多数移动事件)将直接忽略且不会创建任何对象，
+ * 跨越边界时计算得到的 {@link BlockMove} 由全部订阅者共用。
+ * <br> 已被取消的移动不会被分发，订阅者取消移动后，之后的订阅者也将不再收到本次移动。
+ * <br> 各订阅者的异常将被单独记录，不会影响其余订阅者的执行。
+ * <br> 各订阅者属于其订阅时所在的 {@link EasyListener#collect(Consumer)} 收集结果，并受其所在组的暂停控制；
+ * 共用的处理器则不属于任何收集结果或组。修改时以源 {@link EasyListener} 为锁。
+ * <br> 传送将触发 {@link org.bukkit.event.player.PlayerTeleportEvent} ，不会经由本处理器分发。
+ *
+ * <pre>{@code
+ * source.handleBlockMoves(move -> {
+ *     if (move.getToY() < 0) move.cancel();
+ * }).handleChunkMoves(move -> map.update(move.getPlayer(), move.getToChunkX(), move.getToChunkZ()));
+ * }</pre>
+ *
+ * @author CarmJos
+ */
+public class MoveEventHandler implements Subscription {
+
+    protected static final Consumer<?>[] EMPTY = new Consumer<?>[0];
+
+    protected final @NotNull EasyListener source;
+    protected final @NotNull EventPriority priority;
+
+    protected volatile @NotNull Consumer<? super BlockMove>[] blocks = empty();
+    protected volatile @NotNull Consumer<? super BlockMove>[] chunks = empty();
+
+    protected @Nullable Subscription registration;
+
+    public MoveEventHandler(@NotNull EasyListener source, @NotNull EventPriority priority) {
+        this.source = source;
+        this.priority = priority;
+    }
+
+    /**
+     * 新增一个处理跨越方块边界的移动的方法。
+     *
+     * @param consumer 处理方法
+     * @return 本实例
+     */
+    public MoveEventHandler onBlock(@NotNull Consumer<? super BlockMove> consumer) {
+        subscribeBlock(consumer);
+        return this;
+    }
+
+    /**
+     * 新增一个处理跨越区块边界的移动的方法。
+     *
+     * @param consumer 处理方法
+     * @return 本实例
+     */
+    public MoveEventHandler onChunk(@NotNull Consumer<? super BlockMove> consumer) {
+        subscribeChunk(consumer);
+        return this;
+    }
+
+    /**
+     * 新增一个处理跨越方块边界的移动的方法，并返回可单独移除该方法的 {@link Subscription} 。
+     *
+     * @param consumer 处理方法
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribeBlock(@NotNull Consumer<? super BlockMove> consumer) {
+        synchronized (this.source) {
+            Consumer<? super BlockMove> gated = this.source.gate(consumer);
+            this.blocks = append(this.blocks, gated);
+            register();
+            return this.source.track(new Subscription() {
+                @Override
+                public void unsubscribe() {
+                    synchronized (source) {
+                        blocks = remove(blocks, gated);
+                    }
+                }
+
+                @Override
+                public boolean isActive() {
+                    return Arrays.asList(blocks).contains(gated);
+                }
+            });
+        }
+    }
+
+    /**
+     * 新增一个处理跨越区块边界的移动的方法，并返回可单独移除该方法的 {@link Subscription} 。
+     * <br> 切换世界的移动同时视为跨越了区块边界。
+     *
+     * @param consumer 处理方法
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribeChunk(@NotNull Consumer<? super BlockMove> consumer) {
+        synchronized (this.source) {
+            Consumer<? super BlockMove> gated = this.source.gate(consumer);
+            this.chunks = append(this.chunks, gated);
+            register();
+            return this.source.track(new Subscription() {
+                @Override
+                public void unsubscribe() {
+                    synchronized (source) {
+                        chunks = remove(chunks, gated);
+                    }
+                }
+
+                @Override
+                public boolean isActive() {
+                    return Arrays.asList(chunks).contains(gated);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return 处理器的优先级
+     */
+    public @NotNull EventPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return 源 {@link EasyListener} 实例
+     */
+    public @NotNull EasyListener getSource() {
+        return source;
+    }
+
+    /**
+     * 注销本处理器，并移除全部处理方法。
+     */
+    @Override
+    public void unsubscribe() {
+        synchronized (this.source) {
+            this.blocks = empty();
+            this.chunks = empty();
+            if (this.registration != null) this.registration.unsubscribe();
+            this.registration = null;
+        }
+    }
+
+    @Override
+    public boolean isActive() {
+        Subscription registration = this.registration;
+        return registration != null && registration.isActive();
+    }
+
+    protected void register() {
+        if (this.registration != null && this.registration.isActive()) return;
+        this.registration = this.source.shared(() -> this.source.subscribe(
+                PlayerMoveEvent.class, this.priority, true,
+                "MoveEventHandler#" + this.priority.name(), null, this::dispatch
+        ));
+    }
+
+    protected void dispatch(@NotNull PlayerMoveEvent event) {
+        Consumer<? super BlockMove>[] blocks = this.blocks;
+        Consumer<? super BlockMove>[] chunks = this.chunks;
+        if (blocks.length == 0 && chunks.length == 0) return;
+
+        BlockMove move = BlockMove.of(event);
+        if (move == null) return;
+
+        for (Consumer<? super BlockMove> consumer : blocks) {
+            accept(consumer, move);
+            if (event.isCancelled()) return;
+        }
+
+        if (chunks.length == 0 || !move.isChunkChanged()) return;
+        for (Consumer<? super BlockMove> consumer : chunks) {
+            accept(consumer, move);
+            if (event.isCancelled()) return;
+        }
+    }
+
+    protected void accept(@NotNull Consumer<? super BlockMove> consumer, @NotNull BlockMove move) {
+        try {
+            consumer.accept(move);
+        } catch (Throwable ex) {
+            Plugin plugin = this.source.getPlugin();
+            plugin.getLogger().log(
+                    Level.SEVERE, "Could not pass event " + move.getEvent().getEventName() + " to " + plugin.getName(), ex
+            );
+        }
+    }
+
+    protected static @NotNull Consumer<? super BlockMove>[] append(@NotNull Consumer<? super BlockMove>[] current,
+                                                                    @NotNull Consumer<? super BlockMove> consumer) {
+        Consumer<? super BlockMove>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = consumer;
+        return updated;
+    }
+
+    protected static @NotNull Consumer<? super BlockMove>[] remove(@NotNull Consumer<? super BlockMove>[] current,
+                                                                    @NotNull Consumer<? super BlockMove> consumer) {
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != consumer) continue;
+            Consumer<? super BlockMove>[] updated = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+            return updated;
+        }
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static @NotNull Consumer<? super BlockMove>[] empty() {
+        return (Consumer<? super BlockMove>[]) EMPTY;
+    }
+
+}
@@ -5,18 +5,15 @@ import org.bukkit.event.Event;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
-import java.util.Optional;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
 
 public class MultiEventHandler<T extends Event> extends BaseEventHandler<T, MultiEventHandler<T>> {
 
     protected final Class<T> eventType;
 
-    protected final Set<Class<? extends T>> eventClasses = new HashSet<>();
-    protected Predicate<T> eventPredicate;
+    protected final Set<Class<? extends T>> eventClasses = new LinkedHashSet<>();
 
     public MultiEventHandler(EasyListener source, Class<T> eventType) {
         super(source);
@@ -33,13 +30,12 @@ public class MultiEventHandler<T extends Event> extends BaseEventHandler<T, Mult
         return this;
     }
 
+    @Override
     public EasyListener handle(@NotNull Consumer<T> eventConsumer) {
 
+        Consumer<T> consumer = guard(eventConsumer);
         for (Class<? extends T> clazz : this.eventClasses) {
-            source.handle(clazz, priority, ignoreCancelled, (event) -> {
-                Predicate<T> predicate = Optional.ofNullable(eventPredicate).orElse(t -> true);
-                if (predicate.test(event)) eventConsumer.accept(event);
-            });
+            source.handle(clazz, priority, ignoreCancelled, name, predicate, consumer);
         }
 
         return source;
@@ -50,7 +46,8 @@ public class MultiEventHandler<T extends Event> extends BaseEventHandler<T, Mult
     }
 
     public EasyListener cancel(@Nullable Consumer<T> afterCancelled) {
-        this.eventClasses.forEach(clazz -> source.cancel(clazz, priority, eventPredicate, afterCancelled));
+        Consumer<T> consumer = afterCancelled == null ? null : guard(afterCancelled);
+        this.eventClasses.forEach(clazz -> source.cancel(clazz, priority, name, predicate, consumer));
         return source;
     }
 
@@ -0,0 +1,268 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 并行处理异步事件的构造器，适用于 {@link org.bukkit.event.player.AsyncPlayerPreLoginEvent} 等异步事件。
+ * <br> 每个通过 {@link #fork(Function, BiConsumer)} 添加的处理分为两步：
+ * 计算部分将在执行器中并行执行，如查询数据库；全部计算完成或超时后，应用部分再按添加顺序在事件线程中依次执行，
+ * 如根据查询结果拒绝玩家登录。因此对事件的修改（如取消或拒绝）均在事件线程中完成，并在服务端继续处理事件之前生效。
+ * <br> 默认执行器在支持虚拟线程的运行环境中使用虚拟线程，否则使用一个共享的 {@link ForkJoinPool} 。
+ * <br> 同步事件不会被并行处理，全部处理将按顺序在事件线程中执行。
+ *
+ * <pre>{@code
+ * source.handleEvent(AsyncPlayerPreLoginEvent.class)
+ *         .parallel()
+ *         .timeout(Duration.ofSeconds(2))
+ *         .fork(e -> bans.find(e.getUniqueId()), (e, ban) -> {
+ *             if (ban != null) e.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED, ban.getReason());
+ *         })
+ *         .fork(e -> profiles.preload(e.getUniqueId()))
+ *         .handle();
+ * }</pre>
+ *
+ * @param <T> 事件的类型
+ * @author CarmJos
+ */
+public class ParallelEventHandler<T> {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    protected final @NotNull BaseEventHandler<T, ?> handler;
+    protected final @NotNull List<Task<T, ?>> tasks = new ArrayList<>();
+
+    protected @Nullable Executor executor;
+    protected long timeoutNanos = DEFAULT_TIMEOUT.toNanos();
+
+    public ParallelEventHandler(@NotNull BaseEventHandler<T, ?> handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * 设定执行计算部分的执行器，默认见 {@link #defaultExecutor()} 。
+     *
+     * @param executor 执行器
+     * @return 本实例
+     */
+    public ParallelEventHandler<T> executor(@NotNull Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * 设定之后添加的处理的默认超时时间，默认为 {@link #DEFAULT_TIMEOUT} 。
+     *
+     * @param timeout 超时时间
+     * @return 本实例
+     */
+    public ParallelEventHandler<T> timeout(@NotNull Duration timeout) {
+        this.timeoutNanos = positive(timeout);
+        return this;
+    }
+
+    /**
+     * 添加一个处理。
+     *
+     * @param compute 计算部分，将被并行执行
+     * @param apply   应用部分，将在全部计算完成后于事件线程中按添加顺序执行
+     * @param <R>     计算结果的类型
+     * @return 本实例
+     */
+    public <R> ParallelEventHandler<T> fork(@NotNull Function<? super T, ? extends R> compute,
+                                            @NotNull BiConsumer<? super T, ? super R> apply) {
+        this.tasks.add(new Task<>(compute, apply, this.timeoutNanos));
+        return this;
+    }
+
+    /**
+     * 添加一个处理，并单独设定其超时时间。
+     * <br> 超时的处理将被取消并尝试中断，其应用部分不会被执行。
+     *
+     * @param compute 计算部分，将被并行执行
+     * @param apply   应用部分，将在全部计算完成后于事件线程中按添加顺序执行
+     * @param timeout 超时时间
+     * @param <R>     计算结果的类型
+     * @return 本实例
+     */
+    public <R> ParallelEventHandler<T> fork(@NotNull Function<? super T, ? extends R> compute,
+                                            @NotNull BiConsumer<? super T, ? super R> apply,
+                                            @NotNull Duration timeout) {
+        this.tasks.add(new Task<>(compute, apply, positive(timeout)));
+        return this;
+    }
+
+    /**
+     * 添加一个仅需并行执行、无需应用结果的处理。
+     *
+     * @param consumer 处理方法
+     * @return 本实例
+     */
+    public ParallelEventHandler<T> fork(@NotNull Consumer<? super T> consumer) {
+        return fork(event -> {
+            consumer.accept(event);
+            return null;
+        }, (event, ignored) -> {
+        });
+    }
+
+    /**
+     * 注册已添加的全部处理。
+     *
+     * @return 源 {@link EasyListener} 实例
+     */
+    public EasyListener handle() {
+        return this.handler.handle(createDispatcher());
+    }
+
+    /**
+     * 注册已添加的全部处理，并返回可单独注销的 {@link Subscription} 。
+     *
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribe() {
+        return this.handler.subscribe(createDispatcher());
+    }
+
+    protected @NotNull Consumer<T> createDispatcher() {
+        if (this.tasks.isEmpty()) throw new IllegalStateException("No task has been forked");
+        final List<Task<T, ?>> tasks = new ArrayList<>(this.tasks);
+        final Executor executor = this.executor != null ? this.executor : defaultExecutor();
+        final String name = this.handler.name != null ? this.handler.name : "parallel";
+        return event -> dispatch(event, tasks, executor, name);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void dispatch(@NotNull T event, @NotNull List<Task<T, ?>> tasks,
+                            @NotNull Executor executor, @NotNull String name) {
+        if (!(event instanceof Event) || !((Event) event).isAsynchronous()) {
+            for (Task<T, ?> task : tasks) ((Task<T, Object>) task).run(event);
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<FutureTask<?>> futures = new ArrayList<>(tasks.size());
+        for (Task<T, ?> task : tasks) {
+            FutureTask<?> future = new FutureTask<>(() -> task.compute.apply(event));
+            futures.add(future);
+            try {
+                executor.execute(future);
+            } catch (RejectedExecutionException ex) {
+                future.run(); // 执行器已关闭或已满时，在当前线程中执行
+            }
+        }
+
+        boolean interrupted = false;
+        for (int i = 0; i < tasks.size(); i++) {
+            Task<T, Object> task = (Task<T, Object>) tasks.get(i);
+            FutureTask<?> future = futures.get(i);
+            if (interrupted) {
+                future.cancel(true);
+                continue;
+            }
+
+            Object result;
+            try {
+                long remaining = start + task.timeoutNanos - System.nanoTime();
+                result = future.get(Math.max(0L, remaining), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                logger().warning("Parallel task #" + i + " of " + name + " timed out after "
+                        + TimeUnit.NANOSECONDS.toMillis(task.timeoutNanos) + "ms, its result is discarded.");
+                continue;
+            } catch (ExecutionException ex) {
+                logger().log(Level.SEVERE, "Parallel task #" + i + " of " + name + " failed", ex.getCause());
+                continue;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+                future.cancel(true);
+                continue;
+            }
+
+            try {
+                task.apply.accept(event, result);
+            } catch (Throwable ex) {
+                logger().log(Level.SEVERE, "Could not apply result of parallel task #" + i + " of " + name, ex);
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    protected @NotNull Logger logger() {
+        return this.handler.source.getPlugin().getLogger();
+    }
+
+    private static long positive(@NotNull Duration duration) {
+        long nanos = duration.toNanos();
+        if (nanos <= 0) throw new IllegalArgumentException("Timeout must be positive");
+        return nanos;
+    }
+
+    /**
+     * 获取默认的执行器。
+     * <br> 运行环境支持虚拟线程（Java 21 及以上）时，每个计算部分都在新的虚拟线程中执行；
+     * 否则使用一个共享的、由守护线程组成的 {@link ForkJoinPool} 。
+     *
+     * @return 默认的执行器
+     */
+    public static @NotNull Executor defaultExecutor() {
+        return DefaultExecutor.INSTANCE;
+    }
+
+    protected static final class DefaultExecutor {
+
+        static final Executor INSTANCE = create();
+
+        private DefaultExecutor() {
+        }
+
+        private static Executor create() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+                // 运行环境不支持虚拟线程
+            }
+            int parallelism = Math.max(4, Runtime.getRuntime().availableProcessors());
+            return new ForkJoinPool(parallelism, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("EasyListener-Parallel-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, true);
+        }
+
+    }
+
+    protected static class Task<T, R> {
+
+        protected final @NotNull Function<? super T, ? extends R> compute;
+        protected final @NotNull BiConsumer<? super T, ? super R> apply;
+        protected final long timeoutNanos;
+
+        protected Task(@NotNull Function<? super T, ? extends R> compute,
+                       @NotNull BiConsumer<? super T, ? super R> apply, long timeoutNanos) {
+            this.compute = compute;
+            this.apply = apply;
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        protected void run(@NotNull T event) {
+            this.apply.accept(event, this.compute.apply(event));
+        }
+
+    }
+
+}
@@ -0,0 +1,214 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.utils.Region;
+import cc.carm.lib.easylistener.utils.RegionIndex;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 按区域分发事件的处理器。
+ * <br> 区域按世界与区块建立索引，事件仅会交由包含其位置的区域所对应的处理方法处理，
+ * 因此即使注册了大量区域，每个事件也只需判断其所在区块中的少量区域。
+ * <br> 区域的增删与事件的处理默认均应在主线程中进行；
+ * 若 {@link EasyListener#isConcurrent()} ，则索引将由读写锁保护，事件可在多个线程中同时处理，区域也可在任意线程中增删。
+ *
+ * <pre>{@code
+ * source.handleEvent(BlockBreakEvent.class)
+ *         .inRegion(e -> e.getBlock().getLocation())
+ *         .on(Region.of("world", 0, 0, 0, 100, 255, 100), e -> e.setCancelled(true));
+ * }</pre>
+ *
+ * @param <T> 事件的类型
+ * @author CarmJos
+ */
+public class RegionEventHandler<T> implements Subscription {
+
+    protected static final BiConsumer<Consumer<Object>, Object> DISPATCH = Consumer::accept;
+    protected static final BiConsumer<Object, List<Object>> COLLECT = (consumer, matched) -> matched.add(consumer);
+    protected static final ThreadLocal<List<Object>> MATCHED = ThreadLocal.withInitial(ArrayList::new);
+
+    protected final @NotNull BaseEventHandler<T, ?> handler;
+    protected final @NotNull Function<? super T, ? extends Location> locator;
+    protected final @NotNull RegionIndex<Consumer<? super T>> index = new RegionIndex<>();
+
+    protected final @Nullable StampedLock lock;
+
+    protected volatile @Nullable Subscription registration;
+
+    public RegionEventHandler(@NotNull BaseEventHandler<T, ?> handler,
+                              @NotNull Function<? super T, ? extends Location> locator) {
+        this.handler = handler;
+        this.locator = locator;
+        this.lock = handler.source.isConcurrent() ? new StampedLock() : null;
+    }
+
+    /**
+     * 为给定区域新增一个处理方法。
+     *
+     * @param region   区域
+     * @param consumer 处理方法
+     * @return 本实例
+     */
+    public RegionEventHandler<T> on(@NotNull Region region, @NotNull Consumer<? super T> consumer) {
+        subscribe(region, consumer);
+        return this;
+    }
+
+    /**
+     * 为给定区域新增一个处理方法，并返回可单独移除该处理方法的 {@link Subscription} 。
+     *
+     * @param region   区域
+     * @param consumer 处理方法
+     * @return {@link Subscription} 实例
+     */
+    public @NotNull Subscription subscribe(@NotNull Region region, @NotNull Consumer<? super T> consumer) {
+        long stamp = writeLock();
+        try {
+            this.index.add(region, consumer);
+        } finally {
+            unlockWrite(stamp);
+        }
+        synchronized (this) {
+            if (this.registration == null) this.registration = this.handler.subscribe(this::dispatch);
+        }
+
+        return new Subscription() {
+            boolean active = true;
+
+            @Override
+            public void unsubscribe() {
+                if (!this.active) return;
+                this.active = false;
+                RegionEventHandler.this.remove(region, consumer);
+            }
+
+            @Override
+            public boolean isActive() {
+                return this.active && registration != null;
+            }
+        };
+    }
+
+    /**
+     * 移除给定区域的一个处理方法。
+     *
+     * @param region   区域
+     * @param consumer 处理方法
+     * @return 是否存在并已移除
+     */
+    public boolean remove(@NotNull Region region, @NotNull Consumer<? super T> consumer) {
+        long stamp = writeLock();
+        try {
+            return this.index.remove(region, consumer);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return 当前已注册的区域数量
+     */
+    public int size() {
+        long stamp = readLock();
+        try {
+            return this.index.size();
+        } finally {
+            unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return 源 {@link EasyListener} 实例
+     */
+    public @NotNull EasyListener getSource() {
+        return this.handler.source;
+    }
+
+    /**
+     * 注销本处理器，并移除全部区域的处理方法。
+     */
+    @Override
+    public void unsubscribe() {
+        long stamp = writeLock();
+        try {
+            this.index.clear();
+        } finally {
+            unlockWrite(stamp);
+        }
+        Subscription registration;
+        synchronized (this) {
+            registration = this.registration;
+            this.registration = null;
+        }
+        if (registration != null) registration.unsubscribe();
+    }
+
+    @Override
+    public boolean isActive() {
+        Subscription registration = this.registration;
+        return registration != null && registration.isActive();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected void dispatch(@NotNull T event) {
+        Location location = this.locator.apply(event);
+        if (location == null) return;
+        World world = location.getWorld();
+        if (world == null) return;
+
+        if (this.lock == null) {
+            this.index.forEach(
+                    world.getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ(),
+                    event, (BiConsumer) DISPATCH
+            );
+            return;
+        }
+
+        // 仅在锁内收集匹配的处理方法，处理时不持有锁，因此处理方法中也可增删区域。
+        // 嵌套分发时追加在外层收集结果之后，处理完毕后再截断回原有长度。
+        List<Object> matched = MATCHED.get();
+        int start = matched.size();
+        long stamp = this.lock.readLock();
+        try {
+            this.index.forEach(
+                    world.getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ(),
+                    matched, (BiConsumer) COLLECT
+            );
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+        try {
+            for (int i = start; i < matched.size(); i++) ((Consumer<T>) matched.get(i)).accept(event);
+        } finally {
+            for (int i = matched.size() - 1; i >= start; i--) matched.remove(i);
+        }
+    }
+
+    protected long readLock() {
+        return this.lock == null ? 0L : this.lock.readLock();
+    }
+
+    protected void unlockRead(long stamp) {
+        if (this.lock != null) this.lock.unlockRead(stamp);
+    }
+
+    protected long writeLock() {
+        return this.lock == null ? 0L : this.lock.writeLock();
+    }
+
+    protected void unlockWrite(long stamp) {
+        if (this.lock != null) this.lock.unlockWrite(stamp);
+    }
+
+}
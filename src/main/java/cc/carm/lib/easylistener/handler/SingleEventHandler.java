@@ -5,9 +5,7 @@ import org.bukkit.event.Event;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Optional;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
 
 public class SingleEventHandler<T extends Event> extends BaseEventHandler<T, SingleEventHandler<T>> {
 
@@ -23,11 +21,9 @@ public class SingleEventHandler<T extends Event> extends BaseEventHandler<T, Sin
         return this;
     }
 
+    @Override
     public EasyListener handle(@NotNull Consumer<T> eventConsumer) {
-        return source.handle(eventClass, priority, ignoreCancelled, (event) -> {
-            Predicate<T> predicate = Optional.ofNullable(this.predicate).orElse(t -> true);
-            if (predicate.test(event)) eventConsumer.accept(event);
-        });
+        return source.handle(eventClass, priority, ignoreCancelled, name, predicate, guard(eventConsumer));
     }
 
     public EasyListener cancel() {
@@ -35,7 +31,7 @@ public class SingleEventHandler<T extends Event> extends BaseEventHandler<T, Sin
     }
 
     public EasyListener cancel(@Nullable Consumer<T> afterCancelled) {
-        return source.cancel(eventClass, priority, predicate, afterCancelled);
+        return source.cancel(eventClass, priority, name, predicate, afterCancelled == null ? null : guard(afterCancelled));
     }
 
 
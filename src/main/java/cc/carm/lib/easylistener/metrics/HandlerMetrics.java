@@ -0,0 +1,129 @@
+package cc.carm.lib.easylistener.metrics;
+
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个事件处理器的统计数据。
+ * <br> 计数均基于 {@link LongAdder} ，耗时记录于 {@link LatencyHistogram} 中。
+ *
+ * @author CarmJos
+ */
+public class HandlerMetrics {
+
+    protected final @NotNull String name;
+    protected final @NotNull Class<? extends Event> eventClass;
+    protected final @Nullable String location;
+
+    protected final LongAdder invocations = new LongAdder();
+    protected final LongAdder rejections = new LongAdder();
+    protected final LongAdder cancellations = new LongAdder();
+    protected final LongAdder failures = new LongAdder();
+    protected final LatencyHistogram latency = new LatencyHistogram();
+
+    public HandlerMetrics(@NotNull String name, @NotNull Class<? extends Event> eventClass,
+                          @Nullable String location) {
+        this.name = name;
+        this.eventClass = eventClass;
+        this.location = location;
+    }
+
+    /**
+     * @return 处理器名称，未指定时为注册位置
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * @return 处理器所监听的事件类
+     */
+    public @NotNull Class<? extends Event> getEventClass() {
+        return eventClass;
+    }
+
+    /**
+     * @return 处理器的注册位置，格式为 "类名#方法名(文件名:行号)"
+     */
+    public @Nullable String getLocation() {
+        return location;
+    }
+
+    /**
+     * @return 处理器被调用的次数(含被条件过滤的次数)
+     */
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * @return 事件未通过条件而被过滤的次数
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * @return 事件被本处理器取消的次数
+     */
+    public long getCancellations() {
+        return cancellations.sum();
+    }
+
+    /**
+     * @return 处理过程中抛出异常的次数
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return 每次调用的耗时分布
+     */
+    public @NotNull LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public void recordInvocation(long nanos) {
+        this.invocations.increment();
+        this.latency.record(nanos);
+    }
+
+    public void recordRejection() {
+        this.rejections.increment();
+    }
+
+    public void recordCancellation() {
+        this.cancellations.increment();
+    }
+
+    public void recordFailure() {
+        this.failures.increment();
+    }
+
+    /**
+     * 清空全部统计数据。
+     */
+    public void reset() {
+        this.invocations.reset();
+        this.rejections.reset();
+        this.cancellations.reset();
+        this.failures.reset();
+        this.latency.reset();
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return name + " <" + eventClass.getSimpleName() + ">"
+                + (location == null || location.equals(name) ? "" : " @ " + location)
+                + " invocations=" + getInvocations()
+                + ", rejections=" + getRejections()
+                + ", cancellations=" + getCancellations()
+                + ", failures=" + getFailures()
+                + ", " + latency;
+    }
+
+}
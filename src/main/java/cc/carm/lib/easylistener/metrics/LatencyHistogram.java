@@ -0,0 +1,141 @@
+package cc.carm.lib.easylistener.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定分桶的耗时直方图。
+ * <br> 以纳秒为单位，按 2 的幂次划分为 65 个区间，第 i 个区间记录耗时在 [2^(i-1), 2^i) 之间的次数。
+ * <br> 记录一次耗时仅需一次位运算与一次 {@link LongAdder} 累加，可在多线程下低开销地长期开启。
+ *
+ * @author CarmJos
+ */
+public class LatencyHistogram {
+
+    public static final int BUCKETS = 65;
+
+    protected final LongAdder[] buckets = new LongAdder[BUCKETS];
+    protected final LongAdder total = new LongAdder();
+    protected final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次耗时。
+     *
+     * @param nanos 耗时(纳秒)
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        this.buckets[64 - Long.numberOfLeadingZeros(nanos)].increment();
+        this.total.add(nanos);
+        this.max.accumulate(nanos);
+    }
+
+    /**
+     * @return 已记录的总次数
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : this.buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return 已记录的总耗时(纳秒)
+     */
+    public long getTotalNanos() {
+        return this.total.sum();
+    }
+
+    /**
+     * @return 已记录的最大耗时(纳秒)
+     */
+    public long getMaxNanos() {
+        return this.max.get();
+    }
+
+    /**
+     * @return 平均耗时(纳秒)，尚无记录时返回 0
+     */
+    public double getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getTotalNanos() / count;
+    }
+
+    /**
+     * 获取给定百分位的耗时上界。
+     * <br> 由于采用固定分桶，返回值为该百分位所在区间的上界，误差不超过两倍。
+     *
+     * @param percentile 百分位，取值为 0 ~ 1，如 0.99 表示 P99
+     * @return 该百分位的耗时上界(纳秒)，尚无记录时返回 0
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = getBucketCounts();
+        long count = 0;
+        for (long c : counts) count += c;
+        if (count == 0) return 0;
+
+        long threshold = (long) Math.ceil(Math.max(0, Math.min(1, percentile)) * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= threshold && counts[i] > 0) return getUpperBound(i);
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * @return 各区间的记录次数
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * 获取给定区间的耗时上界。
+     *
+     * @param bucket 区间序号
+     * @return 区间的耗时上界(纳秒，不含)
+     */
+    public static long getUpperBound(int bucket) {
+        return bucket >= 63 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * 清空全部记录。
+     */
+    public void reset() {
+        for (LongAdder bucket : this.buckets) bucket.reset();
+        this.total.reset();
+        this.max.reset();
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return String.format(
+                "count=%d, mean=%.3fms, p50<%.3fms, p99<%.3fms, max=%.3fms",
+                getCount(), toMillis(getMeanNanos()),
+                toMillis(getPercentileNanos(0.5)), toMillis(getPercentileNanos(0.99)),
+                toMillis(getMaxNanos())
+        );
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
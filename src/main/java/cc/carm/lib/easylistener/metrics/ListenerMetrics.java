@@ -0,0 +1,156 @@
+package cc.carm.lib.easylistener.metrics;
+
+import cc.carm.lib.easylistener.EasyListener;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 一个 {@link EasyListener} 内全部处理器的统计数据。
+ * <br> 统计默认关闭，需在注册处理器前通过 {@link #enable()} 开启。
+ * <br> 开启后注册的处理器将记录调用次数、过滤次数、取消次数与耗时分布；开启前注册的处理器不受影响。
+ * <br> 处理器被注销后，其统计数据也将被移除。
+ *
+ * @author CarmJos
+ */
+public class ListenerMetrics {
+
+    protected volatile boolean enabled = false;
+    protected final List<HandlerMetrics> handlers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 开启统计，此后注册的处理器将记录统计数据。
+     *
+     * @return 本实例
+     */
+    public ListenerMetrics enable() {
+        this.enabled = true;
+        return this;
+    }
+
+    /**
+     * 关闭统计，此后注册的处理器将不再记录统计数据。
+     * <br> 已注册的处理器将继续记录，直至被注销。
+     *
+     * @return 本实例
+     */
+    public ListenerMetrics disable() {
+        this.enabled = false;
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 为一个新注册的处理器创建统计数据。
+     *
+     * @param name       处理器名称，为 null 时使用注册位置
+     * @param eventClass 事件类
+     * @return 统计数据，若统计未开启则返回 null
+     */
+    public @Nullable HandlerMetrics create(@Nullable String name, @NotNull Class<? extends Event> eventClass) {
+        if (!isEnabled()) return null;
+
+        String location = findLocation();
+        HandlerMetrics metrics = new HandlerMetrics(
+                Optional.ofNullable(name).orElse(Optional.ofNullable(location).orElse(eventClass.getSimpleName())),
+                eventClass, location
+        );
+        this.handlers.add(metrics);
+        return metrics;
+    }
+
+    /**
+     * 移除一个已注销的处理器的统计数据。
+     *
+     * @param metrics 统计数据
+     */
+    public void remove(@NotNull HandlerMetrics metrics) {
+        this.handlers.remove(metrics);
+    }
+
+    /**
+     * 移除全部处理器的统计数据，用于注销全部处理器时。
+     */
+    public void clear() {
+        this.handlers.clear();
+    }
+
+    /**
+     * @return 全部已注册处理器的统计数据
+     */
+    public @Unmodifiable @NotNull List<HandlerMetrics> getHandlers() {
+        return Collections.unmodifiableList(new ArrayList<>(this.handlers));
+    }
+
+    /**
+     * 获取给定名称的全部处理器统计数据。
+     *
+     * @param name 处理器名称
+     * @return 统计数据
+     */
+    public @Unmodifiable @NotNull List<HandlerMetrics> getHandlers(@NotNull String name) {
+        List<HandlerMetrics> list = new ArrayList<>();
+        for (HandlerMetrics metrics : this.handlers) {
+            if (metrics.getName().equals(name)) list.add(metrics);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 获取给定事件类的全部处理器统计数据。
+     *
+     * @param eventClass 事件类
+     * @return 统计数据
+     */
+    public @Unmodifiable @NotNull List<HandlerMetrics> getHandlers(@NotNull Class<? extends Event> eventClass) {
+        List<HandlerMetrics> list = new ArrayList<>();
+        for (HandlerMetrics metrics : this.handlers) {
+            if (metrics.getEventClass() == eventClass) list.add(metrics);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * 获取按总耗时降序排列的处理器统计数据，便于找出最耗时的处理器。
+     *
+     * @param limit 最多返回的数量
+     * @return 统计数据
+     */
+    public @Unmodifiable @NotNull List<HandlerMetrics> getSlowest(int limit) {
+        List<HandlerMetrics> list = new ArrayList<>(this.handlers);
+        list.sort(Comparator.comparingLong((HandlerMetrics m) -> m.getLatency().getTotalNanos()).reversed());
+        return Collections.unmodifiableList(list.subList(0, Math.min(Math.max(limit, 0), list.size())));
+    }
+
+    /**
+     * 清空全部处理器的统计数据。
+     */
+    public void reset() {
+        this.handlers.forEach(HandlerMetrics::reset);
+    }
+
+    /**
+     * 查找处理器的注册位置，即调用栈中首个不属于 EasyListener 及 JDK 的调用。
+     *
+     * @return 注册位置，格式为 "类名#方法名(文件名:行号)"
+     */
+    protected static @Nullable String findLocation() {
+        String className = EasyListener.class.getName();
+        String basePackage = className.substring(0, className.lastIndexOf('.') + 1);
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            String name = element.getClassName();
+            if (name.startsWith(basePackage) || name.startsWith("java.") || name.startsWith("sun.")) continue;
+            return name + "#" + element.getMethodName()
+                    + "(" + element.getFileName() + ":" + element.getLineNumber() + ")";
+        }
+        return null;
+    }
+
+}
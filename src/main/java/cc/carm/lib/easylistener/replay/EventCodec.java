@@ -0,0 +1,37 @@
+package cc.carm.lib.easylistener.replay;
+
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 事件的编解码器，用于 {@link EventRecorder} 记录事件与 {@link EventReplayer} 重放事件。
+ * <br> 编码时仅需写入处理器所关心的字段，解码时应以这些字段重新构造出一个可被处理器处理的事件。
+ *
+ * @param <T> 事件的类型
+ * @author CarmJos
+ */
+public interface EventCodec<T extends Event> {
+
+    /**
+     * 编码一个事件。
+     *
+     * @param event  事件
+     * @param output 输出
+     * @throws IOException 写入失败时抛出
+     */
+    void encode(@NotNull T event, @NotNull DataOutput output) throws IOException;
+
+    /**
+     * 解码一个事件。
+     *
+     * @param input 输入，仅包含由 {@link #encode(Event, DataOutput)} 写入的内容
+     * @return 事件
+     * @throws IOException 读取失败时抛出
+     */
+    @NotNull T decode(@NotNull DataInput input) throws IOException;
+
+}
@@ -0,0 +1,52 @@
+package cc.carm.lib.easylistener.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 事件记录文件的格式。
+ * <br> 文件以 {@link #MAGIC} 与 {@link #VERSION} 开头，随后为连续的记录，每条记录以一个类型字节开头：
+ * <ul>
+ *     <li>{@link #CLASS_DEFINITION} 事件类定义，即变长整数编号与事件类名，编号从 0 开始递增；</li>
+ *     <li>{@link #EVENT} 事件，即变长整数事件类编号、距离上一个事件的变长纳秒间隔、变长整数内容长度与内容。</li>
+ * </ul>
+ *
+ * @author CarmJos
+ */
+public final class EventLog {
+
+    public static final int MAGIC = 0x454C5247; // "ELRG"
+    public static final int VERSION = 1;
+
+    public static final byte CLASS_DEFINITION = 0;
+    public static final byte EVENT = 1;
+
+    private EventLog() {
+    }
+
+    static void writeVarLong(DataOutput output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput input) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed variable-length number");
+    }
+
+    static int readVarInt(DataInput input) throws IOException {
+        long value = readVarLong(input);
+        if (value < 0 || value > Integer.MAX_VALUE) throw new IOException("Value out of range: " + value);
+        return (int) value;
+    }
+
+}
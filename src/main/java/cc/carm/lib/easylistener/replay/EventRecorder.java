@@ -0,0 +1,259 @@
+package cc.carm.lib.easylistener.replay;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.SubscriptionGroup;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * 将事件记录到文件中，以便之后通过 {@link EventReplayer} 离线重放。
+ * <br> 事件在 {@link EventPriority#LOWEST} 优先级下被记录，即记录的是其他处理器修改之前的事件。
+ * <br> 事件在事件线程中被编码并写入内存中的数据块，写满的数据块将交由后台线程顺序写入文件。
+ * 待写入的数据块数量有上限，超出时新的数据块将被丢弃并计入 {@link #getDropped()} ，因此磁盘缓慢时不会拖慢服务器。
+ * <br> 写入文件失败后将停止记录，但记录处理器与文件仍需通过 {@link #close()} 注销与关闭，届时将抛出写入时的异常。
+ *
+ * <pre>{@code
+ * EventRecorder recorder = EventRecorder.open(source, path)
+ *         .record(PlayerMoveEvent.class, moveCodec)
+ *         .record(BlockBreakEvent.class, breakCodec);
+ * // ...
+ * recorder.close();
+ * }</pre>
+ *
+ * @author CarmJos
+ */
+public class EventRecorder implements Closeable {
+
+    public static final int CHUNK_SIZE = 64 * 1024;
+    public static final int DEFAULT_PENDING_CHUNKS = 64;
+    public static final long CHUNK_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    protected static final byte[] END = new byte[0];
+
+    /**
+     * 创建记录文件并开始记录，最多缓存 {@link #DEFAULT_PENDING_CHUNKS} 个待写入的数据块。
+     *
+     * @param source 用于注册记录处理器的 {@link EasyListener}
+     * @param file   记录文件，已存在的文件将被覆盖
+     * @return 记录器实例
+     * @throws IOException 无法创建文件时抛出
+     */
+    public static @NotNull EventRecorder open(@NotNull EasyListener source, @NotNull Path file) throws IOException {
+        return open(source, file, DEFAULT_PENDING_CHUNKS);
+    }
+
+    /**
+     * 创建记录文件并开始记录。
+     *
+     * @param source        用于注册记录处理器的 {@link EasyListener}
+     * @param file          记录文件，已存在的文件将被覆盖
+     * @param pendingChunks 最多缓存的待写入数据块数量
+     * @return 记录器实例
+     * @throws IOException 无法创建文件时抛出
+     */
+    public static @NotNull EventRecorder open(@NotNull EasyListener source, @NotNull Path file,
+                                              int pendingChunks) throws IOException {
+        if (pendingChunks <= 0) throw new IllegalArgumentException("Pending chunks must be positive");
+        FileChannel channel = FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+        );
+        try {
+            ByteBuffer header = ByteBuffer.allocate(5).putInt(EventLog.MAGIC).put((byte) EventLog.VERSION);
+            header.flip();
+            while (header.hasRemaining()) channel.write(header);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+
+        EventRecorder recorder = new EventRecorder(source, channel, pendingChunks);
+        recorder.writer.start();
+        return recorder;
+    }
+
+    protected final @NotNull EasyListener source;
+    protected final @NotNull FileChannel channel;
+    protected final @NotNull BlockingQueue<byte[]> pending;
+    protected final @NotNull Thread writer;
+    protected final @NotNull SubscriptionGroup subscriptions = new SubscriptionGroup();
+
+    protected final Map<Class<? extends Event>, Integer> classIds = new HashMap<>();
+    protected final BitSet defined = new BitSet();
+
+    protected final ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_SIZE + 1024);
+    protected final DataOutputStream chunkOutput = new DataOutputStream(this.chunk);
+    protected final ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+    protected final DataOutputStream payloadOutput = new DataOutputStream(this.payload);
+
+    protected long chunkStart = System.nanoTime();
+    protected int chunkEvents = 0;
+    protected long lastEvent = System.nanoTime();
+
+    protected long recorded = 0L;
+    protected long dropped = 0L;
+    protected volatile boolean closed = false;
+    protected volatile @Nullable IOException failure;
+
+    protected EventRecorder(@NotNull EasyListener source, @NotNull FileChannel channel, int pendingChunks) {
+        this.source = source;
+        this.channel = channel;
+        this.pending = new ArrayBlockingQueue<>(pendingChunks);
+        this.writer = new Thread(this::writeLoop, "EasyListener-Recorder");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * 开始记录一类事件。
+     *
+     * @param eventClass 事件类
+     * @param codec      事件的编码器
+     * @param <T>        事件的类型
+     * @return 本实例
+     */
+    public synchronized <T extends Event> EventRecorder record(@NotNull Class<T> eventClass,
+                                                               @NotNull EventCodec<? super T> codec) {
+        if (this.closed) throw new IllegalStateException("Recorder has been closed");
+        if (this.classIds.containsKey(eventClass)) throw new IllegalArgumentException(eventClass + " is already recorded");
+
+        int id = this.classIds.size();
+        this.classIds.put(eventClass, id);
+        this.subscriptions.add(this.source.subscribe(
+                eventClass, EventPriority.LOWEST, false,
+                "EventRecorder#" + eventClass.getSimpleName(), null, event -> write(id, eventClass, codec, event)
+        ));
+        return this;
+    }
+
+    /**
+     * @return 已记录的事件数量，包括已被丢弃的事件
+     */
+    public synchronized long getRecorded() {
+        return this.recorded;
+    }
+
+    /**
+     * @return 因待写入数据块过多而被丢弃的事件数量
+     */
+    public synchronized long getDropped() {
+        return this.dropped;
+    }
+
+    /**
+     * @return 后台线程写入文件时发生的异常，未发生异常时返回 null
+     */
+    public @Nullable IOException getFailure() {
+        return this.failure;
+    }
+
+    /**
+     * 停止记录，并等待剩余的数据写入文件。
+     * <br> 即使此前写入文件已失败，也将注销记录处理器并关闭文件。
+     *
+     * @throws IOException 写入或关闭文件失败时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (this.closed) return;
+            this.closed = true;
+        }
+        this.subscriptions.unsubscribe();
+
+        synchronized (this) {
+            if (this.failure == null) handoff();
+        }
+        try {
+            this.pending.put(END);
+            this.writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.channel.close();
+        }
+
+        IOException failure = this.failure;
+        if (failure != null) throw new IOException("Could not write recorded events", failure);
+    }
+
+    protected synchronized <T extends Event> void write(int id, @NotNull Class<T> eventClass,
+                                                        @NotNull EventCodec<? super T> codec, @NotNull T event) {
+        if (this.closed || this.failure != null) return;
+        try {
+            this.payload.reset();
+            codec.encode(event, this.payloadOutput);
+
+            if (!this.defined.get(id)) {
+                this.chunkOutput.writeByte(EventLog.CLASS_DEFINITION);
+                EventLog.writeVarLong(this.chunkOutput, id);
+                this.chunkOutput.writeUTF(eventClass.getName());
+                this.defined.set(id);
+            }
+
+            long now = System.nanoTime();
+            this.chunkOutput.writeByte(EventLog.EVENT);
+            EventLog.writeVarLong(this.chunkOutput, id);
+            EventLog.writeVarLong(this.chunkOutput, Math.max(0L, now - this.lastEvent));
+            EventLog.writeVarLong(this.chunkOutput, this.payload.size());
+            this.payload.writeTo(this.chunkOutput);
+            this.lastEvent = now;
+            this.chunkEvents++;
+            this.recorded++;
+
+            if (this.chunk.size() >= CHUNK_SIZE || now - this.chunkStart >= CHUNK_MAX_AGE_NANOS) handoff();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * 将当前数据块交由后台线程写入，若待写入数据块过多则丢弃。
+     */
+    protected void handoff() {
+        this.chunkStart = System.nanoTime();
+        if (this.chunk.size() == 0) return;
+
+        if (!this.pending.offer(this.chunk.toByteArray())) {
+            this.dropped += this.chunkEvents;
+            // 被丢弃的数据块中可能包含事件类定义，因此需在之后的数据块中重新定义
+            this.defined.clear();
+        }
+        this.chunk.reset();
+        this.chunkEvents = 0;
+    }
+
+    protected void writeLoop() {
+        try {
+            while (true) {
+                byte[] bytes = this.pending.take();
+                if (bytes == END) return;
+                // 写入失败后仅丢弃剩余的数据块，直至关闭，以免关闭时等待已退出的线程
+                if (this.failure != null) continue;
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    while (buffer.hasRemaining()) this.channel.write(buffer);
+                } catch (IOException | RuntimeException ex) {
+                    this.source.getPlugin().getLogger().log(Level.SEVERE, "Could not write recorded events", ex);
+                    this.failure = ex instanceof IOException ? (IOException) ex : new IOException(ex);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
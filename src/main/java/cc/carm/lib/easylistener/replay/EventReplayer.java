@@ -0,0 +1,189 @@
+package cc.carm.lib.easylistener.replay;
+
+import cc.carm.lib.easylistener.metrics.LatencyHistogram;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * 离线重放由 {@link EventRecorder} 记录的事件。
+ * <br> 事件将被逐个解码，并按 SimplePluginManager#fireEvent 的方式依次交由其 {@link org.bukkit.event.HandlerList}
+ * 中的全部 {@link RegisteredListener} 处理，因此在无需启动服务端的情况下即可对注册在 {@link cc.carm.lib.easylistener.EasyListener}
+ * 中的处理器进行压力测试。
+ * <br> 重放时忽略事件原有的时间间隔，以最快速度分发，仅统计分发本身的耗时，不包括解码的耗时。
+ * <br> 处理器的异常次数包括由 {@link cc.carm.lib.easylistener.executor.FusedEventExecutor} 单独记录而未抛出的异常，
+ * 重放期间将监听各处理器所属插件的 {@link Logger} 以统计这些异常。
+ *
+ * <pre>{@code
+ * EasyListener source = EasyListener.create(plugin);
+ * // 注册需要测试的处理器 ...
+ * ReplayReport report = new EventReplayer()
+ *         .codec(PlayerMoveEvent.class, moveCodec)
+ *         .replay(path);
+ * System.out.println(report);
+ * }</pre>
+ *
+ * @author CarmJos
+ */
+public class EventReplayer {
+
+    protected final Map<String, EventCodec<?>> codecs = new HashMap<>();
+
+    /**
+     * 设定一类事件的解码器，未设定解码器的事件将被跳过。
+     *
+     * @param eventClass 事件类，应与记录时使用的事件类相同
+     * @param codec      事件的解码器
+     * @param <T>        事件的类型
+     * @return 本实例
+     */
+    public <T extends Event> EventReplayer codec(@NotNull Class<T> eventClass, @NotNull EventCodec<? extends T> codec) {
+        this.codecs.put(eventClass.getName(), codec);
+        return this;
+    }
+
+    /**
+     * 重放记录文件中的全部事件。
+     *
+     * @param file 记录文件
+     * @return 重放结果
+     * @throws IOException 读取失败或文件格式错误时抛出
+     */
+    public @NotNull ReplayReport replay(@NotNull Path file) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            return replay(input);
+        }
+    }
+
+    /**
+     * 重放输入中的全部事件。
+     *
+     * @param input 记录内容
+     * @return 重放结果
+     * @throws IOException 读取失败或格式错误时抛出
+     */
+    public @NotNull ReplayReport replay(@NotNull DataInputStream input) throws IOException {
+        if (input.readInt() != EventLog.MAGIC) throw new IOException("Not an event log");
+        int version = input.readUnsignedByte();
+        if (version != EventLog.VERSION) throw new IOException("Unsupported event log version " + version);
+
+        List<EventCodec<?>> byId = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        ReplayReport report = new ReplayReport();
+        byte[] buffer = new byte[256];
+        FailureCounter failures = new FailureCounter();
+
+        long start = System.nanoTime();
+        try {
+            dispatchAll(input, byId, names, buffer, report, failures);
+        } finally {
+            failures.close();
+        }
+        report.failures += failures.count;
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    protected void dispatchAll(@NotNull DataInputStream input, @NotNull List<EventCodec<?>> byId, @NotNull List<String> names,
+                               byte[] buffer, @NotNull ReplayReport report, @NotNull FailureCounter failures) throws IOException {
+        while (true) {
+            int type = input.read();
+            if (type < 0) break;
+
+            if (type == EventLog.CLASS_DEFINITION) {
+                int id = EventLog.readVarInt(input);
+                String name = input.readUTF();
+                while (byId.size() <= id) {
+                    byId.add(null);
+                    names.add(null);
+                }
+                byId.set(id, this.codecs.get(name));
+                names.set(id, name);
+                continue;
+            }
+            if (type != EventLog.EVENT) throw new IOException("Unknown record type " + type);
+
+            int id = EventLog.readVarInt(input);
+            EventLog.readVarLong(input); // 重放时忽略原有的时间间隔
+            int length = EventLog.readVarInt(input);
+            if (buffer.length < length) buffer = new byte[Math.max(length, buffer.length * 2)];
+            input.readFully(buffer, 0, length);
+
+            EventCodec<?> codec = id < byId.size() ? byId.get(id) : null;
+            if (codec == null) {
+                report.skipped++;
+                continue;
+            }
+
+            Event event = codec.decode(new DataInputStream(new ByteArrayInputStream(buffer, 0, length)));
+            dispatch(event, names.get(id), report, failures);
+        }
+    }
+
+    protected void dispatch(@NotNull Event event, @NotNull String name,
+                            @NotNull ReplayReport report, @NotNull FailureCounter failures) {
+        RegisteredListener[] registrations = event.getHandlers().getRegisteredListeners();
+        for (RegisteredListener registration : registrations) failures.watch(registration.getPlugin());
+
+        long start = System.nanoTime();
+        for (RegisteredListener registration : registrations) {
+            try {
+                registration.callEvent(event);
+            } catch (EventException | RuntimeException ex) {
+                report.failures++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        report.events++;
+        report.dispatchNanos += elapsed;
+        report.latency.record(elapsed);
+        report.perClass.computeIfAbsent(name, k -> new LatencyHistogram()).record(elapsed);
+    }
+
+    /**
+     * 统计重放期间由处理器所属插件记录的事件分发异常，如 {@link cc.carm.lib.easylistener.executor.FusedEventExecutor}
+     * 单独记录而未抛出的异常。仅统计重放线程中记录的异常。
+     */
+    protected static class FailureCounter extends Handler {
+
+        protected final @NotNull Thread thread = Thread.currentThread();
+        protected final @NotNull Set<Logger> loggers = Collections.newSetFromMap(new IdentityHashMap<>());
+        protected long count = 0L;
+
+        protected void watch(@NotNull Plugin plugin) {
+            Logger logger = plugin.getLogger();
+            if (logger != null && this.loggers.add(logger)) logger.addHandler(this);
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            if (Thread.currentThread() != this.thread || record.getLevel() != Level.SEVERE) return;
+            if (record.getThrown() == null || record.getMessage() == null) return;
+            if (record.getMessage().startsWith("Could not pass event ")) this.count++;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            this.loggers.forEach(logger -> logger.removeHandler(this));
+            this.loggers.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package cc.carm.lib.easylistener.replay;
+
+import cc.carm.lib.easylistener.metrics.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EventReplayer} 的重放结果。
+ *
+ * @author CarmJos
+ */
+public class ReplayReport {
+
+    protected long events = 0L;
+    protected long skipped = 0L;
+    protected long failures = 0L;
+    protected long elapsedNanos = 0L;
+    protected long dispatchNanos = 0L;
+
+    protected final @NotNull LatencyHistogram latency = new LatencyHistogram();
+    protected final @NotNull Map<String, LatencyHistogram> perClass = new LinkedHashMap<>();
+
+    /**
+     * @return 已分发的事件数量
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * @return 因未设定解码器而被跳过的事件数量
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return 处理器抛出异常的次数，包括由 {@link cc.carm.lib.easylistener.executor.FusedEventExecutor} 记录而未抛出的异常
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return 重放的总耗时，包括读取与解码
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return 分发事件的总耗时，不包括读取与解码
+     */
+    public long getDispatchNanos() {
+        return dispatchNanos;
+    }
+
+    /**
+     * @return 每秒可分发的事件数量，按分发事件的总耗时计算
+     */
+    public double getThroughput() {
+        return dispatchNanos == 0 ? 0D : events * (double) TimeUnit.SECONDS.toNanos(1) / dispatchNanos;
+    }
+
+    /**
+     * @return 全部事件的分发耗时分布
+     */
+    public @NotNull LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return 按事件类名区分的分发耗时分布
+     */
+    public @Unmodifiable @NotNull Map<String, LatencyHistogram> getLatencyByClass() {
+        return Collections.unmodifiableMap(perClass);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append("Replayed ").append(events).append(" events (").append(skipped).append(" skipped, ")
+                .append(failures).append(" failures) in ")
+                .append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append("ms, ")
+                .append(String.format("%.0f", getThroughput())).append(" events/s, ")
+                .append(latency);
+        perClass.forEach((name, histogram) -> builder.append("\n  ").append(name).append(": ").append(histogram));
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,198 @@
+package cc.carm.lib.easylistener.rule;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * 由同一事件类的全部 {@link Rule} 编译得到的决策表。
+ * <br> 每条规则对应位集中的一位，按声明顺序排列。
+ * 世界、方块类型与实体类型三个维度分别预先计算出 "取该值时可能匹配的规则" 位集，
+ * 判断事件时每个维度仅提取并查询一次，将各维度的位集按位与后，再按声明顺序检查剩余规则的玩家条件。
+ * <br> 同一权限在一次判断中至多检查一次，结果供之后的规则复用。
+ *
+ * @param <E> 事件的类型
+ * @author CarmJos
+ */
+public class DecisionTable<E extends Event> {
+
+    /**
+     * 可被缓存结果的不同权限的数量上限，超出部分将在每条规则中单独检查。
+     */
+    protected static final int MEMOIZED_PERMISSIONS = 64;
+
+    protected final @NotNull RuleSubject<E> subject;
+    protected final @NotNull RuleAction[] actions;
+    protected final int words;
+
+    protected final @NotNull long[] all;
+    protected final @NotNull long[] playerRules;
+
+    protected final @Nullable Map<String, long[]> worldMasks;
+    protected final @NotNull long[] worldDefault;
+    protected final @Nullable Map<Material, long[]> materialMasks;
+    protected final @NotNull long[] materialDefault;
+    protected final @Nullable Map<EntityType, long[]> entityMasks;
+    protected final @NotNull long[] entityDefault;
+
+    protected final @NotNull String[] permissions;
+    protected final @NotNull int[] requiredPermission;
+    protected final @NotNull int[] forbiddenPermission;
+    protected final @NotNull byte[] requiredOp;
+
+    public DecisionTable(@NotNull RuleSubject<E> subject, @NotNull List<Rule> rules) {
+        int size = rules.size();
+        this.subject = subject;
+        this.actions = new RuleAction[size];
+        this.words = (size + 63) >>> 6;
+
+        this.all = new long[words];
+        this.playerRules = new long[words];
+        this.worldDefault = new long[words];
+        this.materialDefault = new long[words];
+        this.entityDefault = new long[words];
+
+        Map<String, long[]> worldMasks = new HashMap<>();
+        Map<Material, long[]> materialMasks = new EnumMap<>(Material.class);
+        Map<EntityType, long[]> entityMasks = new EnumMap<>(EntityType.class);
+        Map<String, Integer> permissionIds = new LinkedHashMap<>();
+
+        this.requiredPermission = new int[size];
+        this.forbiddenPermission = new int[size];
+        this.requiredOp = new byte[size];
+
+        for (int i = 0; i < size; i++) {
+            Rule rule = rules.get(i);
+            final int index = i;
+            this.actions[i] = rule.action;
+            set(all, i);
+            if (rule.hasPlayerCondition()) set(playerRules, i);
+
+            if (rule.worlds == null) set(worldDefault, i);
+            else rule.worlds.forEach(name -> set(worldMasks.computeIfAbsent(name, k -> new long[words]), index));
+
+            if (rule.materials == null) set(materialDefault, i);
+            else rule.materials.forEach(m -> set(materialMasks.computeIfAbsent(m, k -> new long[words]), index));
+
+            if (rule.entities == null) set(entityDefault, i);
+            else rule.entities.forEach(t -> set(entityMasks.computeIfAbsent(t, k -> new long[words]), index));
+
+            this.requiredPermission[i] = rule.permission == null ? -1 :
+                    permissionIds.computeIfAbsent(rule.permission, k -> permissionIds.size());
+            this.forbiddenPermission[i] = rule.withoutPermission == null ? -1 :
+                    permissionIds.computeIfAbsent(rule.withoutPermission, k -> permissionIds.size());
+            this.requiredOp[i] = rule.op == null ? (byte) -1 : (byte) (rule.op ? 1 : 0);
+        }
+
+        // 未被任何规则提及的值只可能匹配不限定该维度的规则，因此每个被提及的值也应包含这些规则。
+        worldMasks.values().forEach(mask -> or(mask, worldDefault));
+        materialMasks.values().forEach(mask -> or(mask, materialDefault));
+        entityMasks.values().forEach(mask -> or(mask, entityDefault));
+
+        // 全部规则均不限定的维度无需在判断时提取。
+        this.worldMasks = worldMasks.isEmpty() ? null : worldMasks;
+        this.materialMasks = materialMasks.isEmpty() ? null : materialMasks;
+        this.entityMasks = entityMasks.isEmpty() ? null : entityMasks;
+        this.permissions = permissionIds.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * 判断事件所匹配的第一条规则的动作。
+     *
+     * @param event 事件
+     * @return 第一条匹配的规则的动作，无匹配的规则时返回 null
+     */
+    public @Nullable RuleAction evaluate(@NotNull E event) {
+        long[] worldMask = worldDefault;
+        if (worldMasks != null) {
+            World world = subject.world(event);
+            if (world != null) worldMask = worldMasks.getOrDefault(world.getName(), worldDefault);
+        }
+
+        long[] materialMask = materialDefault;
+        if (materialMasks != null) {
+            Material material = subject.material(event);
+            if (material != null) materialMask = materialMasks.getOrDefault(material, materialDefault);
+        }
+
+        long[] entityMask = entityDefault;
+        if (entityMasks != null) {
+            EntityType type = subject.entity(event);
+            if (type != null) entityMask = entityMasks.getOrDefault(type, entityDefault);
+        }
+
+        Player player = null;
+        boolean playerResolved = false;
+        long checked = 0L; // 已检查过的权限
+        long granted = 0L; // 已检查且拥有的权限
+
+        for (int w = 0; w < words; w++) {
+            long candidates = all[w] & worldMask[w] & materialMask[w] & entityMask[w];
+            while (candidates != 0) {
+                int bit = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                int index = (w << 6) | bit;
+
+                if ((playerRules[w] & (1L << bit)) == 0) return actions[index];
+
+                if (!playerResolved) {
+                    player = subject.player(event);
+                    playerResolved = true;
+                }
+                if (player == null) continue;
+
+                byte op = requiredOp[index];
+                if (op >= 0 && player.isOp() != (op == 1)) continue;
+
+                int required = requiredPermission[index];
+                if (required >= 0) {
+                    if (required < MEMOIZED_PERMISSIONS) {
+                        long flag = 1L << required;
+                        if ((checked & flag) == 0) {
+                            checked |= flag;
+                            if (player.hasPermission(permissions[required])) granted |= flag;
+                        }
+                        if ((granted & flag) == 0) continue;
+                    } else if (!player.hasPermission(permissions[required])) continue;
+                }
+
+                int forbidden = forbiddenPermission[index];
+                if (forbidden >= 0) {
+                    if (forbidden < MEMOIZED_PERMISSIONS) {
+                        long flag = 1L << forbidden;
+                        if ((checked & flag) == 0) {
+                            checked |= flag;
+                            if (player.hasPermission(permissions[forbidden])) granted |= flag;
+                        }
+                        if ((granted & flag) != 0) continue;
+                    } else if (player.hasPermission(permissions[forbidden])) continue;
+                }
+
+                return actions[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 决策表中的规则数量
+     */
+    public int size() {
+        return actions.length;
+    }
+
+    private static void set(long[] mask, int index) {
+        mask[index >>> 6] |= 1L << index;
+    }
+
+    private static void or(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) target[i] |= source[i];
+    }
+
+}
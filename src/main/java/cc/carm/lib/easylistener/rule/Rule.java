@@ -0,0 +1,152 @@
+package cc.carm.lib.easylistener.rule;
+
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.*;
+
+/**
+ * 以数据描述的一条规则，由适用的事件类型、若干条件与一个 {@link RuleAction} 组成。
+ * <br> 同一规则中的全部条件均满足时规则匹配；未设定的条件视为满足。
+ * <br> 与玩家相关的条件在事件不涉及玩家时视为不满足。
+ *
+ * <pre>{@code
+ * Rule.cancel(BlockBreakEvent.class, BlockPlaceEvent.class)
+ *         .worlds("spawn")
+ *         .withoutPermission("spawn.build");
+ * }</pre>
+ *
+ * @author CarmJos
+ */
+public class Rule {
+
+    /**
+     * 创建一条取消事件的规则。
+     *
+     * @param eventClasses 适用的事件类型
+     * @return 规则实例
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static @NotNull Rule cancel(@NotNull Class<? extends Event>... eventClasses) {
+        return new Rule(RuleAction.CANCEL, eventClasses);
+    }
+
+    /**
+     * 创建一条放行事件的规则，通常用于在取消规则之前声明例外情况。
+     *
+     * @param eventClasses 适用的事件类型
+     * @return 规则实例
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static @NotNull Rule allow(@NotNull Class<? extends Event>... eventClasses) {
+        return new Rule(RuleAction.ALLOW, eventClasses);
+    }
+
+    protected final @NotNull RuleAction action;
+    protected final @NotNull Set<Class<? extends Event>> eventClasses;
+
+    protected @Nullable Set<String> worlds;
+    protected @Nullable Set<Material> materials;
+    protected @Nullable Set<EntityType> entities;
+    protected @Nullable String permission;
+    protected @Nullable String withoutPermission;
+    protected @Nullable Boolean op;
+
+    protected Rule(@NotNull RuleAction action, @NotNull Class<? extends Event>[] eventClasses) {
+        if (eventClasses.length == 0) throw new IllegalArgumentException("At least one event class is required");
+        this.action = action;
+        this.eventClasses = new LinkedHashSet<>(Arrays.asList(eventClasses));
+    }
+
+    /**
+     * 限定事件所在的世界。
+     *
+     * @param worldNames 世界名
+     * @return 本实例
+     */
+    public Rule worlds(@NotNull String... worldNames) {
+        this.worlds = new HashSet<>(Arrays.asList(worldNames));
+        return this;
+    }
+
+    /**
+     * 限定事件所涉及的方块或物品类型。
+     *
+     * @param materials 方块或物品类型
+     * @return 本实例
+     */
+    public Rule materials(@NotNull Material... materials) {
+        EnumSet<Material> set = EnumSet.noneOf(Material.class);
+        Collections.addAll(set, materials);
+        this.materials = set;
+        return this;
+    }
+
+    /**
+     * 限定事件所涉及的实体类型。
+     *
+     * @param types 实体类型
+     * @return 本实例
+     */
+    public Rule entities(@NotNull EntityType... types) {
+        EnumSet<EntityType> set = EnumSet.noneOf(EntityType.class);
+        Collections.addAll(set, types);
+        this.entities = set;
+        return this;
+    }
+
+    /**
+     * 限定事件所涉及的玩家拥有给定权限。
+     *
+     * @param permission 权限
+     * @return 本实例
+     */
+    public Rule permission(@NotNull String permission) {
+        this.permission = permission;
+        return this;
+    }
+
+    /**
+     * 限定事件所涉及的玩家没有给定权限。
+     *
+     * @param permission 权限
+     * @return 本实例
+     */
+    public Rule withoutPermission(@NotNull String permission) {
+        this.withoutPermission = permission;
+        return this;
+    }
+
+    /**
+     * 限定事件所涉及的玩家是否为OP。
+     *
+     * @param op 是否为OP
+     * @return 本实例
+     */
+    public Rule op(boolean op) {
+        this.op = op;
+        return this;
+    }
+
+    public @NotNull RuleAction getAction() {
+        return action;
+    }
+
+    public @Unmodifiable @NotNull Set<Class<? extends Event>> getEventClasses() {
+        return Collections.unmodifiableSet(eventClasses);
+    }
+
+    /**
+     * @return 是否包含与玩家相关的条件
+     */
+    public boolean hasPlayerCondition() {
+        return this.permission != null || this.withoutPermission != null || this.op != null;
+    }
+
+}
@@ -0,0 +1,21 @@
+package cc.carm.lib.easylistener.rule;
+
+/**
+ * 规则匹配后执行的动作。
+ * <br> 规则按声明顺序匹配，仅第一条匹配的规则的动作会被执行。
+ *
+ * @author CarmJos
+ */
+public enum RuleAction {
+
+    /**
+     * 取消事件，仅适用于可被取消的事件。
+     */
+    CANCEL,
+
+    /**
+     * 放行事件，即不做任何修改，并跳过之后的规则。
+     */
+    ALLOW
+
+}
@@ -0,0 +1,274 @@
+package cc.carm.lib.easylistener.rule;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.ReloadableGroup;
+import cc.carm.lib.easylistener.SubscriptionGroup;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityEvent;
+import org.bukkit.event.player.PlayerBucketEvent;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.weather.WeatherEvent;
+import org.bukkit.event.world.WorldEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * 声明式的事件规则引擎。
+ * <br> 规则以数据的形式声明，注册时按事件类编译为 {@link DecisionTable} ，
+ * 每个事件类仅注册一个处理器，每个事件仅判断一次，多条规则共用的条件(如世界、方块类型)仅提取与查询一次。
+ * <br> 同一事件类的规则按声明顺序匹配，仅第一条匹配的规则生效，
+ * 因此可先声明 {@link Rule#allow(Class[])} 规则作为例外。
+ * <br> 默认支持方块事件、实体事件、玩家事件、世界与天气事件，其他事件需通过 {@link #subject(Class, RuleSubject)} 设定。
+ *
+ * <pre>{@code
+ * SubscriptionGroup rules = RuleEngine.create()
+ *         .rule(Rule.allow(BlockBreakEvent.class, BlockPlaceEvent.class).permission("spawn.build"))
+ *         .rule(Rule.cancel(BlockBreakEvent.class, BlockPlaceEvent.class).worlds("spawn"))
+ *         .rule(Rule.cancel(PlayerBucketEmptyEvent.class).materials(Material.LAVA_BUCKET, Material.WATER_BUCKET))
+ *         .register(listener);
+ * }</pre>
+ *
+ * @author CarmJos
+ */
+public class RuleEngine {
+
+    protected static final Map<Class<?>, RuleSubject<?>> DEFAULT_SUBJECTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_SUBJECTS.put(BlockBreakEvent.class, RuleSubject.<BlockBreakEvent>of(
+                BlockBreakEvent::getPlayer, e -> e.getBlock().getWorld(), null, e -> e.getBlock().getType()
+        ));
+        DEFAULT_SUBJECTS.put(BlockPlaceEvent.class, RuleSubject.<BlockPlaceEvent>of(
+                BlockPlaceEvent::getPlayer, e -> e.getBlock().getWorld(), null, e -> e.getBlock().getType()
+        ));
+        DEFAULT_SUBJECTS.put(BlockEvent.class, RuleSubject.<BlockEvent>of(
+                null, e -> e.getBlock().getWorld(), null, e -> e.getBlock().getType()
+        ));
+        DEFAULT_SUBJECTS.put(EntityDamageByEntityEvent.class, RuleSubject.<EntityDamageByEntityEvent>of(
+                e -> playerOf(e.getDamager()),
+                e -> e.getEntity().getWorld(), e -> e.getEntity().getType(), null
+        ));
+        DEFAULT_SUBJECTS.put(EntityEvent.class, RuleSubject.<EntityEvent>of(
+                e -> playerOf(e.getEntity()),
+                e -> e.getEntity().getWorld(), e -> e.getEntity().getType(), null
+        ));
+        DEFAULT_SUBJECTS.put(PlayerBucketEvent.class, RuleSubject.<PlayerBucketEvent>of(
+                PlayerEvent::getPlayer, e -> e.getPlayer().getWorld(), null, PlayerBucketEvent::getBucket
+        ));
+        DEFAULT_SUBJECTS.put(PlayerInteractEvent.class, RuleSubject.<PlayerInteractEvent>of(
+                PlayerEvent::getPlayer, e -> e.getPlayer().getWorld(), null, e -> {
+                    Block block = e.getClickedBlock();
+                    return block == null ? null : block.getType();
+                }
+        ));
+        DEFAULT_SUBJECTS.put(PlayerEvent.class, RuleSubject.<PlayerEvent>of(
+                PlayerEvent::getPlayer, e -> e.getPlayer().getWorld(), null, null
+        ));
+        DEFAULT_SUBJECTS.put(WeatherEvent.class, RuleSubject.<WeatherEvent>of(
+                null, WeatherEvent::getWorld, null, null
+        ));
+        DEFAULT_SUBJECTS.put(WorldEvent.class, RuleSubject.<WorldEvent>of(
+                null, WorldEvent::getWorld, null, null
+        ));
+    }
+
+    public static @NotNull RuleEngine create() {
+        return new RuleEngine();
+    }
+
+    protected final @NotNull List<Rule> rules = new ArrayList<>();
+    protected final @NotNull Set<Class<? extends Event>> events = new LinkedHashSet<>();
+    protected final @NotNull Map<Class<?>, RuleSubject<?>> subjects = new HashMap<>();
+
+    protected @NotNull EventPriority priority = EventPriority.NORMAL;
+    protected boolean ignoreCancelled = true;
+
+    /**
+     * 加入一条规则，同一事件类的规则按加入顺序匹配。
+     *
+     * @param rule 规则
+     * @return 本实例
+     */
+    public RuleEngine rule(@NotNull Rule rule) {
+        this.rules.add(rule);
+        return this;
+    }
+
+    /**
+     * 加入多条规则，同一事件类的规则按加入顺序匹配。
+     *
+     * @param rules 规则
+     * @return 本实例
+     */
+    public RuleEngine rules(@NotNull Collection<Rule> rules) {
+        this.rules.addAll(rules);
+        return this;
+    }
+
+    /**
+     * 设定一类事件的判断对象，将覆盖默认的设定。
+     *
+     * @param eventClass 事件类
+     * @param subject    判断对象
+     * @param <E>        事件的类型
+     * @return 本实例
+     */
+    public <E extends Event> RuleEngine subject(@NotNull Class<E> eventClass, @NotNull RuleSubject<? super E> subject) {
+        this.subjects.put(eventClass, subject);
+        return this;
+    }
+
+    /**
+     * 设定规则处理器的优先级，默认为 {@link EventPriority#NORMAL} 。
+     *
+     * @param priority 优先级
+     * @return 本实例
+     */
+    public RuleEngine priority(@NotNull EventPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * 设定是否判断已被取消的事件，默认不判断。
+     *
+     * @param accept 是否判断已被取消的事件
+     * @return 本实例
+     */
+    public RuleEngine acceptCancelled(boolean accept) {
+        this.ignoreCancelled = !accept;
+        return this;
+    }
+
+    /**
+     * 声明需要处理的事件类，即使当前没有对应的规则。
+     * <br> 通过 {@link #reloadable(EasyListener)} 注册后，仅注册时已有的事件类会被处理，
+     * 因此重载后可能出现的事件类应提前在此声明。
+     *
+     * @param eventClasses 事件类
+     * @return 本实例
+     */
+    @SafeVarargs
+    public final RuleEngine events(@NotNull Class<? extends Event>... eventClasses) {
+        for (Class<? extends Event> eventClass : eventClasses) {
+            this.events.add(eventClass);
+        }
+        return this;
+    }
+
+    /**
+     * 将全部规则编译为不可变的 {@link RuleSet} ，可在任意线程中调用。
+     *
+     * @return 编译得到的规则集
+     * @throws IllegalArgumentException 规则对不可被取消的事件声明了 {@link RuleAction#CANCEL} 时抛出
+     * @throws IllegalStateException    事件类没有可用的判断对象时抛出
+     */
+    public @NotNull RuleSet compile() {
+        Map<Class<? extends Event>, List<Rule>> byClass = new LinkedHashMap<>();
+        for (Class<? extends Event> eventClass : this.events) {
+            byClass.put(eventClass, new ArrayList<>());
+        }
+        for (Rule rule : this.rules) {
+            for (Class<? extends Event> eventClass : rule.eventClasses) {
+                if (rule.action == RuleAction.CANCEL && !Cancellable.class.isAssignableFrom(eventClass)) {
+                    throw new IllegalArgumentException(eventClass.getName() + " is not cancellable");
+                }
+                byClass.computeIfAbsent(eventClass, k -> new ArrayList<>()).add(rule);
+            }
+        }
+
+        Map<Class<? extends Event>, DecisionTable<?>> tables = new LinkedHashMap<>();
+        byClass.forEach((eventClass, rules) -> tables.put(eventClass, compile(eventClass, rules)));
+        return new RuleSet(tables);
+    }
+
+    /**
+     * 编译全部规则，并为每个事件类注册一个处理器。
+     *
+     * @param source 用于注册处理器的 {@link EasyListener}
+     * @return 全部处理器，可用于一次性注销全部规则
+     * @throws IllegalArgumentException 规则对不可被取消的事件声明了 {@link RuleAction#CANCEL} 时抛出
+     * @throws IllegalStateException    事件类没有可用的判断对象时抛出
+     */
+    public @NotNull SubscriptionGroup register(@NotNull EasyListener source) {
+        RuleSet rules = compile();
+        return source.collect(l -> rules.getEventClasses().forEach(eventClass -> register(l, eventClass, rules)));
+    }
+
+    /**
+     * 编译全部规则，并为每个事件类注册一个可热重载的处理器。
+     * <br> 重载时通过 {@link ReloadableGroup#reload(Object)} 或 {@link ReloadableGroup#reloadAsync(java.util.function.Supplier)}
+     * 替换为其他 {@link RuleEngine} 编译得到的 {@link RuleSet} ，处理器与 {@link org.bukkit.event.HandlerList} 均保持不变。
+     * <br> 新规则集中新增的事件类不会被处理，请通过 {@link #events(Class[])} 提前声明；
+     * 处理器的优先级与是否判断已被取消的事件以注册时的设定为准。
+     *
+     * <pre>{@code
+     * ReloadableGroup<RuleSet> rules = loadRules().reloadable(listener);
+     * // 配置重载时
+     * rules.reloadAsync(() -> loadRules().compile());
+     * }</pre>
+     *
+     * @param source 用于注册处理器的 {@link EasyListener}
+     * @return 可热重载的处理器组
+     * @throws IllegalArgumentException 规则对不可被取消的事件声明了 {@link RuleAction#CANCEL} 时抛出
+     * @throws IllegalStateException    事件类没有可用的判断对象时抛出
+     */
+    public @NotNull ReloadableGroup<RuleSet> reloadable(@NotNull EasyListener source) {
+        RuleSet rules = compile();
+        ReloadableGroup<RuleSet> group = source.reloadable(rules);
+        source.batch(l -> rules.getEventClasses().forEach(eventClass -> register(group, eventClass)));
+        return group;
+    }
+
+    protected <E extends Event> @NotNull DecisionTable<E> compile(@NotNull Class<E> eventClass, @NotNull List<Rule> rules) {
+        return new DecisionTable<>(findSubject(eventClass), rules);
+    }
+
+    protected <E extends Event> void register(@NotNull EasyListener source, @NotNull Class<E> eventClass,
+                                              @NotNull RuleSet rules) {
+        source.subscribe(
+                eventClass, priority, ignoreCancelled, handlerName(eventClass), null,
+                event -> rules.apply(eventClass, event)
+        );
+    }
+
+    protected <E extends Event> void register(@NotNull ReloadableGroup<RuleSet> group, @NotNull Class<E> eventClass) {
+        group.handle(
+                eventClass, priority, ignoreCancelled, handlerName(eventClass),
+                (rules, event) -> rules.apply(eventClass, event)
+        );
+    }
+
+    protected static @NotNull String handlerName(@NotNull Class<?> eventClass) {
+        return "RuleEngine#" + eventClass.getSimpleName();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <E extends Event> @NotNull RuleSubject<E> findSubject(@NotNull Class<E> eventClass) {
+        RuleSubject<?> subject = this.subjects.get(eventClass);
+        if (subject != null) return (RuleSubject<E>) subject;
+
+        for (Class<?> type = eventClass; type != null && Event.class.isAssignableFrom(type); type = type.getSuperclass()) {
+            subject = DEFAULT_SUBJECTS.get(type);
+            if (subject != null) return (RuleSubject<E>) subject;
+        }
+        throw new IllegalStateException("No rule subject for " + eventClass.getName());
+    }
+
+    protected static @Nullable Player playerOf(@Nullable Entity entity) {
+        return entity instanceof Player ? (Player) entity : null;
+    }
+
+}
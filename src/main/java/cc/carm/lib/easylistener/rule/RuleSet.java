@@ -0,0 +1,68 @@
+package cc.carm.lib.easylistener.rule;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 由 {@link RuleEngine#compile()} 编译得到的不可变规则集，包含每个事件类的 {@link DecisionTable} 。
+ * <br> 规则集可在任意线程中编译，并通过 {@link cc.carm.lib.easylistener.ReloadableGroup} 整体替换。
+ *
+ * @author CarmJos
+ */
+public class RuleSet {
+
+    protected final @NotNull Map<Class<? extends Event>, DecisionTable<?>> tables;
+
+    public RuleSet(@NotNull Map<Class<? extends Event>, DecisionTable<?>> tables) {
+        this.tables = Collections.unmodifiableMap(new LinkedHashMap<>(tables));
+    }
+
+    /**
+     * 判断事件所匹配的第一条规则的动作。
+     *
+     * @param eventClass 处理器注册时使用的事件类
+     * @param event      事件
+     * @param <E>        事件的类型
+     * @return 第一条匹配的规则的动作，事件类没有规则或无匹配的规则时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Event> @Nullable RuleAction evaluate(@NotNull Class<E> eventClass, @NotNull E event) {
+        DecisionTable<E> table = (DecisionTable<E>) this.tables.get(eventClass);
+        return table == null ? null : table.evaluate(event);
+    }
+
+    /**
+     * 判断事件所匹配的规则，并执行其动作。
+     *
+     * @param eventClass 处理器注册时使用的事件类
+     * @param event      事件
+     * @param <E>        事件的类型
+     */
+    public <E extends Event> void apply(@NotNull Class<E> eventClass, @NotNull E event) {
+        if (evaluate(eventClass, event) == RuleAction.CANCEL) ((Cancellable) event).setCancelled(true);
+    }
+
+    /**
+     * @return 包含规则的全部事件类
+     */
+    public @Unmodifiable @NotNull Set<Class<? extends Event>> getEventClasses() {
+        return tables.keySet();
+    }
+
+    /**
+     * @param eventClass 事件类
+     * @return 事件类的决策表，没有规则时返回 null
+     */
+    public @Nullable DecisionTable<?> getTable(@NotNull Class<? extends Event> eventClass) {
+        return tables.get(eventClass);
+    }
+
+}
@@ -0,0 +1,67 @@
+package cc.carm.lib.easylistener.rule;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * 从事件中提取规则所判断的对象，即玩家、世界、实体类型与方块或物品类型。
+ * <br> 事件不涉及某一对象时返回 null ，对该对象有要求的规则将不会匹配。
+ *
+ * @param <E> 事件的类型
+ * @author CarmJos
+ */
+public interface RuleSubject<E extends Event> {
+
+    /**
+     * 通过提取方法创建，为 null 的提取方法视为事件不涉及对应的对象。
+     *
+     * @param player   玩家的提取方法
+     * @param world    世界的提取方法
+     * @param entity   实体类型的提取方法
+     * @param material 方块或物品类型的提取方法
+     * @param <E>      事件的类型
+     * @return {@link RuleSubject} 实例
+     */
+    static <E extends Event> @NotNull RuleSubject<E> of(@Nullable Function<? super E, ? extends Player> player,
+                                                        @Nullable Function<? super E, ? extends World> world,
+                                                        @Nullable Function<? super E, EntityType> entity,
+                                                        @Nullable Function<? super E, Material> material) {
+        return new RuleSubject<E>() {
+            @Override
+            public @Nullable Player player(@NotNull E event) {
+                return player == null ? null : player.apply(event);
+            }
+
+            @Override
+            public @Nullable World world(@NotNull E event) {
+                return world == null ? null : world.apply(event);
+            }
+
+            @Override
+            public @Nullable EntityType entity(@NotNull E event) {
+                return entity == null ? null : entity.apply(event);
+            }
+
+            @Override
+            public @Nullable Material material(@NotNull E event) {
+                return material == null ? null : material.apply(event);
+            }
+        };
+    }
+
+    @Nullable Player player(@NotNull E event);
+
+    @Nullable World world(@NotNull E event);
+
+    @Nullable EntityType entity(@NotNull E event);
+
+    @Nullable Material material(@NotNull E event);
+
+}
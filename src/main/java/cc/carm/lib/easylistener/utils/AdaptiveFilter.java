@@ -0,0 +1,202 @@
+package cc.carm.lib.easylistener.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * 按实测的拒绝率与耗时自动调整判断顺序的条件组，仅当全部条件均满足时满足。
+ * <br> 每隔若干次判断抽样一次，抽样时依次判断全部条件并记录各条件的耗时与拒绝次数，
+ * 累计足够的样本后，按“平均耗时 / 拒绝率”从小到大重新排列条件，使开销低且拒绝率高的条件先判断。
+ * <br> 新的顺序以一个新数组整体发布，正在判断的事件仍使用其读取到的旧顺序，因此可在事件分发期间安全地调整。
+ * <br> 条件之间必须相互独立且没有副作用(如节流、防抖、采样等有状态的条件不应放入条件组)，
+ * 否则调整顺序将改变判断的结果。
+ * <br> 计数在多个线程中同时判断时可能丢失少量抽样，仅影响统计的精度，不影响判断的结果。
+ *
+ * <pre>{@code
+ * source.handleEvent(BlockBreakEvent.class)
+ *         .filter(EventFilters.adaptive(
+ *                 e -> !e.getPlayer().hasPermission("build.bypass"), // 开销较高
+ *                 e -> e.getBlock().getType() == Material.SPAWNER    // 开销低且几乎总是拒绝
+ *         ))
+ *         .cancel();
+ * }</pre>
+ *
+ * @param <T> 事件的类型
+ * @author CarmJos
+ */
+public class AdaptiveFilter<T> implements Predicate<T> {
+
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+    public static final int DEFAULT_SAMPLES_PER_REORDER = 256;
+
+    /**
+     * 创建条件组，并使用默认的抽样间隔与调整周期。
+     *
+     * @param predicates 条件，按声明的顺序作为初始顺序
+     * @param <T>        事件的类型
+     * @return {@link AdaptiveFilter} 实例
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> @NotNull AdaptiveFilter<T> of(@NotNull Predicate<? super T>... predicates) {
+        return new AdaptiveFilter<>(DEFAULT_SAMPLE_INTERVAL, DEFAULT_SAMPLES_PER_REORDER, predicates);
+    }
+
+    protected final @NotNull Stage<T>[] stages;
+    protected final int sampleInterval;
+    protected final int samplesPerReorder;
+
+    protected volatile @NotNull Stage<T>[] order;
+
+    protected int counter = 0; // 允许在多个线程中丢失计数
+    protected int samples = 0; // 仅在本实例的锁内修改
+
+    /**
+     * @param sampleInterval    每隔多少次判断抽样一次
+     * @param samplesPerReorder 每累计多少次抽样调整一次顺序
+     * @param predicates        条件，按声明的顺序作为初始顺序
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public AdaptiveFilter(int sampleInterval, int samplesPerReorder, @NotNull Predicate<? super T>... predicates) {
+        if (sampleInterval <= 0) throw new IllegalArgumentException("Sample interval must be positive");
+        if (samplesPerReorder <= 0) throw new IllegalArgumentException("Samples per reorder must be positive");
+        this.sampleInterval = sampleInterval;
+        this.samplesPerReorder = samplesPerReorder;
+        this.stages = (Stage<T>[]) new Stage<?>[predicates.length];
+        for (int i = 0; i < predicates.length; i++) {
+            this.stages[i] = new Stage<>(i, Objects.requireNonNull(predicates[i]));
+        }
+        this.order = this.stages.clone();
+    }
+
+    @Override
+    public boolean test(T t) {
+        if (++this.counter >= this.sampleInterval) {
+            this.counter = 0;
+            return sample(t);
+        }
+        for (Stage<T> stage : this.order) {
+            if (!stage.predicate.test(t)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 判断全部条件并记录其耗时与结果，以得到各条件各自的拒绝率，而不受其之前的条件影响。
+     */
+    protected boolean sample(T t) {
+        boolean passed = true;
+        for (Stage<T> stage : this.order) {
+            long start = System.nanoTime();
+            boolean result = stage.predicate.test(t);
+            long cost = System.nanoTime() - start;
+            synchronized (this) {
+                stage.record(cost, !result);
+            }
+            passed &= result;
+        }
+
+        synchronized (this) {
+            if (++this.samples >= this.samplesPerReorder) {
+                this.samples = 0;
+                reorder();
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * 按“平均耗时 / 拒绝率”重新排列条件，并将统计数据减半，使之后的调整更多地参考近期的数据。
+     */
+    protected void reorder() {
+        Stage<T>[] sorted = this.stages.clone();
+        double[] ranks = new double[sorted.length];
+        for (Stage<T> stage : sorted) ranks[stage.index] = stage.rank();
+        Arrays.sort(sorted, Comparator.comparingDouble((Stage<T> stage) -> ranks[stage.index])
+                .thenComparingInt(stage -> stage.index));
+        for (Stage<T> stage : sorted) stage.decay();
+
+        if (!Arrays.equals(sorted, this.order)) this.order = sorted;
+    }
+
+    /**
+     * @return 当前的判断顺序，以条件声明时的序号表示
+     */
+    public int[] getOrder() {
+        Stage<T>[] order = this.order;
+        int[] indexes = new int[order.length];
+        for (int i = 0; i < order.length; i++) indexes[i] = order[i].index;
+        return indexes;
+    }
+
+    /**
+     * @param index 条件声明时的序号
+     * @return 该条件近期抽样中的拒绝率
+     */
+    public synchronized double getRejectionRate(int index) {
+        Stage<T> stage = this.stages[index];
+        return stage.calls == 0 ? 0D : (double) stage.rejections / stage.calls;
+    }
+
+    /**
+     * @param index 条件声明时的序号
+     * @return 该条件近期抽样中的平均耗时，单位为纳秒
+     */
+    public synchronized double getMeanNanos(int index) {
+        Stage<T> stage = this.stages[index];
+        return stage.calls == 0 ? 0D : (double) stage.nanos / stage.calls;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveFilter" + Arrays.toString(getOrder());
+    }
+
+    /**
+     * 单个条件及其统计数据，统计数据仅在条件组的锁内修改。
+     */
+    protected static final class Stage<T> {
+
+        protected final int index;
+        protected final @NotNull Predicate<? super T> predicate;
+
+        protected long calls;
+        protected long rejections;
+        protected long nanos;
+
+        protected Stage(int index, @NotNull Predicate<? super T> predicate) {
+            this.index = index;
+            this.predicate = predicate;
+        }
+
+        protected void record(long cost, boolean rejected) {
+            this.calls++;
+            this.nanos += cost;
+            if (rejected) this.rejections++;
+        }
+
+        /**
+         * 拒绝率经过平滑处理，使从未拒绝的条件之间仍按耗时排列。
+         *
+         * @return 每拒绝一个事件所需的平均耗时
+         */
+        protected double rank() {
+            if (this.calls == 0) return Double.MAX_VALUE;
+            double mean = (double) this.nanos / this.calls;
+            return mean / ((this.rejections + 1D) / (this.calls + 2D));
+        }
+
+        protected void decay() {
+            this.calls >>= 1;
+            this.rejections >>= 1;
+            this.nanos >>= 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,169 @@
+package cc.carm.lib.easylistener.utils;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * 一次跨越方块边界的移动，由 {@link cc.carm.lib.easylistener.handler.MoveEventHandler} 在每个事件中计算一次，
+ * 并交由全部订阅者共用。
+ * <br> 坐标均为方块坐标，区块坐标为方块坐标右移 4 位。
+ *
+ * @author CarmJos
+ */
+public class BlockMove {
+
+    /**
+     * 计算一次移动，未跨越方块边界时返回 null。
+     *
+     * @param event 移动事件
+     * @return {@link BlockMove} 实例，目的地为 null 或仍在同一方块内时返回 null
+     */
+    public static @Nullable BlockMove of(@NotNull PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null) return null;
+
+        World fromWorld = from.getWorld();
+        World toWorld = to.getWorld();
+        int fromX = from.getBlockX(), fromY = from.getBlockY(), fromZ = from.getBlockZ();
+        int toX = to.getBlockX(), toY = to.getBlockY(), toZ = to.getBlockZ();
+
+        boolean worldChanged = !Objects.equals(fromWorld, toWorld);
+        if (!worldChanged && fromX == toX && fromY == toY && fromZ == toZ) return null;
+
+        return new BlockMove(event, fromWorld, toWorld, worldChanged, fromX, fromY, fromZ, toX, toY, toZ);
+    }
+
+    protected final @NotNull PlayerMoveEvent event;
+    protected final @Nullable World fromWorld;
+    protected final @Nullable World toWorld;
+    protected final boolean worldChanged;
+    protected final int fromX, fromY, fromZ;
+    protected final int toX, toY, toZ;
+
+    protected BlockMove(@NotNull PlayerMoveEvent event,
+                        @Nullable World fromWorld, @Nullable World toWorld, boolean worldChanged,
+                        int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        this.event = event;
+        this.fromWorld = fromWorld;
+        this.toWorld = toWorld;
+        this.worldChanged = worldChanged;
+        this.fromX = fromX;
+        this.fromY = fromY;
+        this.fromZ = fromZ;
+        this.toX = toX;
+        this.toY = toY;
+        this.toZ = toZ;
+    }
+
+    public @NotNull PlayerMoveEvent getEvent() {
+        return event;
+    }
+
+    public @NotNull Player getPlayer() {
+        return event.getPlayer();
+    }
+
+    public @Nullable World getFromWorld() {
+        return fromWorld;
+    }
+
+    public @Nullable World getToWorld() {
+        return toWorld;
+    }
+
+    public int getFromX() {
+        return fromX;
+    }
+
+    public int getFromY() {
+        return fromY;
+    }
+
+    public int getFromZ() {
+        return fromZ;
+    }
+
+    public int getToX() {
+        return toX;
+    }
+
+    public int getToY() {
+        return toY;
+    }
+
+    public int getToZ() {
+        return toZ;
+    }
+
+    public int getDeltaX() {
+        return toX - fromX;
+    }
+
+    public int getDeltaY() {
+        return toY - fromY;
+    }
+
+    public int getDeltaZ() {
+        return toZ - fromZ;
+    }
+
+    public int getFromChunkX() {
+        return fromX >> 4;
+    }
+
+    public int getFromChunkZ() {
+        return fromZ >> 4;
+    }
+
+    public int getToChunkX() {
+        return toX >> 4;
+    }
+
+    public int getToChunkZ() {
+        return toZ >> 4;
+    }
+
+    public int getChunkDeltaX() {
+        return getToChunkX() - getFromChunkX();
+    }
+
+    public int getChunkDeltaZ() {
+        return getToChunkZ() - getFromChunkZ();
+    }
+
+    /**
+     * @return 是否切换了世界，切换世界时同时视为跨越了区块边界
+     */
+    public boolean isWorldChanged() {
+        return worldChanged;
+    }
+
+    /**
+     * @return 是否跨越了区块边界
+     */
+    public boolean isChunkChanged() {
+        return worldChanged || getFromChunkX() != getToChunkX() || getFromChunkZ() != getToChunkZ();
+    }
+
+    /**
+     * 取消本次移动。
+     */
+    public void cancel() {
+        event.setCancelled(true);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockMove{" + getPlayer().getName() + ": "
+                + fromX + "," + fromY + "," + fromZ + " -> " + toX + "," + toY + "," + toZ
+                + (worldChanged ? ", world changed" : "") + "}";
+    }
+
+}
@@ -0,0 +1,326 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.Subscription;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * 按 {@link HandlerBudget} 监控并熔断处理器的包装。
+ * <br> 限制了单次执行耗时的处理器将由一个共享的守护线程定期检查，
+ * 执行超出预算时将采样其所在线程的调用栈，以便在警告中指出耗时的位置。
+ * 检查间隔为受检查的处理器中最小单次预算的一半，且不小于 {@link #MIN_SAMPLER_PERIOD_NANOS} 。
+ * 该线程仅在存在受检查的处理器时运行，通过 {@link #unsubscribe()} 停止检查或处理器被回收后，
+ * 若已没有其他受检查的处理器，线程将被停止，不会在插件卸载后继续持有其类加载器。
+ * <br> 耗时的累计通过本实例的原子变量更新，每次执行均无需加锁，因此可用于在多个线程中同时执行的处理器；
+ * 仅在超出预算时才会加锁更新熔断状态。同时执行时仅会采样最近开始执行的调用，每刻的累计与熔断期间的抽样也不保证精确。
+ *
+ * @param <T> 事件的类型
+ * @author CarmJos
+ */
+public class BudgetGuard<T> implements Consumer<T>, Subscription {
+
+    protected static final long MIN_SAMPLER_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    protected final @NotNull Plugin plugin;
+    protected final @NotNull String name;
+    protected final @NotNull Consumer<T> consumer;
+
+    protected final long invocationNanos;
+    protected final long tickNanos;
+    protected final int tripAfter;
+    protected final long cooldownNanos;
+    protected final @NotNull HandlerBudget.DegradeMode mode;
+    protected final int sampleRate;
+
+    protected volatile boolean running = false;
+    protected volatile long startedAt;
+    protected volatile long sequence;
+    protected volatile @Nullable Thread thread;
+    protected volatile @Nullable StackTraceElement[] sample;
+    protected volatile long sampleSequence;
+
+    protected final AtomicLong tickWindow = new AtomicLong(Long.MIN_VALUE);
+    protected final AtomicLong tickSpent = new AtomicLong();
+    protected final AtomicBoolean tickBreached = new AtomicBoolean();
+
+    protected int breaches = 0;
+    protected long lastBreach = 0L;
+    protected volatile boolean tripped = false;
+    protected volatile long trippedUntil = 0L;
+    protected final AtomicLong skipped = new AtomicLong();
+
+    public BudgetGuard(@NotNull Plugin plugin, @NotNull String name,
+                       @NotNull HandlerBudget budget, @NotNull Consumer<T> consumer) {
+        this.plugin = plugin;
+        this.name = name;
+        this.consumer = consumer;
+        this.invocationNanos = budget.getInvocationNanos();
+        this.tickNanos = budget.getTickNanos();
+        this.tripAfter = budget.getTripAfter();
+        this.cooldownNanos = budget.getCooldownNanos();
+        this.mode = budget.getMode();
+        this.sampleRate = budget.getSampleRate();
+        if (this.invocationNanos > 0) Sampler.watch(this);
+    }
+
+    /**
+     * 创建仅通过 {@link #accept(Object, Object, BiConsumer)} 执行处理方法的实例，
+     * 用于同时接收两个参数的处理方法，如 {@link cc.carm.lib.easylistener.handler.BundleEventHandler} 。
+     *
+     * @param plugin 插件
+     * @param name   处理器名称
+     * @param budget 耗时预算
+     */
+    public BudgetGuard(@NotNull Plugin plugin, @NotNull String name, @NotNull HandlerBudget budget) {
+        this(plugin, name, budget, t -> {
+            //Do nothing
+        });
+    }
+
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * @return 处理器当前是否处于熔断状态
+     */
+    public boolean isTripped() {
+        return this.tripped && System.nanoTime() - this.trippedUntil < 0;
+    }
+
+    /**
+     * 立即结束熔断状态，并清零累计的超出次数。
+     */
+    public synchronized void reset() {
+        this.tripped = false;
+        this.breaches = 0;
+        this.skipped.set(0L);
+    }
+
+    /**
+     * 停止采样本处理器的调用栈，若已没有其他需要采样的处理器，则停止采样线程。
+     * <br> 处理器随 {@link cc.carm.lib.easylistener.EasyListener#collect(Consumer)} 的收集结果注销时将自动调用。
+     */
+    @Override
+    public void unsubscribe() {
+        Sampler.unwatch(this);
+    }
+
+    /**
+     * @return 本处理器是否仍在被采样
+     */
+    @Override
+    public boolean isActive() {
+        return Sampler.isWatched(this);
+    }
+
+    @Override
+    public void accept(T t) {
+        accept(this.consumer, t, Consumer::accept);
+    }
+
+    /**
+     * 在预算限制下执行给定的处理方法，熔断期间将按降级方式跳过。
+     * <br> 处理方法应不捕获变量，以免每次执行都创建新的实例。
+     *
+     * @param first  第一个参数
+     * @param second 第二个参数
+     * @param action 处理方法
+     * @param <A>    第一个参数的类型
+     * @param <B>    第二个参数的类型
+     */
+    public <A, B> void accept(A first, B second, @NotNull BiConsumer<? super A, ? super B> action) {
+        long start = System.nanoTime();
+        if (this.tripped) {
+            if (start - this.trippedUntil < 0) {
+                if (this.mode == HandlerBudget.DegradeMode.DISABLE
+                        || this.skipped.getAndIncrement() % this.sampleRate != 0) return;
+            } else {
+                recover();
+            }
+        }
+
+        long current = this.sequence + 1;
+        this.sequence = current;
+        this.thread = Thread.currentThread();
+        this.startedAt = start;
+        this.running = true;
+        try {
+            action.accept(first, second);
+        } finally {
+            this.running = false;
+            long end = System.nanoTime();
+            record(current, end - start, end);
+        }
+    }
+
+    protected synchronized void recover() {
+        if (!this.tripped || System.nanoTime() - this.trippedUntil < 0) return;
+        reset();
+        this.plugin.getLogger().info("Handler " + this.name + " has cooled down and is fully enabled again.");
+    }
+
+    protected void record(long sequence, long elapsed, long now) {
+        if (this.invocationNanos > 0 && elapsed > this.invocationNanos) {
+            StackTraceElement[] sample = this.sampleSequence == sequence ? this.sample : null;
+            breach("took " + format(elapsed) + " in a single call, over its budget of " + format(this.invocationNanos), sample, now);
+        }
+
+        if (this.tickNanos <= 0) return;
+        long window = now / HandlerBudget.TICK_NANOS;
+        long current = this.tickWindow.get();
+        if (window != current && this.tickWindow.compareAndSet(current, window)) {
+            this.tickSpent.set(0L);
+            this.tickBreached.set(false);
+        }
+        long spent = this.tickSpent.addAndGet(elapsed);
+        if (spent > this.tickNanos && !this.tickBreached.get() && this.tickBreached.compareAndSet(false, true)) {
+            breach("took " + format(spent) + " within one tick, over its budget of " + format(this.tickNanos), null, now);
+        }
+    }
+
+    protected synchronized void breach(@NotNull String message, @Nullable StackTraceElement[] sample, long now) {
+        if (now - this.lastBreach >= this.cooldownNanos) this.breaches = 0;
+        this.lastBreach = now;
+        this.breaches++;
+
+        if (sample != null) {
+            Throwable stack = new Throwable("Sampled stack of handler " + this.name);
+            stack.setStackTrace(sample);
+            this.plugin.getLogger().log(Level.WARNING, "Handler " + this.name + " " + message, stack);
+        } else {
+            this.plugin.getLogger().warning("Handler " + this.name + " " + message);
+        }
+
+        if (this.tripped || this.breaches < this.tripAfter) return;
+        this.trippedUntil = now + this.cooldownNanos;
+        this.tripped = true;
+        this.plugin.getLogger().severe(
+                "Handler " + this.name + " exceeded its budget " + this.breaches + " times and is "
+                        + (this.mode == HandlerBudget.DegradeMode.DISABLE ? "disabled" : "sampled 1/" + this.sampleRate)
+                        + " for " + format(this.cooldownNanos) + "."
+        );
+    }
+
+    protected static String format(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000D);
+    }
+
+    /**
+     * 采样执行超出预算的处理器的调用栈。
+     */
+    protected static final class Sampler {
+
+        private static final Set<BudgetGuard<?>> GUARDS = Collections.newSetFromMap(new WeakHashMap<>());
+        private static @Nullable ScheduledExecutorService executor;
+        private static @Nullable ScheduledFuture<?> task;
+        private static long period = 0L;
+
+        private Sampler() {
+        }
+
+        static synchronized void watch(@NotNull BudgetGuard<?> guard) {
+            GUARDS.add(guard);
+            if (executor == null) {
+                executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "EasyListener-Watchdog");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            reschedule(GUARDS);
+        }
+
+        static synchronized void unwatch(@NotNull BudgetGuard<?> guard) {
+            GUARDS.remove(guard);
+            if (GUARDS.isEmpty()) {
+                stop();
+            } else {
+                reschedule(GUARDS);
+            }
+        }
+
+        /**
+         * @return 当前的检查间隔，采样线程未运行时为 0
+         */
+        static synchronized long getPeriodNanos() {
+            return period;
+        }
+
+        /**
+         * 按最小的单次预算调整检查间隔，间隔未变化时不做任何操作。
+         *
+         * @param guards 受检查的处理器
+         */
+        private static void reschedule(@NotNull Collection<BudgetGuard<?>> guards) {
+            if (executor == null) return;
+            long budget = Long.MAX_VALUE;
+            for (BudgetGuard<?> guard : guards) budget = Math.min(budget, guard.invocationNanos);
+            long next = Math.max(MIN_SAMPLER_PERIOD_NANOS, budget / 2);
+            if (next == period && task != null) return;
+
+            if (task != null) task.cancel(false);
+            period = next;
+            task = executor.scheduleAtFixedRate(Sampler::sample, next, next, TimeUnit.NANOSECONDS);
+        }
+
+        static synchronized boolean isWatched(@NotNull BudgetGuard<?> guard) {
+            return GUARDS.contains(guard);
+        }
+
+        /**
+         * @return 采样线程是否正在运行
+         */
+        static synchronized boolean isRunning() {
+            return executor != null;
+        }
+
+        private static void stop() {
+            if (executor == null) return;
+            executor.shutdown();
+            executor = null;
+            task = null;
+            period = 0L;
+        }
+
+        static void sample() {
+            List<BudgetGuard<?>> guards;
+            synchronized (Sampler.class) {
+                // 全部处理器均已停止采样或被回收
+                if (GUARDS.isEmpty()) {
+                    stop();
+                    return;
+                }
+                guards = new ArrayList<>(GUARDS);
+                // 已被回收的处理器不会调用 unwatch，由此处调整间隔
+                reschedule(guards);
+            }
+
+            long now = System.nanoTime();
+            for (BudgetGuard<?> guard : guards) {
+                if (!guard.running) continue;
+                long sequence = guard.sequence;
+                if (guard.sampleSequence == sequence || now - guard.startedAt <= guard.invocationNanos) continue;
+
+                Thread thread = guard.thread;
+                if (thread == null) continue;
+                guard.sample = thread.getStackTrace();
+                guard.sampleSequence = sequence;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,167 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 按玩家缓存判断结果的条件，适用于仅与玩家相关且开销较高的判断，如权限判断。
+ * <br> 结果以玩家UUID为键缓存，在有效期内再次判断同一玩家时仅需一次查找。
+ * <br> 缓存的记录将在过期、玩家退出、玩家切换世界或调用 {@link #invalidate(Player)} 时失效，
+ * 记录数量超过上限时将优先清除过期记录。
+ *
+ * <pre>{@code
+ * source.handleEvent(PlayerInteractEvent.class)
+ *         .filter(EventFilters.cached(source, EventFilters.playerHasPerm("yc.admin"), Duration.ofSeconds(30)))
+ *         .handle(e -> ...);
+ * }</pre>
+ *
+ * @param <T> 判断对象的类型
+ * @author CarmJos
+ */
+public class CachedPlayerPredicate<T> implements Predicate<T> {
+
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    /**
+     * 创建一个按玩家缓存结果的玩家条件，并在玩家退出或切换世界时清除其缓存。
+     *
+     * @param source    用于登记失效的 {@link EasyListener}
+     * @param predicate 原条件
+     * @param ttl       结果的有效期
+     * @return 缓存条件实例
+     */
+    public static @NotNull CachedPlayerPredicate<Player> ofPlayer(@NotNull EasyListener source,
+                                                                  @NotNull Predicate<? super Player> predicate,
+                                                                  @NotNull Duration ttl) {
+        return register(source, new CachedPlayerPredicate<>(Function.identity(), predicate, ttl.toNanos(), DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * 创建一个按事件玩家缓存结果的事件条件，并在玩家退出或切换世界时清除其缓存。
+     * <br> 原条件的结果应仅与事件的玩家相关，否则同一玩家的不同事件将得到相同的结果。
+     *
+     * @param source    用于登记失效的 {@link EasyListener}
+     * @param predicate 原条件
+     * @param ttl       结果的有效期
+     * @param <T>       事件的类型
+     * @return 缓存条件实例
+     */
+    public static <T extends PlayerEvent> @NotNull CachedPlayerPredicate<T> ofEvent(@NotNull EasyListener source,
+                                                                                   @NotNull Predicate<? super T> predicate,
+                                                                                   @NotNull Duration ttl) {
+        return register(source, new CachedPlayerPredicate<>(PlayerEvent::getPlayer, predicate, ttl.toNanos(), DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * 通过 {@link EasyListener#evictions()} 登记玩家退出与切换世界时的失效，
+     * 缓存条件仅以弱引用登记，随使用它的处理器注销而被回收后，不会残留任何监听器。
+     */
+    protected static <T> @NotNull CachedPlayerPredicate<T> register(@NotNull EasyListener source,
+                                                                   @NotNull CachedPlayerPredicate<T> cache) {
+        PlayerEvictions evictions = source.evictions();
+        evictions.onQuit(cache, CachedPlayerPredicate::invalidate);
+        evictions.onChangeWorld(cache, CachedPlayerPredicate::invalidate);
+        return cache;
+    }
+
+    protected final @NotNull Function<? super T, ? extends Player> playerFunction;
+    protected final @NotNull Predicate<? super T> predicate;
+    protected final long ttlNanos;
+    protected final int maxSize;
+
+    protected final ConcurrentHashMap<UUID, Result> results = new ConcurrentHashMap<>();
+
+    public CachedPlayerPredicate(@NotNull Function<? super T, ? extends Player> playerFunction,
+                                 @NotNull Predicate<? super T> predicate, long ttlNanos, int maxSize) {
+        if (ttlNanos <= 0) throw new IllegalArgumentException("TTL must be positive");
+        if (maxSize <= 0) throw new IllegalArgumentException("Max size must be positive");
+        this.playerFunction = playerFunction;
+        this.predicate = predicate;
+        this.ttlNanos = ttlNanos;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public boolean test(T t) {
+        Player player = this.playerFunction.apply(t);
+        if (player == null) return this.predicate.test(t);
+
+        UUID key = player.getUniqueId();
+        long now = System.nanoTime();
+        Result cached = this.results.get(key);
+        if (cached != null && now - cached.expiresAt < 0) return cached.value;
+
+        boolean value = this.predicate.test(t);
+        if (cached == null && this.results.size() >= this.maxSize) shrink(now);
+        this.results.put(key, new Result(value, now + this.ttlNanos));
+        return value;
+    }
+
+    /**
+     * 清除给定玩家的缓存结果。
+     *
+     * @param player 玩家
+     */
+    public void invalidate(@NotNull Player player) {
+        invalidate(player.getUniqueId());
+    }
+
+    /**
+     * 清除给定玩家UUID的缓存结果。
+     *
+     * @param uuid 玩家UUID
+     */
+    public void invalidate(@NotNull UUID uuid) {
+        this.results.remove(uuid);
+    }
+
+    /**
+     * 清除全部缓存结果，如在权限变更后调用。
+     */
+    public void invalidateAll() {
+        this.results.clear();
+    }
+
+    /**
+     * @return 当前缓存的结果数量
+     */
+    public int size() {
+        return this.results.size();
+    }
+
+    /**
+     * 清除过期记录，若仍超过上限则继续清除部分记录。
+     *
+     * @param now 当前时间戳
+     */
+    protected void shrink(long now) {
+        this.results.values().removeIf(result -> now - result.expiresAt >= 0);
+        Iterator<UUID> iterator = this.results.keySet().iterator();
+        while (this.results.size() >= this.maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    protected static final class Result {
+
+        final boolean value;
+        final long expiresAt;
+
+        Result(boolean value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
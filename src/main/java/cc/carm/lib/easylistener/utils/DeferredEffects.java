@@ -0,0 +1,270 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 延迟至刻末统一执行的副作用队列，通过 {@link EasyListener#defer()} 获取。
+ * <br> 适用于在事件中发送消息、播放音效或更新计分板等副作用，如玩家在一刻内反复触发被取消的操作时，
+ * 同一玩家的同一副作用每刻仅会执行一次，而非每个事件都执行一次。
+ * <br> 对于同一所有者与键的副作用，后加入的副作用将替换尚未执行的副作用，但保持其原有的执行顺序；
+ * 未指定键的副作用则按加入的顺序依次执行。
+ * <br> 每刻最多执行 {@link #maxPerTick(int)} 个副作用，其余副作用将顺延至之后的刻执行，以免占用过多主线程时间。
+ * 玩家退出时，以该玩家实例、UUID或名称为所有者的副作用将通过 {@link EasyListener#evictions()} 丢弃。
+ * <br> 注销后将停止定时任务并丢弃尚未执行的副作用，源 {@link EasyListener} 注销全部处理器时将自动注销。
+ * <br> 可在多线程下加入副作用，副作用均在主线程(区域多线程的服务端上为全局区域线程)中执行。
+ *
+ * <pre>{@code
+ * source.cancel(BlockBreakEvent.class, null, e -> !e.getPlayer().isOp(),
+ *         e -> source.defer().message(e.getPlayer(), "§c你不能破坏方块。")
+ * );
+ * }</pre>
+ *
+ * @author CarmJos
+ */
+public class DeferredEffects implements Subscription {
+
+    public static final int DEFAULT_MAX_PER_TICK = 256;
+
+    /**
+     * 创建一个每刻执行一次的副作用队列，并在玩家退出时丢弃与其相关的副作用。
+     *
+     * @param source 用于注册玩家退出监听与定时任务的 {@link EasyListener}
+     * @return 队列实例
+     */
+    public static @NotNull DeferredEffects create(@NotNull EasyListener source) {
+        DeferredEffects effects = new DeferredEffects(source.getPlugin().getLogger());
+        Subscription eviction = source.evictions().onQuit(effects, DeferredEffects::evict);
+        Subscription timer = TickScheduler.runTimer(source.getPlugin(), effects::flush, 1L, 1L);
+        synchronized (effects) {
+            effects.eviction = eviction;
+            effects.timer = timer;
+        }
+        return effects;
+    }
+
+    protected final @NotNull Logger logger;
+    protected final @NotNull LinkedHashMap<Object, Runnable> pending = new LinkedHashMap<>();
+
+    protected @Nullable Subscription timer;
+    protected @Nullable Subscription eviction;
+
+    protected int maxPerTick = DEFAULT_MAX_PER_TICK;
+
+    protected long deferred = 0;
+    protected long coalesced = 0;
+    protected long executed = 0;
+
+    public DeferredEffects(@NotNull Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * 设定每刻最多执行的副作用数量。
+     *
+     * @param maxPerTick 每刻最多执行的数量
+     * @return 本实例
+     */
+    public synchronized DeferredEffects maxPerTick(int maxPerTick) {
+        if (maxPerTick <= 0) throw new IllegalArgumentException("Max effects per tick must be positive");
+        this.maxPerTick = maxPerTick;
+        return this;
+    }
+
+    /**
+     * 加入一个副作用，按加入的顺序执行，不与其他副作用合并。
+     *
+     * @param effect 副作用
+     * @return 本实例
+     */
+    public DeferredEffects run(@NotNull Runnable effect) {
+        return enqueue(new Object(), effect);
+    }
+
+    /**
+     * 加入一个可合并的副作用，若同一所有者与键的副作用尚未执行，则替换之。
+     *
+     * @param owner  所有者，通常为玩家，为 null 则视为全局的副作用
+     * @param key    键，用于区分同一所有者的不同副作用
+     * @param effect 副作用
+     * @return 本实例
+     */
+    public DeferredEffects run(@Nullable Object owner, @NotNull Object key, @NotNull Runnable effect) {
+        return enqueue(new Key(owner, key), effect);
+    }
+
+    /**
+     * 向玩家发送消息，同一玩家的相同消息每刻仅发送一次。
+     *
+     * @param player  玩家
+     * @param message 消息
+     * @return 本实例
+     */
+    public DeferredEffects message(@NotNull Player player, @NotNull String message) {
+        return run(player, message, () -> player.sendMessage(message));
+    }
+
+    /**
+     * 在玩家所在位置为其播放音效，同一玩家的相同音效每刻仅播放一次，以最后加入的音量与音调为准。
+     *
+     * @param player 玩家
+     * @param sound  音效
+     * @param volume 音量
+     * @param pitch  音调
+     * @return 本实例
+     */
+    public DeferredEffects sound(@NotNull Player player, @NotNull Sound sound, float volume, float pitch) {
+        return run(player, sound, () -> player.playSound(player.getLocation(), sound, volume, pitch));
+    }
+
+    protected synchronized DeferredEffects enqueue(@NotNull Object key, @NotNull Runnable effect) {
+        this.deferred++;
+        if (this.pending.put(key, effect) != null) this.coalesced++;
+        return this;
+    }
+
+    /**
+     * 执行队列中的副作用，至多执行 {@link #maxPerTick(int)} 个。
+     * <br> 通常由每刻执行的定时任务调用；执行期间新加入的副作用将在下一次执行。
+     */
+    public void flush() {
+        Runnable[] effects;
+        synchronized (this) {
+            if (this.pending.isEmpty()) return;
+            effects = new Runnable[Math.min(this.pending.size(), this.maxPerTick)];
+            Iterator<Runnable> iterator = this.pending.values().iterator();
+            for (int i = 0; i < effects.length; i++) {
+                effects[i] = iterator.next();
+                iterator.remove();
+            }
+            this.executed += effects.length;
+        }
+
+        for (Runnable effect : effects) {
+            try {
+                effect.run();
+            } catch (Throwable t) {
+                this.logger.log(Level.SEVERE, "Could not run deferred effect", t);
+            }
+        }
+    }
+
+    /**
+     * 丢弃与给定玩家相关的副作用，包括以玩家实例、玩家UUID与玩家名为所有者的副作用。
+     *
+     * @param player 玩家
+     */
+    public synchronized void evict(@NotNull Player player) {
+        Object uuid = player.getUniqueId();
+        Object name = player.getName();
+        Iterator<Object> iterator = this.pending.keySet().iterator();
+        while (iterator.hasNext()) {
+            Object key = iterator.next();
+            if (!(key instanceof Key)) continue;
+            Object owner = ((Key) key).owner;
+            if (owner == player || (owner != null && (owner.equals(uuid) || owner.equals(name)))) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 丢弃全部尚未执行的副作用。
+     */
+    public synchronized void clear() {
+        this.pending.clear();
+    }
+
+    /**
+     * 停止定时任务与玩家退出时的清除，并丢弃全部尚未执行的副作用。
+     */
+    @Override
+    public void unsubscribe() {
+        Subscription timer;
+        Subscription eviction;
+        synchronized (this) {
+            timer = this.timer;
+            eviction = this.eviction;
+            this.timer = null;
+            this.eviction = null;
+            this.pending.clear();
+        }
+        if (timer != null) timer.unsubscribe();
+        if (eviction != null) eviction.unsubscribe();
+    }
+
+    /**
+     * @return 定时任务是否仍在执行
+     */
+    @Override
+    public synchronized boolean isActive() {
+        return this.timer != null && this.timer.isActive();
+    }
+
+    /**
+     * @return 尚未执行的副作用数量
+     */
+    public synchronized int size() {
+        return this.pending.size();
+    }
+
+    /**
+     * @return 累计加入的副作用数量
+     */
+    public synchronized long getDeferred() {
+        return deferred;
+    }
+
+    /**
+     * @return 累计被合并(即被后加入的副作用替换)的副作用数量
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * @return 累计执行的副作用数量
+     */
+    public synchronized long getExecuted() {
+        return executed;
+    }
+
+    /**
+     * 可合并的副作用的所有者与键。
+     */
+    protected static final class Key {
+
+        protected final @Nullable Object owner;
+        protected final @NotNull Object key;
+
+        protected Key(@Nullable Object owner, @NotNull Object key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return Objects.equals(this.owner, other.owner) && this.key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(this.owner) + this.key.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,170 @@
+package cc.carm.lib.easylistener.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 处理器的耗时预算。
+ * <br> 处理器单次执行或在同一刻内累计执行超过预算时，将记录一条包含处理器名称与采样调用栈的警告；
+ * 在冷却时间内累计超出预算达到给定次数后，该处理器将被熔断，即在冷却时间内被停用或仅按比例执行，
+ * 冷却结束后自动恢复。熔断仅影响该处理器本身。
+ *
+ * <pre>{@code
+ * source.handleEvent(AsyncPlayerChatEvent.class)
+ *         .budget(HandlerBudget.perInvocation(Duration.ofMillis(2)).tripAfter(5).sample(10))
+ *         .handle(e -> ...);
+ * }</pre>
+ *
+ * @author CarmJos
+ */
+public class HandlerBudget {
+
+    /**
+     * 熔断期间的处理方式。
+     */
+    public enum DegradeMode {
+
+        /**
+         * 停用处理器。
+         */
+        DISABLE,
+
+        /**
+         * 仅按比例执行处理器，见 {@link #sample(int)} 。
+         */
+        SAMPLE
+
+    }
+
+    public static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * 创建一个限制单次执行耗时的预算。
+     *
+     * @param budget 单次执行的耗时上限
+     * @return 预算实例
+     */
+    public static @NotNull HandlerBudget perInvocation(@NotNull Duration budget) {
+        return new HandlerBudget().invocation(budget);
+    }
+
+    /**
+     * 创建一个限制每刻累计执行耗时的预算。
+     *
+     * @param budget 每刻累计执行的耗时上限
+     * @return 预算实例
+     */
+    public static @NotNull HandlerBudget perTick(@NotNull Duration budget) {
+        return new HandlerBudget().tick(budget);
+    }
+
+    protected long invocationNanos = 0L;
+    protected long tickNanos = 0L;
+    protected int tripAfter = 3;
+    protected long cooldownNanos = TimeUnit.MINUTES.toNanos(1);
+    protected @NotNull DegradeMode mode = DegradeMode.DISABLE;
+    protected int sampleRate = 10;
+
+    /**
+     * 设定单次执行的耗时上限。
+     *
+     * @param budget 耗时上限
+     * @return 本实例
+     */
+    public HandlerBudget invocation(@NotNull Duration budget) {
+        this.invocationNanos = positive(budget);
+        return this;
+    }
+
+    /**
+     * 设定每刻累计执行的耗时上限。
+     * <br> 刻按 {@link #TICK_NANOS} 的时间窗近似划分。
+     *
+     * @param budget 耗时上限
+     * @return 本实例
+     */
+    public HandlerBudget tick(@NotNull Duration budget) {
+        this.tickNanos = positive(budget);
+        return this;
+    }
+
+    /**
+     * 设定触发熔断所需的超出预算次数，默认为 3 次。
+     *
+     * @param breaches 超出预算次数
+     * @return 本实例
+     */
+    public HandlerBudget tripAfter(int breaches) {
+        if (breaches <= 0) throw new IllegalArgumentException("Breaches must be positive");
+        this.tripAfter = breaches;
+        return this;
+    }
+
+    /**
+     * 设定熔断的冷却时间，默认为 1 分钟。
+     * <br> 距离上一次超出预算已超过冷却时间时，累计的超出次数也将被清零。
+     *
+     * @param cooldown 冷却时间
+     * @return 本实例
+     */
+    public HandlerBudget cooldown(@NotNull Duration cooldown) {
+        this.cooldownNanos = positive(cooldown);
+        return this;
+    }
+
+    /**
+     * 熔断期间停用处理器，此为默认方式。
+     *
+     * @return 本实例
+     */
+    public HandlerBudget disable() {
+        this.mode = DegradeMode.DISABLE;
+        return this;
+    }
+
+    /**
+     * 熔断期间每 n 个事件仅执行一次处理器。
+     *
+     * @param n 间隔事件数量
+     * @return 本实例
+     */
+    public HandlerBudget sample(int n) {
+        if (n <= 0) throw new IllegalArgumentException("Sample interval must be positive");
+        this.mode = DegradeMode.SAMPLE;
+        this.sampleRate = n;
+        return this;
+    }
+
+    public long getInvocationNanos() {
+        return invocationNanos;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public int getTripAfter() {
+        return tripAfter;
+    }
+
+    public long getCooldownNanos() {
+        return cooldownNanos;
+    }
+
+    public @NotNull DegradeMode getMode() {
+        return mode;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    private static long positive(@NotNull Duration duration) {
+        long nanos = duration.toNanos();
+        if (nanos <= 0) throw new IllegalArgumentException("Duration must be positive");
+        return nanos;
+    }
+
+}
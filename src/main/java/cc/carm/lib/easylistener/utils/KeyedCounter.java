@@ -0,0 +1,95 @@
+package cc.carm.lib.easylistener.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按键计数的计数器，可在多个线程中同时计数。
+ * <br> 每个键的计数基于 {@link LongAdder} ，多个线程同时为同一键计数时将分散至不同的单元，不会争用同一内存地址；
+ * 读取时再将各单元累加，因此读取结果可能不包含正在进行中的计数。
+ *
+ * <pre>{@code
+ * KeyedCounter<EntityType> kills = new KeyedCounter<>();
+ * listener.handle(EntityDeathEvent.class, e -> kills.increment(e.getEntityType()));
+ * }</pre>
+ *
+ * @param <K> 键的类型
+ * @author CarmJos
+ */
+public class KeyedCounter<K> {
+
+    protected final ConcurrentHashMap<K, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 为给定键计数一次。
+     *
+     * @param key 键
+     */
+    public void increment(@NotNull K key) {
+        add(key, 1L);
+    }
+
+    /**
+     * 为给定键增加计数。
+     *
+     * @param key   键
+     * @param delta 增加的数量
+     */
+    public void add(@NotNull K key, long delta) {
+        LongAdder counter = this.counters.get(key);
+        if (counter == null) counter = this.counters.computeIfAbsent(key, k -> new LongAdder());
+        counter.add(delta);
+    }
+
+    /**
+     * @param key 键
+     * @return 给定键的计数，不存在时返回 0
+     */
+    public long get(@NotNull K key) {
+        LongAdder counter = this.counters.get(key);
+        return counter == null ? 0L : counter.sum();
+    }
+
+    /**
+     * @return 全部键的计数之和
+     */
+    public long sum() {
+        long sum = 0L;
+        for (LongAdder counter : this.counters.values()) sum += counter.sum();
+        return sum;
+    }
+
+    /**
+     * 移除给定键的计数。
+     *
+     * @param key 键
+     * @return 移除前的计数
+     */
+    public long remove(@NotNull K key) {
+        LongAdder counter = this.counters.remove(key);
+        return counter == null ? 0L : counter.sum();
+    }
+
+    /**
+     * 清除全部计数。
+     */
+    public void clear() {
+        this.counters.clear();
+    }
+
+    /**
+     * @return 全部键当前计数的副本
+     */
+    public @Unmodifiable @NotNull Map<K, Long> snapshot() {
+        Map<K, Long> snapshot = new HashMap<>();
+        this.counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+}
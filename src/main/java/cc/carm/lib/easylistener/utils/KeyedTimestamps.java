@@ -0,0 +1,132 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按键记录最近一次时间戳的存储，用于事件的节流与防抖。
+ * <br> 超过有效期的记录将在新增记录时被批量清除，玩家退出时与之相关的记录也将被立即清除，因此内存占用不会随时间增长。
+ * <br> 时间戳基于 {@link System#nanoTime()} ，可在多线程下使用。
+ *
+ * @author CarmJos
+ */
+public class KeyedTimestamps {
+
+    /**
+     * 创建一个存储，并在玩家退出时清除与其相关的记录。
+     * <br> 与玩家相关的记录包括以玩家实例、玩家UUID与玩家名为键的记录。
+     * <br> 玩家退出的监听由 {@link EasyListener#evictions()} 共用，存储仅以弱引用登记，
+     * 因此存储随其所属的处理器注销而被回收后，不会残留任何监听器。
+     *
+     * @param source   用于登记玩家退出清除的 {@link EasyListener}
+     * @param interval 记录的有效期
+     * @return 存储实例
+     */
+    public static @NotNull KeyedTimestamps create(@NotNull EasyListener source, @NotNull Duration interval) {
+        KeyedTimestamps timestamps = new KeyedTimestamps(interval.toNanos());
+        source.evictions().onQuit(timestamps, KeyedTimestamps::evict);
+        return timestamps;
+    }
+
+    protected final ConcurrentHashMap<Object, AtomicLong> timestamps = new ConcurrentHashMap<>();
+    protected final long intervalNanos;
+    protected final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    public KeyedTimestamps(long intervalNanos) {
+        if (intervalNanos <= 0) throw new IllegalArgumentException("Interval must be positive");
+        this.intervalNanos = intervalNanos;
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * 节流判断，即每个键在有效期内仅允许通过一次。
+     * <br> 仅在通过时更新该键的时间戳。
+     *
+     * @param key 键
+     * @return 是否允许通过
+     */
+    public boolean throttle(@NotNull Object key) {
+        long now = System.nanoTime();
+        AtomicLong stamp = this.timestamps.get(key);
+        if (stamp == null && (stamp = insert(key, now)) == null) return true;
+
+        long last = stamp.get();
+        return now - last >= this.intervalNanos && stamp.compareAndSet(last, now);
+    }
+
+    /**
+     * 防抖判断，即每个键仅在距离上一次触发已超过有效期时才允许通过。
+     * <br> 无论是否通过，均会更新该键的时间戳，因此持续触发的键将一直不被允许通过。
+     *
+     * @param key 键
+     * @return 是否允许通过
+     */
+    public boolean debounce(@NotNull Object key) {
+        long now = System.nanoTime();
+        AtomicLong stamp = this.timestamps.get(key);
+        if (stamp == null && (stamp = insert(key, now)) == null) return true;
+
+        return now - stamp.getAndSet(now) >= this.intervalNanos;
+    }
+
+    /**
+     * 清除给定键的记录。
+     *
+     * @param key 键
+     */
+    public void evict(@NotNull Object key) {
+        this.timestamps.remove(key);
+    }
+
+    /**
+     * 清除与给定玩家相关的记录，包括以玩家实例、玩家UUID与玩家名为键的记录。
+     *
+     * @param player 玩家
+     */
+    public void evict(@NotNull Player player) {
+        this.timestamps.remove(player);
+        this.timestamps.remove(player.getUniqueId());
+        this.timestamps.remove(player.getName());
+    }
+
+    /**
+     * 清除全部记录。
+     */
+    public void clear() {
+        this.timestamps.clear();
+    }
+
+    /**
+     * @return 当前记录的数量
+     */
+    public int size() {
+        return this.timestamps.size();
+    }
+
+    /**
+     * 新增一个键的记录，并在距离上次清除超过有效期时清除全部过期记录。
+     *
+     * @param key 键
+     * @param now 当前时间戳
+     * @return 若该键已被其他线程抢先新增，则返回已存在的记录，否则返回 null
+     */
+    protected AtomicLong insert(@NotNull Object key, long now) {
+        AtomicLong exists = this.timestamps.putIfAbsent(key, new AtomicLong(now));
+        if (exists != null) return exists;
+
+        long last = this.lastSweep.get();
+        if (now - last >= this.intervalNanos && this.lastSweep.compareAndSet(last, now)) {
+            this.timestamps.values().removeIf(stamp -> now - stamp.get() >= this.intervalNanos);
+        }
+        return null;
+    }
+
+}
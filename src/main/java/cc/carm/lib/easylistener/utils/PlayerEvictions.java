@@ -0,0 +1,198 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * 在玩家退出或切换世界时清除按玩家记录的数据，通过 {@link EasyListener#evictions()} 获取。
+ * <br> 同一 {@link EasyListener} 中的全部记录共用一个退出监听与一个切换世界监听，且仅在存在记录时注册，
+ * 而非每创建一份记录就注册一个永久的监听器。
+ * <br> 记录的所有者以弱引用持有，所有者(如随处理器一同注销的 {@link KeyedTimestamps})被回收后，
+ * 其清除方法将被自动移除，全部移除后共用的监听器也将被注销。
+ * <br> 修改时以源 {@link EasyListener} 为锁，与注册及注销处理器的顺序一致，清除时则无需加锁。
+ * <br> 清除方法不应再持有其所有者，否则所有者将无法被回收，通常应使用所有者类的方法引用，如 {@code KeyedTimestamps::evict} 。
+ *
+ * @author CarmJos
+ */
+public class PlayerEvictions {
+
+    protected static final Evictor<?>[] EMPTY = new Evictor<?>[0];
+
+    protected final @NotNull EasyListener source;
+
+    protected volatile @NotNull Evictor<?>[] quit = EMPTY;
+    protected volatile @NotNull Evictor<?>[] changeWorld = EMPTY;
+
+    protected @Nullable Subscription quitRegistration;
+    protected @Nullable Subscription changeWorldRegistration;
+
+    public PlayerEvictions(@NotNull EasyListener source) {
+        this.source = source;
+    }
+
+    /**
+     * 在玩家退出时调用给定所有者的清除方法。
+     *
+     * @param owner   所有者，以弱引用持有
+     * @param evictor 清除方法，不应持有所有者
+     * @param <T>     所有者的类型
+     * @return 可提前移除该清除方法的 {@link Subscription}
+     */
+    public <T> @NotNull Subscription onQuit(@NotNull T owner, @NotNull BiConsumer<? super T, Player> evictor) {
+        Evictor<T> entry = new Evictor<>(owner, evictor);
+        synchronized (this.source) {
+            this.quit = append(this.quit, entry);
+            if (this.quitRegistration == null || !this.quitRegistration.isActive()) {
+                this.quitRegistration = this.source.shared(() -> this.source.subscribe(
+                        PlayerQuitEvent.class, EventPriority.MONITOR, false,
+                        "PlayerEvictions#quit", null, event -> evict(this.quit, event.getPlayer())
+                ));
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * 在玩家切换世界时调用给定所有者的清除方法。
+     *
+     * @param owner   所有者，以弱引用持有
+     * @param evictor 清除方法，不应持有所有者
+     * @param <T>     所有者的类型
+     * @return 可提前移除该清除方法的 {@link Subscription}
+     */
+    public <T> @NotNull Subscription onChangeWorld(@NotNull T owner, @NotNull BiConsumer<? super T, Player> evictor) {
+        Evictor<T> entry = new Evictor<>(owner, evictor);
+        synchronized (this.source) {
+            this.changeWorld = append(this.changeWorld, entry);
+            if (this.changeWorldRegistration == null || !this.changeWorldRegistration.isActive()) {
+                this.changeWorldRegistration = this.source.shared(() -> this.source.subscribe(
+                        PlayerChangedWorldEvent.class, EventPriority.MONITOR, false,
+                        "PlayerEvictions#changeWorld", null, event -> evict(this.changeWorld, event.getPlayer())
+                ));
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * @return 仍在生效的清除方法数量，包括所有者已被回收但尚未移除的清除方法
+     */
+    public int size() {
+        return this.quit.length + this.changeWorld.length;
+    }
+
+    /**
+     * 移除所有者已被回收的清除方法，若已没有任何清除方法，则注销共用的监听器。
+     * <br> 每次清除玩家的数据时将自动调用。
+     */
+    public void prune() {
+        remove(null);
+    }
+
+    /**
+     * 移除全部清除方法，用于源 {@link EasyListener} 注销全部处理器时，此后已移除的清除方法将不再生效。
+     */
+    public void clear() {
+        synchronized (this.source) {
+            for (Evictor<?> evictor : this.quit) evictor.clear();
+            for (Evictor<?> evictor : this.changeWorld) evictor.clear();
+            this.quit = EMPTY;
+            this.changeWorld = EMPTY;
+            if (this.quitRegistration != null) this.quitRegistration.unsubscribe();
+            if (this.changeWorldRegistration != null) this.changeWorldRegistration.unsubscribe();
+            this.quitRegistration = null;
+            this.changeWorldRegistration = null;
+        }
+    }
+
+    protected void evict(@NotNull Evictor<?>[] evictors, @NotNull Player player) {
+        boolean collected = false;
+        for (Evictor<?> evictor : evictors) {
+            collected |= !evictor.evict(player);
+        }
+        if (collected) prune();
+    }
+
+    protected void remove(@Nullable Evictor<?> evictor) {
+        if (evictor != null) evictor.clear();
+        synchronized (this.source) {
+            this.quit = removeIf(this.quit, evictor);
+            this.changeWorld = removeIf(this.changeWorld, evictor);
+            if (this.quit.length == 0 && this.quitRegistration != null) {
+                this.quitRegistration.unsubscribe();
+                this.quitRegistration = null;
+            }
+            if (this.changeWorld.length == 0 && this.changeWorldRegistration != null) {
+                this.changeWorldRegistration.unsubscribe();
+                this.changeWorldRegistration = null;
+            }
+        }
+    }
+
+    protected static @NotNull Evictor<?>[] append(@NotNull Evictor<?>[] current, @NotNull Evictor<?> evictor) {
+        Evictor<?>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = evictor;
+        return updated;
+    }
+
+    /**
+     * @return 移除给定清除方法与所有者已被回收的清除方法后的数组，若无需移除则返回原数组
+     */
+    protected static @NotNull Evictor<?>[] removeIf(@NotNull Evictor<?>[] current, @Nullable Evictor<?> evictor) {
+        int kept = 0;
+        Evictor<?>[] updated = new Evictor<?>[current.length];
+        for (Evictor<?> entry : current) {
+            if (entry != evictor && entry.get() != null) updated[kept++] = entry;
+        }
+        if (kept == current.length) return current;
+        return kept == 0 ? EMPTY : Arrays.copyOf(updated, kept);
+    }
+
+    /**
+     * 以弱引用持有所有者的清除方法。
+     */
+    protected final class Evictor<T> extends WeakReference<T> implements Subscription {
+
+        protected final @NotNull BiConsumer<? super T, Player> evictor;
+
+        protected Evictor(@NotNull T owner, @NotNull BiConsumer<? super T, Player> evictor) {
+            super(owner);
+            this.evictor = evictor;
+        }
+
+        /**
+         * @return 所有者是否仍存在
+         */
+        protected boolean evict(@NotNull Player player) {
+            T owner = get();
+            if (owner == null) return false;
+            this.evictor.accept(owner, player);
+            return true;
+        }
+
+        @Override
+        public void unsubscribe() {
+            remove(this);
+        }
+
+        /**
+         * @return 所有者是否仍存在，且未被移除
+         */
+        @Override
+        public boolean isActive() {
+            return get() != null;
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 节流、防抖与采样条件的创建方法，由各处理器构造器共用。
+ * <br> 每次调用均创建独立的状态，因此每个条件应仅用于一个处理器。
+ *
+ * @author CarmJos
+ */
+public final class RateFilters {
+
+    private RateFilters() {
+    }
+
+    /**
+     * 创建节流条件，即对于同一个键，在给定间隔内仅通过第一个目标。
+     * <br> 键为 null 的目标不受限制。玩家退出时，以该玩家实例、UUID或名称为键的记录将被清除。
+     *
+     * @param source      用于登记玩家退出清除的 {@link EasyListener}
+     * @param keyFunction 获取目标对应键的方法
+     * @param interval    间隔时长
+     * @param <T>         目标的类型
+     * @return 节流条件
+     * @see KeyedTimestamps#throttle(Object)
+     */
+    public static <T> @NotNull Predicate<T> throttle(@NotNull EasyListener source,
+                                                     @NotNull Function<? super T, ?> keyFunction,
+                                                     @NotNull Duration interval) {
+        final KeyedTimestamps timestamps = KeyedTimestamps.create(source, interval);
+        return t -> {
+            Object key = keyFunction.apply(t);
+            return key == null || timestamps.throttle(key);
+        };
+    }
+
+    /**
+     * 创建防抖条件，即对于同一个键，仅当距离上一个目标已超过给定间隔时才通过。
+     * <br> 键为 null 的目标不受限制。玩家退出时，以该玩家实例、UUID或名称为键的记录将被清除。
+     *
+     * @param source      用于登记玩家退出清除的 {@link EasyListener}
+     * @param keyFunction 获取目标对应键的方法
+     * @param interval    间隔时长
+     * @param <T>         目标的类型
+     * @return 防抖条件
+     * @see KeyedTimestamps#debounce(Object)
+     */
+    public static <T> @NotNull Predicate<T> debounce(@NotNull EasyListener source,
+                                                     @NotNull Function<? super T, ?> keyFunction,
+                                                     @NotNull Duration interval) {
+        final KeyedTimestamps timestamps = KeyedTimestamps.create(source, interval);
+        return t -> {
+            Object key = keyFunction.apply(t);
+            return key == null || timestamps.debounce(key);
+        };
+    }
+
+    /**
+     * 创建采样条件，即每 n 个目标仅通过第一个。
+     * <br> 若 {@link EasyListener#isConcurrent()} ，则各线程分别计数，无需争用同一计数器。
+     *
+     * @param source 用于判断是否可能在多个线程中分发的 {@link EasyListener}
+     * @param n      采样间隔
+     * @param <T>    目标的类型
+     * @return 采样条件，n 为 1 时无需过滤，返回 null
+     * @throws IllegalArgumentException 采样间隔不为正数时抛出
+     */
+    public static <T> @Nullable Predicate<T> sample(@NotNull EasyListener source, int n) {
+        if (n <= 0) throw new IllegalArgumentException("Sample interval must be positive");
+        if (n == 1) return null;
+        if (source.isConcurrent()) {
+            final ThreadConfined<long[]> counters = ThreadConfined.of(() -> new long[1]);
+            return t -> counters.get()[0]++ % n == 0;
+        }
+        final AtomicLong counter = new AtomicLong();
+        return t -> counter.getAndIncrement() % n == 0;
+    }
+
+}
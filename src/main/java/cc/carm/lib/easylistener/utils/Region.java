@@ -0,0 +1,144 @@
+package cc.carm.lib.easylistener.utils;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * 一个世界中的长方体区域，以方块坐标表示，边界包含在区域内。
+ *
+ * @author CarmJos
+ */
+public class Region {
+
+    /**
+     * 通过两个对角方块坐标创建区域，坐标无需按大小排列。
+     *
+     * @param worldName 世界名
+     * @param x1        第一个角的X坐标
+     * @param y1        第一个角的Y坐标
+     * @param z1        第一个角的Z坐标
+     * @param x2        第二个角的X坐标
+     * @param y2        第二个角的Y坐标
+     * @param z2        第二个角的Z坐标
+     * @return 区域实例
+     */
+    public static @NotNull Region of(@NotNull String worldName,
+                                     int x1, int y1, int z1, int x2, int y2, int z2) {
+        return new Region(
+                worldName,
+                Math.min(x1, x2), Math.min(y1, y2), Math.min(z1, z2),
+                Math.max(x1, x2), Math.max(y1, y2), Math.max(z1, z2)
+        );
+    }
+
+    /**
+     * 通过两个对角位置创建区域，两个位置必须位于同一世界。
+     *
+     * @param first  第一个角
+     * @param second 第二个角
+     * @return 区域实例
+     */
+    public static @NotNull Region of(@NotNull Location first, @NotNull Location second) {
+        World world = Objects.requireNonNull(first.getWorld(), "World of location cannot be null");
+        if (!Objects.equals(world, second.getWorld())) {
+            throw new IllegalArgumentException("Locations must be in the same world");
+        }
+        return of(
+                world.getName(),
+                first.getBlockX(), first.getBlockY(), first.getBlockZ(),
+                second.getBlockX(), second.getBlockY(), second.getBlockZ()
+        );
+    }
+
+    protected final @NotNull String worldName;
+    protected final int minX, minY, minZ;
+    protected final int maxX, maxY, maxZ;
+
+    protected Region(@NotNull String worldName,
+                     int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.worldName = worldName;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    public @NotNull String getWorldName() {
+        return worldName;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    /**
+     * 判断给定方块坐标是否位于区域内，不判断世界。
+     *
+     * @param x X坐标
+     * @param y Y坐标
+     * @param z Z坐标
+     * @return 是否位于区域内
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    /**
+     * 判断给定位置是否位于区域内。
+     *
+     * @param location 位置
+     * @return 是否位于区域内
+     */
+    public boolean contains(@NotNull Location location) {
+        World world = location.getWorld();
+        return world != null && world.getName().equals(worldName)
+                && contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Region region = (Region) o;
+        return minX == region.minX && minY == region.minY && minZ == region.minZ
+                && maxX == region.maxX && maxY == region.maxY && maxZ == region.maxZ
+                && worldName.equals(region.worldName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(worldName, minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    @Override
+    public String toString() {
+        return "Region{" + worldName + " [" + minX + ", " + minY + ", " + minZ + "] -> ["
+                + maxX + ", " + maxY + ", " + maxZ + "]}";
+    }
+
+}
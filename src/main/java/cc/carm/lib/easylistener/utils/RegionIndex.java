@@ -0,0 +1,317 @@
+package cc.carm.lib.easylistener.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * 按世界与区块索引的区域存储。
+ * <br> 每个区域将被放入其覆盖的全部区块中，查询时仅需按区块坐标（打包为一个 long）查找一次，
+ * 再逐个判断该区块中与之相交的区域，无需遍历全部区域。
+ * <br> 覆盖区块数量超过 {@link #LARGE_REGION_CHUNKS} 的大型区域单独存放，每次查询时逐个判断。
+ * <br> 存储不保证线程安全，应仅在主线程中修改与查询；查询期间的修改不会影响正在进行的查询。
+ *
+ * @param <V> 区域所关联的值的类型
+ * @author CarmJos
+ */
+public class RegionIndex<V> {
+
+    public static final int LARGE_REGION_CHUNKS = 256;
+
+    protected static final Entry<?>[] EMPTY = new Entry<?>[0];
+
+    protected final Map<String, WorldIndex<V>> worlds = new HashMap<>();
+    protected int size = 0;
+
+    /**
+     * 打包区块坐标。
+     *
+     * @param chunkX 区块X坐标
+     * @param chunkZ 区块Z坐标
+     * @return 打包后的区块坐标
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 新增一个区域及其关联的值。
+     *
+     * @param region 区域
+     * @param value  值
+     */
+    public void add(@NotNull Region region, @NotNull V value) {
+        WorldIndex<V> index = this.worlds.computeIfAbsent(region.getWorldName(), k -> new WorldIndex<>());
+        Entry<V> entry = new Entry<>(region, value);
+
+        if (isLarge(region)) {
+            index.large = append(index.large, entry);
+        } else {
+            for (int x = region.getMinX() >> 4; x <= region.getMaxX() >> 4; x++) {
+                for (int z = region.getMinZ() >> 4; z <= region.getMaxZ() >> 4; z++) {
+                    long key = chunkKey(x, z);
+                    Entry<V>[] current = index.chunks.get(key);
+                    index.chunks.put(key, current == null ? single(entry) : append(current, entry));
+                }
+            }
+        }
+        this.size++;
+    }
+
+    /**
+     * 移除一个区域所关联的给定值。
+     *
+     * @param region 区域
+     * @param value  值
+     * @return 是否存在并已移除
+     */
+    public boolean remove(@NotNull Region region, @NotNull V value) {
+        WorldIndex<V> index = this.worlds.get(region.getWorldName());
+        if (index == null) return false;
+
+        // 与新增时相同，大型区域仅存放于 large 中，其余区域仅存放于其覆盖的各区块中
+        boolean removed = false;
+        if (isLarge(region)) {
+            Entry<V>[] large = removeFrom(index.large, region, value);
+            if (large != index.large) {
+                index.large = large;
+                removed = true;
+            }
+        } else {
+            for (int x = region.getMinX() >> 4; x <= region.getMaxX() >> 4; x++) {
+                for (int z = region.getMinZ() >> 4; z <= region.getMaxZ() >> 4; z++) {
+                    long key = chunkKey(x, z);
+                    Entry<V>[] current = index.chunks.get(key);
+                    if (current == null) continue;
+
+                    Entry<V>[] updated = removeFrom(current, region, value);
+                    if (updated == current) continue;
+                    removed = true;
+                    if (updated.length == 0) index.chunks.remove(key);
+                    else index.chunks.put(key, updated);
+                }
+            }
+        }
+
+        if (!removed) return false;
+        if (index.isEmpty()) this.worlds.remove(region.getWorldName());
+        this.size--;
+        return true;
+    }
+
+    /**
+     * 依次处理包含给定方块坐标的全部区域所关联的值。
+     * <br> 处理方法额外接收一个上下文参数，以便调用方传入不捕获变量的方法，避免每次查询都创建新的实例。
+     *
+     * @param worldName 世界名
+     * @param x         X坐标
+     * @param y         Y坐标
+     * @param z         Z坐标
+     * @param context   上下文参数
+     * @param consumer  处理方法
+     * @param <C>       上下文参数的类型
+     */
+    public <C> void forEach(@NotNull String worldName, int x, int y, int z,
+                            C context, @NotNull BiConsumer<? super V, ? super C> consumer) {
+        WorldIndex<V> index = this.worlds.get(worldName);
+        if (index == null) return;
+
+        Entry<V>[] entries = index.chunks.get(chunkKey(x >> 4, z >> 4));
+        if (entries != null) {
+            for (Entry<V> entry : entries) {
+                if (entry.region.contains(x, y, z)) consumer.accept(entry.value, context);
+            }
+        }
+
+        for (Entry<V> entry : index.large) {
+            if (entry.region.contains(x, y, z)) consumer.accept(entry.value, context);
+        }
+    }
+
+    /**
+     * 判断给定方块坐标是否位于任意区域内。
+     *
+     * @param worldName 世界名
+     * @param x         X坐标
+     * @param y         Y坐标
+     * @param z         Z坐标
+     * @return 是否位于任意区域内
+     */
+    public boolean contains(@NotNull String worldName, int x, int y, int z) {
+        WorldIndex<V> index = this.worlds.get(worldName);
+        if (index == null) return false;
+
+        Entry<V>[] entries = index.chunks.get(chunkKey(x >> 4, z >> 4));
+        if (entries != null) {
+            for (Entry<V> entry : entries) {
+                if (entry.region.contains(x, y, z)) return true;
+            }
+        }
+        for (Entry<V> entry : index.large) {
+            if (entry.region.contains(x, y, z)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return 已存储的区域数量
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * 清除全部区域。
+     */
+    public void clear() {
+        this.worlds.clear();
+        this.size = 0;
+    }
+
+    /**
+     * @return 区域覆盖的区块数量是否超过 {@link #LARGE_REGION_CHUNKS}
+     */
+    protected static boolean isLarge(@NotNull Region region) {
+        long chunks = (long) ((region.getMaxX() >> 4) - (region.getMinX() >> 4) + 1)
+                * ((region.getMaxZ() >> 4) - (region.getMinZ() >> 4) + 1);
+        return chunks > LARGE_REGION_CHUNKS;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <V> Entry<V>[] empty() {
+        return (Entry<V>[]) EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <V> Entry<V>[] single(@NotNull Entry<V> entry) {
+        Entry<V>[] array = (Entry<V>[]) new Entry<?>[1];
+        array[0] = entry;
+        return array;
+    }
+
+    protected static <V> Entry<V>[] append(@NotNull Entry<V>[] entries, @NotNull Entry<V> entry) {
+        Entry<V>[] updated = Arrays.copyOf(entries, entries.length + 1);
+        updated[entries.length] = entry;
+        return updated;
+    }
+
+    /**
+     * @return 移除后的新数组，若不存在对应的记录则返回原数组
+     */
+    protected static <V> Entry<V>[] removeFrom(@NotNull Entry<V>[] entries, @NotNull Region region, @NotNull V value) {
+        for (int i = 0; i < entries.length; i++) {
+            Entry<V> entry = entries[i];
+            if (entry.value.equals(value) && entry.region.equals(region)) {
+                if (entries.length == 1) return empty();
+                Entry<V>[] updated = Arrays.copyOf(entries, entries.length - 1);
+                System.arraycopy(entries, i + 1, updated, i, entries.length - i - 1);
+                return updated;
+            }
+        }
+        return entries;
+    }
+
+    protected static class WorldIndex<V> {
+
+        protected final ChunkMap<Entry<V>[]> chunks = new ChunkMap<>();
+        protected Entry<V>[] large = empty();
+
+        protected boolean isEmpty() {
+            return this.chunks.isEmpty() && this.large.length == 0;
+        }
+
+    }
+
+    /**
+     * 以打包区块坐标为键的开放寻址哈希表，查询时不会装箱产生对象。
+     *
+     * @param <E> 值的类型
+     */
+    protected static class ChunkMap<E> {
+
+        protected long[] keys = new long[16];
+        protected Object[] values = new Object[16];
+        protected int size = 0;
+
+        protected static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        @SuppressWarnings("unchecked")
+        public E get(long key) {
+            int mask = this.keys.length - 1;
+            for (int i = hash(key) & mask; this.values[i] != null; i = (i + 1) & mask) {
+                if (this.keys[i] == key) return (E) this.values[i];
+            }
+            return null;
+        }
+
+        public void put(long key, @NotNull E value) {
+            int mask = this.keys.length - 1;
+            int i = hash(key) & mask;
+            for (; this.values[i] != null; i = (i + 1) & mask) {
+                if (this.keys[i] == key) {
+                    this.values[i] = value;
+                    return;
+                }
+            }
+            this.keys[i] = key;
+            this.values[i] = value;
+            if (++this.size * 2 > this.keys.length) resize(this.keys.length * 2);
+        }
+
+        public void remove(long key) {
+            int mask = this.keys.length - 1;
+            int i = hash(key) & mask;
+            while (this.values[i] != null && this.keys[i] != key) i = (i + 1) & mask;
+            if (this.values[i] == null) return;
+
+            // 将后续同一探测序列中的记录前移，以保证查询不会提前遇到空位
+            int gap = i;
+            for (int j = (gap + 1) & mask; this.values[j] != null; j = (j + 1) & mask) {
+                int home = hash(this.keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    this.keys[gap] = this.keys[j];
+                    this.values[gap] = this.values[j];
+                    gap = j;
+                }
+            }
+            this.values[gap] = null;
+            this.size--;
+        }
+
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        protected void resize(int capacity) {
+            long[] oldKeys = this.keys;
+            Object[] oldValues = this.values;
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) put(oldKeys[i], (E) oldValues[i]);
+            }
+        }
+
+    }
+
+    protected static class Entry<V> {
+
+        protected final @NotNull Region region;
+        protected final @NotNull V value;
+
+        protected Entry(@NotNull Region region, @NotNull V value) {
+            this.region = region;
+            this.value = value;
+        }
+
+    }
+
+}
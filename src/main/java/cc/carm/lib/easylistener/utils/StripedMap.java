@@ -0,0 +1,159 @@
+package cc.carm.lib.easylistener.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 分段加锁的键值存储，适用于值本身可变、需要在多个线程中按键修改的状态。
+ * <br> 键按哈希分散至若干段，每段为一个 {@link HashMap} 并由各自的锁保护，
+ * 不同段的操作互不阻塞；同一键的全部操作(包括对值的修改)都在同一把锁内完成，因此值本身无需线程安全。
+ * <br> 段数越多，不同键之间的争用越少，通常取线程数的数倍即可。
+ *
+ * <pre>{@code
+ * StripedMap<UUID, List<Location>> trails = new StripedMap<>();
+ * listener.handle(PlayerMoveEvent.class, e -> trails.update(
+ *         e.getPlayer().getUniqueId(), k -> new ArrayList<>(), list -> list.add(e.getTo())
+ * ));
+ * }</pre>
+ *
+ * @param <K> 键的类型
+ * @param <V> 值的类型
+ * @author CarmJos
+ */
+public class StripedMap<K, V> {
+
+    public static final int DEFAULT_STRIPES = 32;
+
+    protected final @NotNull Map<K, V>[] stripes;
+    protected final int mask;
+
+    public StripedMap() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes 段数，将向上取整为 2 的幂
+     */
+    @SuppressWarnings("unchecked")
+    public StripedMap(int stripes) {
+        if (stripes <= 0) throw new IllegalArgumentException("Stripes must be positive");
+        int size = stripes == 1 ? 1 : Integer.highestOneBit((stripes - 1) << 1);
+        this.stripes = (Map<K, V>[]) new Map<?, ?>[size];
+        for (int i = 0; i < size; i++) this.stripes[i] = new HashMap<>();
+        this.mask = size - 1;
+    }
+
+    protected @NotNull Map<K, V> stripe(@NotNull Object key) {
+        int hash = key.hashCode();
+        return this.stripes[(hash ^ (hash >>> 16)) & this.mask];
+    }
+
+    /**
+     * @param key 键
+     * @return 给定键的值，不存在时返回 null
+     */
+    public @Nullable V get(@NotNull K key) {
+        Map<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * @param key   键
+     * @param value 值
+     * @return 原有的值，不存在时返回 null
+     */
+    public @Nullable V put(@NotNull K key, @NotNull V value) {
+        Map<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.put(key, value);
+        }
+    }
+
+    /**
+     * @param key 键
+     * @return 被移除的值，不存在时返回 null
+     */
+    public @Nullable V remove(@NotNull K key) {
+        Map<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.remove(key);
+        }
+    }
+
+    /**
+     * 在该键所在段的锁内计算新的值，语义同 {@link Map#compute(Object, BiFunction)} 。
+     *
+     * @param key      键
+     * @param function 计算方法，返回 null 时将移除该键
+     * @return 新的值
+     */
+    public @Nullable V compute(@NotNull K key, @NotNull BiFunction<? super K, ? super V, ? extends V> function) {
+        Map<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.compute(key, function);
+        }
+    }
+
+    /**
+     * 在该键所在段的锁内修改其值，值不存在时先创建。
+     *
+     * @param key     键
+     * @param factory 值不存在时的创建方法
+     * @param updater 修改方法
+     */
+    public void update(@NotNull K key, @NotNull Function<? super K, ? extends V> factory,
+                       @NotNull Consumer<? super V> updater) {
+        Map<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            updater.accept(stripe.computeIfAbsent(key, factory));
+        }
+    }
+
+    /**
+     * 依次处理全部键值，每段在其锁内处理。
+     * <br> 各段依次加锁，因此结果不是全部键值在同一时刻的快照。
+     *
+     * @param consumer 处理方法
+     */
+    public void forEach(@NotNull BiConsumer<? super K, ? super V> consumer) {
+        for (Map<K, V> stripe : this.stripes) {
+            synchronized (stripe) {
+                stripe.forEach(consumer);
+            }
+        }
+    }
+
+    /**
+     * @return 全部键值的数量
+     */
+    public int size() {
+        int size = 0;
+        for (Map<K, V> stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 清除全部键值。
+     */
+    public void clear() {
+        for (Map<K, V> stripe : this.stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package cc.carm.lib.easylistener.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 按线程隔离的状态，每个线程首次访问时创建自己的实例，之后仅由该线程修改，因此修改无需任何同步。
+ * <br> 适用于区域多线程的服务端中，各区域线程分别累计、再由其他线程定期汇总的状态。
+ * <br> 汇总时将读取其他线程正在修改的实例，因此实例的字段应为 volatile 或原子类型，或仅在汇总时容忍过期的数据。
+ * <br> 线程结束后其实例仍将参与汇总，因此不应在频繁创建与销毁的线程中使用。
+ *
+ * <pre>{@code
+ * ThreadConfined<AtomicLong> moves = ThreadConfined.of(AtomicLong::new);
+ * listener.handle(PlayerMoveEvent.class, e -> {
+ *     AtomicLong counter = moves.get(); // 仅由当前线程修改
+ *     counter.lazySet(counter.get() + 1);
+ * });
+ * long total = moves.reduce(AtomicLong::get, Long::sum, 0L);
+ * }</pre>
+ *
+ * @param <V> 状态的类型
+ * @author CarmJos
+ */
+public class ThreadConfined<V> {
+
+    /**
+     * @param factory 状态的创建方法，将在每个线程首次访问时调用
+     * @param <V>     状态的类型
+     * @return {@link ThreadConfined} 实例
+     */
+    public static <V> @NotNull ThreadConfined<V> of(@NotNull Supplier<? extends V> factory) {
+        return new ThreadConfined<>(factory);
+    }
+
+    protected final @NotNull Supplier<? extends V> factory;
+    protected final @NotNull List<V> instances = new CopyOnWriteArrayList<>();
+    protected final @NotNull ThreadLocal<V> local;
+
+    public ThreadConfined(@NotNull Supplier<? extends V> factory) {
+        this.factory = factory;
+        this.local = ThreadLocal.withInitial(this::create);
+    }
+
+    protected V create() {
+        V instance = this.factory.get();
+        this.instances.add(instance);
+        return instance;
+    }
+
+    /**
+     * @return 当前线程的实例
+     */
+    public V get() {
+        return this.local.get();
+    }
+
+    /**
+     * 依次处理全部线程的实例。
+     *
+     * @param consumer 处理方法
+     */
+    public void forEach(@NotNull Consumer<? super V> consumer) {
+        this.instances.forEach(consumer);
+    }
+
+    /**
+     * 汇总全部线程的实例。
+     *
+     * @param mapper   从实例中提取数据的方法
+     * @param reducer  合并数据的方法
+     * @param identity 初始值
+     * @param <R>      数据的类型
+     * @return 汇总结果
+     */
+    public <R> R reduce(@NotNull Function<? super V, ? extends R> mapper,
+                        @NotNull BinaryOperator<R> reducer, R identity) {
+        R result = identity;
+        for (V instance : this.instances) result = reducer.apply(result, mapper.apply(instance));
+        return result;
+    }
+
+    /**
+     * @return 全部线程的实例的副本
+     */
+    public @NotNull List<V> instances() {
+        return new ArrayList<>(this.instances);
+    }
+
+}
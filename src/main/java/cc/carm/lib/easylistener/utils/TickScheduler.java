@@ -0,0 +1,214 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Consumer;
+
+/**
+ * 处理器内部所使用的任务调度，兼容区域多线程的服务端(如 Folia)。
+ * <br> 在 {@link EasyListener#REGION_THREADED} 的服务端上，{@link Bukkit#getScheduler()} 的调度方法均不可用，
+ * 此时将改为使用全局区域调度器执行同步任务、异步调度器执行异步任务；其他服务端上则使用 {@link Bukkit#getScheduler()} 。
+ * <br> 注意在区域多线程的服务端上，同步任务在全局区域线程中执行，而非任何实体或区块所在区域的线程。
+ *
+ * @author CarmJos
+ */
+public final class TickScheduler {
+
+    private static final @Nullable RegionSchedulers REGION_SCHEDULERS = EasyListener.REGION_THREADED ? RegionSchedulers.resolve() : null;
+
+    private TickScheduler() {
+    }
+
+    /**
+     * 在服务器线程中定时执行任务。
+     *
+     * @param plugin 插件实例
+     * @param task   任务
+     * @param delay  首次执行前等待的刻数，至少为 1
+     * @param period 执行间隔刻数
+     * @return 可取消该任务的 {@link Subscription}
+     * @throws UnsupportedOperationException 当前为区域多线程的服务端，但无法获取其调度器
+     */
+    public static @NotNull Subscription runTimer(@NotNull Plugin plugin, @NotNull Runnable task, long delay, long period) {
+        if (period <= 0) throw new IllegalArgumentException("Period must be positive");
+        long initialDelay = Math.max(1L, delay);
+        if (!EasyListener.REGION_THREADED) {
+            return new BukkitSubscription(Bukkit.getScheduler().runTaskTimer(plugin, task, initialDelay, period));
+        }
+        RegionSchedulers schedulers = regionSchedulers();
+        return new RegionSubscription(schedulers, schedulers.invoke(
+                schedulers.runAtFixedRate, schedulers.globalScheduler(),
+                plugin, consumer(task), initialDelay, period
+        ));
+    }
+
+    /**
+     * 在下一刻于服务器线程中执行任务。
+     *
+     * @param plugin 插件实例
+     * @param task   任务
+     * @throws UnsupportedOperationException 当前为区域多线程的服务端，但无法获取其调度器
+     */
+    public static void runSync(@NotNull Plugin plugin, @NotNull Runnable task) {
+        if (!EasyListener.REGION_THREADED) {
+            Bukkit.getScheduler().runTask(plugin, task);
+            return;
+        }
+        RegionSchedulers schedulers = regionSchedulers();
+        schedulers.invoke(schedulers.run, schedulers.globalScheduler(), plugin, consumer(task));
+    }
+
+    /**
+     * 在异步线程中执行任务。
+     *
+     * @param plugin 插件实例
+     * @param task   任务
+     * @throws UnsupportedOperationException 当前为区域多线程的服务端，但无法获取其调度器
+     */
+    public static void runAsync(@NotNull Plugin plugin, @NotNull Runnable task) {
+        if (!EasyListener.REGION_THREADED) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+            return;
+        }
+        RegionSchedulers schedulers = regionSchedulers();
+        schedulers.invoke(schedulers.runNow, schedulers.asyncScheduler(), plugin, consumer(task));
+    }
+
+    private static @NotNull RegionSchedulers regionSchedulers() {
+        if (REGION_SCHEDULERS == null) {
+            throw new UnsupportedOperationException(
+                    "This server is region threaded, but its global region and async schedulers are not available"
+            );
+        }
+        return REGION_SCHEDULERS;
+    }
+
+    private static @NotNull Consumer<Object> consumer(@NotNull Runnable task) {
+        return scheduledTask -> task.run();
+    }
+
+    /**
+     * 通过 {@link BukkitTask} 取消的任务。
+     */
+    private static final class BukkitSubscription implements Subscription {
+
+        private final @NotNull BukkitTask task;
+        private volatile boolean cancelled = false;
+
+        private BukkitSubscription(@NotNull BukkitTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (this.cancelled) return;
+            this.cancelled = true;
+            this.task.cancel();
+        }
+
+        @Override
+        public boolean isActive() {
+            return !this.cancelled;
+        }
+
+    }
+
+    /**
+     * 通过区域多线程服务端的 ScheduledTask 取消的任务。
+     */
+    private static final class RegionSubscription implements Subscription {
+
+        private final @NotNull RegionSchedulers schedulers;
+        private final @NotNull Object task;
+        private volatile boolean cancelled = false;
+
+        private RegionSubscription(@NotNull RegionSchedulers schedulers, @NotNull Object task) {
+            this.schedulers = schedulers;
+            this.task = task;
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (this.cancelled) return;
+            this.cancelled = true;
+            this.schedulers.invoke(this.schedulers.cancel, this.task);
+        }
+
+        @Override
+        public boolean isActive() {
+            return !this.cancelled;
+        }
+
+    }
+
+    /**
+     * 区域多线程服务端的调度方法，仅在首次使用本类时解析一次。
+     * <br> 这些方法不存在于 Bukkit 的 API 中，因此需要通过反射调用。
+     */
+    private static final class RegionSchedulers {
+
+        private final @NotNull Method globalScheduler;
+        private final @NotNull Method asyncScheduler;
+        private final @NotNull Method runAtFixedRate;
+        private final @NotNull Method run;
+        private final @NotNull Method runNow;
+        private final @NotNull Method cancel;
+
+        private RegionSchedulers(@NotNull Method globalScheduler, @NotNull Method asyncScheduler,
+                                 @NotNull Method runAtFixedRate, @NotNull Method run,
+                                 @NotNull Method runNow, @NotNull Method cancel) {
+            this.globalScheduler = globalScheduler;
+            this.asyncScheduler = asyncScheduler;
+            this.runAtFixedRate = runAtFixedRate;
+            this.run = run;
+            this.runNow = runNow;
+            this.cancel = cancel;
+        }
+
+        static @Nullable RegionSchedulers resolve() {
+            try {
+                Method globalScheduler = Bukkit.class.getMethod("getGlobalRegionScheduler");
+                Method asyncScheduler = Bukkit.class.getMethod("getAsyncScheduler");
+                Class<?> global = globalScheduler.getReturnType();
+                Method runAtFixedRate = global.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
+                Method run = global.getMethod("run", Plugin.class, Consumer.class);
+                Method runNow = asyncScheduler.getReturnType().getMethod("runNow", Plugin.class, Consumer.class);
+                Method cancel = runAtFixedRate.getReturnType().getMethod("cancel");
+                return new RegionSchedulers(globalScheduler, asyncScheduler, runAtFixedRate, run, runNow, cancel);
+            } catch (NoSuchMethodException | LinkageError ex) {
+                return null;
+            }
+        }
+
+        @NotNull Object globalScheduler() {
+            return invoke(this.globalScheduler, null);
+        }
+
+        @NotNull Object asyncScheduler() {
+            return invoke(this.asyncScheduler, null);
+        }
+
+        Object invoke(@NotNull Method method, @Nullable Object target, Object... args) {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new IllegalStateException(cause);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("Cannot invoke " + method.getName(), ex);
+            }
+        }
+
+    }
+
+}
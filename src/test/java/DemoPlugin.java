@@ -1,19 +1,40 @@
 import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.HandlerGroup;
+import cc.carm.lib.easylistener.ReloadableGroup;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.SubscriptionGroup;
+import cc.carm.lib.easylistener.annotation.EasyHandler;
 import cc.carm.lib.easylistener.defaults.CommonListeners;
 import cc.carm.lib.easylistener.defaults.EventFilters;
+import cc.carm.lib.easylistener.export.EventExporter;
+import cc.carm.lib.easylistener.export.ExportPolicy;
+import cc.carm.lib.easylistener.rule.Rule;
+import cc.carm.lib.easylistener.rule.RuleEngine;
+import cc.carm.lib.easylistener.utils.HandlerBudget;
+import cc.carm.lib.easylistener.utils.Region;
+import org.bukkit.Material;
+import org.bukkit.Sound;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.player.*;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.time.Duration;
+import java.util.*;
+
 public class DemoPlugin extends JavaPlugin {
 
     protected final EasyListener source = EasyListener.create(this);
 
     @Override
     public void onEnable() {
+        source.metrics().enable(); // 开启处理器统计，可通过 source.metrics() 查询各处理器的调用次数与耗时
+
         // 基本用法
         source.handle(PlayerInteractAtEntityEvent.class, (event) -> {
                     Entity clicked = event.getRightClicked();
@@ -33,19 +54,57 @@ public class DemoPlugin extends JavaPlugin {
 
         // Functional 用法
         source.handleEvent(PlayerInteractAtEntityEvent.class)
+                .name("admin-interact") // 为处理器命名，便于在统计数据中区分
                 .filter(e -> e.getRightClicked() instanceof Player)
                 .filter(EventFilters.playerHasPerm("yc.admin"))
+                .throttle(e -> e.getPlayer().getUniqueId(), Duration.ofSeconds(1)) // 每位玩家每秒仅处理一次
+                .budget(HandlerBudget.perInvocation(Duration.ofMillis(2)).tripAfter(5)) // 多次超时后熔断
                 .handle(e -> {
                     Player player = e.getPlayer();
                     player.sendMessage("你点了 " + e.getRightClicked().getName() + " 一下！");
                 });
 
+        source.handleEvent(BlockBreakEvent.class)
+                .filterAdaptive( // 相互独立的条件将按实测的拒绝率与耗时自动调整判断顺序
+                        e -> !e.getPlayer().hasPermission("yc.spawner"),
+                        e -> e.getBlock().getType() == Material.SPAWNER
+                )
+                .cancel();
+
         source.handleEvents(PlayerEvent.class)
                 .from(PlayerJoinEvent.class)
                 .from(PlayerQuitEvent.class)
                 .filter(EventFilters.playerHasPerm("yc.admin"))
                 .handle(playerEvent -> System.out.println(playerEvent.getPlayer().getName()));
 
+        source.handleEvent(PlayerJoinEvent.class)
+                .snapshot(e -> e.getPlayer().getUniqueId()) // 在主线程中提取快照数据
+                .limit(256) // 最多同时存在 256 个未完成的异步任务，超出部分将被丢弃
+                .handle(uuid -> "玩家 " + uuid + " 的数据", // 在异步线程中处理，如查询数据库
+                        data -> getLogger().info(data) // 回到主线程中处理结果
+                );
+
+        source.handleEvent(AsyncPlayerPreLoginEvent.class)
+                .parallel() // 在异步事件中并行执行各个处理
+                .timeout(Duration.ofSeconds(2))
+                .fork(e -> e.getName().length() > 16, (e, invalid) -> { // 在事件线程中按顺序应用结果
+                    if (invalid) e.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, "名称过长");
+                })
+                .fork(e -> getLogger().info(e.getName() + " 正在登录"))
+                .handle();
+
+        source.handleEvent(PlayerMoveEvent.class)
+                .batch(e -> e.getPlayer().getName()) // 每个事件仅提取一条记录
+                .handle(names -> getLogger().info("本刻共有 " + names.size() + " 次移动")); // 每刻统一处理一次
+
+        source.handleEvent(PlayerInteractEvent.class)
+                .keyedBy(e -> e.getPlayer().getUniqueId()) // 按玩家分发，玩家退出后自动移除
+                .on(UUID.fromString("00000000-0000-0000-0000-000000000000"), e -> e.getPlayer().sendMessage("你好！"));
+
+        source.handleEvent(BlockBreakEvent.class)
+                .inRegion(e -> e.getBlock().getLocation()) // 按区域分发，仅判断方块所在区块中的区域
+                .on(Region.of("world", -100, 0, -100, 100, 255, 100), e -> e.setCancelled(true));
+
         source.handleBundle(Player.class)
                 .from(PlayerJoinEvent.class, PlayerEvent::getPlayer)
                 .from(PlayerInteractEvent.class, PlayerEvent::getPlayer)
@@ -53,10 +112,75 @@ public class DemoPlugin extends JavaPlugin {
                 .handle((p, e) -> p.sendMessage("hi!"));
 
 
+        // 批量注册，内部注册的监听器将在方法结束后按 HandlerList 一次性注册
+        source.batch(listener -> listener
+                .cancel(PlayerDropItemEvent.class, e -> !e.getPlayer().isOp())
+                .handle(PlayerKickEvent.class, e -> System.out.println(e.getPlayer().getName() + " 被踢出了服务器。"))
+        );
+
+        // 可单独注销的处理器
+        Subscription welcome = source.handleEvent(PlayerJoinEvent.class)
+                .subscribe(e -> e.getPlayer().sendMessage("欢迎来到服务器！"));
+        SubscriptionGroup group = source.collect(listener -> listener
+                .handle(PlayerQuitEvent.class, e -> System.out.println(e.getPlayer().getName() + " 离开了。"))
+                .cancel(PlayerPickupArrowEvent.class)
+        );
+        welcome.unsubscribe(); // 注销单个处理器
+        group.unsubscribe(); // 一次性注销一组处理器
+
         // 预设的快捷方法
         CommonListeners.cancelDeath(source, null); // 所有玩家取消死亡
         CommonListeners.cancelBreak(source, player -> !player.isOp()); // 禁止非OP玩家破坏方块/接水或岩浆
         CommonListeners.cancelPlace(source, player -> !player.isOp()); // 禁止非OP玩家建造方块/接水或岩浆
+        CommonListeners.cancelBreak(source, EventFilters.cachedPlayer(
+                source, player -> !player.hasPermission("yc.build"), Duration.ofSeconds(30)
+        )); // 缓存权限判断结果，玩家退出或切换世界时失效
+
+        // 声明式规则，同一事件类的规则编译为一张决策表，仅注册一个处理器
+        RuleEngine.create()
+                .rule(Rule.allow(BlockBreakEvent.class, BlockPlaceEvent.class).permission("yc.build"))
+                .rule(Rule.cancel(BlockBreakEvent.class, BlockPlaceEvent.class).worlds("spawn"))
+                .rule(Rule.cancel(BlockBreakEvent.class).materials(Material.DIAMOND_ORE).op(false))
+                .register(source);
+
+        // 可热重载的处理器，重载时仅替换快照，不会重新注册处理器
+        ReloadableGroup<Set<String>> noPvpWorlds = source.reloadable(Collections.singleton("spawn"));
+        noPvpWorlds.cancel(EntityDamageByEntityEvent.class,
+                (worlds, e) -> worlds.contains(e.getEntity().getWorld().getName())
+        );
+        noPvpWorlds.reloadAsync(() -> new HashSet<>(Arrays.asList("spawn", "lobby")));
+
+        // 仅处理跨越方块或区块边界的移动，每次移动仅计算一次坐标，由全部订阅者共用
+        source.handleBlockMoves(move -> {
+            if (move.getToY() < 0) move.cancel(); // 禁止进入虚空
+        }).handleChunkMoves(move -> move.getPlayer().sendMessage(
+                "区块 " + move.getToChunkX() + ", " + move.getToChunkZ()
+        ));
+
+        // 将事件记录导出至其他线程，写入预先分配的无锁缓冲区，缓冲区写满时丢弃最早的记录
+        EventExporter<String> chatLog = source.handleEvent(AsyncPlayerChatEvent.class)
+                .export(e -> e.getPlayer().getName() + ": " + e.getMessage())
+                .capacity(4096).policy(ExportPolicy.DROP_OLDEST)
+                .publish();
+        chatLog.subscribe(line -> getLogger().info("[Chat] " + line)); // 在专属的消费线程中执行
+
+        // 按阶段暂停与恢复一组处理器，切换时不会注册或注销任何处理器，可在每刻切换
+        HandlerGroup round = source.group("round").register(l -> l
+                .cancel(PlayerDropItemEvent.class)
+                .handle(PlayerInteractEvent.class, e -> e.getPlayer().sendMessage("回合进行中"))
+        );
+        round.pause(); // 大厅阶段
+        round.resume(); // 回合开始
+
+        // 注册带有 @EasyHandler 注解的方法，方法被绑定为直接调用，同一类的元数据仅扫描一次
+        source.handleAnnotated(new ArenaListener());
+
+        // 将提示消息与音效延迟至刻末执行，同一玩家每刻至多收到一次相同的提示
+        source.cancel(PlayerDropItemEvent.class, null, e -> !e.getPlayer().hasPermission("yc.drop"), e -> source.defer()
+                .message(e.getPlayer(), "§c你不能丢弃物品。")
+                .sound(e.getPlayer(), Sound.BLOCK_NOTE_BLOCK_PLING, 1F, 0.5F)
+        );
+        CommonListeners.cancelPlace(source, player -> !player.isOp(), "§c你不能在此放置方块。");
 
         CommonListeners.cancelPVP(source, (attacker, victim) -> !attacker.isOp()); // 禁止非op玩家攻击别人
         CommonListeners.cancelWeatherChange(source); // 取消天气变化
@@ -67,5 +191,22 @@ public class DemoPlugin extends JavaPlugin {
 
     }
 
+    public static class ArenaListener {
+
+        @EasyHandler(filter = "inArena", throttle = 500)
+        public void onInteract(PlayerInteractEvent event) {
+            event.getPlayer().sendMessage("竞技场中的交互每 0.5 秒最多处理一次");
+        }
+
+        @EasyHandler(priority = EventPriority.HIGH, ignoreCancelled = true, filter = "inArena")
+        public void onDrop(PlayerDropItemEvent event) {
+            event.setCancelled(true);
+        }
+
+        public boolean inArena(PlayerEvent event) {
+            return event.getPlayer().getWorld().getName().equals("arena");
+        }
+
+    }
 
 }
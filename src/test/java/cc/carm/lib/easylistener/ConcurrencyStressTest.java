@@ -0,0 +1,253 @@
+package cc.carm.lib.easylistener;
+
+import cc.carm.lib.easylistener.handler.KeyedEventHandler;
+import cc.carm.lib.easylistener.handler.RegionEventHandler;
+import cc.carm.lib.easylistener.utils.KeyedCounter;
+import cc.carm.lib.easylistener.utils.Region;
+import cc.carm.lib.easylistener.utils.StripedMap;
+import cc.carm.lib.easylistener.utils.ThreadConfined;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 模拟区域多线程服务端的压力测试。
+ * <br> 多个线程通过 {@link TestServer#callEvent(Event)} 同时分发同一事件，另有一个线程在此期间不断注册与注销其他处理器，
+ * 最终检查常驻处理器的计数是否与分发的事件数量完全一致。
+ */
+public class ConcurrencyStressTest {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int EVENTS = 100_000;
+
+    private final List<EasyListener> listeners = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (EasyListener listener : this.listeners) {
+            HandlerList.unregisterAll(listener.getPlugin());
+        }
+    }
+
+    /**
+     * 分发期间不断以不同的优先级注册与注销处理器，以反复创建与移除合并执行器并重建 {@link HandlerList} 。
+     */
+    @Test
+    public void registration() throws Exception {
+        EasyListener listener = listener("Registration");
+        KeyedCounter<Integer> counter = new KeyedCounter<>();
+        listener.handle(TestEvent.class, e -> counter.increment(e.getValue()));
+
+        EventPriority[] priorities = EventPriority.values();
+        AtomicLong churned = new AtomicLong();
+        run(thread -> TestServer.callEvent(new TestEvent(thread)), () -> {
+            int round = (int) churned.getAndIncrement();
+            Subscription subscription = listener.subscribe(
+                    TestEvent.class, priorities[round % priorities.length], round % 2 == 0, null, null, e -> {
+                    }
+            );
+            subscription.unsubscribe();
+        });
+
+        verify(counter, EVENTS);
+    }
+
+    /**
+     * 并发模式下按线程计数的采样，每个线程的事件数均为采样间隔的整数倍，因此总数应精确。
+     */
+    @Test
+    public void sample() throws Exception {
+        EasyListener listener = listener("Sample").concurrent(true);
+        KeyedCounter<Integer> counter = new KeyedCounter<>();
+        listener.handleEvent(TestEvent.class).sample(8).handle(e -> counter.increment(e.getValue()));
+
+        run(thread -> TestServer.callEvent(new TestEvent(thread)), null);
+        verify(counter, EVENTS / 8);
+    }
+
+    /**
+     * 分发期间不断增删其他键的处理方法。
+     */
+    @Test
+    public void keyed() throws Exception {
+        EasyListener listener = listener("Keyed").concurrent(true);
+        KeyedCounter<Integer> counter = new KeyedCounter<>();
+        KeyedEventHandler<TestEvent, Integer> keyed = listener.handleEvent(TestEvent.class).keyedBy(TestEvent::getValue);
+        for (int thread = 0; thread < THREADS; thread++) keyed.on(thread, e -> counter.increment(e.getValue()));
+
+        AtomicLong churned = new AtomicLong();
+        run(thread -> TestServer.callEvent(new TestEvent(thread)), () -> {
+            int key = THREADS + (int) (churned.getAndIncrement() % 64);
+            keyed.subscribe(key, e -> {
+            }).unsubscribe();
+        });
+
+        try {
+            verify(counter, EVENTS);
+        } finally {
+            keyed.unsubscribe();
+        }
+    }
+
+    /**
+     * 分发期间不断在同一区块及其他区块中增删区域，以反复修改区域索引。
+     */
+    @Test
+    public void region() throws Exception {
+        EasyListener listener = listener("Region").concurrent(true);
+        World world = TestServer.world("world");
+        KeyedCounter<Integer> counter = new KeyedCounter<>();
+        RegionEventHandler<LocatedEvent> regions = listener.handleEvent(LocatedEvent.class).inRegion(LocatedEvent::getLocation);
+        regions.on(Region.of("world", 0, 0, 0, 7, 255, 7), e -> counter.increment(e.getThread()));
+
+        Location[] locations = new Location[THREADS];
+        for (int thread = 0; thread < THREADS; thread++) locations[thread] = new Location(world, thread % 8, 64, thread % 8);
+
+        List<Subscription> temporary = new ArrayList<>();
+        run(thread -> TestServer.callEvent(new LocatedEvent(thread, locations[thread])), () -> {
+            // 每轮在多个区块中新增区域后再全部移除，使区块索引反复扩容与收缩
+            for (int chunk = 0; chunk < 64; chunk++) {
+                int x = (chunk % 8) * 16, z = (chunk / 8) * 16;
+                temporary.add(regions.subscribe(Region.of("world", x, 0, z, x + 15, 255, z + 15), e -> {
+                }));
+            }
+            temporary.forEach(Subscription::unsubscribe);
+            temporary.clear();
+        });
+
+        try {
+            verify(counter, EVENTS);
+        } finally {
+            regions.unsubscribe();
+        }
+    }
+
+    /**
+     * 在处理方法中同时使用 {@link StripedMap} 、 {@link ThreadConfined} 与 {@link KeyedCounter} 。
+     */
+    @Test
+    public void helpers() throws Exception {
+        EasyListener listener = listener("Helpers").concurrent(true);
+        StripedMap<Integer, long[]> striped = new StripedMap<>();
+        ThreadConfined<long[]> confined = ThreadConfined.of(() -> new long[1]);
+        KeyedCounter<Integer> counter = new KeyedCounter<>();
+        listener.handle(TestEvent.class, e -> {
+            striped.update(e.getValue() % 4, k -> new long[1], value -> value[0]++);
+            confined.get()[0]++;
+            counter.increment(e.getValue());
+        });
+
+        run(thread -> TestServer.callEvent(new TestEvent(thread)), null);
+        verify(counter, EVENTS);
+
+        long expected = (long) THREADS * EVENTS;
+        long[] stripedSum = new long[1];
+        striped.forEach((key, value) -> stripedSum[0] += value[0]);
+        assertEquals("StripedMap total", expected, stripedSum[0]);
+        assertEquals("ThreadConfined total", expected, (long) confined.reduce(value -> value[0], Long::sum, 0L));
+    }
+
+    private @NotNull EasyListener listener(@NotNull String name) {
+        Plugin plugin = TestServer.plugin("ConcurrencyStressTest-" + name);
+        EasyListener listener = EasyListener.create(plugin);
+        this.listeners.add(listener);
+        return listener;
+    }
+
+    /**
+     * 启动多个分发线程与一个可选的干扰线程，并等待分发全部完成。
+     */
+    private static void run(@NotNull IntConsumer dispatch, Runnable churn) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            workers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int n = 0; n < EVENTS; n++) dispatch.accept(thread);
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }, "Dispatcher-" + i));
+        }
+
+        Thread churner = churn == null ? null : new Thread(() -> {
+            try {
+                start.await();
+                while (running.get()) churn.run();
+            } catch (Throwable ex) {
+                failure.compareAndSet(null, ex);
+            }
+        }, "Churner");
+
+        workers.forEach(Thread::start);
+        if (churner != null) churner.start();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        running.set(false);
+        if (churner != null) churner.join();
+
+        if (failure.get() != null) throw new IllegalStateException("Stress run failed", failure.get());
+    }
+
+    private static void verify(@NotNull KeyedCounter<Integer> counter, long expected) {
+        for (int thread = 0; thread < THREADS; thread++) {
+            assertEquals("Events handled for thread " + thread, expected, counter.get(thread));
+        }
+    }
+
+    /**
+     * 带有位置的事件，用于区域分发的测试。
+     */
+    public static class LocatedEvent extends Event {
+
+        private static final HandlerList HANDLERS = new HandlerList();
+
+        public static HandlerList getHandlerList() {
+            return HANDLERS;
+        }
+
+        protected final int thread;
+        protected final @NotNull Location location;
+
+        public LocatedEvent(int thread, @NotNull Location location) {
+            this.thread = thread;
+            this.location = location;
+        }
+
+        public int getThread() {
+            return thread;
+        }
+
+        public @NotNull Location getLocation() {
+            return location;
+        }
+
+        @Override
+        public @NotNull HandlerList getHandlers() {
+            return HANDLERS;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package cc.carm.lib.easylistener;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 测试所使用的事件，不依赖任何服务端对象。
+ */
+public class TestEvent extends Event implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    protected int value;
+    protected long hits;
+    protected boolean cancelled;
+
+    public TestEvent(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void hit() {
+        this.hits++;
+    }
+
+    public void reset() {
+        this.hits = 0;
+        this.cancelled = false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+}
@@ -0,0 +1,177 @@
+package cc.carm.lib.easylistener;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * 由测试手动推进的调度器，通过 {@link #install()} 设为 {@link Bukkit#getScheduler()} 。
+ * <br> 同步与异步任务均在调用 {@link #tick()} 的线程中执行。
+ */
+public final class TestScheduler {
+
+    private static TestScheduler installed;
+
+    /**
+     * 获取已安装的调度器，首次调用时将创建一个仅提供调度器的服务端实例。
+     *
+     * @return 调度器
+     */
+    public static synchronized @NotNull TestScheduler install() {
+        if (installed != null) return installed;
+        TestScheduler scheduler = new TestScheduler();
+        BukkitScheduler proxy = (BukkitScheduler) Proxy.newProxyInstance(
+                BukkitScheduler.class.getClassLoader(), new Class<?>[]{BukkitScheduler.class},
+                (instance, method, args) -> {
+                    switch (method.getName()) {
+                        case "runTask":
+                        case "runTaskAsynchronously":
+                            return scheduler.schedule((Plugin) args[0], (Runnable) args[1], 0L, -1L);
+                        case "runTaskLater":
+                            return scheduler.schedule((Plugin) args[0], (Runnable) args[1], (long) args[2], -1L);
+                        case "runTaskTimer":
+                            return scheduler.schedule((Plugin) args[0], (Runnable) args[1], (long) args[2], (long) args[3]);
+                        case "hashCode":
+                            return System.identityHashCode(instance);
+                        case "equals":
+                            return instance == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+        Logger logger = Logger.getLogger("TestServer");
+        Server server = (Server) Proxy.newProxyInstance(
+                Server.class.getClassLoader(), new Class<?>[]{Server.class},
+                (instance, method, args) -> {
+                    switch (method.getName()) {
+                        case "getScheduler":
+                            return proxy;
+                        case "getLogger":
+                            return logger;
+                        case "getName":
+                        case "getVersion":
+                        case "getBukkitVersion":
+                        case "toString":
+                            return "TestServer";
+                        case "isPrimaryThread":
+                            return true;
+                        case "hashCode":
+                            return System.identityHashCode(instance);
+                        case "equals":
+                            return instance == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+        Bukkit.setServer(server);
+        installed = scheduler;
+        return scheduler;
+    }
+
+    private final List<Task> tasks = new ArrayList<>();
+    private long currentTick = 0;
+
+    private TestScheduler() {
+    }
+
+    private synchronized @NotNull BukkitTask schedule(@NotNull Plugin plugin, @NotNull Runnable runnable,
+                                                      long delay, long period) {
+        Task task = new Task(runnable, this.currentTick + Math.max(0L, delay), period);
+        this.tasks.add(task);
+        return (BukkitTask) Proxy.newProxyInstance(
+                BukkitTask.class.getClassLoader(), new Class<?>[]{BukkitTask.class},
+                (instance, method, args) -> {
+                    switch (method.getName()) {
+                        case "cancel":
+                            cancel(task);
+                            return null;
+                        case "isCancelled":
+                            return task.cancelled;
+                        case "getTaskId":
+                            return System.identityHashCode(task);
+                        case "getOwner":
+                            return plugin;
+                        case "isSync":
+                            return true;
+                        case "hashCode":
+                            return System.identityHashCode(instance);
+                        case "equals":
+                            return instance == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+    }
+
+    private synchronized void cancel(@NotNull Task task) {
+        task.cancelled = true;
+        this.tasks.remove(task);
+    }
+
+    /**
+     * 推进一刻，执行全部到期的任务。
+     */
+    public void tick() {
+        List<Task> due = new ArrayList<>();
+        synchronized (this) {
+            this.currentTick++;
+            for (Task task : this.tasks) {
+                if (task.next <= this.currentTick) due.add(task);
+            }
+        }
+        for (Task task : due) {
+            synchronized (this) {
+                if (task.cancelled) continue;
+                if (task.period > 0) {
+                    task.next = this.currentTick + task.period;
+                } else {
+                    cancel(task);
+                }
+            }
+            task.runnable.run();
+        }
+    }
+
+    /**
+     * 推进多刻。
+     *
+     * @param ticks 刻数
+     */
+    public void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) tick();
+    }
+
+    /**
+     * @return 尚未取消的任务数量
+     */
+    public synchronized int size() {
+        return this.tasks.size();
+    }
+
+    private static final class Task {
+
+        private final @NotNull Runnable runnable;
+        private final long period;
+        private long next;
+        private boolean cancelled = false;
+
+        private Task(@NotNull Runnable runnable, long next, long period) {
+            this.runnable = runnable;
+            this.next = next;
+            this.period = period;
+        }
+
+    }
+
+}
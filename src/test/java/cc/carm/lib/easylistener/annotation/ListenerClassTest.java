@@ -0,0 +1,162 @@
+package cc.carm.lib.easylistener.annotation;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.SubscriptionGroup;
+import cc.carm.lib.easylistener.TestEvent;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ListenerClassTest {
+
+    private final Plugin plugin = TestServer.plugin("ListenerClassTest");
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void metadataIsCachedPerClass() {
+        ListenerClass type = ListenerClass.of(Filtered.class);
+        assertSame(type, ListenerClass.of(Filtered.class));
+        assertNotSame(type, ListenerClass.of(Overriding.class));
+    }
+
+    @Test
+    public void filtersAndPrimitiveThrottleKeys() {
+        Filtered filtered = new Filtered();
+        SubscriptionGroup group = EasyListener.create(plugin).subscribeAnnotated(filtered);
+
+        for (int value : new int[]{-1, 1, 2, 3, 4}) TestServer.callEvent(new TestEvent(value));
+        assertEquals("The second event of each parity should be throttled", Arrays.asList(1, 2), filtered.handled);
+
+        filtered.enabled = false;
+        TestServer.callEvent(new TestEvent(5));
+        assertEquals(Arrays.asList(1, 2), filtered.handled);
+
+        group.unsubscribe();
+        assertEquals(0, TestEvent.getHandlerList().getRegisteredListeners().length);
+    }
+
+    @Test
+    public void nonPublicAndStaticHandlersAreRegistered() {
+        Hidden hidden = new Hidden();
+        assertEquals(2, ListenerClass.of(Hidden.class).size());
+        EasyListener.create(plugin).handleAnnotated(hidden);
+
+        TestEvent event = new TestEvent(7);
+        TestServer.callEvent(event);
+        assertEquals(Arrays.asList(7), hidden.handled);
+        assertEquals(1, event.getHits());
+    }
+
+    @Test
+    public void overriddenHandlersRegisterOnce() {
+        assertEquals(1, ListenerClass.of(Overriding.class).size());
+        assertEquals("An override without the annotation replaces the handler",
+                0, ListenerClass.of(Unannotated.class).size());
+
+        Overriding overriding = new Overriding();
+        EasyListener.create(plugin).handleAnnotated(overriding);
+        TestServer.callEvent(new TestEvent(1));
+        assertEquals(Arrays.asList("overriding:1"), overriding.handled);
+    }
+
+    @Test
+    public void missingFilterIsRejected() {
+        try {
+            ListenerClass.of(MissingFilter.class);
+            fail("A missing filter method should be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("missing"));
+        }
+    }
+
+    public static class Filtered {
+
+        final List<Integer> handled = new ArrayList<>();
+        boolean enabled = true;
+
+        @EasyHandler(filter = {"enabled", "positive"}, throttle = 60_000, throttleKey = "parity")
+        public void onEvent(TestEvent event) {
+            handled.add(event.getValue());
+        }
+
+        public boolean enabled() {
+            return enabled;
+        }
+
+        public boolean positive(TestEvent event) {
+            return event.getValue() > 0;
+        }
+
+        public int parity(TestEvent event) {
+            return event.getValue() & 1;
+        }
+
+    }
+
+    static class Hidden {
+
+        final List<Integer> handled = new ArrayList<>();
+
+        @EasyHandler
+        private void onEvent(TestEvent event) {
+            handled.add(event.getValue());
+        }
+
+        @EasyHandler
+        static void onStatic(TestEvent event) {
+            event.hit();
+        }
+
+    }
+
+    public static class Base {
+
+        final List<String> handled = new ArrayList<>();
+
+        @EasyHandler
+        public void onEvent(TestEvent event) {
+            handled.add("base:" + event.getValue());
+        }
+
+    }
+
+    public static class Overriding extends Base {
+
+        @Override
+        @EasyHandler
+        public void onEvent(TestEvent event) {
+            handled.add("overriding:" + event.getValue());
+        }
+
+    }
+
+    public static class Unannotated extends Base {
+
+        @Override
+        public void onEvent(TestEvent event) {
+            handled.add("unannotated:" + event.getValue());
+        }
+
+    }
+
+    public static class MissingFilter {
+
+        @EasyHandler(filter = "missing")
+        public void onEvent(TestEvent event) {
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+package cc.carm.lib.easylistener.annotation;
+
+import cc.carm.lib.easylistener.TestEvent;
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MethodBinderTest {
+
+    @Test
+    public void publicMethodsUseMetafactory() throws Throwable {
+        Handlers handlers = new Handlers();
+        MethodBinder.Invoker invoker = MethodBinder.invoker(method("onPublic", TestEvent.class));
+        assertFalse("Public methods should not be called through a MethodHandle", usesHandle(invoker));
+
+        invoker.invoke(handlers, new TestEvent(1));
+        assertEquals(1, handlers.calls.size());
+        assertEquals("public:1", handlers.calls.get(0));
+    }
+
+    @Test
+    public void nonPublicMethodsFallBackToHandles() throws Throwable {
+        Handlers handlers = new Handlers();
+        MethodBinder.Invoker packaged = MethodBinder.invoker(method("onPackage", TestEvent.class));
+        MethodBinder.Invoker hidden = MethodBinder.invoker(method("onPrivate", TestEvent.class));
+        assertTrue(usesHandle(packaged));
+        assertTrue(usesHandle(hidden));
+
+        packaged.invoke(handlers, new TestEvent(2));
+        hidden.invoke(handlers, new TestEvent(3));
+        assertEquals("package:2", handlers.calls.get(0));
+        assertEquals("private:3", handlers.calls.get(1));
+    }
+
+    @Test
+    public void staticMethodsIgnoreTheListener() throws Throwable {
+        MethodBinder.Invoker invoker = MethodBinder.invoker(method("onStatic", TestEvent.class));
+        assertTrue(usesHandle(invoker));
+
+        TestEvent event = new TestEvent(4);
+        invoker.invoke(null, event);
+        assertEquals(1, event.getHits());
+    }
+
+    @Test
+    public void noArgumentFiltersIgnoreTheEvent() throws Throwable {
+        Handlers handlers = new Handlers();
+        MethodBinder.Condition enabled = MethodBinder.condition(method("enabled"));
+        MethodBinder.Condition positive = MethodBinder.condition(method("positive", TestEvent.class));
+        assertTrue(usesHandle(enabled));
+        assertFalse(usesHandle(positive));
+
+        assertTrue(enabled.test(handlers, new TestEvent(0)));
+        handlers.enabled = false;
+        assertFalse(enabled.test(handlers, new TestEvent(0)));
+        assertTrue(positive.test(handlers, new TestEvent(1)));
+        assertFalse(positive.test(handlers, new TestEvent(-1)));
+    }
+
+    @Test
+    public void primitiveKeysAreBoxed() throws Throwable {
+        MethodBinder.KeyFunction parity = MethodBinder.key(method("parity", TestEvent.class));
+        MethodBinder.KeyFunction name = MethodBinder.key(method("name", TestEvent.class));
+        assertTrue("Primitive keys cannot be returned through the metafactory", usesHandle(parity));
+        assertFalse(usesHandle(name));
+
+        assertEquals(1, parity.apply(new Handlers(), new TestEvent(3)));
+        assertEquals("event-3", name.apply(new Handlers(), new TestEvent(3)));
+    }
+
+    @Test
+    public void exceptionsAreNotWrapped() throws Throwable {
+        for (String name : new String[]{"failPublic", "failPrivate"}) {
+            MethodBinder.Invoker invoker = MethodBinder.invoker(method(name, TestEvent.class));
+            try {
+                invoker.invoke(new Handlers(), new TestEvent(0));
+                fail(name + " should throw");
+            } catch (IllegalStateException expected) {
+                assertEquals(name, expected.getMessage());
+            }
+        }
+    }
+
+    private static Method method(String name, Class<?>... params) throws NoSuchMethodException {
+        return Handlers.class.getDeclaredMethod(name, params);
+    }
+
+    /**
+     * 回退的实现会捕获 {@link MethodHandle} ，而 {@link java.lang.invoke.LambdaMetafactory} 生成的实现不捕获任何变量。
+     */
+    private static boolean usesHandle(Object function) {
+        for (Field field : function.getClass().getDeclaredFields()) {
+            if (field.getType() == MethodHandle.class) return true;
+        }
+        return false;
+    }
+
+    public static class Handlers {
+
+        final List<String> calls = new ArrayList<>();
+        boolean enabled = true;
+
+        public void onPublic(TestEvent event) {
+            calls.add("public:" + event.getValue());
+        }
+
+        void onPackage(TestEvent event) {
+            calls.add("package:" + event.getValue());
+        }
+
+        private void onPrivate(TestEvent event) {
+            calls.add("private:" + event.getValue());
+        }
+
+        public static void onStatic(TestEvent event) {
+            event.hit();
+        }
+
+        public boolean enabled() {
+            return enabled;
+        }
+
+        public boolean positive(TestEvent event) {
+            return event.getValue() > 0;
+        }
+
+        public int parity(TestEvent event) {
+            return event.getValue() & 1;
+        }
+
+        public String name(TestEvent event) {
+            return "event-" + event.getValue();
+        }
+
+        public void failPublic(TestEvent event) {
+            throw new IllegalStateException("failPublic");
+        }
+
+        private void failPrivate(TestEvent event) {
+            throw new IllegalStateException("failPrivate");
+        }
+
+    }
+
+}
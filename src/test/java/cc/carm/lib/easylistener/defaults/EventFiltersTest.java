@@ -0,0 +1,73 @@
+package cc.carm.lib.easylistener.defaults;
+
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class EventFiltersTest {
+
+    private final World world = TestServer.world("world");
+    private final World nether = TestServer.world("world_nether");
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void moveInSameBlockKeepsLegacyBehavior() {
+        Predicate<PlayerMoveEvent> filter = EventFilters.moveInSameBlock();
+        assertFalse(filter.test(move(world, 0.2, 0.8, world)));
+        assertTrue(filter.test(move(world, 0.2, 1.2, world)));
+        assertFalse(filter.test(move(world, 0.2, 1.2, nether)));
+    }
+
+    @Test
+    public void moveWithinBlock() {
+        Predicate<PlayerMoveEvent> filter = EventFilters.moveWithinBlock();
+        assertTrue(filter.test(move(world, 0.2, 0.8, world)));
+        assertFalse(filter.test(move(world, 0.2, 1.2, world)));
+        assertFalse(filter.test(move(world, 0.2, 0.8, nether)));
+    }
+
+    @Test
+    public void moveAcrossBlock() {
+        Predicate<PlayerMoveEvent> filter = EventFilters.moveAcrossBlock();
+        assertFalse(filter.test(move(world, 0.2, 0.8, world)));
+        assertTrue(filter.test(move(world, 0.2, 1.2, world)));
+        assertTrue(filter.test(move(world, 0.2, 0.8, nether)));
+    }
+
+    @Test
+    public void worldOfComparesEachWorldNameOnce() {
+        AtomicInteger names = new AtomicInteger();
+        World[] worlds = {counting("world", names), counting("world_nether", names), counting("world_the_end", names)};
+        Predicate<WorldLoadEvent> filter = EventFilters.worldOf("world_nether");
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i % 3 == 1, filter.test(new WorldLoadEvent(worlds[i % 3])));
+        }
+        assertEquals(3, names.get());
+    }
+
+    private static World counting(String name, AtomicInteger names) {
+        World world = TestServer.world(name);
+        return (World) Proxy.newProxyInstance(
+                World.class.getClassLoader(), new Class<?>[]{World.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getName")) names.incrementAndGet();
+                    return method.invoke(world, args);
+                }
+        );
+    }
+
+    private static PlayerMoveEvent move(World fromWorld, double fromX, double toX, World toWorld) {
+        return new PlayerMoveEvent(null, new Location(fromWorld, fromX, 64, 0), new Location(toWorld, toX, 64, 0));
+    }
+
+}
@@ -0,0 +1,69 @@
+package cc.carm.lib.easylistener.executor;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.TestEvent;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+
+public class EasyEventExecutorTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int EVENTS = 100_000;
+
+    private final Plugin plugin = TestServer.plugin("EasyEventExecutorTest");
+    private com.sun.management.ThreadMXBean threads;
+
+    @Before
+    public void setup() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("ThreadMXBean does not report allocations", bean instanceof com.sun.management.ThreadMXBean);
+        this.threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue("Thread allocation measurement is not supported", this.threads.isThreadAllocatedMemorySupported());
+        this.threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void dispatchAllocatesNothing() {
+        EasyListener listener = EasyListener.create(plugin);
+        listener.handleEvent(TestEvent.class)
+                .filter(e -> e.getValue() >= 0)
+                .filter(e -> !e.isCancelled())
+                .handle(TestEvent::hit);
+        listener.handle(TestEvent.class, TestEvent::hit);
+
+        TestEvent event = new TestEvent(1);
+        dispatch(event, WARMUP);
+
+        long threadId = Thread.currentThread().getId();
+        long overhead = -this.threads.getThreadAllocatedBytes(threadId) + this.threads.getThreadAllocatedBytes(threadId);
+
+        long before = this.threads.getThreadAllocatedBytes(threadId);
+        dispatch(event, EVENTS);
+        long after = this.threads.getThreadAllocatedBytes(threadId);
+
+        assertEquals(2L * EVENTS, event.getHits());
+        assertEquals("Bytes allocated per event", 0L, Math.max(0L, after - before - overhead) / EVENTS);
+    }
+
+    private static void dispatch(TestEvent event, int times) {
+        event.reset();
+        for (int i = 0; i < times; i++) {
+            TestServer.callEvent(event);
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.SubscriptionGroup;
+import cc.carm.lib.easylistener.TestEvent;
+import cc.carm.lib.easylistener.TestScheduler;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BatchEventHandlerTest {
+
+    private final Plugin plugin = TestServer.plugin("BatchEventHandlerTest");
+    private TestScheduler scheduler;
+    private int tasks;
+
+    @Before
+    public void setup() {
+        Assume.assumeFalse("Bukkit scheduler is unavailable on region threaded servers", EasyListener.REGION_THREADED);
+        this.scheduler = TestScheduler.install();
+        this.tasks = this.scheduler.size();
+    }
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void unsubscribeFlushesAndCancelsTimer() {
+        EasyListener listener = EasyListener.create(plugin);
+        List<Integer> records = new ArrayList<>();
+        Subscription subscription = listener.handleEvent(TestEvent.class)
+                .batch(TestEvent::getValue)
+                .subscribe(records::addAll);
+        assertEquals(tasks + 1, scheduler.size());
+
+        TestServer.callEvent(new TestEvent(1));
+        scheduler.tick();
+        assertEquals(1, records.size());
+
+        TestServer.callEvent(new TestEvent(2));
+        subscription.unsubscribe();
+        assertEquals("Remaining records should be flushed on unsubscribe", 2, records.size());
+        assertEquals(tasks, scheduler.size());
+        assertFalse(subscription.isActive());
+    }
+
+    @Test
+    public void collectScopeIncludesTimer() {
+        EasyListener listener = EasyListener.create(plugin);
+        long[] sum = new long[1];
+        SubscriptionGroup group = listener.collect(l -> l.handleEvent(TestEvent.class)
+                .batchLongs(TestEvent::getValue)
+                .handle((values, size) -> {
+                    for (int i = 0; i < size; i++) sum[0] += values[i];
+                }));
+        assertEquals(tasks + 1, scheduler.size());
+
+        TestServer.callEvent(new TestEvent(3));
+        TestServer.callEvent(new TestEvent(4));
+        group.unsubscribe();
+        assertEquals(7, sum[0]);
+        assertEquals(tasks, scheduler.size());
+    }
+
+    @Test
+    public void bufferGrowsBeforeFlushingEarly() {
+        EasyListener listener = EasyListener.create(plugin).concurrent(false);
+        List<Integer> sizes = new ArrayList<>();
+        listener.handleEvent(TestEvent.class).batch(TestEvent::getValue)
+                .capacity(2).maxCapacity(8)
+                .handle(list -> sizes.add(list.size()));
+
+        for (int i = 0; i < 8; i++) TestServer.callEvent(new TestEvent(i));
+        assertTrue("Records within the max capacity should wait for the tick", sizes.isEmpty());
+
+        for (int i = 0; i < 10; i++) TestServer.callEvent(new TestEvent(i));
+        assertEquals(Arrays.asList(8, 8), sizes);
+
+        scheduler.tick();
+        assertEquals(Arrays.asList(8, 8, 2), sizes);
+    }
+
+    @Test
+    public void concurrentBufferHandsOffFullBatches() throws InterruptedException {
+        EasyListener listener = EasyListener.create(plugin).concurrent(true);
+        List<Thread> threads = new ArrayList<>();
+        List<Integer> records = new ArrayList<>();
+        long[] sum = new long[1];
+        listener.handleEvent(TestEvent.class).batch(TestEvent::getValue)
+                .capacity(2).maxCapacity(4)
+                .handle(list -> {
+                    threads.add(Thread.currentThread());
+                    records.addAll(list);
+                });
+        listener.handleEvent(TestEvent.class).batchLongs(TestEvent::getValue)
+                .capacity(2).maxCapacity(4)
+                .handle((values, size) -> {
+                    threads.add(Thread.currentThread());
+                    for (int i = 0; i < size; i++) sum[0] += values[i];
+                });
+
+        Thread caller = new Thread(() -> {
+            for (int i = 1; i <= 10; i++) TestServer.callEvent(new TestEvent(i));
+        });
+        caller.start();
+        caller.join();
+        assertTrue("Full batches should not be handled on the calling thread", threads.isEmpty());
+
+        scheduler.tick();
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), records);
+        assertEquals(55, sum[0]);
+        for (Thread thread : threads) assertSame(Thread.currentThread(), thread);
+    }
+
+    @Test
+    public void timerStopsAfterUnregisterAll() {
+        EasyListener listener = EasyListener.create(plugin);
+        List<Integer> records = new ArrayList<>();
+        listener.handleEvent(TestEvent.class).batch(TestEvent::getValue).handle(records::addAll);
+        assertEquals(tasks + 1, scheduler.size());
+
+        TestServer.callEvent(new TestEvent(5));
+        listener.unregisterAll();
+        scheduler.tick();
+        assertEquals(1, records.size());
+        assertEquals(tasks, scheduler.size());
+    }
+
+}
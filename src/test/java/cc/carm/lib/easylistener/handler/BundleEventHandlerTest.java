@@ -0,0 +1,81 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.TestEvent;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BundleEventHandlerTest {
+
+    private final Plugin plugin = TestServer.plugin("BundleEventHandlerTest");
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void filteredEventsAreWrappedOnce() {
+        EasyListener listener = EasyListener.create(plugin).concurrent(false);
+        AtomicInteger wraps = new AtomicInteger();
+        List<Integer> handled = new ArrayList<>();
+        listener.handleBundle(Integer.class, TestEvent.class)
+                .from(TestEvent.class, event -> {
+                    wraps.incrementAndGet();
+                    return event.getValue();
+                })
+                .filter((Integer value) -> value % 2 == 0)
+                .handle((Integer value) -> handled.add(value));
+
+        for (int i = 0; i < 4; i++) TestServer.callEvent(new TestEvent(i));
+        assertEquals(Arrays.asList(0, 2), handled);
+        assertEquals(4, wraps.get());
+    }
+
+    @Test
+    public void cancelledEventsAreWrappedOnce() {
+        EasyListener listener = EasyListener.create(plugin).concurrent(false);
+        AtomicInteger wraps = new AtomicInteger();
+        List<Integer> cancelled = new ArrayList<>();
+        listener.handleBundle(Integer.class, TestEvent.class)
+                .from(TestEvent.class, event -> {
+                    wraps.incrementAndGet();
+                    return event.getValue();
+                })
+                .filter((Integer value) -> value > 1)
+                .cancel((Integer value) -> cancelled.add(value));
+
+        TestEvent kept = new TestEvent(1);
+        TestEvent dropped = new TestEvent(2);
+        TestServer.callEvent(kept);
+        TestServer.callEvent(dropped);
+        assertFalse(kept.isCancelled());
+        assertTrue(dropped.isCancelled());
+        assertEquals(Arrays.asList(2), cancelled);
+        assertEquals(2, wraps.get());
+    }
+
+    @Test
+    public void concurrentBundlesRewrapInsteadOfSharing() {
+        EasyListener listener = EasyListener.create(plugin).concurrent(true);
+        List<Integer> handled = new ArrayList<>();
+        listener.handleBundle(Integer.class, TestEvent.class)
+                .from(TestEvent.class, TestEvent::getValue)
+                .filter((Integer value) -> value > 0)
+                .handle((Integer value) -> handled.add(value));
+
+        for (int i = 0; i < 3; i++) TestServer.callEvent(new TestEvent(i));
+        assertEquals(Arrays.asList(1, 2), handled);
+    }
+
+}
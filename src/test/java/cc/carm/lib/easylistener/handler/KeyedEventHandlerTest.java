@@ -0,0 +1,114 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.HandlerGroup;
+import cc.carm.lib.easylistener.SubscriptionGroup;
+import cc.carm.lib.easylistener.TestEvent;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class KeyedEventHandlerTest {
+
+    private final Plugin plugin = TestServer.plugin("KeyedEventHandlerTest");
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void routingSurvivesTheFirstCallersGroup() {
+        EasyListener listener = EasyListener.create(plugin);
+        KeyedEventHandler<TestEvent, Integer> keyed = listener.handleEvent(TestEvent.class).keyedBy(TestEvent::getValue);
+
+        HandlerGroup group = listener.group("first").register(l -> keyed.on(1, TestEvent::hit));
+        keyed.on(2, TestEvent::hit);
+
+        group.pause();
+        assertEquals(0, call(1));
+        assertEquals("Pausing a group should not stop other keys", 1, call(2));
+
+        group.resume();
+        assertEquals(1, call(1));
+
+        group.unsubscribe();
+        assertEquals(0, call(1));
+        assertEquals("Unsubscribing a group should not stop other keys", 1, call(2));
+        assertTrue(keyed.isActive());
+    }
+
+    @Test
+    public void collectScopeRemovesKeys() {
+        EasyListener listener = EasyListener.create(plugin);
+        KeyedEventHandler<TestEvent, Integer> keyed = listener.handleEvent(TestEvent.class).keyedBy(TestEvent::getValue);
+
+        SubscriptionGroup collected = listener.collect(l -> keyed.on(1, TestEvent::hit).on(2, TestEvent::hit));
+        assertEquals(2, keyed.size());
+
+        collected.unsubscribe();
+        assertEquals(0, keyed.size());
+        assertFalse("The shared registration should be released once no key remains", keyed.isActive());
+        assertEquals(0, TestEvent.getHandlerList().getRegisteredListeners().length);
+    }
+
+    @Test
+    public void registrationIsRecreatedAfterUnregisterAll() {
+        EasyListener listener = EasyListener.create(plugin);
+        KeyedEventHandler<TestEvent, Integer> keyed = listener.handleEvent(TestEvent.class).keyedBy(TestEvent::getValue);
+        keyed.on(1, TestEvent::hit);
+
+        listener.unregisterAll();
+        assertFalse(keyed.isActive());
+
+        keyed.on(2, TestEvent::hit);
+        assertTrue(keyed.isActive());
+        assertEquals(1, call(1));
+        assertEquals(1, call(2));
+    }
+
+    @Test
+    public void bulkRegistrationCopiesIndexOnce() {
+        EasyListener listener = EasyListener.create(plugin);
+        KeyedEventHandler<TestEvent, Integer> keyed = listener.handleEvent(TestEvent.class).keyedBy(TestEvent::getValue);
+
+        Map<Integer, Consumer<TestEvent>> consumers = new HashMap<>();
+        for (int i = 0; i < 1000; i++) consumers.put(i, TestEvent::hit);
+        keyed.on(consumers);
+
+        assertEquals(1000, keyed.size());
+        assertEquals(1, call(999));
+        assertEquals(0, call(1000));
+    }
+
+    @Test
+    public void playerKeysUseSharedEvictions() {
+        EasyListener listener = EasyListener.create(plugin);
+        Player player = TestServer.player("Alex");
+        KeyedEventHandler<TestEvent, UUID> keyed = listener.handleEvent(TestEvent.class)
+                .keyedBy(event -> player.getUniqueId());
+        keyed.on(player.getUniqueId(), TestEvent::hit);
+        assertEquals(1, listener.evictions().size());
+
+        TestServer.callEvent(new PlayerQuitEvent(player, null));
+        assertEquals(0, keyed.size());
+    }
+
+    private static long call(int value) {
+        TestEvent event = new TestEvent(value);
+        TestServer.callEvent(event);
+        return event.getHits();
+    }
+
+}
@@ -0,0 +1,87 @@
+package cc.carm.lib.easylistener.handler;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.HandlerGroup;
+import cc.carm.lib.easylistener.SubscriptionGroup;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class MoveEventHandlerTest {
+
+    private final Plugin plugin = TestServer.plugin("MoveEventHandlerTest");
+    private final World world = TestServer.world("world");
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void collectScopeContainsSubscribers() {
+        EasyListener listener = EasyListener.create(plugin);
+        AtomicInteger moves = new AtomicInteger();
+        SubscriptionGroup group = listener.collect(l -> l.handleBlockMoves(move -> moves.incrementAndGet()));
+        assertEquals(1, group.getSubscriptions().size());
+
+        move(0, 32);
+        assertEquals(1, moves.get());
+
+        group.unsubscribe();
+        move(0, 32);
+        assertEquals(1, moves.get());
+    }
+
+    @Test
+    public void pausedGroupSkipsSubscribers() {
+        EasyListener listener = EasyListener.create(plugin);
+        AtomicInteger grouped = new AtomicInteger();
+        AtomicInteger other = new AtomicInteger();
+        HandlerGroup group = listener.group("moves").register(l -> l.handleBlockMoves(move -> grouped.incrementAndGet()));
+        listener.handleBlockMoves(move -> other.incrementAndGet());
+
+        group.pause();
+        move(0, 32);
+        assertEquals(0, grouped.get());
+        assertEquals(1, other.get());
+
+        group.resume();
+        move(0, 32);
+        assertEquals(1, grouped.get());
+
+        group.unsubscribe();
+        move(0, 32);
+        assertEquals(1, grouped.get());
+        assertEquals(3, other.get());
+    }
+
+    @Test
+    public void failingSubscriberDoesNotStopOthers() {
+        EasyListener listener = EasyListener.create(plugin);
+        AtomicInteger blocks = new AtomicInteger();
+        AtomicInteger chunks = new AtomicInteger();
+        listener.handleBlockMoves(move -> {
+            throw new IllegalStateException("Failing subscriber");
+        }).handleBlockMoves(move -> blocks.incrementAndGet()).handleChunkMoves(move -> chunks.incrementAndGet());
+
+        move(0, 32);
+        assertEquals(1, blocks.get());
+        assertEquals(1, chunks.get());
+    }
+
+    private void move(double fromX, double toX) {
+        TestServer.callEvent(new PlayerMoveEvent(
+                TestServer.player("Steve"), new Location(world, fromX, 64, 0), new Location(world, toX, 64, 0)
+        ));
+    }
+
+}
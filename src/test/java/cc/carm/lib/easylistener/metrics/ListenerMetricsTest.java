@@ -0,0 +1,62 @@
+package cc.carm.lib.easylistener.metrics;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.HandlerGroup;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.TestEvent;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ListenerMetricsTest {
+
+    private final Plugin plugin = TestServer.plugin("ListenerMetricsTest");
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void unsubscribeRemovesMetrics() {
+        EasyListener listener = EasyListener.create(plugin);
+        listener.metrics().enable();
+
+        Subscription kept = listener.handleEvent(TestEvent.class).name("kept").subscribe(TestEvent::hit);
+        for (int i = 0; i < 100; i++) {
+            listener.handleEvent(TestEvent.class).name("churn").subscribe(TestEvent::hit).unsubscribe();
+        }
+        assertEquals(1, listener.metrics().getHandlers().size());
+        assertEquals(1, listener.metrics().getHandlers("kept").size());
+
+        kept.unsubscribe();
+        assertTrue(listener.metrics().getHandlers().isEmpty());
+    }
+
+    @Test
+    public void groupedHandlersRemoveMetrics() {
+        EasyListener listener = EasyListener.create(plugin);
+        listener.metrics().enable();
+
+        HandlerGroup group = listener.group("grouped").register(l -> l.handleEvent(TestEvent.class).handle(TestEvent::hit));
+        assertEquals(1, listener.metrics().getHandlers(TestEvent.class).size());
+
+        group.unsubscribe();
+        assertTrue(listener.metrics().getHandlers().isEmpty());
+    }
+
+    @Test
+    public void unregisterAllClearsMetrics() {
+        EasyListener listener = EasyListener.create(plugin);
+        listener.metrics().enable();
+        listener.handleEvent(TestEvent.class).handle(TestEvent::hit);
+
+        listener.unregisterAll();
+        assertTrue(listener.metrics().getHandlers().isEmpty());
+    }
+
+}
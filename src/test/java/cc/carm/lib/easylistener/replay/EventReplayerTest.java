@@ -0,0 +1,94 @@
+package cc.carm.lib.easylistener.replay;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.TestEvent;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class EventReplayerTest {
+
+    private static final EventCodec<TestEvent> CODEC = new EventCodec<TestEvent>() {
+        @Override
+        public void encode(@NotNull TestEvent event, @NotNull DataOutput output) throws IOException {
+            output.writeInt(event.getValue());
+        }
+
+        @Override
+        public @NotNull TestEvent decode(@NotNull DataInput input) throws IOException {
+            return new TestEvent(input.readInt());
+        }
+    };
+
+    private final Plugin plugin = TestServer.plugin("EventReplayerTest");
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void failuresLoggedByHandlersAreCounted() throws IOException {
+        Path file = Files.createTempFile("easylistener", ".log");
+        try {
+            EasyListener listener = EasyListener.create(plugin);
+            try (EventRecorder recorder = EventRecorder.open(listener, file)) {
+                recorder.record(TestEvent.class, CODEC);
+                for (int i = 0; i < 10; i++) TestServer.callEvent(new TestEvent(i));
+            }
+
+            listener.handle(TestEvent.class, event -> {
+                if (event.getValue() % 2 == 1) throw new IllegalStateException("Odd value " + event.getValue());
+            });
+            ReplayReport report = new EventReplayer().codec(TestEvent.class, CODEC).replay(file);
+            assertEquals(10, report.getEvents());
+            assertEquals(5, report.getFailures());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void closeAfterWriterFailureReleasesHandlers() throws Exception {
+        Path file = Files.createTempFile("easylistener", ".log");
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            channel.close(); // 写入时将抛出 ClosedChannelException
+
+            EventRecorder recorder = new EventRecorder(EasyListener.create(plugin), channel, 4);
+            recorder.writer.start();
+            recorder.record(TestEvent.class, CODEC);
+            TestServer.callEvent(new TestEvent(1));
+            synchronized (recorder) {
+                recorder.handoff();
+            }
+            for (int i = 0; i < 100 && recorder.getFailure() == null; i++) Thread.sleep(10);
+            assertNotNull(recorder.getFailure());
+
+            try {
+                recorder.close();
+                fail("close() should rethrow the writer failure");
+            } catch (IOException expected) {
+                assertSame(recorder.getFailure(), expected.getCause());
+            }
+            assertEquals(0, TestEvent.getHandlerList().getRegisteredListeners().length);
+            assertFalse(recorder.writer.isAlive());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+}
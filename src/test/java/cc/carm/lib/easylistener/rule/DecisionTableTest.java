@@ -0,0 +1,116 @@
+package cc.carm.lib.easylistener.rule;
+
+import cc.carm.lib.easylistener.TestEvent;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DecisionTableTest {
+
+    @Test
+    public void rulesBeyondOneWordAreMatched() {
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Rule rule = i % 2 == 0 ? Rule.cancel(TestEvent.class) : Rule.allow(TestEvent.class);
+            rules.add(rule.worlds("w" + i));
+        }
+        rules.add(Rule.cancel(TestEvent.class));
+
+        Map<Integer, World> worlds = new HashMap<>();
+        DecisionTable<TestEvent> table = new DecisionTable<>(RuleSubject.of(
+                null, e -> worlds.computeIfAbsent(e.getValue(), v -> TestServer.world("w" + v)), null, null
+        ), rules);
+        assertEquals(101, table.size());
+
+        assertEquals(RuleAction.CANCEL, table.evaluate(new TestEvent(0)));
+        assertEquals(RuleAction.ALLOW, table.evaluate(new TestEvent(63)));
+        assertEquals(RuleAction.CANCEL, table.evaluate(new TestEvent(64)));
+        assertEquals(RuleAction.ALLOW, table.evaluate(new TestEvent(99)));
+        assertEquals("Unlisted worlds should fall through to the last rule",
+                RuleAction.CANCEL, table.evaluate(new TestEvent(150)));
+    }
+
+    @Test
+    public void firstMatchingRuleWins() {
+        Player builder = player("Builder", "spawn.build");
+        Player visitor = player("Visitor");
+        World spawn = TestServer.world("spawn");
+        World wild = TestServer.world("wild");
+
+        List<Rule> rules = Arrays.asList(
+                Rule.allow(TestEvent.class).permission("spawn.build"),
+                Rule.cancel(TestEvent.class).worlds("spawn")
+        );
+        // 事件值为 0/1 区分玩家，为 0/2 区分世界
+        DecisionTable<TestEvent> table = new DecisionTable<>(RuleSubject.of(
+                e -> (e.getValue() & 1) == 0 ? builder : visitor,
+                e -> (e.getValue() & 2) == 0 ? spawn : wild, null, null
+        ), rules);
+
+        assertEquals(RuleAction.ALLOW, table.evaluate(new TestEvent(0)));
+        assertEquals(RuleAction.CANCEL, table.evaluate(new TestEvent(1)));
+        assertEquals(RuleAction.ALLOW, table.evaluate(new TestEvent(2)));
+        assertNull(table.evaluate(new TestEvent(3)));
+    }
+
+    @Test
+    public void permissionsAreMemoizedUpToTheLimit() {
+        int distinct = DecisionTable.MEMOIZED_PERMISSIONS + 6;
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < distinct; i++) rules.add(Rule.allow(TestEvent.class).permission("p" + i));
+        for (int i = 0; i < distinct; i++) rules.add(Rule.allow(TestEvent.class).permission("p" + i).op(false));
+        rules.add(Rule.cancel(TestEvent.class));
+
+        AtomicInteger checks = new AtomicInteger();
+        Player stranger = player("Stranger", checks);
+        DecisionTable<TestEvent> table = new DecisionTable<>(RuleSubject.of(e -> stranger, null, null, null), rules);
+
+        assertEquals(RuleAction.CANCEL, table.evaluate(new TestEvent(0)));
+        assertEquals("Only permissions beyond the memoized ones should be checked twice",
+                distinct + (distinct - DecisionTable.MEMOIZED_PERMISSIONS), checks.get());
+
+        checks.set(0);
+        Player granted = player("Granted", checks, "p" + (distinct - 1));
+        table = new DecisionTable<>(RuleSubject.of(e -> granted, null, null, null), rules);
+        assertEquals(RuleAction.ALLOW, table.evaluate(new TestEvent(0)));
+        assertEquals(distinct, checks.get());
+    }
+
+    private static Player player(String name, String... permissions) {
+        return player(name, new AtomicInteger(), permissions);
+    }
+
+    private static Player player(String name, @NotNull AtomicInteger checks, String... permissions) {
+        Set<String> granted = new HashSet<>(Arrays.asList(permissions));
+        return (Player) Proxy.newProxyInstance(
+                Player.class.getClassLoader(), new Class<?>[]{Player.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getName":
+                        case "toString":
+                            return name;
+                        case "hasPermission":
+                            checks.incrementAndGet();
+                            return granted.contains(String.valueOf(args[0]));
+                        case "isOp":
+                            return false;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }
+        );
+    }
+
+}
@@ -0,0 +1,114 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.TestEvent;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BudgetGuardTest {
+
+    private final Plugin plugin = TestServer.plugin("BudgetGuardTest");
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void samplerStopsWithLastGuard() {
+        EasyListener listener = EasyListener.create(plugin);
+        Subscription subscription = listener.handleEvent(TestEvent.class)
+                .budget(HandlerBudget.perInvocation(Duration.ofSeconds(1)))
+                .subscribe(TestEvent::hit);
+        assertTrue(BudgetGuard.Sampler.isRunning());
+
+        subscription.unsubscribe();
+        assertFalse(subscription.isActive());
+        assertFalse("Sampler thread should stop once no guard is watched", BudgetGuard.Sampler.isRunning());
+    }
+
+    @Test
+    public void samplerPeriodFollowsSmallestBudget() {
+        BudgetGuard<Integer> slow = guard(Duration.ofSeconds(1));
+        assertEquals(Duration.ofMillis(500).toNanos(), BudgetGuard.Sampler.getPeriodNanos());
+
+        BudgetGuard<Integer> fast = guard(Duration.ofMillis(40));
+        assertEquals(Duration.ofMillis(20).toNanos(), BudgetGuard.Sampler.getPeriodNanos());
+
+        BudgetGuard<Integer> tight = guard(Duration.ofMillis(1));
+        assertEquals("The period should not drop below its floor",
+                BudgetGuard.MIN_SAMPLER_PERIOD_NANOS, BudgetGuard.Sampler.getPeriodNanos());
+
+        tight.unsubscribe();
+        assertEquals(Duration.ofMillis(20).toNanos(), BudgetGuard.Sampler.getPeriodNanos());
+        fast.unsubscribe();
+        slow.unsubscribe();
+        assertEquals(0L, BudgetGuard.Sampler.getPeriodNanos());
+    }
+
+    @Test
+    public void tickBudgetTrips() {
+        AtomicInteger calls = new AtomicInteger();
+        BudgetGuard<Integer> guard = new BudgetGuard<>(
+                plugin, "tick", HandlerBudget.perTick(Duration.ofNanos(1)).tripAfter(1), value -> calls.incrementAndGet()
+        );
+        assertFalse(guard.isActive());
+
+        guard.accept(1);
+        assertTrue(guard.isTripped());
+        guard.accept(2);
+        assertEquals(1, calls.get());
+
+        guard.reset();
+        assertFalse(guard.isTripped());
+    }
+
+    @Test
+    public void cancelCallbackIsBudgeted() {
+        EasyListener listener = EasyListener.create(plugin);
+        AtomicInteger callbacks = new AtomicInteger();
+        listener.handleEvent(TestEvent.class)
+                .budget(HandlerBudget.perTick(Duration.ofNanos(1)).tripAfter(1))
+                .cancel(event -> callbacks.incrementAndGet());
+
+        for (int i = 0; i < 3; i++) {
+            TestEvent event = new TestEvent(i);
+            TestServer.callEvent(event);
+            assertTrue("Events should still be cancelled while the callback is tripped", event.isCancelled());
+        }
+        assertEquals(1, callbacks.get());
+    }
+
+    @Test
+    public void bundleIsBudgeted() {
+        EasyListener listener = EasyListener.create(plugin);
+        AtomicInteger calls = new AtomicInteger();
+        Subscription subscription = listener.handleBundle(Integer.class)
+                .from(TestEvent.class, TestEvent::getValue)
+                .filter((Integer value) -> value > 0)
+                .budget(HandlerBudget.perTick(Duration.ofNanos(1)).tripAfter(1))
+                .subscribe((value, event) -> calls.incrementAndGet());
+
+        TestServer.callEvent(new TestEvent(0));
+        assertEquals(0, calls.get());
+        for (int i = 1; i <= 3; i++) TestServer.callEvent(new TestEvent(i));
+        assertEquals(1, calls.get());
+        subscription.unsubscribe();
+    }
+
+    private BudgetGuard<Integer> guard(Duration invocation) {
+        return new BudgetGuard<>(plugin, "guard", HandlerBudget.perInvocation(invocation), value -> {
+            //Do nothing
+        });
+    }
+
+}
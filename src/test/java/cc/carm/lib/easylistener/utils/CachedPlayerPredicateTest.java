@@ -0,0 +1,62 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+public class CachedPlayerPredicateTest {
+
+    private final Plugin plugin = TestServer.plugin("CachedPlayerPredicateTest");
+    private final Player player = TestServer.player("Alex");
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void quitAndWorldChangeInvalidate() {
+        EasyListener source = EasyListener.create(plugin);
+        CachedPlayerPredicate<Player> first = CachedPlayerPredicate.ofPlayer(source, p -> true, Duration.ofMinutes(1));
+        CachedPlayerPredicate<Player> second = CachedPlayerPredicate.ofPlayer(source, p -> false, Duration.ofMinutes(1));
+        assertEquals(1, PlayerQuitEvent.getHandlerList().getRegisteredListeners().length);
+        assertEquals(1, PlayerChangedWorldEvent.getHandlerList().getRegisteredListeners().length);
+
+        assertTrue(first.test(player));
+        assertFalse(second.test(player));
+        TestServer.callEvent(new PlayerChangedWorldEvent(player, null));
+        assertEquals(0, first.size());
+        assertEquals(0, second.size());
+
+        assertTrue(first.test(player));
+        TestServer.callEvent(new PlayerQuitEvent(player, null));
+        assertEquals(0, first.size());
+    }
+
+    @Test
+    public void collectedPredicateReleasesListeners() {
+        EasyListener source = EasyListener.create(plugin);
+        WeakReference<CachedPlayerPredicate<Player>> reference = new WeakReference<>(
+                CachedPlayerPredicate.ofPlayer(source, p -> true, Duration.ofMinutes(1))
+        );
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) System.gc();
+        assertNull("CachedPlayerPredicate should not be retained by its listeners", reference.get());
+
+        source.evictions().prune();
+        assertEquals(0, PlayerQuitEvent.getHandlerList().getRegisteredListeners().length);
+        assertEquals(0, PlayerChangedWorldEvent.getHandlerList().getRegisteredListeners().length);
+    }
+
+}
@@ -0,0 +1,119 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.TestScheduler;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DeferredEffectsTest {
+
+    private final Plugin plugin = TestServer.plugin("DeferredEffectsTest");
+    private TestScheduler scheduler;
+    private int tasks;
+
+    @Before
+    public void setup() {
+        Assume.assumeFalse("Bukkit scheduler is unavailable on region threaded servers", EasyListener.REGION_THREADED);
+        this.scheduler = TestScheduler.install();
+        this.tasks = this.scheduler.size();
+    }
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void sameEffectIsCoalescedWithinATick() {
+        EasyListener listener = EasyListener.create(plugin);
+        List<String> effects = new ArrayList<>();
+        listener.defer()
+                .run("Steve", "title", () -> effects.add("Steve:first"))
+                .run("Alex", "title", () -> effects.add("Alex:title"))
+                .run("Steve", "title", () -> effects.add("Steve:second"))
+                .run("Steve", "sound", () -> effects.add("Steve:sound"));
+
+        scheduler.tick();
+        assertEquals(Arrays.asList("Steve:second", "Alex:title", "Steve:sound"), effects);
+        assertEquals(4, listener.defer().getDeferred());
+        assertEquals(1, listener.defer().getCoalesced());
+        assertEquals(3, listener.defer().getExecuted());
+
+        listener.defer().run("Steve", "title", () -> effects.add("Steve:third"));
+        scheduler.tick();
+        assertEquals("Effects should only be coalesced within the same tick", 4, effects.size());
+    }
+
+    @Test
+    public void effectsBeyondTheCapRunOnLaterTicks() {
+        EasyListener listener = EasyListener.create(plugin);
+        List<Integer> effects = new ArrayList<>();
+        DeferredEffects deferred = listener.defer().maxPerTick(2);
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            deferred.run(() -> effects.add(value));
+        }
+
+        scheduler.tick();
+        assertEquals(Arrays.asList(0, 1), effects);
+        assertEquals(3, deferred.size());
+
+        scheduler.tick();
+        assertEquals(Arrays.asList(0, 1, 2, 3), effects);
+
+        scheduler.tick();
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), effects);
+        assertEquals(0, deferred.size());
+    }
+
+    @Test
+    public void quitEvictsThroughSharedEvictions() {
+        EasyListener listener = EasyListener.create(plugin);
+        Player player = TestServer.player("Steve");
+        List<String> effects = new ArrayList<>();
+        listener.defer()
+                .run(player, "a", () -> effects.add("instance"))
+                .run(player.getUniqueId(), "b", () -> effects.add("uuid"))
+                .run(null, "c", () -> effects.add("global"));
+        assertEquals(1, listener.evictions().size());
+
+        TestServer.callEvent(new PlayerQuitEvent(player, null));
+        scheduler.tick();
+        assertEquals(Arrays.asList("global"), effects);
+    }
+
+    @Test
+    public void unregisterAllCancelsTimer() {
+        EasyListener listener = EasyListener.create(plugin);
+        List<String> effects = new ArrayList<>();
+        DeferredEffects deferred = listener.defer();
+        assertEquals(tasks + 1, scheduler.size());
+
+        deferred.run(() -> effects.add("discarded"));
+        listener.unregisterAll();
+        assertFalse(deferred.isActive());
+        assertEquals(tasks, scheduler.size());
+        scheduler.tick();
+        assertTrue(effects.isEmpty());
+
+        DeferredEffects recreated = listener.defer();
+        assertNotSame(deferred, recreated);
+        recreated.run(() -> effects.add("recreated"));
+        scheduler.tick();
+        assertEquals(Arrays.asList("recreated"), effects);
+    }
+
+}
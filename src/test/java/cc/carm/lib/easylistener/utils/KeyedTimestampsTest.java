@@ -0,0 +1,76 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class KeyedTimestampsTest {
+
+    private final Plugin plugin = TestServer.plugin("KeyedTimestampsTest");
+    private final Player player = TestServer.player("Steve");
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll(plugin);
+    }
+
+    @Test
+    public void quitEvictsEveryLiveInstance() {
+        EasyListener source = EasyListener.create(plugin);
+        List<KeyedTimestamps> stores = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            KeyedTimestamps timestamps = KeyedTimestamps.create(source, Duration.ofMinutes(1));
+            assertTrue(timestamps.throttle(player.getUniqueId()));
+            stores.add(timestamps);
+        }
+        assertEquals(10, source.evictions().size());
+        assertEquals(1, registrations());
+
+        TestServer.callEvent(new PlayerQuitEvent(player, null));
+        for (KeyedTimestamps timestamps : stores) assertEquals(0, timestamps.size());
+    }
+
+    @Test
+    public void collectedInstancesReleaseSharedListener() {
+        EasyListener source = EasyListener.create(plugin);
+        WeakReference<KeyedTimestamps> reference = new WeakReference<>(KeyedTimestamps.create(source, Duration.ofMinutes(1)));
+        assertEquals(1, registrations());
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) System.gc();
+        assertNull("KeyedTimestamps should not be retained by its quit listener", reference.get());
+
+        TestServer.callEvent(new PlayerQuitEvent(player, null));
+        assertEquals(0, source.evictions().size());
+        assertEquals(0, registrations());
+    }
+
+    @Test
+    public void unregisterAllDeactivatesEvictors() {
+        EasyListener source = EasyListener.create(plugin);
+        KeyedTimestamps timestamps = KeyedTimestamps.create(source, Duration.ofMinutes(1));
+        Subscription eviction = source.evictions().onQuit(timestamps, KeyedTimestamps::evict);
+        assertTrue(eviction.isActive());
+
+        source.unregisterAll();
+        assertFalse(eviction.isActive());
+        assertEquals(0, registrations());
+    }
+
+    private static int registrations() {
+        return PlayerQuitEvent.getHandlerList().getRegisteredListeners().length;
+    }
+
+}
@@ -0,0 +1,44 @@
+package cc.carm.lib.easylistener.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RegionIndexTest {
+
+    @Test
+    public void removeSmallAndLargeRegions() {
+        RegionIndex<String> index = new RegionIndex<>();
+        Region small = Region.of("world", 0, 0, 0, 31, 255, 31);
+        Region large = Region.of("world", -1000, 0, -1000, 1000, 255, 1000);
+        index.add(small, "small");
+        index.add(large, "large");
+        assertEquals(2, index.size());
+
+        assertFalse(index.remove(small, "large"));
+        assertFalse(index.remove(large, "small"));
+        assertEquals(2, index.size());
+
+        assertTrue(index.remove(small, "small"));
+        assertFalse(index.remove(small, "small"));
+        assertTrue(index.contains("world", 8, 64, 8));
+
+        assertTrue(index.remove(large, "large"));
+        assertFalse(index.contains("world", 8, 64, 8));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void missingLargeRegionDoesNotScanChunks() {
+        RegionIndex<String> index = new RegionIndex<>();
+        // 覆盖约 40 亿个区块，若未命中后逐个区块查找则无法在测试时间内完成
+        Region huge = Region.of("world", -1_000_000_000, 0, -1_000_000_000, 1_000_000_000, 255, 1_000_000_000);
+        index.add(Region.of("world", 0, 0, 0, 15, 255, 15), "small");
+
+        long start = System.nanoTime();
+        assertFalse(index.remove(huge, "small"));
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertEquals(1, index.size());
+    }
+
+}
@@ -0,0 +1,61 @@
+package cc.carm.lib.easylistener.utils;
+
+import cc.carm.lib.easylistener.EasyListener;
+import cc.carm.lib.easylistener.Subscription;
+import cc.carm.lib.easylistener.TestScheduler;
+import cc.carm.lib.easylistener.TestServer;
+import org.bukkit.plugin.Plugin;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TickSchedulerTest {
+
+    private final Plugin plugin = TestServer.plugin("TickSchedulerTest");
+    private TestScheduler scheduler;
+
+    @Before
+    public void setup() {
+        Assume.assumeFalse("Bukkit scheduler is unavailable on region threaded servers", EasyListener.REGION_THREADED);
+        this.scheduler = TestScheduler.install();
+    }
+
+    @Test
+    public void timerRunsUntilUnsubscribed() {
+        AtomicInteger runs = new AtomicInteger();
+        Subscription timer = TickScheduler.runTimer(this.plugin, runs::incrementAndGet, 1L, 2L);
+        assertTrue(timer.isActive());
+
+        this.scheduler.tick(5);
+        assertEquals(3, runs.get());
+
+        timer.unsubscribe();
+        assertFalse(timer.isActive());
+        this.scheduler.tick(5);
+        assertEquals(3, runs.get());
+
+        timer.unsubscribe();
+        assertFalse(timer.isActive());
+    }
+
+    @Test
+    public void syncAndAsyncTasksRunOnce() {
+        AtomicInteger runs = new AtomicInteger();
+        TickScheduler.runSync(this.plugin, runs::incrementAndGet);
+        TickScheduler.runAsync(this.plugin, runs::incrementAndGet);
+
+        this.scheduler.tick(3);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    public void periodMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> TickScheduler.runTimer(this.plugin, () -> {
+        }, 1L, 0L));
+    }
+
+}